@@ -12,6 +12,7 @@ public class AIConfig {
     private boolean enabled = true;
     private boolean cacheEnabled = true;
     private int cacheTtl = 3600;
+    private int cacheMaxSize = 1000;
     private String service = "gemini";
     
     // OpenAI Configuration
@@ -0,0 +1,239 @@
+package com.crimeprevention.crime_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async Configuration
+ * Executors for work that must not run on request or STOMP inbound channel threads.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${app.officers.backup.routing.pool-size:4}")
+    private int backupRoutingPoolSize;
+
+    @Value("${app.officers.backup.routing.queue-capacity:1000}")
+    private int backupRoutingQueueCapacity;
+
+    @Value("${app.geofences.matching.pool-size:2}")
+    private int geofenceMatchingPoolSize;
+
+    @Value("${app.geofences.matching.queue-capacity:1000}")
+    private int geofenceMatchingQueueCapacity;
+
+    @Value("${app.ai.jobs.pool-size:4}")
+    private int aiJobPoolSize;
+
+    @Value("${app.notifications.fanout.pool-size:2}")
+    private int notificationFanOutPoolSize;
+
+    @Value("${app.notifications.fanout.queue-capacity:100}")
+    private int notificationFanOutQueueCapacity;
+
+    @Value("${app.notifications.push.pool-size:2}")
+    private int notificationPushPoolSize;
+
+    @Value("${app.notifications.push.queue-capacity:1000}")
+    private int notificationPushQueueCapacity;
+
+    @Value("${app.news.broadcast.in-app.pool-size:1}")
+    private int broadcastInAppPoolSize;
+
+    @Value("${app.news.broadcast.in-app.batch-size:1000}")
+    private int broadcastInAppBatchSize;
+
+    @Value("${app.news.broadcast.email.pool-size:4}")
+    private int broadcastEmailPoolSize;
+
+    @Value("${app.news.broadcast.email.batch-size:100}")
+    private int broadcastEmailBatchSize;
+
+    @Value("${app.news.broadcast.sms.pool-size:2}")
+    private int broadcastSmsPoolSize;
+
+    @Value("${app.news.broadcast.sms.batch-size:200}")
+    private int broadcastSmsBatchSize;
+
+    @Value("${app.email.outbox.pool-size:2}")
+    private int emailOutboxPoolSize;
+
+    @Value("${app.ai.router.openai-max-concurrent:4}")
+    private int openaiMaxConcurrent;
+
+    @Value("${app.ai.router.gemini-max-concurrent:4}")
+    private int geminiMaxConcurrent;
+
+    @Bean(name = "backupRoutingExecutor")
+    public ThreadPoolTaskExecutor backupRoutingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(backupRoutingPoolSize);
+        executor.setMaxPoolSize(backupRoutingPoolSize);
+        executor.setQueueCapacity(backupRoutingQueueCapacity);
+        executor.setThreadNamePrefix("backup-routing-");
+        // A backup request is never dropped; a full queue slows the caller down instead
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "geofenceMatchingExecutor")
+    public ThreadPoolTaskExecutor geofenceMatchingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(geofenceMatchingPoolSize);
+        executor.setMaxPoolSize(geofenceMatchingPoolSize);
+        executor.setQueueCapacity(geofenceMatchingQueueCapacity);
+        executor.setThreadNamePrefix("geofence-matching-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "notificationFanOutExecutor")
+    public ThreadPoolTaskExecutor notificationFanOutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationFanOutPoolSize);
+        executor.setMaxPoolSize(notificationFanOutPoolSize);
+        executor.setQueueCapacity(notificationFanOutQueueCapacity);
+        executor.setThreadNamePrefix("notification-fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "notificationPushExecutor")
+    public ThreadPoolTaskExecutor notificationPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationPushPoolSize);
+        executor.setMaxPoolSize(notificationPushPoolSize);
+        executor.setQueueCapacity(notificationPushQueueCapacity);
+        executor.setThreadNamePrefix("notification-push-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Email outbox workers. EmailOutbox never starts more than pool-size of them, and undelivered
+     * rows stay in the outbox, so there is no queue and shutdown does not wait.
+     */
+    @Bean(name = "emailOutboxExecutor")
+    public ThreadPoolTaskExecutor emailOutboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailOutboxPoolSize);
+        executor.setMaxPoolSize(emailOutboxPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Walks the recipients of news broadcasts, one task per channel of a job, so the channels of
+     * one broadcast progress independently and further broadcasts wait their turn. Broadcast
+     * progress is persisted, so shutdown does not wait; jobs resume on the next start.
+     */
+    @Bean(name = "newsBroadcastExecutor")
+    public ThreadPoolTaskExecutor newsBroadcastExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(3);
+        executor.setMaxPoolSize(3);
+        executor.setThreadNamePrefix("news-broadcast-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "newsBroadcastInAppExecutor")
+    public ThreadPoolTaskExecutor newsBroadcastInAppExecutor() {
+        return broadcastChannelExecutor("news-in-app-", broadcastInAppPoolSize, broadcastInAppBatchSize);
+    }
+
+    @Bean(name = "newsBroadcastEmailExecutor")
+    public ThreadPoolTaskExecutor newsBroadcastEmailExecutor() {
+        return broadcastChannelExecutor("news-email-", broadcastEmailPoolSize, broadcastEmailBatchSize);
+    }
+
+    @Bean(name = "newsBroadcastSmsExecutor")
+    public ThreadPoolTaskExecutor newsBroadcastSmsExecutor() {
+        return broadcastChannelExecutor("news-sms-", broadcastSmsPoolSize, broadcastSmsBatchSize);
+    }
+
+    /**
+     * Runs summarisation jobs in priority order. Only accepts SummaryJobQueue jobs, which are
+     * Comparable; the queue is unbounded here because SummaryJobQueue enforces its capacity.
+     */
+    @Bean(name = "aiJobExecutor")
+    public ThreadPoolTaskExecutor aiJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new PriorityBlockingQueue<>();
+            }
+        };
+        executor.setCorePoolSize(aiJobPoolSize);
+        executor.setMaxPoolSize(aiJobPoolSize);
+        executor.setThreadNamePrefix("ai-jobs-");
+        // Jobs only live in memory and an LLM call can take a minute, so shutdown does not wait
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * One thread for batch summarisation runs, which ReportBatchSummarizer starts one at a time
+     */
+    @Bean(name = "aiBatchExecutor")
+    public ThreadPoolTaskExecutor aiBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("ai-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs hedged AI provider calls. Every task holds one of AiProviderRouter's per-provider
+     * slots, so the pool is sized to the slots (plus a little slack) and has no queue.
+     */
+    @Bean(name = "aiRouterExecutor")
+    public ThreadPoolTaskExecutor aiRouterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(openaiMaxConcurrent + geminiMaxConcurrent);
+        executor.setMaxPoolSize(openaiMaxConcurrent + geminiMaxConcurrent + 2);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-router-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // A channel's queue holds one page; beyond that the broadcast thread delivers itself
+    private static ThreadPoolTaskExecutor broadcastChannelExecutor(String threadNamePrefix, int poolSize, int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
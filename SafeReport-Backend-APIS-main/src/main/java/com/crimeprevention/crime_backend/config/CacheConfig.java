@@ -0,0 +1,59 @@
+package com.crimeprevention.crime_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache Configuration
+ * Every named cache is a bounded Caffeine cache with its own TTL, recording statistics so the
+ * actuator cache metrics (cache.gets, cache.evictions, ...) are published per cache.
+ * Names without a policy, or whose policy is disabled, fall back to a no-op cache.
+ */
+@Configuration
+@EnableCaching
+@RequiredArgsConstructor
+@Slf4j
+public class CacheConfig {
+
+    public static final String REPORT_SUMMARIES = "reportSummaries";
+
+    private final AIConfig aiConfig;
+    private final CachePolicyProperties cachePolicyProperties;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        // Static mode: only the caches registered below exist, so unknown names reach the no-op fallback
+        caffeineCacheManager.setCacheNames(List.of());
+        caffeineCacheManager.setAllowNullValues(false);
+
+        if (aiConfig.isCacheEnabled()) {
+            register(caffeineCacheManager, REPORT_SUMMARIES, aiConfig.getCacheMaxSize(), aiConfig.getCacheTtl());
+        }
+        cachePolicyProperties.getPolicies().forEach((name, policy) ->
+                register(caffeineCacheManager, name, policy.getMaxSize(), policy.getTtlSeconds()));
+
+        CompositeCacheManager cacheManager = new CompositeCacheManager(caffeineCacheManager);
+        cacheManager.setFallbackToNoOpCache(true);
+        return cacheManager;
+    }
+
+    private static void register(CaffeineCacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+        log.info("Cache {} registered (max size {}, ttl {}s)", name, maxSize, ttlSeconds);
+    }
+}
@@ -0,0 +1,26 @@
+package com.crimeprevention.crime_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and TTL of each named Spring cache, e.g. app.cache.policies.someCache.ttl-seconds=300.
+ * A cache without a policy here (or in AIConfig for the AI caches) is not cached.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+        private long maxSize = 1000;
+        private long ttlSeconds = 600;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crimeprevention.crime_backend.config;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimePointColumns;
+import com.crimeprevention.crime_backend.core.util.CrimePointColumnsCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link CrimePointColumns} in the compact binary layout when a client accepts
+ * application/vnd.safereport.points. The +json variant is handled by Jackson.
+ */
+@Component
+public class CrimePointColumnsMessageConverter extends AbstractHttpMessageConverter<CrimePointColumns> {
+
+    public CrimePointColumnsMessageConverter() {
+        super(MediaType.parseMediaType(CrimePointColumns.BINARY_MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CrimePointColumns.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected CrimePointColumns readInternal(Class<? extends CrimePointColumns> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        return CrimePointColumnsCodec.decode(inputMessage.getBody().readAllBytes());
+    }
+
+    @Override
+    protected void writeInternal(CrimePointColumns columns, HttpOutputMessage outputMessage) throws IOException {
+        byte[] payload = CrimePointColumnsCodec.encode(columns);
+        outputMessage.getHeaders().setContentLength(payload.length);
+        outputMessage.getBody().write(payload);
+    }
+}
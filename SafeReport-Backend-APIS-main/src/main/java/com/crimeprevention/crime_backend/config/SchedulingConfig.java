@@ -0,0 +1,13 @@
+package com.crimeprevention.crime_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled jobs such as token cleanup and in-memory index maintenance.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,14 @@
 package com.crimeprevention.crime_backend.controller;
 
+import com.crimeprevention.crime_backend.core.ai.AiProviderRouter;
+import com.crimeprevention.crime_backend.core.ai.GeminiModelResolver;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
+import com.crimeprevention.crime_backend.core.ai.ReportBatchSummarizer;
+import com.crimeprevention.crime_backend.core.ai.SummaryJobQueue;
+import com.crimeprevention.crime_backend.core.ai.SummaryJobRejectedException;
 import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
 import com.crimeprevention.crime_backend.core.dto.ai.AnomalyDetectionRequest;
+import com.crimeprevention.crime_backend.core.dto.ai.BatchSummaryRequest;
 import com.crimeprevention.crime_backend.core.dto.ai.AnomalyDetectionResponse;
 import com.crimeprevention.crime_backend.core.dto.ai.PatternAnalysisRequest;
 import com.crimeprevention.crime_backend.core.dto.ai.PatternAnalysisResponse;
@@ -12,11 +19,15 @@ import com.crimeprevention.crime_backend.core.dto.ai.ReportSummaryResponse;
 import com.crimeprevention.crime_backend.core.dto.ai.UpdateSummaryRequest;
 import com.crimeprevention.crime_backend.core.dto.ai.RecommendationRequest;
 import com.crimeprevention.crime_backend.core.dto.ai.RecommendationResponse;
+import com.crimeprevention.crime_backend.core.dto.ai.SummaryJobResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -32,6 +43,11 @@ import java.util.UUID;
 public class AIController {
 
     private final AIService aiService;
+    private final LlmResultCache llmResultCache;
+    private final SummaryJobQueue summaryJobQueue;
+    private final ReportBatchSummarizer reportBatchSummarizer;
+    private final GeminiModelResolver geminiModelResolver;
+    private final AiProviderRouter providerRouter;
 
     /**
      * Generate AI summary for a crime report
@@ -39,10 +55,12 @@ public class AIController {
     @PostMapping("/summarize")
     @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
     public ResponseEntity<ReportSummaryResponse> summarizeReport(
-            @Valid @RequestBody ReportSummaryRequest request) {
+            @Valid @RequestBody ReportSummaryRequest request,
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         
         try {
-            ReportSummaryResponse response = aiService.summarizeReport(request);
+            ReportSummaryResponse response = llmResultCache.bypassIf(bypassCache,
+                    () -> aiService.summarizeReport(request));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error generating report summary: {}", e.getMessage(), e);
@@ -51,19 +69,42 @@ public class AIController {
     }
 
     /**
-     * Generate AI summary for a crime report by ID
+     * Queue an AI summary for a crime report by ID.
+     * Returns 202 with the job; poll /api/ai/jobs/{jobId} or subscribe to /user/queue/ai-jobs.
      */
     @PostMapping("/summarize/{reportId}")
     @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
-    public ResponseEntity<ReportSummaryResponse> summarizeReportById(
-            @PathVariable String reportId) {
+    public ResponseEntity<SummaryJobResponse> summarizeReportById(
+            @PathVariable String reportId,
+            @RequestParam(defaultValue = "false") boolean bypassCache,
+            Authentication authentication) {
         
         try {
-            ReportSummaryResponse response = aiService.summarizeReportById(
-                java.util.UUID.fromString(reportId));
-            return ResponseEntity.ok(response);
+            SummaryJobResponse job = summaryJobQueue.submitSummary(
+                    UUID.fromString(reportId), UUID.fromString(authentication.getName()), bypassCache);
+            return accepted(job);
+        } catch (SummaryJobRejectedException e) {
+            log.warn("Rejected summary job for report {}: {}", reportId, e.getMessage());
+            return busy();
         } catch (Exception e) {
-            log.error("Error generating report summary by ID: {}", e.getMessage(), e);
+            log.error("Error queueing report summary by ID: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Status and, once finished, result of a summarisation job
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
+    public ResponseEntity<SummaryJobResponse> getJob(@PathVariable String jobId, Authentication authentication) {
+        try {
+            boolean admin = authentication.getAuthorities().stream()
+                    .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+            return summaryJobQueue.getJob(UUID.fromString(jobId), UUID.fromString(authentication.getName()), admin)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
@@ -74,10 +115,12 @@ public class AIController {
     @PostMapping("/patterns")
     @PreAuthorize("hasAnyRole('POLICE_OFFICER', 'OFFICER', 'ADMIN')")
     public ResponseEntity<?> analyzePatterns(
-            @Valid @RequestBody PatternAnalysisRequest request) {
+            @Valid @RequestBody PatternAnalysisRequest request,
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         
         try {
-            PatternAnalysisResponse response = aiService.analyzePatterns(request);
+            PatternAnalysisResponse response = llmResultCache.bypassIf(bypassCache,
+                    () -> aiService.analyzePatterns(request));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error analyzing patterns: {}", e.getMessage(), e);
@@ -98,17 +141,21 @@ public class AIController {
      */
     @PostMapping("/predictions")
     @PreAuthorize("hasAnyRole('POLICE_OFFICER', 'OFFICER', 'ADMIN')")
-    public ResponseEntity<PredictiveAlertResponse> generatePredictiveAlerts(@RequestBody PredictiveAlertRequest request) {
+    public ResponseEntity<PredictiveAlertResponse> generatePredictiveAlerts(@RequestBody PredictiveAlertRequest request,
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         log.info("Predictive alert generation requested for date: {}", request.getPredictionDate());
-        PredictiveAlertResponse response = aiService.generatePredictiveAlerts(request);
+        PredictiveAlertResponse response = llmResultCache.bypassIf(bypassCache,
+                () -> aiService.generatePredictiveAlerts(request));
         return ResponseEntity.ok(response);
     }
     
     @PostMapping("/anomalies")
     @PreAuthorize("hasAnyRole('POLICE_OFFICER', 'OFFICER', 'ADMIN')")
-    public ResponseEntity<AnomalyDetectionResponse> detectAnomalies(@RequestBody AnomalyDetectionRequest request) {
+    public ResponseEntity<AnomalyDetectionResponse> detectAnomalies(@RequestBody AnomalyDetectionRequest request,
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         log.info("Anomaly detection requested for period: {} to {}", request.getStartDate(), request.getEndDate());
-        AnomalyDetectionResponse response = aiService.detectAnomalies(request);
+        AnomalyDetectionResponse response = llmResultCache.bypassIf(bypassCache,
+                () -> aiService.detectAnomalies(request));
         return ResponseEntity.ok(response);
     }
     
@@ -119,6 +166,10 @@ public class AIController {
         Map<String, Object> status = new HashMap<>();
         status.put("available", aiService.isServiceAvailable());
         status.put("currentService", aiService.getCurrentService());
+        status.put("resultCache", llmResultCache.getStatistics());
+        status.put("jobs", summaryJobQueue.getStatistics());
+        status.put("geminiModel", geminiModelResolver.getStatus());
+        status.put("router", providerRouter.getStatus());
         status.put("timestamp", LocalDateTime.now());
         return ResponseEntity.ok(status);
     }
@@ -428,16 +479,51 @@ public class AIController {
      */
     @PostMapping("/summaries/{summaryId}/regenerate")
     @PreAuthorize("hasAnyRole('POLICE_OFFICER', 'OFFICER', 'ADMIN')")
-    public ResponseEntity<ReportSummaryResponse> regenerateSummary(@PathVariable String summaryId) {
+    public ResponseEntity<SummaryJobResponse> regenerateSummary(@PathVariable String summaryId,
+                                                                Authentication authentication) {
         try {
-            ReportSummaryResponse newSummary = aiService.regenerateSummary(UUID.fromString(summaryId));
-            return ResponseEntity.ok(newSummary);
+            SummaryJobResponse job = summaryJobQueue.submitRegeneration(
+                    UUID.fromString(summaryId), UUID.fromString(authentication.getName()));
+            return accepted(job);
+        } catch (SummaryJobRejectedException e) {
+            log.warn("Rejected regeneration job for summary {}: {}", summaryId, e.getMessage());
+            return busy();
         } catch (Exception e) {
-            log.error("Error regenerating summary: {}", e.getMessage(), e);
+            log.error("Error queueing summary regeneration: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Start a batch summarisation run over the given reports, or over reports without a summary
+     */
+    @PostMapping("/summaries/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> startBatchSummary(
+            @RequestBody(required = false) BatchSummaryRequest request) {
+        List<UUID> reportIds = request != null ? request.getReportIds() : null;
+        int limit = request != null && request.getLimit() != null ? request.getLimit() : 500;
+        if (!reportBatchSummarizer.start(reportIds, limit)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("started", false, "message", "A batch summarisation run is already in progress"));
+        }
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/ai/summaries/batch/last")
+                .body(Map.of("started", true));
+    }
+
+    /**
+     * Outcome and throughput of the last completed batch summarisation run
+     */
+    @GetMapping("/summaries/batch/last")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getLastBatchSummary() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("running", reportBatchSummarizer.isRunning());
+        reportBatchSummarizer.getLastRun().ifPresent(run -> body.put("lastRun", run));
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Get summary statistics and analytics
      */
@@ -452,4 +538,16 @@ public class AIController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    private static ResponseEntity<SummaryJobResponse> accepted(SummaryJobResponse job) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/ai/jobs/" + job.getJobId())
+                .body(job);
+    }
+
+    private static <T> ResponseEntity<T> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+    }
 }
@@ -53,6 +53,32 @@ public class CrimeMapController {
         }
     }
     
+    /**
+     * Get one precomputed heatmap tile
+     */
+    @GetMapping("/heatmap/tiles/{z}/{x}/{y}")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
+    public ResponseEntity<HeatmapTileResponse> getHeatmapTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @RequestParam(defaultValue = "7d") String timeRange,
+            @RequestParam(required = false) List<String> crimeTypes) {
+        
+        log.debug("Fetching heatmap tile: z={}, x={}, y={}, timeRange={}, crimeTypes={}", z, x, y, timeRange, crimeTypes);
+        
+        try {
+            HeatmapTileResponse response = crimeMapService.getHeatmapTile(z, x, y, timeRange, crimeTypes);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid heatmap tile request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching heatmap tile", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Get crime clusters for geographic analysis
      */
@@ -87,6 +113,23 @@ public class CrimeMapController {
         }
     }
     
+    /**
+     * Get individual crime points as parallel columns (Accept: application/vnd.safereport.points[+json])
+     */
+    @PostMapping(value = "/points", produces = {CrimePointColumns.JSON_MEDIA_TYPE, CrimePointColumns.BINARY_MEDIA_TYPE})
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
+    public ResponseEntity<CrimePointColumns> getCrimePointColumns(@Valid @RequestBody CrimeMapRequest request) {
+        log.info("Generating columnar crime points for request: {}", request);
+        
+        try {
+            CrimePointColumns columns = crimeMapService.getCrimePointColumns(request);
+            return ResponseEntity.ok(columns);
+        } catch (Exception e) {
+            log.error("Error generating columnar crime points", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Get live incidents for real-time mapping
      */
@@ -104,6 +147,23 @@ public class CrimeMapController {
         }
     }
     
+    /**
+     * Get live incidents as parallel columns (Accept: application/vnd.safereport.points[+json])
+     */
+    @GetMapping(value = "/live-incidents", produces = {CrimePointColumns.JSON_MEDIA_TYPE, CrimePointColumns.BINARY_MEDIA_TYPE})
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
+    public ResponseEntity<CrimePointColumns> getLiveIncidentColumns() {
+        log.info("Fetching live incidents as columns");
+        
+        try {
+            CrimePointColumns columns = crimeMapService.getLiveIncidentColumns();
+            return ResponseEntity.ok(columns);
+        } catch (Exception e) {
+            log.error("Error fetching live incident columns", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Get live incidents within specific geographic area
      */
@@ -0,0 +1,104 @@
+package com.crimeprevention.crime_backend.controller;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceRequest;
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceResponse;
+import com.crimeprevention.crime_backend.core.exception.ResourceNotFoundException;
+import com.crimeprevention.crime_backend.core.exception.UnauthorizedException;
+import com.crimeprevention.crime_backend.core.service.interfaces.GeofenceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Geofence subscriptions. New reports inside a fence are pushed to /user/queue/live-incidents
+ * of the owning user, or of every member when the fence belongs to a watch group.
+ */
+@RestController
+@RequestMapping("/api/geofences")
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceController {
+
+    private final GeofenceService geofenceService;
+
+    /**
+     * Create a geofence for the current user or one of their watch groups
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
+    public ResponseEntity<?> createGeofence(
+            @Valid @RequestBody GeofenceRequest request,
+            Authentication authentication
+    ) {
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            GeofenceResponse response = geofenceService.createGeofence(userId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error creating geofence", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get the current user's geofences
+     */
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
+    public ResponseEntity<List<GeofenceResponse>> getMyGeofences(Authentication authentication) {
+        UUID userId = UUID.fromString(authentication.getName());
+        return ResponseEntity.ok(geofenceService.getUserGeofences(userId));
+    }
+
+    /**
+     * Get the geofences of a watch group
+     */
+    @GetMapping("/watch-groups/{groupId}")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
+    public ResponseEntity<?> getWatchGroupGeofences(
+            @PathVariable UUID groupId,
+            Authentication authentication
+    ) {
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            return ResponseEntity.ok(geofenceService.getWatchGroupGeofences(userId, groupId));
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete a geofence
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'OFFICER', 'ADMIN')")
+    public ResponseEntity<?> deleteGeofence(
+            @PathVariable UUID id,
+            Authentication authentication
+    ) {
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            geofenceService.deleteGeofence(userId, id);
+            return ResponseEntity.noContent().build();
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,18 +1,15 @@
 package com.crimeprevention.crime_backend.controller;
 
+import com.crimeprevention.crime_backend.core.geo.ReverseGeocodeException;
 import com.crimeprevention.crime_backend.core.model.location.Location;
 import com.crimeprevention.crime_backend.core.repo.location.LocationRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.GeocodingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +20,7 @@ import java.util.Map;
 public class LocationController {
 
     private final LocationRepository locationRepository;
+    private final GeocodingService geocodingService;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
@@ -43,7 +41,8 @@ public class LocationController {
     }
 
     /**
-     * Reverse geocoding endpoint that proxies Nominatim API to avoid CORS issues
+     * Reverse geocoding endpoint that proxies Nominatim API to avoid CORS issues.
+     * Results are cached per ~10 m cell, so repeated taps around one spot hit Nominatim once.
      */
     @GetMapping("/reverse-geocode")
     @PreAuthorize("hasAnyRole('CIVILIAN', 'OFFICER', 'POLICE_OFFICER', 'ADMIN')")
@@ -51,37 +50,16 @@ public class LocationController {
             @RequestParam Double lat,
             @RequestParam Double lon) {
         try {
-            // Use Nominatim API for reverse geocoding
-            String nominatimUrl = String.format(
-                    "https://nominatim.openstreetmap.org/reverse?format=json&lat=%.6f&lon=%.6f&zoom=18&addressdetails=1",
-                    lat, lon
-            );
-
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(10))
-                    .build();
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(nominatimUrl))
-                    .header("User-Agent", "CrimePreventionApp/1.0") // Required by Nominatim usage policy
-                    .timeout(Duration.ofSeconds(10))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                // Parse JSON response
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                Map<String, Object> result = mapper.readValue(response.body(), Map.class);
-                return ResponseEntity.ok(result);
-            } else {
-                log.warn("Nominatim API returned status code: {}", response.statusCode());
-                return ResponseEntity.status(response.statusCode()).build();
-            }
+            return ResponseEntity.ok(geocodingService.reverseGeocode(lat, lon));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid reverse geocode request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (ReverseGeocodeException e) {
+            log.warn("Reverse geocoding failed for {}, {}: {}", lat, lon, e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (Exception e) {
             log.error("Error calling Nominatim API: {}", e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,18 +1,25 @@
 package com.crimeprevention.crime_backend.controller;
 
+import com.crimeprevention.crime_backend.core.dto.news.BroadcastJobResponse;
 import com.crimeprevention.crime_backend.core.dto.news.NewsNotificationRequest;
+import com.crimeprevention.crime_backend.core.notification.NewsBroadcaster;
 import com.crimeprevention.crime_backend.core.service.interfaces.NotificationService;
 import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
 import com.crimeprevention.crime_backend.core.service.interfaces.SmsService;
 import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -25,55 +32,58 @@ public class NewsController {
     private final EmailService emailService;
     private final SmsService smsService;
     private final UserRepository userRepository;
+    private final NewsBroadcaster newsBroadcaster;
 
     /**
-     * Send news notification to all users
+     * Broadcast news to all users in-app, by email and by SMS.
+     * Returns 202 with the persisted job; poll /api/news/broadcasts/{jobId} for progress.
+     * Invalid input is a 400, a job that could not be started a 500, both with an error body.
      */
     @PostMapping("/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> broadcastNews(@Valid @RequestBody NewsNotificationRequest request) {
+    public ResponseEntity<?> broadcastNews(@Valid @RequestBody NewsNotificationRequest request,
+                                           Authentication authentication) {
         try {
-            List<UUID> allUserIds = userRepository.findAll().stream()
-                    .map(user -> user.getId())
-                    .toList();
-
-            int successCount = 0;
-            int totalUsers = allUserIds.size();
-
-            for (UUID userId : allUserIds) {
-                try {
-                    // In-app notification
-                    notificationService.notifyNewsUpdate(userId, request.getTitle(), request.getContent());
-                    
-                    // Get user details for email/SMS
-                    var userOpt = userRepository.findById(userId);
-                    if (userOpt.isPresent()) {
-                        var user = userOpt.get();
-                        
-                        // Email notification
-                        emailService.sendNewsNotification(user.getEmail(), user.getFullName(), request.getTitle(), request.getContent());
-                        
-                        // SMS notification if phone exists
-                        if (user.getPhoneNumber() != null) {
-                            smsService.sendNewsNotificationSms(user.getPhoneNumber(), user.getFullName(), request.getTitle());
-                        }
-                        
-                        successCount++;
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to send news notification to user {}: {}", userId, e.getMessage());
-                }
-            }
-
-            String message = String.format("News notification sent to %d out of %d users", successCount, totalUsers);
-            return ResponseEntity.ok(message);
-
+            BroadcastJobResponse job = newsBroadcaster.submit(request.getTitle(), request.getContent(),
+                    UUID.fromString(authentication.getName()));
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/news/broadcasts/" + job.getJobId())
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected news broadcast: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             log.error("Error broadcasting news: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().body("Error broadcasting news: " + e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to start broadcast: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
 
+    /**
+     * Status and per-channel progress of a news broadcast
+     */
+    @GetMapping("/broadcasts/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BroadcastJobResponse> getBroadcast(@PathVariable UUID jobId) {
+        return newsBroadcaster.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Continue a failed broadcast from where each channel stopped
+     */
+    @PostMapping("/broadcasts/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BroadcastJobResponse> resumeBroadcast(@PathVariable UUID jobId) {
+        return newsBroadcaster.resume(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Send news notification to specific users
      */
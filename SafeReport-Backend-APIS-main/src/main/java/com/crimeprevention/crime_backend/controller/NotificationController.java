@@ -1,5 +1,6 @@
 package com.crimeprevention.crime_backend.controller;
 
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationCatchUpResponse;
 import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
 import com.crimeprevention.crime_backend.core.service.interfaces.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -54,6 +55,21 @@ public class NotificationController {
         return ResponseEntity.ok(count);
     }
 
+    // Catch up after reconnecting: notifications created after the cursor of the last one received,
+    // led by recent ones before it that may have committed late; skip ids already received.
+    // Without a cursor the client gets the recent overlap window and a cursor to continue from.
+    @GetMapping("/since")
+    @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
+    public ResponseEntity<NotificationCatchUpResponse> getNotificationsSince(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+
+        UUID userId = UUID.fromString(authentication.getName());
+        NotificationCatchUpResponse notifications = notificationService.getNotificationsSince(userId, cursor, limit);
+        return ResponseEntity.ok(notifications);
+    }
+
     @GetMapping("/type/{type}")
     @PreAuthorize("hasAnyRole('CIVILIAN', 'POLICE_OFFICER', 'ADMIN')")
     public ResponseEntity<Page<NotificationResponse>> getNotificationsByType(
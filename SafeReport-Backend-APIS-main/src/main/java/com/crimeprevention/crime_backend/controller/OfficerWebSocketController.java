@@ -1,6 +1,7 @@
 package com.crimeprevention.crime_backend.controller;
 
 import com.crimeprevention.crime_backend.core.dto.officer.*;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
 import com.crimeprevention.crime_backend.core.service.interfaces.OfficerService;
 import com.crimeprevention.crime_backend.core.service.interfaces.BackupService;
 import lombok.RequiredArgsConstructor;
@@ -28,10 +29,10 @@ public class OfficerWebSocketController {
         UUID officerId = UUID.fromString(principal.getName());
         
         // Update officer location
-        officerService.updateOfficerLocation(officerId, location);
+        OfficerPosition position = officerService.updateOfficerLocation(officerId, location);
         
         // Broadcast to relevant subscribers (e.g., dispatch, nearby officers)
-        messagingTemplate.convertAndSend("/topic/officer-locations", location);
+        messagingTemplate.convertAndSend("/topic/officer-locations", position);
     }
 
     /**
@@ -73,21 +74,7 @@ public class OfficerWebSocketController {
     public void handleBackupRequest(@Payload BackupRequestDTO request, Principal principal) {
         UUID officerId = UUID.fromString(principal.getName());
         
-        // Process backup request
-        BackupResponseDTO response = backupService.requestBackup(officerId, request);
-        
-        // Broadcast to nearby officers and dispatch
-        messagingTemplate.convertAndSend("/topic/backup-requests", response);
-        
-        // Send specific notifications to relevant officers
-        // This could be based on location, availability, etc.
-        officerService.getAvailableOfficersForBackup(response.getLocation())
-            .forEach(officer -> {
-                messagingTemplate.convertAndSendToUser(
-                    officer.getId().toString(),
-                    "/queue/backup-requests",
-                    response
-                );
-            });
+        // Persist the request; BackupRequestRouter delivers it to nearby officers asynchronously
+        backupService.requestBackup(officerId, request);
     }
 }
@@ -0,0 +1,367 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache.LlmCall;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the AI provider for each call. The configured service goes first (OpenAI for hybrid)
+ * and the other provider is the fallback when it has an API key. Providers whose circuit breaker
+ * is open are skipped, and each provider has a concurrency limit; a call that cannot get a slot
+ * within acquire-timeout-ms moves on to the next provider.
+ * Hedged calls run on aiRouterExecutor and start the next provider once the first has not
+ * answered within its p95 latency (clamped to the hedge delay bounds); the first answer wins.
+ * The losing call is left to finish, so it still releases its slot and fills the result cache.
+ * Calls answered from the result cache are not recorded on the breaker or the latency timer, so
+ * cache hits cannot hide a failing provider or pull its hedge delay down.
+ */
+@Component
+@Slf4j
+public class AiProviderRouter {
+
+    public static final String OPENAI = "openai";
+    public static final String GEMINI = "gemini";
+
+    /**
+     * A completion and the provider that produced it
+     */
+    @lombok.Value
+    public static class Result {
+        String provider;
+        String text;
+    }
+
+    private final AIConfig aiConfig;
+    private final LlmResultCache llmResultCache;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.router.fallback-enabled:true}")
+    private boolean fallbackEnabled;
+
+    @Value("${app.ai.router.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${app.ai.router.window-max-calls:100}")
+    private int windowMaxCalls;
+
+    @Value("${app.ai.router.minimum-calls:5}")
+    private int minimumCalls;
+
+    @Value("${app.ai.router.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${app.ai.router.slow-call-ms:20000}")
+    private long slowCallMs;
+
+    @Value("${app.ai.router.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${app.ai.router.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${app.ai.router.openai-max-concurrent:4}")
+    private int openaiMaxConcurrent;
+
+    @Value("${app.ai.router.gemini-max-concurrent:4}")
+    private int geminiMaxConcurrent;
+
+    @Value("${app.ai.router.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.ai.router.hedge-default-delay-ms:5000}")
+    private long hedgeDefaultDelayMs;
+
+    @Value("${app.ai.router.hedge-min-delay-ms:1000}")
+    private long hedgeMinDelayMs;
+
+    @Value("${app.ai.router.hedge-max-delay-ms:15000}")
+    private long hedgeMaxDelayMs;
+
+    private final Map<String, Provider> providers = new LinkedHashMap<>();
+
+    public AiProviderRouter(AIConfig aiConfig, LlmResultCache llmResultCache,
+                            @Qualifier("aiRouterExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.aiConfig = aiConfig;
+        this.llmResultCache = llmResultCache;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        providers.put(OPENAI, provider(OPENAI, openaiMaxConcurrent));
+        providers.put(GEMINI, provider(GEMINI, geminiMaxConcurrent));
+    }
+
+    private Provider provider(String name, int maxConcurrent) {
+        Provider provider = new Provider(name, maxConcurrent, new ProviderCircuitBreaker(
+                TimeUnit.SECONDS.toMillis(windowSeconds), windowMaxCalls, minimumCalls, failureRateThreshold,
+                slowCallMs, slowCallRateThreshold, TimeUnit.SECONDS.toMillis(openSeconds)));
+        Gauge.builder("ai.router.breaker.state", provider, p -> p.breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .tag("provider", name)
+                .register(meterRegistry);
+        Gauge.builder("ai.router.inflight", provider, p -> p.maxConcurrent - p.permits.availablePermits())
+                .description("AI provider calls in flight")
+                .tag("provider", name)
+                .register(meterRegistry);
+        return provider;
+    }
+
+    /**
+     * Run the call for the first provider able to answer. Throws when every provider failed or was skipped.
+     */
+    public Result call(String operation, boolean hedged, LlmCall openai, LlmCall gemini) {
+        Map<String, LlmCall> calls = Map.of(OPENAI, openai, GEMINI, gemini);
+        List<Provider> order = order();
+        List<String> errors = new ArrayList<>();
+        Result result = hedged && order.size() > 1
+                ? hedged(operation, order, calls, errors)
+                : inOrder(operation, order, calls, errors);
+        if (result == null) {
+            log.error("All AI services failed for {}: {}", operation, errors);
+            throw new RuntimeException("All AI services are unavailable: " + String.join("; ", errors));
+        }
+        return result;
+    }
+
+    /**
+     * Breaker and concurrency state per provider for the AI status endpoints
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Provider provider : providers.values()) {
+            Map<String, Object> providerStatus = provider.breaker.getStatus();
+            providerStatus.put("inFlight", provider.maxConcurrent - provider.permits.availablePermits());
+            providerStatus.put("maxConcurrent", provider.maxConcurrent);
+            providerStatus.put("hedgeDelayMs", hedgeDelayMs(provider));
+            status.put(provider.name, providerStatus);
+        }
+        return status;
+    }
+
+    private List<Provider> order() {
+        String service = aiConfig.getService().toLowerCase();
+        List<Provider> order = new ArrayList<>();
+        switch (service) {
+            case OPENAI:
+            case "hybrid":
+                order.add(providers.get(OPENAI));
+                order.add(providers.get(GEMINI));
+                break;
+            case GEMINI:
+                order.add(providers.get(GEMINI));
+                order.add(providers.get(OPENAI));
+                break;
+            default:
+                throw new IllegalStateException("Unsupported AI service: " + service);
+        }
+        // Hybrid always tries both; otherwise the second provider is only a fallback when configured
+        if (!"hybrid".equals(service) && !(fallbackEnabled && hasApiKey(order.get(1).name))) {
+            order.remove(1);
+        }
+        return order;
+    }
+
+    private boolean hasApiKey(String provider) {
+        String key = OPENAI.equals(provider) ? aiConfig.getOpenaiApiKey() : aiConfig.getGeminiApiKey();
+        return key != null && !key.isBlank();
+    }
+
+    private Result inOrder(String operation, List<Provider> order, Map<String, LlmCall> calls, List<String> errors) {
+        for (Provider provider : order) {
+            ProviderCircuitBreaker.Permit permit = acquire(operation, provider, errors);
+            if (permit == null) {
+                continue;
+            }
+            try {
+                return new Result(provider.name, run(operation, provider, permit, calls.get(provider.name)));
+            } catch (IOException | RuntimeException e) {
+                log.warn("AI provider {} failed for {}: {}", provider.name, operation, e.getMessage());
+                errors.add(provider.name + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private Result hedged(String operation, List<Provider> order, Map<String, LlmCall> calls, List<String> errors) {
+        // Cache bypass is per thread, so it is carried over to the executor
+        boolean bypass = llmResultCache.isBypassed();
+        CompletionService<Result> completion = new ExecutorCompletionService<>(executor);
+        Deque<Provider> pending = new ArrayDeque<>(order);
+        Map<Future<Result>, Provider> started = new HashMap<>();
+        Provider latest = null;
+        int inFlight = 0;
+        try {
+            while (true) {
+                if (inFlight == 0) {
+                    latest = start(operation, pending, calls, completion, started, bypass, errors);
+                    if (latest == null) {
+                        return null;
+                    }
+                    inFlight++;
+                }
+                Future<Result> done;
+                if (pending.isEmpty()) {
+                    done = completion.take();
+                } else {
+                    done = completion.poll(hedgeDelayMs(latest), TimeUnit.MILLISECONDS);
+                    if (done == null) {
+                        Provider hedge = start(operation, pending, calls, completion, started, bypass, errors);
+                        if (hedge != null) {
+                            log.info("AI provider {} slow for {}, hedging with {}", latest.name, operation, hedge.name);
+                            meterRegistry.counter("ai.router.hedges", "operation", operation, "provider", hedge.name).increment();
+                            latest = hedge;
+                            inFlight++;
+                        }
+                        continue;
+                    }
+                }
+                inFlight--;
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    Provider failed = started.get(done);
+                    Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                    log.warn("AI provider {} failed for {}: {}", failed.name, operation, cause.getMessage());
+                    errors.add(failed.name + ": " + cause.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for AI providers");
+        }
+    }
+
+    // Starts the next provider that can take the call, or returns null if none can
+    private Provider start(String operation, Deque<Provider> pending, Map<String, LlmCall> calls,
+                           CompletionService<Result> completion, Map<Future<Result>, Provider> started,
+                           boolean bypass, List<String> errors) {
+        while (!pending.isEmpty()) {
+            Provider provider = pending.poll();
+            ProviderCircuitBreaker.Permit permit = acquire(operation, provider, errors);
+            if (permit == null) {
+                continue;
+            }
+            LlmCall call = calls.get(provider.name);
+            try {
+                Future<Result> future = completion.submit(() -> new Result(provider.name, llmResultCache.bypassIf(bypass, () -> {
+                    try {
+                        return run(operation, provider, permit, call);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })));
+                started.put(future, provider);
+                return provider;
+            } catch (RejectedExecutionException e) {
+                provider.breaker.abandon(permit);
+                provider.permits.release();
+                count(operation, provider, "rejected");
+                errors.add(provider.name + ": no router thread available");
+            }
+        }
+        return null;
+    }
+
+    // Claims a breaker call and a concurrency slot, recording why the provider was skipped if not
+    private ProviderCircuitBreaker.Permit acquire(String operation, Provider provider, List<String> errors) {
+        if (!provider.breaker.isCallPermitted()) {
+            count(operation, provider, "short-circuited");
+            errors.add(provider.name + ": circuit open");
+            return null;
+        }
+        try {
+            if (!provider.permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                count(operation, provider, "rejected");
+                errors.add(provider.name + ": concurrency limit reached");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.add(provider.name + ": interrupted");
+            return null;
+        }
+        ProviderCircuitBreaker.Permit permit = provider.breaker.tryStart();
+        if (permit == null) {
+            provider.permits.release();
+            count(operation, provider, "short-circuited");
+            errors.add(provider.name + ": circuit open");
+        }
+        return permit;
+    }
+
+    // Runs a claimed call, then records its outcome if it reached the provider and frees its slot
+    private String run(String operation, Provider provider, ProviderCircuitBreaker.Permit permit, LlmCall call)
+            throws IOException {
+        long providerCalls = llmResultCache.providerCallsOnThread();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String text = call.call();
+            success = true;
+            return text;
+        } finally {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            provider.permits.release();
+            if (llmResultCache.providerCallsOnThread() == providerCalls) {
+                provider.breaker.abandon(permit);
+                count(operation, provider, "cached");
+            } else {
+                provider.breaker.record(permit, success, latencyMs);
+                count(operation, provider, success ? "success" : "failure");
+                meterRegistry.timer("ai.router.latency", "provider", provider.name, "outcome", success ? "success" : "failure")
+                        .record(latencyMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private long hedgeDelayMs(Provider provider) {
+        long p95 = provider.breaker.p95LatencyMs();
+        long delay = p95 < 0 ? hedgeDefaultDelayMs : p95;
+        return Math.max(hedgeMinDelayMs, Math.min(hedgeMaxDelayMs, delay));
+    }
+
+    private void count(String operation, Provider provider, String outcome) {
+        meterRegistry.counter("ai.router.calls", "operation", operation, "provider", provider.name, "outcome", outcome).increment();
+    }
+
+    private static class Provider {
+        final String name;
+        final int maxConcurrent;
+        final Semaphore permits;
+        final ProviderCircuitBreaker breaker;
+
+        Provider(String name, int maxConcurrent, ProviderCircuitBreaker breaker) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides once which Gemini model the AI call sites use.
+ * The models endpoint is listed at startup and every refresh interval; the configured model is
+ * used if it is listed with generateContent, else the first listed fallback model. Call sites
+ * report a 404 through markUnavailable, which moves on to the next candidate without probing.
+ * If listing fails the last resolution is kept (the configured model before any succeeded).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeminiModelResolver {
+
+    private final AIConfig aiConfig;
+    private final ObjectMapper objectMapper;
+    private final OkHttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.gemini-fallback-models:gemini-2.5-flash,gemini-2.5-pro,gemini-2.0-flash,gemini-flash-latest,gemini-pro-latest,gemini-1.5-pro,gemini-1.5-flash,gemini-pro}")
+    private List<String> fallbackModels;
+
+    private volatile String resolvedModel;
+    // Whether resolvedModel was seen in the models listing
+    private volatile boolean verified;
+    private volatile Set<String> availableModels = Set.of();
+    private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+    private volatile Instant lastRefreshAt;
+    private volatile String lastRefreshError;
+    private volatile String lastAnsweredModel;
+    private volatile Instant lastAnsweredAt;
+
+    private Counter refreshFailures;
+    private Counter notFoundCounter;
+
+    @PostConstruct
+    void init() {
+        resolvedModel = clean(aiConfig.getGeminiModel());
+        refreshFailures = Counter.builder("ai.gemini.models.refresh.failures")
+                .description("Gemini model listings that failed")
+                .register(meterRegistry);
+        notFoundCounter = Counter.builder("ai.gemini.models.not-found")
+                .description("Gemini calls answered 404 for the resolved model")
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.models.verified", this, resolver -> resolver.verified ? 1 : 0)
+                .description("1 when the resolved Gemini model was found in the models listing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The model every Gemini call should use
+     */
+    public String getModel() {
+        return resolvedModel;
+    }
+
+    /**
+     * Record that the model answered a call
+     */
+    public void markAnswered(String model) {
+        lastAnsweredModel = model;
+        lastAnsweredAt = Instant.now();
+    }
+
+    /**
+     * Record a 404 for the model and resolve the next candidate. Returns the new model.
+     */
+    public synchronized String markUnavailable(String model) {
+        notFoundCounter.increment();
+        unavailable.add(clean(model));
+        if (clean(model).equals(resolvedModel)) {
+            resolve();
+            log.warn("Gemini model {} not found, now using {}", model, resolvedModel);
+        }
+        return resolvedModel;
+    }
+
+    /**
+     * List the available models and resolve again
+     */
+    @Scheduled(fixedDelayString = "${app.ai.gemini-model-refresh-interval-ms:3600000}")
+    public void refresh() {
+        if (aiConfig.getGeminiApiKey() == null || aiConfig.getGeminiApiKey().isBlank()) {
+            return;
+        }
+        try {
+            Set<String> listed = listModels();
+            synchronized (this) {
+                availableModels = listed;
+                // A fresh listing is authoritative; earlier 404s are forgotten
+                unavailable.clear();
+                lastRefreshAt = Instant.now();
+                lastRefreshError = null;
+                resolve();
+            }
+            log.info("Gemini model resolved to {} ({} models available)", resolvedModel, listed.size());
+        } catch (IOException | RuntimeException e) {
+            refreshFailures.increment();
+            lastRefreshError = e.getMessage();
+            log.warn("Failed to list Gemini models, keeping {}: {}", resolvedModel, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolution state for the AI status endpoints
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("configuredModel", clean(aiConfig.getGeminiModel()));
+        status.put("resolvedModel", resolvedModel);
+        status.put("verified", verified);
+        status.put("availableModels", availableModels.size());
+        status.put("unavailableModels", new ArrayList<>(unavailable));
+        status.put("lastRefreshAt", lastRefreshAt);
+        status.put("lastRefreshError", lastRefreshError);
+        status.put("lastAnsweredModel", lastAnsweredModel);
+        status.put("lastAnsweredAt", lastAnsweredAt);
+        return status;
+    }
+
+    // Caller holds the lock
+    private void resolve() {
+        for (String candidate : candidates()) {
+            if (!unavailable.contains(candidate) && (availableModels.isEmpty() || availableModels.contains(candidate))) {
+                resolvedModel = candidate;
+                verified = availableModels.contains(candidate);
+                return;
+            }
+        }
+        // Nothing usable is listed: keep the configured model so errors name it
+        resolvedModel = clean(aiConfig.getGeminiModel());
+        verified = false;
+    }
+
+    private List<String> candidates() {
+        List<String> candidates = new ArrayList<>();
+        candidates.add(clean(aiConfig.getGeminiModel()));
+        for (String model : fallbackModels) {
+            String name = clean(model);
+            if (!name.isEmpty() && !candidates.contains(name)) {
+                candidates.add(name);
+            }
+        }
+        return candidates;
+    }
+
+    // Models supporting generateContent, following pagination
+    private Set<String> listModels() throws IOException {
+        Set<String> models = new HashSet<>();
+        String pageToken = null;
+        do {
+            HttpUrl.Builder url = HttpUrl.get(aiConfig.getGeminiBaseUrl() + "/models").newBuilder()
+                    .addQueryParameter("pageSize", "1000");
+            if (pageToken != null) {
+                url.addQueryParameter("pageToken", pageToken);
+            }
+            Request request = new Request.Builder()
+                    .url(url.build())
+                    .addHeader("x-goog-api-key", aiConfig.getGeminiApiKey())
+                    .get()
+                    .build();
+            try (Response response = httpClient.newCall(request).execute()) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new IOException("Gemini models listing returned " + response.code());
+                }
+                JsonNode json = objectMapper.readTree(body.string());
+                for (JsonNode model : json.path("models")) {
+                    for (JsonNode method : model.path("supportedGenerationMethods")) {
+                        if ("generateContent".equals(method.asText())) {
+                            models.add(clean(model.path("name").asText()));
+                            break;
+                        }
+                    }
+                }
+                pageToken = json.path("nextPageToken").asText(null);
+            }
+        } while (pageToken != null && !pageToken.isEmpty());
+        return models;
+    }
+
+    private static String clean(String model) {
+        if (model == null) {
+            return "";
+        }
+        String trimmed = model.trim();
+        return trimmed.startsWith("models/") ? trimmed.substring("models/".length()) : trimmed;
+    }
+}
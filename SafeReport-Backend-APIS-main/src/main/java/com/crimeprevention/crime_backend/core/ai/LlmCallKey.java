@@ -0,0 +1,14 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import lombok.Value;
+
+/**
+ * Identity of one LLM call: provider, model and the request payload that carries the
+ * generation config and prompt (a map serialised as JSON, or the raw JSON body)
+ */
+@Value(staticConstructor = "of")
+public class LlmCallKey {
+    String provider;
+    String model;
+    Object request;
+}
@@ -0,0 +1,160 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain text completions from the configured provider, through the LLM result cache.
+ * The system prompt is sent as a system message to OpenAI and omitted for Gemini, matching the
+ * original single-report summary requests. Gemini calls go to the GeminiModelResolver's model.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LlmClient {
+
+    private final AIConfig aiConfig;
+    private final ObjectMapper objectMapper;
+    private final OkHttpClient httpClient;
+    private final LlmResultCache llmResultCache;
+    private final GeminiModelResolver geminiModelResolver;
+    private final AiProviderRouter providerRouter;
+
+    /**
+     * A completion and the provider and model that produced it
+     */
+    @lombok.Value
+    public static class Completion {
+        String provider;
+        String model;
+        String text;
+    }
+
+    /**
+     * Complete with the provider AiProviderRouter picks, the one selected by app.ai.service first
+     */
+    public Completion complete(String systemPrompt, String prompt, int maxTokens) throws IOException {
+        AiProviderRouter.Result routed = providerRouter.call("completion", false,
+                () -> completeWithOpenAI(systemPrompt, prompt, maxTokens),
+                () -> completeWithGemini(prompt, maxTokens));
+        // The Gemini model is read after the call, which may have moved the resolver on
+        String model = AiProviderRouter.OPENAI.equals(routed.getProvider())
+                ? aiConfig.getOpenaiModel()
+                : geminiModelResolver.getModel();
+        return new Completion(routed.getProvider(), model, routed.getText());
+    }
+
+    public String completeWithOpenAI(String systemPrompt, String prompt, int maxTokens) throws IOException {
+        List<Map<String, String>> messages = new ArrayList<>();
+        if (systemPrompt != null) {
+            messages.add(Map.of("role", "system", "content", systemPrompt));
+        }
+        messages.add(Map.of("role", "user", "content", prompt));
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", aiConfig.getOpenaiModel());
+        requestBody.put("messages", messages);
+        requestBody.put("max_tokens", maxTokens);
+        requestBody.put("temperature", aiConfig.getOpenaiTemperature());
+
+        Request httpRequest = new Request.Builder()
+                .url(aiConfig.getOpenaiBaseUrl() + "/chat/completions")
+                .addHeader("Authorization", "Bearer " + aiConfig.getOpenaiApiKey())
+                .addHeader("Content-Type", "application/json")
+                .post(RequestBody.create(objectMapper.writeValueAsString(requestBody), MediaType.get("application/json")))
+                .build();
+
+        return llmResultCache.getOrGenerate(LlmCallKey.of("openai", aiConfig.getOpenaiModel(), requestBody), () -> {
+            try (Response response = httpClient.newCall(httpRequest).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
+                }
+                JsonNode responseJson = objectMapper.readTree(response.body().string());
+                return responseJson.path("choices").path(0).path("message").path("content").asText();
+            }
+        });
+    }
+
+    public String completeWithGemini(String prompt, int maxTokens) throws IOException {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))));
+        requestBody.put("generationConfig", Map.of(
+                "maxOutputTokens", maxTokens,
+                "temperature", aiConfig.getGeminiTemperature()));
+        return generateWithGemini(requestBody);
+    }
+
+    /**
+     * Send a generateContent request body (a map or JSON string) to the resolved Gemini model
+     */
+    public String generateWithGemini(Object requestBody) throws IOException {
+        return generateWithGemini(requestBody, 0);
+    }
+
+    /**
+     * As generateWithGemini, rejecting answers shorter than minLength before they are cached.
+     * A 404 moves the resolver on to its next model and the call is retried once with it.
+     */
+    public String generateWithGemini(Object requestBody, int minLength) throws IOException {
+        String model = geminiModelResolver.getModel();
+        try {
+            return generateWithGemini(model, requestBody, minLength);
+        } catch (ModelNotFoundException e) {
+            String next = geminiModelResolver.markUnavailable(model);
+            if (next.equals(model)) {
+                throw e;
+            }
+            return generateWithGemini(next, requestBody, minLength);
+        }
+    }
+
+    private String generateWithGemini(String model, Object requestBody, int minLength) throws IOException {
+        String json = requestBody instanceof String ? (String) requestBody : objectMapper.writeValueAsString(requestBody);
+        Request httpRequest = new Request.Builder()
+                .url(aiConfig.getGeminiBaseUrl() + "/models/" + model + ":generateContent")
+                .addHeader("x-goog-api-key", aiConfig.getGeminiApiKey())
+                .addHeader("Content-Type", "application/json")
+                .post(RequestBody.create(json, MediaType.get("application/json")))
+                .build();
+
+        return llmResultCache.getOrGenerate(LlmCallKey.of("gemini", model, requestBody), () -> {
+            try (Response response = httpClient.newCall(httpRequest).execute()) {
+                String body = response.body() != null ? response.body().string() : "";
+                if (response.code() == 404) {
+                    throw new ModelNotFoundException("Gemini model " + model + " not found: " + body);
+                }
+                if (!response.isSuccessful()) {
+                    throw new RuntimeException("Gemini API error: " + response.code() + " - " + body);
+                }
+                String text = objectMapper.readTree(body)
+                        .path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+                if (text.trim().length() < minLength) {
+                    throw new RuntimeException("Gemini response too short: " + text);
+                }
+                geminiModelResolver.markAnswered(model);
+                return text;
+            }
+        });
+    }
+
+    private static class ModelNotFoundException extends IOException {
+        ModelNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
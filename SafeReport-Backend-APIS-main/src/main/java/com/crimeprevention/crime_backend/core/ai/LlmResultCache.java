@@ -0,0 +1,296 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.core.model.ai.LlmResultCacheEntry;
+import com.crimeprevention.crime_backend.core.repo.ai.LlmResultCacheEntryRepository;
+import com.crimeprevention.crime_backend.core.util.AsyncCaches;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of LLM completions shared by every AI call site.
+ * The key is the SHA-256 of provider, model and request payload (generation config and prompt).
+ * Hits are served from memory, then from the llm_result_cache table, which survives restarts;
+ * identical calls in flight share one upstream request. Blank completions are never cached.
+ * Work wrapped in bypassIf(true, ...) always calls the provider and refreshes the entry.
+ * Table reads and writes run in their own transaction, so a failed write (for example two callers
+ * storing the same key) neither fails nor rolls back the caller's transaction.
+ */
+@Component
+@Slf4j
+public class LlmResultCache {
+
+    /**
+     * An upstream LLM call returning the completion text
+     */
+    @FunctionalInterface
+    public interface LlmCall {
+        String call() throws IOException;
+    }
+
+    private static final ThreadLocal<Boolean> BYPASS = ThreadLocal.withInitial(() -> false);
+    // Provider calls made through the cache on each thread, hits excluded
+    private static final ThreadLocal<long[]> PROVIDER_CALLS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LlmResultCacheEntryRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ai.result-cache.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.ai.result-cache.memory-max-entries:2000}")
+    private long memoryMaxEntries;
+
+    @Value("${app.ai.result-cache.max-rows:20000}")
+    private int maxRows;
+
+    private AsyncCache<String, String> memory;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    private Counter memoryHits;
+    private Counter databaseHits;
+    private Counter misses;
+    private Counter bypasses;
+
+    public LlmResultCache(LlmResultCacheEntryRepository repository, TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.writer = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        memory = Caffeine.newBuilder()
+                .maximumSize(memoryMaxEntries)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .buildAsync();
+        readTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        memoryHits = lookups("memory");
+        databaseHits = lookups("database");
+        misses = lookups("miss");
+        bypasses = lookups("bypass");
+    }
+
+    /**
+     * The cached completion for the call, or the result of making it
+     */
+    public String getOrGenerate(LlmCallKey key, LlmCall call) throws IOException {
+        if (!enabled) {
+            return callProvider(call);
+        }
+        String hash = hash(key);
+        if (BYPASS.get()) {
+            bypasses.increment();
+            String result = callProvider(call);
+            if (result == null || result.isBlank()) {
+                memory.synchronous().invalidate(hash);
+            } else {
+                memory.synchronous().put(hash, result);
+            }
+            store(hash, key, result);
+            return result;
+        }
+
+        String cached = memory.synchronous().getIfPresent(hash);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        try {
+            String result = AsyncCaches.getOrCompute(memory, hash, () -> load(hash, key, call));
+            if (result == null || result.isBlank()) {
+                memory.synchronous().invalidate(hash);
+            }
+            return result;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Number of calls the current thread has sent to a provider through the cache. A call answered
+     * from the cache, or by another thread's call for the same key, leaves it unchanged.
+     */
+    public long providerCallsOnThread() {
+        return PROVIDER_CALLS.get()[0];
+    }
+
+    /**
+     * Run the work with the cache bypassed on this thread when bypass is set
+     */
+    public <T> T bypassIf(boolean bypass, Supplier<T> work) {
+        if (!bypass) {
+            return work.get();
+        }
+        boolean previous = BYPASS.get();
+        BYPASS.set(true);
+        try {
+            return work.get();
+        } finally {
+            BYPASS.set(previous);
+        }
+    }
+
+    /**
+     * Whether the current thread is running bypassed work
+     */
+    public boolean isBypassed() {
+        return BYPASS.get();
+    }
+
+    /**
+     * Hit and miss counts for the AI status endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        double hits = memoryHits.count() + databaseHits.count();
+        double lookups = hits + misses.count();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("ttlHours", ttlHours);
+        statistics.put("memoryHits", (long) memoryHits.count());
+        statistics.put("databaseHits", (long) databaseHits.count());
+        statistics.put("misses", (long) misses.count());
+        statistics.put("bypasses", (long) bypasses.count());
+        statistics.put("hitRate", lookups == 0 ? 0.0 : hits / lookups);
+        statistics.put("memoryEntries", memory.synchronous().estimatedSize());
+        return statistics;
+    }
+
+    private String load(String hash, LlmCallKey key, LlmCall call) {
+        Optional<String> persisted = readPersisted(hash);
+        if (persisted.isPresent()) {
+            databaseHits.increment();
+            return persisted.get();
+        }
+        misses.increment();
+        try {
+            String result = callProvider(call);
+            store(hash, key, result);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String callProvider(LlmCall call) throws IOException {
+        PROVIDER_CALLS.get()[0]++;
+        return call.call();
+    }
+
+    // The persisted tier is best effort: failures fall through to the provider
+    private Optional<String> readPersisted(String hash) {
+        try {
+            Instant now = Instant.now();
+            return readTransaction.execute(status -> repository.findById(hash)
+                    .filter(entry -> entry.getExpiresAt().isAfter(now))
+                    .map(LlmResultCacheEntry::getResult));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to read cached LLM result {}: {}", hash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String hash, LlmCallKey key, String result) {
+        if (result == null || result.isBlank()) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            // Flushed here so a duplicate key fails inside this try rather than at a later commit
+            writeTransaction.executeWithoutResult(status -> repository.saveAndFlush(LlmResultCacheEntry.builder()
+                    .keyHash(hash)
+                    .provider(key.getProvider())
+                    .model(key.getModel())
+                    .result(result)
+                    .createdAt(now)
+                    .expiresAt(now.plus(Duration.ofHours(ttlHours)))
+                    .build()));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to persist LLM result {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private String hash(LlmCallKey key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(key.getProvider().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(key.getModel()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            Object request = key.getRequest();
+            digest.update(request instanceof String
+                    ? ((String) request).getBytes(StandardCharsets.UTF_8)
+                    : writer.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot hash LLM call", e);
+        }
+    }
+
+    /**
+     * Drop expired rows and keep the table within max-rows, oldest first
+     */
+    @Scheduled(fixedDelayString = "${app.ai.result-cache.prune-interval-ms:3600000}")
+    public void prune() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int expired = repository.deleteExpired(Instant.now());
+                List<Instant> cutoff = repository.findCreatedAtNewestFirst(PageRequest.of(maxRows, 1));
+                int trimmed = cutoff.isEmpty() ? 0 : repository.deleteCreatedBefore(cutoff.get(0));
+                if (expired + trimmed > 0) {
+                    log.info("Pruned {} expired and {} surplus cached LLM results", expired, trimmed);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to prune cached LLM results: {}", e.getMessage());
+        }
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("ai.result.cache")
+                .description("LLM result cache lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,192 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker for one AI provider over a rolling window of recent calls.
+ * The window keeps the calls of the last windowMs, at most maxCalls of them. Once it holds
+ * minimumCalls, the breaker opens when the failure rate or the slow-call rate reaches its
+ * threshold. After openMs one trial call is let through (half-open); its outcome closes the
+ * breaker with a fresh window or opens it again. Successful latencies also give the p95 the
+ * router uses as its hedge delay. Every state change starts a new generation, and outcomes of
+ * calls started in an earlier generation are ignored, so a call that began before the breaker
+ * opened cannot close or reopen it by finishing late.
+ */
+public class ProviderCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /**
+     * A call claimed with tryStart, tagged with the generation it started in and whether it is
+     * the half-open trial
+     */
+    @lombok.Value
+    public static class Permit {
+        long generation;
+        boolean trial;
+    }
+
+    private final long windowMs;
+    private final int maxCalls;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMs;
+    private final double slowCallRateThreshold;
+    private final long openMs;
+
+    private final Deque<Outcome> window = new ArrayDeque<>();
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long generation;
+    private boolean trialInFlight;
+
+    public ProviderCircuitBreaker(long windowMs, int maxCalls, int minimumCalls, double failureRateThreshold,
+                                  long slowCallMs, double slowCallRateThreshold, long openMs) {
+        this.windowMs = windowMs;
+        this.maxCalls = maxCalls;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMs = slowCallMs;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * Whether a call could start now, without claiming the half-open trial
+     */
+    public synchronized boolean isCallPermitted() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                return !trialInFlight;
+            default:
+                return now() - openedAt >= openMs;
+        }
+    }
+
+    /**
+     * Claim a call, or null if the breaker does not permit one. An open breaker past its open
+     * time moves to half-open and grants the trial.
+     */
+    public synchronized Permit tryStart() {
+        if (state == State.OPEN) {
+            if (now() - openedAt < openMs) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            generation++;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return null;
+            }
+            trialInFlight = true;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    /**
+     * Record the outcome of a call started with tryStart. Only the trial decides a half-open
+     * breaker, and calls from an earlier generation are not counted.
+     */
+    public synchronized void record(Permit permit, boolean success, long latencyMs) {
+        if (permit.getGeneration() != generation) {
+            return;
+        }
+        long now = now();
+        if (state == State.HALF_OPEN) {
+            if (!permit.isTrial()) {
+                return;
+            }
+            trialInFlight = false;
+            window.clear();
+            if (success && latencyMs < slowCallMs) {
+                state = State.CLOSED;
+                generation++;
+            } else {
+                open(now);
+            }
+            window.addLast(new Outcome(now, success, latencyMs));
+            return;
+        }
+        window.addLast(new Outcome(now, success, latencyMs));
+        evict(now);
+        if (state == State.CLOSED && window.size() >= minimumCalls
+                && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+            open(now);
+        }
+    }
+
+    /**
+     * Give back a call claimed with tryStart that never ran
+     */
+    public synchronized void abandon(Permit permit) {
+        if (permit.isTrial() && permit.getGeneration() == generation) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 95th percentile latency of successful calls in the window, or -1 below minimumCalls samples
+     */
+    public synchronized long p95LatencyMs() {
+        evict(now());
+        long[] latencies = window.stream().filter(Outcome::isSuccess).mapToLong(Outcome::getLatencyMs).sorted().toArray();
+        if (latencies.length < minimumCalls) {
+            return -1;
+        }
+        return latencies[(int) Math.ceil(latencies.length * 0.95) - 1];
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        evict(now());
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("calls", window.size());
+        status.put("failureRate", failureRate());
+        status.put("slowCallRate", slowCallRate());
+        status.put("p95LatencyMs", p95LatencyMs());
+        return status;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        generation++;
+    }
+
+    private void evict(long now) {
+        while (!window.isEmpty() && (window.size() > maxCalls || now - window.peekFirst().getAt() > windowMs)) {
+            window.removeFirst();
+        }
+    }
+
+    private double failureRate() {
+        return window.isEmpty() ? 0 : (double) window.stream().filter(outcome -> !outcome.isSuccess()).count() / window.size();
+    }
+
+    private double slowCallRate() {
+        return window.isEmpty() ? 0 : (double) window.stream().filter(outcome -> outcome.getLatencyMs() >= slowCallMs).count() / window.size();
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    @lombok.Value
+    private static class Outcome {
+        long at;
+        boolean success;
+        long latencyMs;
+    }
+}
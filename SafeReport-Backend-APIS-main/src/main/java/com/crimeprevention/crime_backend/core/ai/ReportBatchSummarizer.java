@@ -0,0 +1,394 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.dto.ai.BatchSummaryResponse;
+import com.crimeprevention.crime_backend.core.model.ai.ReportSummary;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.ai.ReportSummaryRepository;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Summarises many reports with one model call per batch instead of one call per report.
+ * Reports are packed into a single prompt, sharing one instruction preamble, until the
+ * estimated input reaches max-input-tokens, max-reports are packed, or the output budget is
+ * used up. The model answers with a JSON array keyed by report id; reports missing from or
+ * malformed in the answer, and those in a failed batch, are summarised one by one instead.
+ * Runs on demand and nightly over reports that have no summary; one run at a time.
+ */
+@Component
+@Slf4j
+public class ReportBatchSummarizer {
+
+    private static final String SYSTEM_PROMPT =
+            "You are a crime prevention AI assistant. Summarise crime reports and answer with JSON only.";
+    private static final String PREAMBLE = "Summarise each crime report below. Answer with only a JSON array "
+            + "holding one object per report, in the same order, of the form:\n"
+            + "{\"id\": \"<report id>\", \"summary\": \"<2-3 sentences>\", \"keyPoints\": [\"...\"], "
+            + "\"urgency\": \"LOW|MEDIUM|HIGH|CRITICAL\", \"priority\": \"LOW|MEDIUM|HIGH|URGENT\", "
+            + "\"tags\": [\"...\"], \"language\": \"<language of the report>\"}\n\n";
+    // Rough size of a token in characters, for budgeting before the call
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final LlmClient llmClient;
+    private final AIService aiService;
+    private final AIConfig aiConfig;
+    private final ReportRepository reportRepository;
+    private final ReportSummaryRepository reportSummaryRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.batch.max-input-tokens:6000}")
+    private int maxInputTokens;
+
+    @Value("${app.ai.batch.max-output-tokens:4096}")
+    private int maxOutputTokens;
+
+    @Value("${app.ai.batch.output-tokens-per-report:200}")
+    private int outputTokensPerReport;
+
+    @Value("${app.ai.batch.max-reports:20}")
+    private int maxReports;
+
+    @Value("${app.ai.batch.nightly-enabled:true}")
+    private boolean nightlyEnabled;
+
+    @Value("${app.ai.batch.nightly-limit:1000}")
+    private int nightlyLimit;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile BatchSummaryResponse lastRun;
+
+    private Timer callTimer;
+    private DistributionSummary batchSize;
+    private Counter batchedCounter;
+    private Counter fallbackCounter;
+    private Counter failedCounter;
+
+    public ReportBatchSummarizer(LlmClient llmClient, AIService aiService, AIConfig aiConfig,
+                                 ReportRepository reportRepository, ReportSummaryRepository reportSummaryRepository,
+                                 ObjectMapper objectMapper, @Qualifier("aiBatchExecutor") Executor executor,
+                                 MeterRegistry meterRegistry) {
+        this.llmClient = llmClient;
+        this.aiService = aiService;
+        this.aiConfig = aiConfig;
+        this.reportRepository = reportRepository;
+        this.reportSummaryRepository = reportSummaryRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        callTimer = Timer.builder("ai.batch.call")
+                .description("Time for one batched summarisation call")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("ai.batch.size")
+                .description("Reports packed into one summarisation call")
+                .register(meterRegistry);
+        batchedCounter = outcome("batched");
+        fallbackCounter = outcome("fallback");
+        failedCounter = outcome("failed");
+    }
+
+    /**
+     * Start a run in the background over the given reports, or over unsummarised reports up to
+     * limit when none are given. False if a run is already in progress.
+     */
+    public boolean start(List<UUID> reportIds, int limit) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    doRun(resolve(reportIds, limit));
+                } catch (RuntimeException e) {
+                    log.error("Batch summarisation run failed: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    /**
+     * Summarise the reports in the calling thread. Empty if a run is already in progress.
+     */
+    public Optional<BatchSummaryResponse> run(List<UUID> reportIds) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(doRun(reportIds));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Only hands the run to aiBatchExecutor, so the shared scheduler thread is not held for the model calls
+    @Scheduled(cron = "${app.ai.batch.cron:0 0 2 * * *}")
+    public void summarizeNightly() {
+        if (!nightlyEnabled || !aiConfig.isEnabled()) {
+            return;
+        }
+        if (!start(null, nightlyLimit)) {
+            log.info("Skipping nightly batch summarisation, a run is in progress");
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Optional<BatchSummaryResponse> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    private List<UUID> resolve(List<UUID> reportIds, int limit) {
+        if (reportIds != null && !reportIds.isEmpty()) {
+            return reportIds;
+        }
+        return reportRepository.findUnsummarizedIds(PageRequest.of(0, limit));
+    }
+
+    private BatchSummaryResponse doRun(List<UUID> reportIds) {
+        Instant startedAt = Instant.now();
+        Set<UUID> requested = new LinkedHashSet<>(reportIds);
+        List<Report> reports = reportRepository.findAllById(requested);
+        Set<UUID> leftOver = new LinkedHashSet<>(requested);
+        int batched = 0;
+        int modelCalls = 0;
+
+        for (List<Report> batch : pack(reports)) {
+            modelCalls++;
+            List<ReportSummary> summaries = summarizeBatch(batch);
+            if (summaries.isEmpty()) {
+                continue;
+            }
+            try {
+                reportSummaryRepository.saveAll(summaries);
+                summaries.forEach(summary -> leftOver.remove(summary.getReport().getId()));
+                batched += summaries.size();
+            } catch (DataAccessException e) {
+                log.warn("Failed to save {} batched summaries: {}", summaries.size(), e.getMessage());
+            }
+        }
+
+        int fallback = 0;
+        List<String> failed = new ArrayList<>();
+        for (UUID reportId : leftOver) {
+            try {
+                aiService.summarizeReportById(reportId);
+                fallback++;
+            } catch (RuntimeException e) {
+                log.warn("Single summary of report {} failed: {}", reportId, e.getMessage());
+                failed.add(reportId.toString());
+            }
+        }
+        modelCalls += leftOver.size();
+
+        batchedCounter.increment(batched);
+        fallbackCounter.increment(fallback);
+        failedCounter.increment(failed.size());
+
+        Instant completedAt = Instant.now();
+        long durationMs = Math.max(1, Duration.between(startedAt, completedAt).toMillis());
+        int summarized = batched + fallback;
+        BatchSummaryResponse result = BatchSummaryResponse.builder()
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .requested(requested.size())
+                .batched(batched)
+                .fallback(fallback)
+                .failed(failed.size())
+                .modelCalls(modelCalls)
+                .durationMs(durationMs)
+                .reportsPerMinute(summarized * 60_000.0 / durationMs)
+                .failedReportIds(failed)
+                .build();
+        lastRun = result;
+        log.info("Batch summarisation: {} reports ({} batched, {} single, {} failed) in {} model calls, {} ms, {} reports/min",
+                requested.size(), batched, fallback, failed.size(), modelCalls, durationMs,
+                String.format("%.1f", result.getReportsPerMinute()));
+        return result;
+    }
+
+    // Greedy packing in the given order; a report larger than the budget gets a batch of its own
+    private List<List<Report>> pack(List<Report> reports) {
+        int perBatch = Math.max(1, Math.min(maxReports, maxOutputTokens / Math.max(1, outputTokensPerReport)));
+        int budget = maxInputTokens - estimateTokens(SYSTEM_PROMPT + PREAMBLE);
+        List<List<Report>> batches = new ArrayList<>();
+        List<Report> current = new ArrayList<>();
+        int used = 0;
+        for (Report report : reports) {
+            int tokens = estimateTokens(section(report));
+            if (!current.isEmpty() && (current.size() >= perBatch || used + tokens > budget)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                used = 0;
+            }
+            current.add(report);
+            used += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    // Summaries for the reports the model answered for; an empty list if the call failed
+    private List<ReportSummary> summarizeBatch(List<Report> batch) {
+        StringBuilder prompt = new StringBuilder(PREAMBLE);
+        batch.forEach(report -> prompt.append(section(report)));
+        int outputTokens = Math.min(maxOutputTokens, outputTokensPerReport * batch.size());
+        batchSize.record(batch.size());
+
+        long start = System.nanoTime();
+        LlmClient.Completion completion;
+        try {
+            completion = llmClient.complete(SYSTEM_PROMPT, prompt.toString(), outputTokens);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Batched summary call for {} reports failed: {}", batch.size(), e.getMessage());
+            return List.of();
+        } finally {
+            callTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        int processingTimeMs = (int) (Duration.ofNanos(System.nanoTime() - start).toMillis() / batch.size());
+
+        Map<String, JsonNode> answers = parse(completion.getText());
+        List<ReportSummary> summaries = new ArrayList<>();
+        for (Report report : batch) {
+            JsonNode answer = answers.get(report.getId().toString());
+            String summary = answer != null ? answer.path("summary").asText("").trim() : "";
+            if (summary.isEmpty()) {
+                continue;
+            }
+            summaries.add(ReportSummary.builder()
+                    .report(report)
+                    .summary(summary)
+                    .keyPoints(join(answer.path("keyPoints")))
+                    .urgencyLevel(enumValue(ReportSummary.UrgencyLevel.class, answer.path("urgency").asText(),
+                            ReportSummary.UrgencyLevel.MEDIUM))
+                    .priorityLevel(enumValue(ReportSummary.PriorityLevel.class, answer.path("priority").asText(),
+                            ReportSummary.PriorityLevel.MEDIUM))
+                    .tags(list(answer.path("tags")))
+                    .aiServiceUsed(completion.getProvider())
+                    .modelVersion(completion.getModel())
+                    .confidenceScore(0.85)
+                    .wordCount(summary.split("\\s+").length)
+                    .processingTimeMs(processingTimeMs)
+                    .language(answer.path("language").asText("English"))
+                    .promptUsed(section(report))
+                    .build());
+        }
+        return summaries;
+    }
+
+    private static String section(Report report) {
+        StringBuilder section = new StringBuilder();
+        section.append("### Report ").append(report.getId()).append('\n');
+        section.append("Title: ").append(report.getTitle()).append('\n');
+        section.append("Description: ").append(report.getDescription()).append('\n');
+        if (report.getCrimeType() != null) {
+            section.append("Crime Type: ").append(report.getCrimeType().name()).append('\n');
+        }
+        if (report.getLocation() != null) {
+            section.append("Location: ").append(report.getLocation().getAddress())
+                    .append(", ").append(report.getLocation().getCity()).append('\n');
+        }
+        if (report.getDate() != null) {
+            section.append("Timestamp: ").append(report.getDate()).append('\n');
+        }
+        return section.append('\n').toString();
+    }
+
+    // Answers by report id; tolerates code fences and text around the array
+    private Map<String, JsonNode> parse(String text) {
+        Map<String, JsonNode> answers = new HashMap<>();
+        int start = text != null ? text.indexOf('[') : -1;
+        int end = text != null ? text.lastIndexOf(']') : -1;
+        if (start < 0 || end <= start) {
+            log.warn("Batched summary answer holds no JSON array");
+            return answers;
+        }
+        try {
+            for (JsonNode answer : objectMapper.readTree(text.substring(start, end + 1))) {
+                String id = answer.path("id").asText("").trim();
+                if (!id.isEmpty()) {
+                    answers.put(id, answer);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Batched summary answer is not valid JSON: {}", e.getMessage());
+        }
+        return answers;
+    }
+
+    private static String join(JsonNode node) {
+        if (node.isArray()) {
+            List<String> points = list(node);
+            return points.isEmpty() ? "" : "- " + String.join("\n- ", points);
+        }
+        return node.asText("");
+    }
+
+    private static List<String> list(JsonNode node) {
+        List<String> values = new ArrayList<>();
+        node.forEach(value -> {
+            if (!value.asText("").isBlank()) {
+                values.add(value.asText().trim());
+            }
+        });
+        return values;
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String text, E defaultValue) {
+        String upper = text == null ? "" : text.trim().toUpperCase();
+        for (E value : type.getEnumConstants()) {
+            if (upper.contains(value.name())) {
+                return value;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private Counter outcome(String outcome) {
+        return Counter.builder("ai.batch.reports")
+                .description("Reports handled by batch summarisation by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,316 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+import com.crimeprevention.crime_backend.core.dto.ai.ReportSummaryResponse;
+import com.crimeprevention.crime_backend.core.dto.ai.SummaryJobResponse;
+import com.crimeprevention.crime_backend.core.dto.ai.SummaryJobResponse.Status;
+import com.crimeprevention.crime_backend.core.dto.ai.SummaryJobResponse.Type;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.repo.ai.ReportSummaryRepository;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs report summarisation off the request threads. Submitting returns a job at once; a fixed
+ * pool of aiJobExecutor workers picks jobs for HIGH and URGENT reports first, then oldest first.
+ * At most queue-capacity jobs wait (plus urgent-reserve slots only urgent jobs may use); beyond
+ * that submissions are rejected. Resubmitting a job the same user has waiting or running returns it.
+ * Job state is kept in memory for retention-minutes and pushed to the submitter over STOMP.
+ */
+@Component
+@Slf4j
+public class SummaryJobQueue {
+
+    static final String USER_QUEUE = "/queue/ai-jobs";
+    private static final Set<Priority> URGENT_PRIORITIES = EnumSet.of(Priority.HIGH, Priority.URGENT);
+
+    private final AIService aiService;
+    private final LlmResultCache llmResultCache;
+    private final ReportRepository reportRepository;
+    private final ReportSummaryRepository reportSummaryRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.jobs.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.ai.jobs.urgent-reserve:50}")
+    private int urgentReserve;
+
+    @Value("${app.ai.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    // type:target:bypass:submitter -> job id, while the job is queued or running
+    private final Map<String, UUID> active = new ConcurrentHashMap<>();
+    private Cache<UUID, Tracked> jobs;
+
+    private Counter rejectedCounter;
+    private Timer urgentWaitTimer;
+    private Timer normalWaitTimer;
+
+    public SummaryJobQueue(AIService aiService, LlmResultCache llmResultCache, ReportRepository reportRepository,
+                           ReportSummaryRepository reportSummaryRepository, SimpMessagingTemplate messagingTemplate,
+                           @Qualifier("aiJobExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.llmResultCache = llmResultCache;
+        this.reportRepository = reportRepository;
+        this.reportSummaryRepository = reportSummaryRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+        rejectedCounter = Counter.builder("ai.jobs.rejected")
+                .description("Summarisation jobs rejected because the queue was full")
+                .register(meterRegistry);
+        urgentWaitTimer = waitTimer("urgent");
+        normalWaitTimer = waitTimer("normal");
+        Gauge.builder("ai.jobs.queued", queued, AtomicInteger::get)
+                .description("Summarisation jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.running", running, AtomicInteger::get)
+                .description("Summarisation jobs being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a summary of the report
+     */
+    public SummaryJobResponse submitSummary(UUID reportId, UUID submittedBy, boolean bypassCache) {
+        boolean urgent = reportRepository.findPriorityById(reportId).map(URGENT_PRIORITIES::contains).orElse(false);
+        return submit(Type.SUMMARIZE_REPORT, reportId, urgent, submittedBy, bypassCache);
+    }
+
+    /**
+     * Queue a regeneration of the summary. Regeneration always bypasses cached LLM results.
+     */
+    public SummaryJobResponse submitRegeneration(UUID summaryId, UUID submittedBy) {
+        boolean urgent = reportSummaryRepository.findReportPriorityById(summaryId)
+                .map(URGENT_PRIORITIES::contains).orElse(false);
+        return submit(Type.REGENERATE_SUMMARY, summaryId, urgent, submittedBy, true);
+    }
+
+    /**
+     * The job, if it exists, is still retained and was submitted by the user (any job for admins)
+     */
+    public Optional<SummaryJobResponse> getJob(UUID jobId, UUID userId, boolean admin) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .filter(tracked -> admin || tracked.getSubmittedBy().equals(userId))
+                .map(Tracked::getState);
+    }
+
+    /**
+     * Queue depth and worker counts for the AI status endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("queued", queued.get());
+        statistics.put("running", running.get());
+        statistics.put("queueCapacity", queueCapacity);
+        statistics.put("urgentReserve", urgentReserve);
+        statistics.put("rejected", (long) rejectedCounter.count());
+        return statistics;
+    }
+
+    private SummaryJobResponse submit(Type type, UUID targetId, boolean urgent, UUID submittedBy, boolean bypassCache) {
+        String activeKey = type + ":" + targetId + ":" + bypassCache + ":" + submittedBy;
+        SummaryJobResponse existing = activeJob(active.get(activeKey));
+        if (existing != null) {
+            return existing;
+        }
+
+        int limit = urgent ? queueCapacity + urgentReserve : queueCapacity;
+        if (queued.incrementAndGet() > limit) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            throw new SummaryJobRejectedException("AI job queue is full, retry later");
+        }
+
+        UUID jobId = UUID.randomUUID();
+        Job job = new Job(jobId, activeKey, type, targetId, urgent, bypassCache, sequence.incrementAndGet());
+        SummaryJobResponse state = SummaryJobResponse.builder()
+                .jobId(jobId.toString())
+                .type(type)
+                .targetId(targetId.toString())
+                .status(Status.QUEUED)
+                .urgent(urgent)
+                .submittedAt(Instant.now())
+                .build();
+        // Retained before the key is claimed, so a concurrent submit never sees a claimed key without its job
+        jobs.put(jobId, new Tracked(submittedBy, state));
+        existing = claim(activeKey, jobId);
+        if (existing != null) {
+            queued.decrementAndGet();
+            jobs.invalidate(jobId);
+            return existing;
+        }
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            active.remove(activeKey, jobId);
+            jobs.invalidate(jobId);
+            rejectedCounter.increment();
+            throw new SummaryJobRejectedException("AI job executor is shutting down");
+        }
+        log.debug("Queued {} job {} for {} (urgent: {})", type, jobId, targetId, urgent);
+        return state;
+    }
+
+    // Makes the job the active one for the key, or returns the job a concurrent submit made active first
+    private SummaryJobResponse claim(String activeKey, UUID jobId) {
+        while (true) {
+            UUID currentId = active.putIfAbsent(activeKey, jobId);
+            if (currentId == null) {
+                return null;
+            }
+            SummaryJobResponse current = activeJob(currentId);
+            if (current != null) {
+                return current;
+            }
+            // The key points at a finished or expired job
+            if (active.replace(activeKey, currentId, jobId)) {
+                return null;
+            }
+        }
+    }
+
+    private SummaryJobResponse activeJob(UUID jobId) {
+        Tracked tracked = jobId != null ? jobs.getIfPresent(jobId) : null;
+        return tracked != null && !tracked.getState().isFinished() ? tracked.getState() : null;
+    }
+
+    private void process(Job job) {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        Instant startedAt = Instant.now();
+        SummaryJobResponse started = update(job.id, state -> state.toBuilder()
+                .status(Status.RUNNING).startedAt(startedAt).build());
+        if (started != null) {
+            (job.urgent ? urgentWaitTimer : normalWaitTimer)
+                    .record(Duration.between(started.getSubmittedAt(), startedAt));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "succeeded";
+        try {
+            ReportSummaryResponse result = llmResultCache.bypassIf(job.bypassCache,
+                    () -> job.type == Type.SUMMARIZE_REPORT
+                            ? aiService.summarizeReportById(job.targetId)
+                            : aiService.regenerateSummary(job.targetId));
+            update(job.id, state -> state.toBuilder()
+                    .status(Status.SUCCEEDED).result(result).completedAt(Instant.now()).build());
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.warn("{} job {} for {} failed: {}", job.type, job.id, job.targetId, e.getMessage());
+            update(job.id, state -> state.toBuilder()
+                    .status(Status.FAILED).error(e.getMessage()).completedAt(Instant.now()).build());
+        } finally {
+            running.decrementAndGet();
+            active.remove(job.activeKey, job.id);
+            sample.stop(Timer.builder("ai.jobs.run")
+                    .description("Time to process one summarisation job")
+                    .tag("type", job.type.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Replaces the retained state and pushes it to the submitter
+    private SummaryJobResponse update(UUID jobId, UnaryOperator<SummaryJobResponse> change) {
+        Tracked tracked = jobs.asMap().computeIfPresent(jobId,
+                (id, current) -> new Tracked(current.getSubmittedBy(), change.apply(current.getState())));
+        if (tracked == null) {
+            return null;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(tracked.getSubmittedBy().toString(), USER_QUEUE, tracked.getState());
+        } catch (MessagingException e) {
+            log.warn("Failed to push job {} to user {}: {}", jobId, tracked.getSubmittedBy(), e.getMessage());
+        }
+        return tracked.getState();
+    }
+
+    private Timer waitTimer(String priority) {
+        return Timer.builder("ai.jobs.wait")
+                .description("Time a summarisation job waited for a worker")
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    @lombok.Value
+    private static class Tracked {
+        UUID submittedBy;
+        SummaryJobResponse state;
+    }
+
+    // Ordered urgent first, then by submission
+    private final class Job implements Runnable, Comparable<Job> {
+        final UUID id;
+        final String activeKey;
+        final Type type;
+        final UUID targetId;
+        final boolean urgent;
+        final boolean bypassCache;
+        final long sequence;
+
+        Job(UUID id, String activeKey, Type type, UUID targetId, boolean urgent, boolean bypassCache, long sequence) {
+            this.id = id;
+            this.activeKey = activeKey;
+            this.type = type;
+            this.targetId = targetId;
+            this.urgent = urgent;
+            this.bypassCache = bypassCache;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            process(this);
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (urgent != other.urgent) {
+                return urgent ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
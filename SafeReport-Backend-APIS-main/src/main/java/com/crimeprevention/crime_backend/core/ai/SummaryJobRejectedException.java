@@ -0,0 +1,11 @@
+package com.crimeprevention.crime_backend.core.ai;
+
+/**
+ * Thrown when the summarisation job queue is full
+ */
+public class SummaryJobRejectedException extends RuntimeException {
+
+    public SummaryJobRejectedException(String message) {
+        super(message);
+    }
+}
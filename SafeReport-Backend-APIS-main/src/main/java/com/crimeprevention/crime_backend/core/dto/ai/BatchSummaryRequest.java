@@ -0,0 +1,19 @@
+package com.crimeprevention.crime_backend.core.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchSummaryRequest {
+
+    // Reports to summarise; when empty, reports without a summary are taken oldest first
+    private List<UUID> reportIds;
+    // Cap on unsummarised reports taken when no ids are given
+    private Integer limit;
+}
@@ -0,0 +1,32 @@
+package com.crimeprevention.crime_backend.core.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome and throughput of one batch summarisation run
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchSummaryResponse {
+
+    private Instant startedAt;
+    private Instant completedAt;
+    private int requested;
+    // Summarised from a batched model call
+    private int batched;
+    // Summarised by a single-report call after the batch left them out
+    private int fallback;
+    private int failed;
+    private int modelCalls;
+    private long durationMs;
+    private double reportsPerMinute;
+    private List<String> failedReportIds;
+}
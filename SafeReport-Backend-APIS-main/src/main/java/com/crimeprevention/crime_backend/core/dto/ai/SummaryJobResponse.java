@@ -0,0 +1,47 @@
+package com.crimeprevention.crime_backend.core.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous summarisation job, returned on submit and poll and pushed
+ * to the submitter on /user/queue/ai-jobs at every status change
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class SummaryJobResponse {
+
+    public enum Type {
+        SUMMARIZE_REPORT,
+        REGENERATE_SUMMARY
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String jobId;
+    private Type type;
+    // Report id for SUMMARIZE_REPORT, summary id for REGENERATE_SUMMARY
+    private String targetId;
+    private Status status;
+    private boolean urgent;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private ReportSummaryResponse result;
+    private String error;
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -22,6 +22,11 @@ public class CrimeMapRequest {
     private Double latitude; // Optional: center point for map
     private Double longitude; // Optional: center point for map
     private Double radiusKm; // Optional: radius for area analysis
+    private Integer zoom; // Optional: map zoom level for clusters
+    private Double north; // Optional: viewport bounds for clusters
+    private Double south;
+    private Double east;
+    private Double west;
     private String mapType; // "heatmap", "clusters", "individual"
     private Integer maxPoints; // Maximum number of points to return
     private Boolean includeDetails; // Whether to include full crime details
@@ -33,6 +33,9 @@ public class CrimeMapResponse {
     // Statistics for the mapped area
     private MapStatistics statistics;
     
+    // True when the area query hit app.geo.bounding-box.max-reports and only the newest reports were mapped
+    private Boolean truncated;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -90,6 +93,7 @@ public class CrimeMapResponse {
         private Double longitude;
         private Integer crimeCount;
         private List<String> crimeTypes;
+        private Map<String, Integer> crimeTypeBreakdown;
         private Double averageRiskScore;
         private LocalDateTime firstCrime;
         private LocalDateTime lastCrime;
@@ -111,5 +115,7 @@ public class CrimeMapResponse {
         private String highestRiskArea;
         private String mostCommonCrimeType;
         private LocalDateTime crimePeakTime;
+        // True when computed from a database read capped at app.geo.bounding-box.max-reports
+        private Boolean truncated;
     }
 }
@@ -0,0 +1,46 @@
+package com.crimeprevention.crime_backend.core.dto.mapping;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Column-oriented encoding of map points, negotiated via the Accept header on
+ * /api/maps/points and /api/maps/live-incidents.
+ * Every column is a parallel array indexed by point. Coordinates are integers in units of
+ * 1/coordinateScale degrees, enums are indexes into the accompanying name tables
+ * (-1 when unknown), timestamps are epoch seconds and risk scores are percentages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrimePointColumns {
+
+    public static final String JSON_MEDIA_TYPE = "application/vnd.safereport.points+json";
+    public static final String BINARY_MEDIA_TYPE = "application/vnd.safereport.points";
+
+    // 1e5 keeps coordinates to about 1.1 m
+    public static final int DEFAULT_COORDINATE_SCALE = 100_000;
+
+    private int count;
+    private int coordinateScale;
+
+    private List<String> crimeTypeNames;
+    private List<String> statusNames;
+    private List<String> priorityNames;
+
+    private List<String> ids;
+    private int[] latitudes;
+    private int[] longitudes;
+    private int[] crimeTypes;
+    private int[] statuses;
+    private int[] priorities;
+    private long[] occurredAt;
+    private long[] reportedAt;
+    private int[] riskScores;
+    private List<String> titles;
+}
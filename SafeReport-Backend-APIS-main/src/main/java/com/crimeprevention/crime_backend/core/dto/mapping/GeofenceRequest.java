@@ -0,0 +1,47 @@
+package com.crimeprevention.crime_backend.core.dto.mapping;
+
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Create a geofence. A circle needs a radius and either a saved location or a centre;
+ * a polygon needs at least three vertices. With a watch group ID the fence belongs to the group.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceRequest {
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotNull(message = "Type is required")
+    private GeofenceType type;
+
+    private UUID watchGroupId;
+
+    private UUID locationId;
+    private Double centerLatitude;
+    private Double centerLongitude;
+    private Double radiusKm;
+
+    private List<VertexDTO> vertices;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VertexDTO {
+        private double latitude;
+        private double longitude;
+    }
+}
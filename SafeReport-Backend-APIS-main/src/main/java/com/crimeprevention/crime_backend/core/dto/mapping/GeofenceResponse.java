@@ -0,0 +1,28 @@
+package com.crimeprevention.crime_backend.core.dto.mapping;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceResponse {
+    private UUID id;
+    private String name;
+    private String type;
+    private String ownerType;
+    private UUID ownerId;
+    private UUID locationId;
+    private Double centerLatitude;
+    private Double centerLongitude;
+    private Double radiusKm;
+    private List<GeofenceRequest.VertexDTO> vertices;
+    private Instant createdAt;
+}
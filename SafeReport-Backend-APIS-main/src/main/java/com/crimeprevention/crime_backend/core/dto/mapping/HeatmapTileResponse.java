@@ -0,0 +1,31 @@
+package com.crimeprevention.crime_backend.core.dto.mapping;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapTileResponse {
+    
+    // Slippy-map tile coordinates
+    private Integer z;
+    private Integer x;
+    private Integer y;
+    
+    private String timeRange;
+    private LocalDateTime generatedAt;
+    private Long totalCrimes;
+    
+    // One point per bin and crime type, positioned at the centroid of its reports
+    private List<CrimeMapResponse.HeatmapPoint> points;
+    
+    // True when the tile was binned from a database read capped at app.geo.bounding-box.max-reports
+    private Boolean truncated;
+}
@@ -0,0 +1,45 @@
+package com.crimeprevention.crime_backend.core.dto.news;
+
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastChannel;
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * State of a news broadcast job, returned on submit and from /api/news/broadcasts/{jobId}
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BroadcastJobResponse {
+
+    private String jobId;
+    private String title;
+    private BroadcastStatus status;
+    private String requestedBy;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;
+    private List<ChannelProgress> channels;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ChannelProgress {
+        private BroadcastChannel channel;
+        private long total;
+        private long sent;
+        private long failed;
+        private boolean done;
+        // Share of total processed, sent or failed
+        private double percent;
+    }
+}
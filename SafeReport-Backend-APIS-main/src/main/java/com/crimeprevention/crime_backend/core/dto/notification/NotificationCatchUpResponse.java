@@ -0,0 +1,23 @@
+package com.crimeprevention.crime_backend.core.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Notifications created after a cursor, oldest first, led by recent ones before it that may repeat
+ * notifications already received. Pass nextCursor back while hasMore is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCatchUpResponse {
+    private List<NotificationResponse> notifications;
+    private String nextCursor;
+    private boolean hasMore;
+    private long unreadCount;
+}
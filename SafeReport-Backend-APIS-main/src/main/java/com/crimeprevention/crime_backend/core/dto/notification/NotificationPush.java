@@ -0,0 +1,18 @@
+package com.crimeprevention.crime_backend.core.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent on /user/queue/notifications for every new notification, with the badge count it leaves
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPush {
+    private NotificationResponse notification;
+    private long unreadCount;
+}
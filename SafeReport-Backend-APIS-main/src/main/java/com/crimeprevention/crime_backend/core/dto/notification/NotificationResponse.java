@@ -31,4 +31,6 @@ public class NotificationResponse {
     private String metadata;
     private Instant createdAt;
     private Instant updatedAt;
+    // Position of this notification for GET /api/notifications/since
+    private String cursor;
 } 
\ No newline at end of file
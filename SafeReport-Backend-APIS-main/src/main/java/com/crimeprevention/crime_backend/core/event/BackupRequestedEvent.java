@@ -0,0 +1,15 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.dto.officer.BackupResponseDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when an officer raises a backup request; routed to nearby officers after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BackupRequestedEvent {
+
+    private final BackupResponseDTO backup;
+}
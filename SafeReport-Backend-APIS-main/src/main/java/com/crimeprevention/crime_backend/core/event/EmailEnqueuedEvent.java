@@ -0,0 +1,16 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when an email is written to the outbox; wakes the outbox workers after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EmailEnqueuedEvent {
+
+    private final UUID messageId;
+}
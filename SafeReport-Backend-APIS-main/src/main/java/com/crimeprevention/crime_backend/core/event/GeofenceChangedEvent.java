@@ -0,0 +1,30 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.geo.GeofenceShape;
+import com.crimeprevention.crime_backend.core.model.location.Geofence;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when a geofence is created or deleted; the geofence index applies it after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class GeofenceChangedEvent {
+
+    private final UUID geofenceId;
+    /**
+     * The saved shape, or null when the geofence was deleted
+     */
+    private final GeofenceShape shape;
+
+    public static GeofenceChangedEvent saved(Geofence geofence) {
+        return new GeofenceChangedEvent(geofence.getId(), GeofenceShape.from(geofence));
+    }
+
+    public static GeofenceChangedEvent deleted(UUID geofenceId) {
+        return new GeofenceChangedEvent(geofenceId, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when a notification is saved for a user; pushed to the user's open sessions after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class NotificationCreatedEvent {
+
+    private final UUID userId;
+    private final NotificationResponse notification;
+}
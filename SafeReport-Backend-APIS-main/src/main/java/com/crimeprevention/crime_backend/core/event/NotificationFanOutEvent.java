@@ -0,0 +1,34 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import com.crimeprevention.crime_backend.core.notification.NotificationContent;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published to send one notification to many users; written by NotificationFanOut after commit.
+ * Recipients are either every active user with one of the roles, or the given users (each once).
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class NotificationFanOutEvent {
+
+    private final Set<UserRole> roles;
+    private final List<UUID> userIds;
+    private final NotificationContent content;
+
+    public static NotificationFanOutEvent toActiveUsersWithRoles(Collection<UserRole> roles, NotificationContent content) {
+        return new NotificationFanOutEvent(Set.copyOf(roles), null, content);
+    }
+
+    public static NotificationFanOutEvent toUsers(Collection<UUID> userIds, NotificationContent content) {
+        return new NotificationFanOutEvent(null, List.copyOf(new LinkedHashSet<>(userIds)), content);
+    }
+}
@@ -0,0 +1,18 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when an officer's duty status is saved; mirrored into the location registry after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OfficerDutyStatusChangedEvent {
+
+    private final UUID officerId;
+    private final DutyStatus dutyStatus;
+}
@@ -0,0 +1,38 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a report is created, changes status or is deleted.
+ * Listeners that keep derived in-memory state should consume it after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReportChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+    private final ReportPoint report;
+    private final ReportStatus previousStatus;
+
+    public static ReportChangedEvent created(Report report) {
+        return new ReportChangedEvent(ChangeType.CREATED, ReportPoint.from(report), null);
+    }
+
+    public static ReportChangedEvent statusChanged(Report report, ReportStatus previousStatus) {
+        return new ReportChangedEvent(ChangeType.STATUS_CHANGED, ReportPoint.from(report), previousStatus);
+    }
+
+    public static ReportChangedEvent deleted(Report report) {
+        return new ReportChangedEvent(ChangeType.DELETED, ReportPoint.from(report), report.getStatus());
+    }
+}
@@ -0,0 +1,16 @@
+package com.crimeprevention.crime_backend.core.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when a user's role, enabled flag or password changes; evicts cached principals after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChangedEvent {
+
+    private final UUID userId;
+}
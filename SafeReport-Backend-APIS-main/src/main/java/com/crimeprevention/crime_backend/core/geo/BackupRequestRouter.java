@@ -0,0 +1,136 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.dto.officer.BackupRequestDTO;
+import com.crimeprevention.crime_backend.core.dto.officer.BackupResponseDTO;
+import com.crimeprevention.crime_backend.core.event.BackupRequestedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers backup requests to the on-duty officers closest to the requester instead of the
+ * whole force. The search starts at radius-km and doubles up to max-radius-km until at least
+ * min-officers are found; at most max-officers receive the request.
+ * Routing runs on the backupRoutingExecutor, off the STOMP inbound channel.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackupRequestRouter {
+
+    static final String TOPIC = "/topic/backup-requests";
+    static final String USER_QUEUE = "/queue/backup-requests";
+    private static final Set<DutyStatus> BACKUP_STATUSES = EnumSet.of(DutyStatus.ON_DUTY, DutyStatus.AVAILABLE);
+
+    private final OfficerLocationRegistry officerLocationRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.officers.backup.radius-km:10}")
+    private double radiusKm;
+
+    @Value("${app.officers.backup.max-radius-km:40}")
+    private double maxRadiusKm;
+
+    @Value("${app.officers.backup.min-officers:3}")
+    private int minOfficers;
+
+    @Value("${app.officers.backup.max-officers:20}")
+    private int maxOfficers;
+
+    private Timer deliveryTimer;
+    private DistributionSummary recipientSummary;
+    private Counter unroutedCounter;
+    private Counter failureCounter;
+
+    @PostConstruct
+    void init() {
+        deliveryTimer = Timer.builder("backup.routing.delivery")
+                .description("Time from a backup request being raised to its last officer delivery")
+                .register(meterRegistry);
+        recipientSummary = DistributionSummary.builder("backup.routing.recipients")
+                .description("Officers a backup request was delivered to")
+                .register(meterRegistry);
+        unroutedCounter = Counter.builder("backup.routing.unrouted")
+                .description("Backup requests with no eligible officer within the maximum radius")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("backup.routing.failures")
+                .description("Backup request deliveries that failed")
+                .register(meterRegistry);
+    }
+
+    @Async("backupRoutingExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBackupRequested(BackupRequestedEvent event) {
+        BackupResponseDTO backup = event.getBackup();
+        // Dispatch consoles follow every request
+        messagingTemplate.convertAndSend(TOPIC, backup);
+
+        List<UUID> recipients = findRecipients(backup);
+        if (recipients.isEmpty()) {
+            unroutedCounter.increment();
+            log.warn("No officer within {} km for backup request {}", maxRadiusKm, backup.getId());
+        }
+        int delivered = 0;
+        for (UUID officerId : recipients) {
+            try {
+                messagingTemplate.convertAndSendToUser(officerId.toString(), USER_QUEUE, backup);
+                delivered++;
+            } catch (MessagingException e) {
+                failureCounter.increment();
+                log.warn("Failed to deliver backup request {} to officer {}: {}",
+                        backup.getId(), officerId, e.getMessage());
+            }
+        }
+        recipientSummary.record(delivered);
+        if (backup.getCreatedAt() != null) {
+            deliveryTimer.record(Duration.between(backup.getCreatedAt(), Instant.now()));
+        }
+        log.debug("Backup request {} delivered to {} officers", backup.getId(), delivered);
+    }
+
+    /**
+     * Nearest eligible officers to the request, closest first, excluding the requester
+     */
+    List<UUID> findRecipients(BackupResponseDTO backup) {
+        BackupRequestDTO.LocationDTO location = backup.getLocation();
+        if (location == null) {
+            return List.of();
+        }
+        UUID requesterId = backup.getRequestingOfficer() != null ? backup.getRequestingOfficer().getId() : null;
+
+        double radius = Math.min(radiusKm, maxRadiusKm);
+        while (true) {
+            // One extra so that the requester can be dropped without coming up short
+            List<UUID> found = officerLocationRegistry.findNearest(location.getLatitude(), location.getLongitude(),
+                            maxOfficers + 1, radius, BACKUP_STATUSES).stream()
+                    .map(OfficerPosition::getOfficerId)
+                    .filter(id -> !id.equals(requesterId))
+                    .limit(maxOfficers)
+                    .collect(Collectors.toList());
+            if (found.size() >= minOfficers || radius >= maxRadiusKm) {
+                return found;
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import lombok.Value;
+
+/**
+ * Latitude/longitude rectangle that fully contains a circle of a given radius.
+ * Used as a cheap prefilter before the exact Haversine check.
+ */
+@Value
+public class BoundingBox {
+
+    double minLatitude;
+    double maxLatitude;
+    double minLongitude;
+    double maxLongitude;
+
+    public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+        double latDelta = Math.toDegrees(radiusKm / GeoUtils.EARTH_RADIUS_KM);
+        double minLat = Math.max(-90.0, latitude - latDelta);
+        double maxLat = Math.min(90.0, latitude + latDelta);
+
+        // Longitude degrees shrink towards the poles; near them the box spans every meridian
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lngDelta = cosLat < 1e-9 ? 180.0 : Math.min(180.0, latDelta / cosLat);
+        double minLng = Math.max(-180.0, longitude - lngDelta);
+        double maxLng = Math.min(180.0, longitude + lngDelta);
+
+        return new BoundingBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+}
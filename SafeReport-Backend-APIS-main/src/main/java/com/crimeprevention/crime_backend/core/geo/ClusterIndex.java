@@ -0,0 +1,228 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hierarchical point clusters for every zoom level (supercluster-style).
+ * Points are projected to Web Mercator and, from max-zoom down to min-zoom, greedily
+ * merged with every unvisited neighbour within radius pixels of the level above.
+ * Each level keeps its own KD-tree, so a viewport query at any zoom is a single range
+ * search whose result size is bounded by the viewport area, not by the number of reports.
+ * Instances are immutable once built.
+ */
+public class ClusterIndex {
+
+    private static final int MAX_SAMPLES = 5;
+
+    private final List<ReportPoint> points;
+    private final int minZoom;
+    private final int maxZoom;
+    private final Level[] levels;
+
+    /**
+     * @param radius clustering radius in pixels
+     * @param extent tile extent in pixels the radius is relative to
+     */
+    public ClusterIndex(Collection<ReportPoint> points, ToDoubleFunction<ReportPoint> riskScore,
+                        int minZoom, int maxZoom, double radius, int extent) {
+        this.points = List.copyOf(points);
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+        this.levels = new Level[maxZoom + 2];
+
+        List<Node> leaves = new ArrayList<>(points.size());
+        for (ReportPoint point : points) {
+            if (point.hasCoordinates()) {
+                leaves.add(Node.leaf(point, riskScore.applyAsDouble(point)));
+            }
+        }
+        levels[maxZoom + 1] = new Level(leaves);
+
+        for (int zoom = maxZoom; zoom >= minZoom; zoom--) {
+            double r = radius / (extent * Math.pow(2, zoom));
+            levels[zoom] = new Level(cluster(levels[zoom + 1], r));
+        }
+    }
+
+    public int size() {
+        return levels[maxZoom + 1].nodes.size();
+    }
+
+    /**
+     * Every point the index was built from, including those without coordinates
+     */
+    public List<ReportPoint> getPoints() {
+        return points;
+    }
+
+    /**
+     * Clusters at the given zoom whose centroid lies inside the viewport.
+     * A viewport with west greater than east crosses the antimeridian.
+     */
+    public List<Cluster> getClusters(double west, double south, double east, double north, int zoom) {
+        Level level = levels[Math.max(minZoom, Math.min(maxZoom + 1, zoom))];
+        double minX = WebMercator.x(west);
+        double maxX = WebMercator.x(east);
+        double minY = WebMercator.y(north);
+        double maxY = WebMercator.y(south);
+
+        List<Integer> hits;
+        if (east - west >= 360) {
+            hits = level.tree.range(0, minY, 1, maxY);
+        } else if (west > east) {
+            hits = level.tree.range(minX, minY, 1, maxY);
+            hits.addAll(level.tree.range(0, minY, maxX, maxY));
+        } else {
+            hits = level.tree.range(minX, minY, maxX, maxY);
+        }
+
+        List<Cluster> clusters = new ArrayList<>(hits.size());
+        for (int i : hits) {
+            clusters.add(level.nodes.get(i).toCluster());
+        }
+        return clusters;
+    }
+
+    private static List<Node> cluster(Level previous, double r) {
+        List<Node> nodes = previous.nodes;
+        boolean[] visited = new boolean[nodes.size()];
+        List<Node> clusters = new ArrayList<>();
+
+        for (int i = 0; i < nodes.size(); i++) {
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+            Node node = nodes.get(i);
+            Node merged = null;
+            for (int neighbour : previous.tree.within(node.x, node.y, r)) {
+                if (visited[neighbour]) {
+                    continue;
+                }
+                visited[neighbour] = true;
+                merged = (merged != null ? merged : node.copy()).absorb(nodes.get(neighbour));
+            }
+            clusters.add(merged != null ? merged : node);
+        }
+        return clusters;
+    }
+
+    private static final class Level {
+        private final List<Node> nodes;
+        private final KDTree tree;
+
+        Level(List<Node> nodes) {
+            this.nodes = nodes;
+            double[] xs = new double[nodes.size()];
+            double[] ys = new double[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                xs[i] = nodes.get(i).x;
+                ys[i] = nodes.get(i).y;
+            }
+            this.tree = new KDTree(xs, ys);
+        }
+    }
+
+    /**
+     * Cluster or single report at one zoom level; centroid is count-weighted in projected space
+     */
+    private static final class Node {
+        private final UUID id;
+        private double x;
+        private double y;
+        private int count;
+        private final int[] crimeTypeCounts;
+        private double riskSum;
+        private Instant first;
+        private Instant last;
+        private final List<UUID> samples;
+
+        private Node(UUID id, double x, double y, int count, int[] crimeTypeCounts, double riskSum,
+                     Instant first, Instant last, List<UUID> samples) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.count = count;
+            this.crimeTypeCounts = crimeTypeCounts;
+            this.riskSum = riskSum;
+            this.first = first;
+            this.last = last;
+            this.samples = samples;
+        }
+
+        static Node leaf(ReportPoint point, double riskScore) {
+            int[] counts = new int[CrimeType.values().length];
+            counts[(point.getCrimeType() != null ? point.getCrimeType() : CrimeType.OTHER).ordinal()] = 1;
+            Instant when = point.getSubmittedAt() != null ? point.getSubmittedAt() : point.getDate();
+            List<UUID> samples = new ArrayList<>(1);
+            samples.add(point.getId());
+            return new Node(point.getId(), WebMercator.x(point.getLongitude()), WebMercator.y(point.getLatitude()),
+                    1, counts, riskScore, when, when, samples);
+        }
+
+        Node copy() {
+            return new Node(null, x, y, count, crimeTypeCounts.clone(), riskSum, first, last, new ArrayList<>(samples));
+        }
+
+        Node absorb(Node other) {
+            int total = count + other.count;
+            x = (x * count + other.x * other.count) / total;
+            y = (y * count + other.y * other.count) / total;
+            count = total;
+            for (int i = 0; i < crimeTypeCounts.length; i++) {
+                crimeTypeCounts[i] += other.crimeTypeCounts[i];
+            }
+            riskSum += other.riskSum;
+            first = min(first, other.first);
+            last = max(last, other.last);
+            for (UUID sample : other.samples) {
+                if (samples.size() >= MAX_SAMPLES) {
+                    break;
+                }
+                samples.add(sample);
+            }
+            return this;
+        }
+
+        Cluster toCluster() {
+            Map<CrimeType, Integer> breakdown = new EnumMap<>(CrimeType.class);
+            CrimeType[] types = CrimeType.values();
+            for (int i = 0; i < crimeTypeCounts.length; i++) {
+                if (crimeTypeCounts[i] > 0) {
+                    breakdown.put(types[i], crimeTypeCounts[i]);
+                }
+            }
+            return new Cluster(id, WebMercator.latitude(y), WebMercator.longitude(x), count,
+                    Collections.unmodifiableMap(breakdown), riskSum / count, first, last,
+                    Collections.unmodifiableList(samples));
+        }
+
+        private static Instant min(Instant a, Instant b) {
+            return a == null ? b : b == null ? a : (a.isBefore(b) ? a : b);
+        }
+
+        private static Instant max(Instant a, Instant b) {
+            return a == null ? b : b == null ? a : (a.isAfter(b) ? a : b);
+        }
+    }
+
+    /**
+     * Query result. reportId is set only when the cluster is a single report.
+     */
+    @lombok.Value
+    public static class Cluster {
+        UUID reportId;
+        double latitude;
+        double longitude;
+        int count;
+        Map<CrimeType, Integer> crimeTypeBreakdown;
+        double averageRiskScore;
+        Instant firstCrime;
+        Instant lastCrime;
+        List<UUID> sampleReportIds;
+    }
+}
@@ -0,0 +1,388 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling community safety aggregates per geo cell and area name, covering the full report history.
+ * Each (cell, area) pair keeps report, resolved and pending counts, response-time sums and daily
+ * counts for the last two weeks. Report creation, status changes and deletions adjust them
+ * incrementally, so an area query merges the cells inside the radius instead of loading reports.
+ * A cell belongs to a query when its centre is within the radius or it contains the query point.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommunityStatsIndex {
+
+    static final int DAYS_RETAINED = 14;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final ReportRepository reportRepository;
+
+    @Value("${app.geo.community.cell-size-degrees:0.01}")
+    private double cellSizeDegrees;
+
+    private final Map<Long, Map<String, AreaStats>> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, Contribution> contributions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Report> reports = reportRepository.findAll();
+        Instant now = Instant.now();
+        // Reports changed while loading are already newer than the database rows
+        reports.forEach(report -> {
+            ReportPoint point = ReportPoint.from(report);
+            if (!contributions.containsKey(point.getId())) {
+                upsert(point, point.getUpdatedAt(), now);
+            }
+        });
+        ready = true;
+        log.info("Community stats built from {} reports ({} cells)", contributions.size(), cells.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        ReportPoint point = event.getReport();
+        Instant now = Instant.now();
+        switch (event.getChangeType()) {
+            case DELETED:
+                contributions.computeIfPresent(point.getId(), (id, previous) -> {
+                    apply(previous, -1);
+                    return null;
+                });
+                break;
+            case STATUS_CHANGED:
+                // updated_at is only stamped on flush; the status change itself happened now
+                upsert(point, now, now);
+                break;
+            default:
+                upsert(point, point.getUpdatedAt(), now);
+        }
+    }
+
+    /**
+     * Drop daily counts that have fallen out of the two-week window
+     */
+    @Scheduled(fixedDelayString = "${app.geo.community.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        long cutoffDay = firstRetainedDay(Instant.now());
+        for (Long cellKey : cells.keySet()) {
+            cells.computeIfPresent(cellKey, (k, cell) -> {
+                cell.replaceAll((area, stats) -> stats.withoutDaysBefore(cutoffDay));
+                return cell;
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Aggregates of every area with reports inside the radius, keyed by area name
+     */
+    public Map<String, AreaStats> aggregateByArea(double latitude, double longitude, double radiusKm) {
+        Map<String, AreaStats> merged = new HashMap<>();
+        for (Map<String, AreaStats> cell : cellsWithin(latitude, longitude, radiusKm)) {
+            cell.forEach((area, stats) -> merged.merge(area, stats, AreaStats::plus));
+        }
+        return merged;
+    }
+
+    /**
+     * All reports inside the radius as one aggregate
+     */
+    public AreaStats aggregate(double latitude, double longitude, double radiusKm) {
+        AreaStats total = AreaStats.EMPTY;
+        for (Map<String, AreaStats> cell : cellsWithin(latitude, longitude, radiusKm)) {
+            for (AreaStats stats : cell.values()) {
+                total = total.plus(stats);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Aggregates of the given reports keyed by area name, for callers that loaded them directly
+     */
+    public static Map<String, AreaStats> summarizeByArea(Collection<ReportPoint> points, Instant now) {
+        Map<String, AreaStats> merged = new HashMap<>();
+        for (ReportPoint point : points) {
+            merged.merge(point.getArea() != null ? point.getArea() : "Unknown",
+                    AreaStats.of(point, point.getUpdatedAt(), firstRetainedDay(now), now), AreaStats::plus);
+        }
+        return merged;
+    }
+
+    /**
+     * The given reports as one aggregate
+     */
+    public static AreaStats summarize(Collection<ReportPoint> points, Instant now) {
+        AreaStats total = AreaStats.EMPTY;
+        for (AreaStats stats : summarizeByArea(points, now).values()) {
+            total = total.plus(stats);
+        }
+        return total;
+    }
+
+    private List<Map<String, AreaStats>> cellsWithin(double latitude, double longitude, double radiusKm) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        long minRow = row(box.getMinLatitude());
+        long maxRow = row(box.getMaxLatitude());
+        long minCol = col(box.getMinLongitude());
+        long maxCol = col(box.getMaxLongitude());
+        long homeKey = pack(row(latitude), col(longitude));
+
+        List<Map<String, AreaStats>> result = new ArrayList<>();
+        // Very large radii cover more grid positions than there are populated cells
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > cells.size()) {
+            for (Map.Entry<Long, Map<String, AreaStats>> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                long row = key >>> 32;
+                long col = key & 0xFFFFFFFFL;
+                if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol
+                        && isInside(key, homeKey, latitude, longitude, radiusKm)) {
+                    result.add(entry.getValue());
+                }
+            }
+            return result;
+        }
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long col = minCol; col <= maxCol; col++) {
+                long key = pack(row, col);
+                Map<String, AreaStats> cell = cells.get(key);
+                if (cell != null && isInside(key, homeKey, latitude, longitude, radiusKm)) {
+                    result.add(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isInside(long key, long homeKey, double latitude, double longitude, double radiusKm) {
+        if (key == homeKey) {
+            return true;
+        }
+        double centreLat = ((key >>> 32) + 0.5) * cellSizeDegrees - 90.0;
+        double centreLng = ((key & 0xFFFFFFFFL) + 0.5) * cellSizeDegrees - 180.0;
+        return GeoUtils.haversineKm(latitude, longitude, centreLat, centreLng) <= radiusKm;
+    }
+
+    private void upsert(ReportPoint point, Instant resolvedAt, Instant now) {
+        if (!point.hasCoordinates()) {
+            return;
+        }
+        Contribution contribution = new Contribution(
+                pack(row(point.getLatitude()), col(point.getLongitude())),
+                point.getArea() != null ? point.getArea() : "Unknown",
+                AreaStats.of(point, resolvedAt, firstRetainedDay(now), now));
+        contributions.compute(point.getId(), (id, previous) -> {
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(contribution, 1);
+            return contribution;
+        });
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        AreaStats delta = sign > 0 ? contribution.stats : contribution.stats.negate();
+        // compute() keeps the update atomic with an emptied cell being dropped
+        cells.compute(contribution.cellKey, (k, cell) -> {
+            Map<String, AreaStats> target = cell != null ? cell : new ConcurrentHashMap<>();
+            target.compute(contribution.area, (area, stats) -> {
+                AreaStats updated = stats == null ? delta : stats.plus(delta);
+                return updated.total <= 0 ? null : updated;
+            });
+            return target.isEmpty() ? null : target;
+        });
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((Math.max(-90.0, Math.min(90.0, latitude)) + 90.0) / cellSizeDegrees);
+    }
+
+    private long col(double longitude) {
+        return (long) Math.floor((Math.max(-180.0, Math.min(180.0, longitude)) + 180.0) / cellSizeDegrees);
+    }
+
+    private static long pack(long row, long col) {
+        return (row << 32) | col;
+    }
+
+    static long day(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY);
+    }
+
+    private static long firstRetainedDay(Instant now) {
+        return day(now) - (DAYS_RETAINED - 1);
+    }
+
+    private static final class Contribution {
+        private final long cellKey;
+        private final String area;
+        private final AreaStats stats;
+
+        private Contribution(long cellKey, String area, AreaStats stats) {
+            this.cellKey = cellKey;
+            this.area = area;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * Immutable aggregate of a set of reports. Weekly counts are by UTC day:
+     * the current week is today and the six days before it.
+     */
+    public static final class AreaStats {
+
+        static final AreaStats EMPTY = new AreaStats(0, 0, 0, 0, 0, 0, 0, Map.of());
+
+        private final long total;
+        private final long resolved;
+        private final long pending;
+        private final long responseMinutesSum;
+        private final long responseCount;
+        private final long pendingSubmittedMinutesSum;
+        private final long pendingSubmittedCount;
+        private final Map<Long, Long> dailyCounts;
+
+        private AreaStats(long total, long resolved, long pending, long responseMinutesSum, long responseCount,
+                          long pendingSubmittedMinutesSum, long pendingSubmittedCount, Map<Long, Long> dailyCounts) {
+            this.total = total;
+            this.resolved = resolved;
+            this.pending = pending;
+            this.responseMinutesSum = responseMinutesSum;
+            this.responseCount = responseCount;
+            this.pendingSubmittedMinutesSum = pendingSubmittedMinutesSum;
+            this.pendingSubmittedCount = pendingSubmittedCount;
+            this.dailyCounts = dailyCounts;
+        }
+
+        static AreaStats of(ReportPoint point, Instant resolvedAt, long firstRetainedDay, Instant now) {
+            boolean isResolved = point.getStatus() == ReportStatus.RESOLVED;
+            boolean isPending = point.getStatus() == ReportStatus.PENDING;
+            long responseMinutes = 0;
+            boolean hasResponse = isResolved && point.getSubmittedAt() != null && resolvedAt != null;
+            if (hasResponse) {
+                responseMinutes = Math.max(0, Duration.between(point.getSubmittedAt(), resolvedAt).toMinutes());
+            }
+            boolean hasPendingSubmitted = isPending && point.getSubmittedAt() != null;
+
+            Instant created = point.getCreatedAt() != null ? point.getCreatedAt()
+                    : point.getSubmittedAt() != null ? point.getSubmittedAt() : now;
+            long createdDay = day(created);
+            return new AreaStats(1, isResolved ? 1 : 0, isPending ? 1 : 0,
+                    responseMinutes, hasResponse ? 1 : 0,
+                    hasPendingSubmitted ? point.getSubmittedAt().getEpochSecond() / 60 : 0,
+                    hasPendingSubmitted ? 1 : 0,
+                    createdDay >= firstRetainedDay ? Map.of(createdDay, 1L) : Map.of());
+        }
+
+        AreaStats plus(AreaStats other) {
+            Map<Long, Long> days = dailyCounts;
+            if (!other.dailyCounts.isEmpty()) {
+                days = new HashMap<>(dailyCounts);
+                for (Map.Entry<Long, Long> entry : other.dailyCounts.entrySet()) {
+                    days.merge(entry.getKey(), entry.getValue(), Long::sum);
+                }
+                days.values().removeIf(count -> count <= 0);
+            }
+            return new AreaStats(total + other.total, resolved + other.resolved, pending + other.pending,
+                    responseMinutesSum + other.responseMinutesSum, responseCount + other.responseCount,
+                    pendingSubmittedMinutesSum + other.pendingSubmittedMinutesSum,
+                    pendingSubmittedCount + other.pendingSubmittedCount, days);
+        }
+
+        AreaStats negate() {
+            Map<Long, Long> days = new HashMap<>();
+            dailyCounts.forEach((day, count) -> days.put(day, -count));
+            return new AreaStats(-total, -resolved, -pending, -responseMinutesSum, -responseCount,
+                    -pendingSubmittedMinutesSum, -pendingSubmittedCount, days);
+        }
+
+        AreaStats withoutDaysBefore(long firstDay) {
+            if (dailyCounts.keySet().stream().allMatch(day -> day >= firstDay)) {
+                return this;
+            }
+            Map<Long, Long> days = new HashMap<>(dailyCounts);
+            days.keySet().removeIf(day -> day < firstDay);
+            return new AreaStats(total, resolved, pending, responseMinutesSum, responseCount,
+                    pendingSubmittedMinutesSum, pendingSubmittedCount, days);
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getResolved() {
+            return resolved;
+        }
+
+        public long getPending() {
+            return pending;
+        }
+
+        /**
+         * Reports created in the seven UTC days ending today
+         */
+        public long getCurrentWeekCount(Instant now) {
+            return countDays(day(now) - 6, day(now));
+        }
+
+        /**
+         * Reports created in the seven UTC days before the current week
+         */
+        public long getPreviousWeekCount(Instant now) {
+            return countDays(day(now) - 13, day(now) - 7);
+        }
+
+        /**
+         * Mean minutes from submission to resolution, or 0 when nothing has been resolved
+         */
+        public double getAverageResponseMinutes() {
+            return responseCount > 0 ? (double) responseMinutesSum / responseCount : 0.0;
+        }
+
+        /**
+         * Mean minutes pending reports have been waiting, if any pending report has a submission time
+         */
+        public OptionalDouble getAveragePendingMinutes(Instant now) {
+            if (pendingSubmittedCount == 0) {
+                return OptionalDouble.empty();
+            }
+            double meanSubmittedMinute = (double) pendingSubmittedMinutesSum / pendingSubmittedCount;
+            return OptionalDouble.of(now.getEpochSecond() / 60.0 - meanSubmittedMinute);
+        }
+
+        private long countDays(long fromDay, long toDay) {
+            long count = 0;
+            for (Map.Entry<Long, Long> entry : dailyCounts.entrySet()) {
+                if (entry.getKey() >= fromDay && entry.getKey() <= toDay) {
+                    count += entry.getValue();
+                }
+            }
+            return count;
+        }
+    }
+}
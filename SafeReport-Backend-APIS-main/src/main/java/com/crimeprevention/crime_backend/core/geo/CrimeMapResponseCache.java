@@ -0,0 +1,120 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.util.AsyncCaches;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Crime map responses keyed by normalised request and time bucket.
+ * Rolling windows ("last 7 days") share one entry per bucket, so the default view is computed
+ * once per bucket however many clients open it; the bucket rolls forward every bucket-minutes.
+ * Concurrent misses for one key wait for the single computation in flight. Entries whose
+ * filters cover a created or changed report are dropped after commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CrimeMapResponseCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.geo.map-responses.bucket-minutes:5}")
+    private long bucketMinutes;
+
+    @Value("${app.geo.map-responses.max-entries:500}")
+    private long maxEntries;
+
+    private AsyncCache<Key, Object> responses;
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(bucketMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "crime.map.responses");
+    }
+
+    /**
+     * Index of the bucket the instant falls in; part of every key
+     */
+    public long bucket(Instant now) {
+        return now.toEpochMilli() / Duration.ofMinutes(bucketMinutes).toMillis();
+    }
+
+    /**
+     * Cached response for the key, computed on the calling thread on a miss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        // Records the hit or miss in the cache statistics, which getOrCompute does not
+        Object cached = responses.synchronous().getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        return (T) AsyncCaches.getOrCompute(responses, key, loader::get);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        ReportPoint report = event.getReport();
+        int before = responses.asMap().size();
+        responses.asMap().keySet().removeIf(key -> key.covers(report));
+        log.debug("Report {} {}: dropped {} cached map responses",
+                report.getId(), event.getChangeType(), before - responses.asMap().size());
+    }
+
+    /**
+     * Everything a map response depends on, normalised so equivalent requests share a key
+     */
+    @lombok.Value
+    @Builder
+    public static class Key {
+        String view;
+        Instant fixedStart;
+        Duration window;
+        Set<CrimeType> crimeTypes;
+        Double latitude;
+        Double longitude;
+        Double radiusKm;
+        Integer zoom;
+        Double north;
+        Double south;
+        Double east;
+        Double west;
+        Integer maxPoints;
+        Boolean includeDetails;
+        long bucket;
+
+        /**
+         * Whether a response for this key may include the report
+         */
+        boolean covers(ReportPoint report) {
+            if (crimeTypes != null && !crimeTypes.isEmpty() && !crimeTypes.contains(report.getCrimeType())) {
+                return false;
+            }
+            if (latitude != null && longitude != null && radiusKm != null && report.hasCoordinates()) {
+                return GeoUtils.haversineKm(latitude, longitude, report.getLatitude(), report.getLongitude()) <= radiusKm;
+            }
+            return true;
+        }
+    }
+}
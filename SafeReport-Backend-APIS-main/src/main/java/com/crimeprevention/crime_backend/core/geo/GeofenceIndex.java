@@ -0,0 +1,148 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.GeofenceChangedEvent;
+import com.crimeprevention.crime_backend.core.model.location.Geofence;
+import com.crimeprevention.crime_backend.core.repo.location.GeofenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cell index of active geofences for matching incoming reports.
+ * Each fence is registered in every grid cell its bounding box overlaps, so matching a point
+ * looks at one cell's fences and runs the exact shape test on those only.
+ * Fences spanning more than max-cells-per-fence cells are kept aside and always tested.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceIndex {
+
+    private final GeofenceRepository geofenceRepository;
+
+    @Value("${app.geofences.cell-size-degrees:0.05}")
+    private double cellSizeDegrees;
+
+    @Value("${app.geofences.max-cells-per-fence:4096}")
+    private int maxCellsPerFence;
+
+    private final Map<Long, List<GeofenceShape>> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, GeofenceShape> fences = new ConcurrentHashMap<>();
+    private final Map<UUID, GeofenceShape> oversized = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Geofence> active = geofenceRepository.findByActiveTrue();
+        active.forEach(geofence -> put(GeofenceShape.from(geofence)));
+        log.info("Geofence index loaded {} fences ({} cells)", fences.size(), cells.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        if (event.getShape() == null) {
+            remove(event.getGeofenceId());
+        } else {
+            put(event.getShape());
+        }
+    }
+
+    /**
+     * Insert or replace a fence
+     */
+    public void put(GeofenceShape shape) {
+        fences.compute(shape.getId(), (id, previous) -> {
+            if (previous != null) {
+                unregister(previous);
+            }
+            register(shape);
+            return shape;
+        });
+    }
+
+    public void remove(UUID geofenceId) {
+        fences.computeIfPresent(geofenceId, (id, previous) -> {
+            unregister(previous);
+            return null;
+        });
+    }
+
+    public int size() {
+        return fences.size();
+    }
+
+    /**
+     * Every fence containing the point
+     */
+    public List<GeofenceShape> match(double latitude, double longitude) {
+        List<GeofenceShape> matches = new ArrayList<>();
+        for (GeofenceShape shape : cells.getOrDefault(pack(row(latitude), col(longitude)), List.of())) {
+            if (shape.contains(latitude, longitude)) {
+                matches.add(shape);
+            }
+        }
+        for (GeofenceShape shape : oversized.values()) {
+            if (shape.contains(latitude, longitude)) {
+                matches.add(shape);
+            }
+        }
+        return matches;
+    }
+
+    // Called inside fences.compute(), so updates for one fence are serialised
+    private void register(GeofenceShape shape) {
+        BoundingBox box = shape.getBounds();
+        long minRow = row(box.getMinLatitude()), maxRow = row(box.getMaxLatitude());
+        long minCol = col(box.getMinLongitude()), maxCol = col(box.getMaxLongitude());
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > maxCellsPerFence) {
+            oversized.put(shape.getId(), shape);
+            return;
+        }
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long col = minCol; col <= maxCol; col++) {
+                // Lists are replaced, never mutated, so match() can read them without locking
+                cells.compute(pack(row, col), (k, list) -> {
+                    List<GeofenceShape> updated = list != null ? new ArrayList<>(list) : new ArrayList<>(1);
+                    updated.add(shape);
+                    return List.copyOf(updated);
+                });
+            }
+        }
+    }
+
+    private void unregister(GeofenceShape shape) {
+        if (oversized.remove(shape.getId()) != null) {
+            return;
+        }
+        BoundingBox box = shape.getBounds();
+        for (long row = row(box.getMinLatitude()); row <= row(box.getMaxLatitude()); row++) {
+            for (long col = col(box.getMinLongitude()); col <= col(box.getMaxLongitude()); col++) {
+                cells.computeIfPresent(pack(row, col), (k, list) -> {
+                    List<GeofenceShape> updated = new ArrayList<>(list);
+                    updated.removeIf(existing -> existing.getId().equals(shape.getId()));
+                    return updated.isEmpty() ? null : List.copyOf(updated);
+                });
+            }
+        }
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((Math.max(-90.0, Math.min(90.0, latitude)) + 90.0) / cellSizeDegrees);
+    }
+
+    private long col(double longitude) {
+        return (long) Math.floor((Math.max(-180.0, Math.min(180.0, longitude)) + 180.0) / cellSizeDegrees);
+    }
+
+    private static long pack(long row, long col) {
+        return (row << 32) | col;
+    }
+}
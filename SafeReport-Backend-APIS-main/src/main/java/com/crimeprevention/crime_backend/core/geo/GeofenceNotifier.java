@@ -0,0 +1,111 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.LiveIncidentResponse;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.repo.chat.WatchGroupMemberRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.CrimeMapService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Pushes each newly created report to the subscribers of every geofence containing it,
+ * on their /user/queue/live-incidents destination. One match per report replaces clients
+ * polling the live incident endpoints. Runs on the geofenceMatchingExecutor after commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceNotifier {
+
+    static final String USER_QUEUE = "/queue/live-incidents";
+
+    private final GeofenceIndex geofenceIndex;
+    private final WatchGroupMemberRepository watchGroupMemberRepository;
+    private final CrimeMapService crimeMapService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private Timer matchTimer;
+    private Counter pushCounter;
+    private Counter failureCounter;
+
+    @PostConstruct
+    void init() {
+        matchTimer = Timer.builder("geofence.match")
+                .description("Time to match a new report against all geofences")
+                .register(meterRegistry);
+        pushCounter = Counter.builder("geofence.pushes")
+                .description("Live incidents pushed to geofence subscribers")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("geofence.push.failures")
+                .description("Live incident pushes that failed")
+                .register(meterRegistry);
+    }
+
+    @Async("geofenceMatchingExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        ReportPoint report = event.getReport();
+        if (event.getChangeType() != ReportChangedEvent.ChangeType.CREATED || !report.hasCoordinates()) {
+            return;
+        }
+
+        List<GeofenceShape> matches = matchTimer.record(
+                () -> geofenceIndex.match(report.getLatitude(), report.getLongitude()));
+        if (matches.isEmpty()) {
+            return;
+        }
+        Set<UUID> recipients = recipients(matches);
+        if (recipients.isEmpty()) {
+            return;
+        }
+        Optional<LiveIncidentResponse> incident = crimeMapService.getLiveIncident(report.getId());
+        if (incident.isEmpty()) {
+            return;
+        }
+
+        for (UUID userId : recipients) {
+            try {
+                messagingTemplate.convertAndSendToUser(userId.toString(), USER_QUEUE, incident.get());
+                pushCounter.increment();
+            } catch (MessagingException e) {
+                failureCounter.increment();
+                log.warn("Failed to push incident {} to user {}: {}", report.getId(), userId, e.getMessage());
+            }
+        }
+        log.debug("Incident {} matched {} geofences, pushed to {} users", report.getId(), matches.size(), recipients.size());
+    }
+
+    // Users subscribed through any matched fence, each once
+    private Set<UUID> recipients(List<GeofenceShape> matches) {
+        Set<UUID> userIds = new LinkedHashSet<>();
+        Set<UUID> groupIds = new LinkedHashSet<>();
+        for (GeofenceShape shape : matches) {
+            if (shape.getOwnerType() == GeofenceOwnerType.WATCH_GROUP) {
+                groupIds.add(shape.getOwnerId());
+            } else {
+                userIds.add(shape.getOwnerId());
+            }
+        }
+        if (!groupIds.isEmpty()) {
+            userIds.addAll(watchGroupMemberRepository.findActiveUserIdsByGroupIdIn(groupIds));
+        }
+        return userIds;
+    }
+}
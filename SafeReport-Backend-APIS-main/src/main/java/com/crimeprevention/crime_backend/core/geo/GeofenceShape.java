@@ -0,0 +1,108 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceType;
+import com.crimeprevention.crime_backend.core.model.location.Geofence;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable geometry and ownership of a geofence, detached from the persistence context.
+ * Polygons are tested with ray casting in the lat/lng plane, which is accurate at city scale.
+ */
+@Getter
+public final class GeofenceShape {
+
+    private final UUID id;
+    private final GeofenceOwnerType ownerType;
+    private final UUID ownerId;
+    private final GeofenceType type;
+    private final BoundingBox bounds;
+
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final double radiusKm;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private GeofenceShape(UUID id, GeofenceOwnerType ownerType, UUID ownerId, GeofenceType type, BoundingBox bounds,
+                          double centerLatitude, double centerLongitude, double radiusKm,
+                          double[] latitudes, double[] longitudes) {
+        this.id = id;
+        this.ownerType = ownerType;
+        this.ownerId = ownerId;
+        this.type = type;
+        this.bounds = bounds;
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusKm = radiusKm;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public static GeofenceShape circle(UUID id, GeofenceOwnerType ownerType, UUID ownerId,
+                                       double latitude, double longitude, double radiusKm) {
+        return new GeofenceShape(id, ownerType, ownerId, GeofenceType.CIRCLE,
+                BoundingBox.around(latitude, longitude, radiusKm),
+                latitude, longitude, radiusKm, null, null);
+    }
+
+    public static GeofenceShape polygon(UUID id, GeofenceOwnerType ownerType, UUID ownerId,
+                                        double[] latitudes, double[] longitudes) {
+        if (latitudes.length < 3 || latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("A polygon needs at least three vertices");
+        }
+        double minLat = 90, maxLat = -90, minLng = 180, maxLng = -180;
+        for (int i = 0; i < latitudes.length; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLng = Math.min(minLng, longitudes[i]);
+            maxLng = Math.max(maxLng, longitudes[i]);
+        }
+        return new GeofenceShape(id, ownerType, ownerId, GeofenceType.POLYGON,
+                new BoundingBox(minLat, maxLat, minLng, maxLng),
+                0, 0, 0, latitudes.clone(), longitudes.clone());
+    }
+
+    /**
+     * Shape of a persisted fence. Circles use the fence's own centre, which is copied
+     * from its saved location when the fence is created.
+     */
+    public static GeofenceShape from(Geofence geofence) {
+        if (geofence.getType() == GeofenceType.CIRCLE) {
+            return circle(geofence.getId(), geofence.getOwnerType(), geofence.getOwnerId(),
+                    geofence.getCenterLatitude(), geofence.getCenterLongitude(), geofence.getRadiusKm());
+        }
+        List<Geofence.Vertex> vertices = geofence.getVertices();
+        double[] latitudes = new double[vertices.size()];
+        double[] longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            latitudes[i] = vertices.get(i).getLatitude();
+            longitudes[i] = vertices.get(i).getLongitude();
+        }
+        return polygon(geofence.getId(), geofence.getOwnerType(), geofence.getOwnerId(), latitudes, longitudes);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (!bounds.contains(latitude, longitude)) {
+            return false;
+        }
+        if (type == GeofenceType.CIRCLE) {
+            return GeoUtils.haversineKm(centerLatitude, centerLongitude, latitude, longitude) <= radiusKm;
+        }
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)) {
+                double crossing = longitudes[i] + (latitude - latitudes[i])
+                        * (longitudes[j] - longitudes[i]) / (latitudes[j] - latitudes[i]);
+                if (longitude < crossing) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,271 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe uniform grid over latitude/longitude.
+ * Each entry lives in exactly one cell; radius queries only visit the cells
+ * overlapping the query's bounding box and then apply the exact Haversine check.
+ *
+ * @param <K> entry identifier
+ * @param <V> value stored for the entry
+ */
+public class GridIndex<K, V> {
+
+    private final double cellSizeDegrees;
+    private final Map<Long, Map<K, Entry<V>>> cells = new ConcurrentHashMap<>();
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public GridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Insert or move an entry. Re-inserting an existing key replaces its value and position.
+     */
+    public void put(K key, double latitude, double longitude, V value) {
+        long cellKey = cellKey(latitude, longitude);
+        Entry<V> entry = new Entry<>(latitude, longitude, cellKey, value);
+        entries.compute(key, (k, previous) -> {
+            if (previous != null && previous.cellKey != cellKey) {
+                removeFromCell(previous.cellKey, k);
+            }
+            return addToCell(k, entry);
+        });
+    }
+
+    /**
+     * Insert an entry unless the key is already present. Returns whether it was inserted.
+     */
+    public boolean putIfAbsent(K key, double latitude, double longitude, V value) {
+        Entry<V> entry = new Entry<>(latitude, longitude, cellKey(latitude, longitude), value);
+        return entries.computeIfAbsent(key, k -> addToCell(k, entry)) == entry;
+    }
+
+    private Entry<V> addToCell(K key, Entry<V> entry) {
+        // compute() keeps the insert atomic with removeFromCell() dropping an emptied cell
+        cells.compute(entry.cellKey, (c, cell) -> {
+            Map<K, Entry<V>> target = cell != null ? cell : new ConcurrentHashMap<>();
+            target.put(key, entry);
+            return target;
+        });
+        return entry;
+    }
+
+    public V remove(K key) {
+        Entry<V>[] removed = newEntryHolder();
+        entries.computeIfPresent(key, (k, previous) -> {
+            removeFromCell(previous.cellKey, k);
+            removed[0] = previous;
+            return null;
+        });
+        return removed[0] != null ? removed[0].value : null;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Collection<K> keys() {
+        return List.copyOf(entries.keySet());
+    }
+
+    /**
+     * Remove every entry whose value matches the predicate.
+     * @return number of removed entries
+     */
+    public int removeIf(Predicate<V> predicate) {
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (predicate.test(e.getValue().value) && remove(e.getKey()) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * All values within radiusKm of the given point that match the filter.
+     */
+    public List<V> withinRadius(double latitude, double longitude, double radiusKm, Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        long minLatIdx = latIndex(box.getMinLatitude());
+        long maxLatIdx = latIndex(box.getMaxLatitude());
+        long minLngIdx = lngIndex(box.getMinLongitude());
+        long maxLngIdx = lngIndex(box.getMaxLongitude());
+
+        for (long latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+            for (long lngIdx = minLngIdx; lngIdx <= maxLngIdx; lngIdx++) {
+                Map<K, Entry<V>> cell = cells.get(pack(latIdx, lngIdx));
+                if (cell == null) {
+                    continue;
+                }
+                for (Entry<V> entry : cell.values()) {
+                    if (filter != null && !filter.test(entry.value)) {
+                        continue;
+                    }
+                    if (GeoUtils.haversineKm(latitude, longitude, entry.latitude, entry.longitude) <= radiusKm) {
+                        result.add(entry.value);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to k values nearest to the given point, within maxRadiusKm and matching the filter,
+     * closest first. Cells are visited in rings around the query cell; the search stops once
+     * no cell in the next ring can be closer than the current k-th candidate.
+     */
+    public List<V> nearest(double latitude, double longitude, int k, double maxRadiusKm, Predicate<V> filter) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        BoundingBox box = BoundingBox.around(latitude, longitude, maxRadiusKm);
+        long minLatIdx = latIndex(box.getMinLatitude());
+        long maxLatIdx = latIndex(box.getMaxLatitude());
+        long minLngIdx = lngIndex(box.getMinLongitude());
+        long maxLngIdx = lngIndex(box.getMaxLongitude());
+        long centerLat = latIndex(latitude);
+        long centerLng = lngIndex(longitude);
+        long maxRing = Math.max(
+                Math.max(centerLat - minLatIdx, maxLatIdx - centerLat),
+                Math.max(centerLng - minLngIdx, maxLngIdx - centerLng));
+        // Longitude cells are narrowest at the box edge furthest from the equator
+        double maxAbsLatitude = Math.max(Math.abs(box.getMinLatitude()), Math.abs(box.getMaxLatitude()));
+        double cosMaxLatitude = Math.cos(Math.toRadians(maxAbsLatitude));
+
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Candidate<V>> best = new PriorityQueue<>(k,
+                Comparator.comparingDouble((Candidate<V> c) -> c.distanceKm).reversed());
+
+        for (long ring = 0; ring <= maxRing; ring++) {
+            if (best.size() == k && ringLowerBoundKm(ring, cosMaxLatitude) > best.peek().distanceKm) {
+                break;
+            }
+            long fromLat = Math.max(minLatIdx, centerLat - ring);
+            long toLat = Math.min(maxLatIdx, centerLat + ring);
+            for (long latIdx = fromLat; latIdx <= toLat; latIdx++) {
+                boolean edgeRow = Math.abs(latIdx - centerLat) == ring;
+                // Inner rows only contribute their two end cells to this ring
+                long step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (long lngIdx = centerLng - ring; lngIdx <= centerLng + ring; lngIdx += step) {
+                    if (lngIdx < minLngIdx || lngIdx > maxLngIdx) {
+                        continue;
+                    }
+                    Map<K, Entry<V>> cell = cells.get(pack(latIdx, lngIdx));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entry<V> entry : cell.values()) {
+                        if (filter != null && !filter.test(entry.value)) {
+                            continue;
+                        }
+                        double distance = GeoUtils.haversineKm(latitude, longitude, entry.latitude, entry.longitude);
+                        if (distance > maxRadiusKm) {
+                            continue;
+                        }
+                        if (best.size() < k) {
+                            best.add(new Candidate<>(entry.value, distance));
+                        } else if (distance < best.peek().distanceKm) {
+                            best.poll();
+                            best.add(new Candidate<>(entry.value, distance));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate<V>> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(c -> c.distanceKm));
+        List<V> result = new ArrayList<>(sorted.size());
+        sorted.forEach(c -> result.add(c.value));
+        return result;
+    }
+
+    /**
+     * Smallest possible distance from the query to any point in the given ring:
+     * such a point is at least ring - 1 whole cells away in latitude or in longitude
+     */
+    private double ringLowerBoundKm(long ring, double cosMaxLatitude) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double gap = Math.toRadians((ring - 1) * cellSizeDegrees);
+        double latitudeBound = GeoUtils.EARTH_RADIUS_KM * gap;
+        double longitudeBound = 2 * GeoUtils.EARTH_RADIUS_KM
+                * Math.asin(Math.min(1.0, cosMaxLatitude * Math.sin(Math.min(gap, Math.PI) / 2)));
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    long cellKey(double latitude, double longitude) {
+        return pack(latIndex(latitude), lngIndex(longitude));
+    }
+
+    private long latIndex(double latitude) {
+        return (long) Math.floor((Math.max(-90.0, Math.min(90.0, latitude)) + 90.0) / cellSizeDegrees);
+    }
+
+    private long lngIndex(double longitude) {
+        return (long) Math.floor((Math.max(-180.0, Math.min(180.0, longitude)) + 180.0) / cellSizeDegrees);
+    }
+
+    private static long pack(long latIdx, long lngIdx) {
+        return (latIdx << 32) | (lngIdx & 0xFFFFFFFFL);
+    }
+
+    private void removeFromCell(long cellKey, K key) {
+        cells.computeIfPresent(cellKey, (c, cell) -> {
+            cell.remove(key);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V>[] newEntryHolder() {
+        return (Entry<V>[]) new Entry[1];
+    }
+
+    private static final class Candidate<V> {
+        private final V value;
+        private final double distanceKm;
+
+        private Candidate(V value, double distanceKm) {
+            this.value = value;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+        private final V value;
+
+        private Entry(double latitude, double longitude, long cellKey, V value) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Precomputed heatmap tile pyramid.
+ * For every zoom level in [min-zoom, max-zoom] each report is added to one z/x/y tile,
+ * which splits into tile-bins x tile-bins bins. Each bin keeps a weighted count and a
+ * coordinate centroid per crime type and hourly time bucket.
+ * New, updated and deleted reports adjust the pyramid incrementally, so serving a tile
+ * is a single map lookup followed by a scan of that tile's bins in the requested hours; bin keys
+ * start with the time bucket, so each tile keeps them sorted by hour.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HeatmapTileIndex {
+
+    private static final long SECONDS_PER_BUCKET = 3600;
+    private static final int AGGREGATE_AXIS_BITS = 28;
+
+    private final ReportRepository reportRepository;
+
+    @Value("${app.geo.heatmap.min-zoom:8}")
+    private int minZoom;
+
+    @Value("${app.geo.heatmap.max-zoom:16}")
+    private int maxZoom;
+
+    @Value("${app.geo.heatmap.default-zoom:13}")
+    private int defaultZoom;
+
+    @Value("${app.geo.heatmap.tile-bins:16}")
+    private int tileBins;
+
+    @Value("${app.geo.heatmap.retention-days:30}")
+    private int retentionDays;
+
+    private final Map<Long, NavigableMap<Long, BinStats>> tiles = new ConcurrentHashMap<>();
+    private final Map<UUID, ReportPoint> contributions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Instant now = Instant.now();
+        List<Report> reports = reportRepository.findByDateRange(retentionStart(now), now);
+        // Reports changed while loading are already newer than the database rows
+        reports.forEach(report -> upsert(ReportPoint.from(report), false));
+        ready = true;
+        log.info("Heatmap tile pyramid built from {} reports ({} tiles, zoom {}-{})",
+                contributions.size(), tiles.size(), minZoom, maxZoom);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        if (event.getChangeType() == ReportChangedEvent.ChangeType.DELETED) {
+            contributions.computeIfPresent(event.getReport().getId(), (id, previous) -> {
+                apply(previous, -1);
+                return null;
+            });
+        } else {
+            upsert(event.getReport(), true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.geo.heatmap.prune-interval-ms:600000}")
+    public void pruneExpired() {
+        long cutoffBucket = bucket(retentionStart(Instant.now()));
+        contributions.values().removeIf(point -> bucket(point.getDate()) < cutoffBucket);
+        for (Long tileKey : tiles.keySet()) {
+            tiles.computeIfPresent(tileKey, (k, tile) -> {
+                tile.headMap(cutoffBucket << 24).clear();
+                return tile.isEmpty() ? null : tile;
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean supportsZoom(int zoom) {
+        return zoom >= minZoom && zoom <= maxZoom;
+    }
+
+    public int getMinZoom() {
+        return minZoom;
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * Zoom used to bin whole-map heatmaps that are not requested per tile
+     */
+    public int getDefaultZoom() {
+        return defaultZoom;
+    }
+
+    /**
+     * Heatmap points of one tile, aggregated per bin and crime type over [since, until].
+     * An empty crimeTypes filter means every type.
+     */
+    public List<CrimeMapResponse.HeatmapPoint> getTile(int zoom, int x, int y, Instant since, Instant until,
+                                                       Set<CrimeType> crimeTypes) {
+        // Zooms and coordinates outside the pyramid would alias another tile's key
+        if (!supportsZoom(zoom) || x < 0 || y < 0 || x >= (1 << zoom) || y >= (1 << zoom)) {
+            return new ArrayList<>();
+        }
+        NavigableMap<Long, BinStats> tile = tiles.get(tileKey(zoom, x, y));
+        if (tile == null) {
+            return new ArrayList<>();
+        }
+        long fromKey = bucket(since) << 24;
+        long toKey = (bucket(until) + 1) << 24;
+
+        // Merge the hourly buckets of each (bin, crime type) pair
+        Map<Long, BinStats> merged = new HashMap<>();
+        for (Map.Entry<Long, BinStats> entry : tile.subMap(fromKey, toKey).entrySet()) {
+            long binKey = entry.getKey();
+            int crimeOrdinal = (int) ((binKey >>> 16) & 0xFF);
+            if (crimeTypes != null && !crimeTypes.isEmpty() && !crimeTypes.contains(CrimeType.values()[crimeOrdinal])) {
+                continue;
+            }
+            merged.merge(binKey & 0xFFFFFFL, entry.getValue(), BinStats::plus);
+        }
+        return toHeatmapPoints(merged);
+    }
+
+    /**
+     * Aggregate an arbitrary set of reports into heatmap bins at the given zoom.
+     * Used for whole-map heatmaps whose report set has already been loaded.
+     * Zooms too fine for the packed bin key are clamped to the finest that fits.
+     */
+    public List<CrimeMapResponse.HeatmapPoint> aggregate(Collection<ReportPoint> points, int zoom) {
+        double scale = (double) (1L << Math.max(0, Math.min(zoom, maxAggregateZoom()))) * tileBins;
+        Map<Long, BinStats> merged = new HashMap<>();
+        for (ReportPoint point : points) {
+            if (!point.hasCoordinates()) {
+                continue;
+            }
+            // Global bin column/row at this zoom, so bins line up with the served tiles
+            long gx = (long) Math.floor(WebMercator.x(point.getLongitude()) * scale);
+            long gy = (long) Math.floor(WebMercator.y(point.getLatitude()) * scale);
+            merged.merge(aggregateKey(gx, gy, crimeOrdinal(point.getCrimeType())), BinStats.of(point, 1), BinStats::plus);
+        }
+        return toHeatmapPoints(merged);
+    }
+
+    private void upsert(ReportPoint point, boolean replace) {
+        if (!point.hasCoordinates() || point.getDate() == null
+                || point.getDate().isBefore(retentionStart(Instant.now()))) {
+            return;
+        }
+        contributions.compute(point.getId(), (id, previous) -> {
+            if (previous != null) {
+                if (!replace) {
+                    return previous;
+                }
+                apply(previous, -1);
+            }
+            apply(point, 1);
+            return point;
+        });
+    }
+
+    private void apply(ReportPoint point, int sign) {
+        double wx = WebMercator.x(point.getLongitude());
+        double wy = WebMercator.y(point.getLatitude());
+        long binPrefix = (bucket(point.getDate()) << 24) | ((long) crimeOrdinal(point.getCrimeType()) << 16);
+        BinStats delta = BinStats.of(point, sign);
+
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            long tileKey = tileKey(zoom, WebMercator.tile(wx, zoom), WebMercator.tile(wy, zoom));
+            long binKey = binPrefix | binIndex(wx, wy, zoom);
+            // compute() keeps the bin update atomic with pruneExpired() dropping an emptied tile
+            tiles.compute(tileKey, (k, tile) -> {
+                NavigableMap<Long, BinStats> target = tile != null ? tile : new ConcurrentSkipListMap<>();
+                target.compute(binKey, (b, stats) -> {
+                    BinStats updated = stats == null ? delta : stats.plus(delta);
+                    return updated.count <= 0 ? null : updated;
+                });
+                return target.isEmpty() ? null : target;
+            });
+        }
+    }
+
+    private int binIndex(double wx, double wy, int zoom) {
+        double scale = (double) (1 << zoom) * tileBins;
+        int bx = (int) (Math.floor(wx * scale) % tileBins);
+        int by = (int) (Math.floor(wy * scale) % tileBins);
+        return by * tileBins + bx;
+    }
+
+    private static List<CrimeMapResponse.HeatmapPoint> toHeatmapPoints(Map<Long, BinStats> merged) {
+        List<CrimeMapResponse.HeatmapPoint> points = new ArrayList<>(merged.size());
+        for (BinStats stats : merged.values()) {
+            points.add(CrimeMapResponse.HeatmapPoint.builder()
+                    .latitude(stats.latitudeSum / stats.count)
+                    .longitude(stats.longitudeSum / stats.count)
+                    .weight(stats.weight)
+                    .crimeType(stats.crimeType.name())
+                    .crimeCount(stats.count)
+                    .build());
+        }
+        return points;
+    }
+
+    private static int crimeOrdinal(CrimeType crimeType) {
+        return (crimeType != null ? crimeType : CrimeType.OTHER).ordinal();
+    }
+
+    /**
+     * Finest zoom whose global bin columns and rows fit the AGGREGATE_AXIS_BITS of aggregateKey()
+     */
+    private int maxAggregateZoom() {
+        int binBits = 32 - Integer.numberOfLeadingZeros(tileBins - 1);
+        return AGGREGATE_AXIS_BITS - binBits;
+    }
+
+    // Bin column, bin row and crime type: 28 + 28 + 8 bits
+    private static long aggregateKey(long gx, long gy, int crimeOrdinal) {
+        return (gx << (AGGREGATE_AXIS_BITS + 8)) | (gy << 8) | crimeOrdinal;
+    }
+
+    private static long tileKey(int zoom, int x, int y) {
+        return ((long) zoom << 50) | ((long) x << 25) | y;
+    }
+
+    private static long bucket(Instant instant) {
+        return instant.getEpochSecond() / SECONDS_PER_BUCKET;
+    }
+
+    private Instant retentionStart(Instant now) {
+        return now.minus(Duration.ofDays(retentionDays));
+    }
+
+    /**
+     * Heat contribution of one report, matching the priority weights of the map service
+     */
+    static double priorityWeight(Priority priority) {
+        if (priority == null) {
+            return 0.2;
+        }
+        switch (priority) {
+            case LOW: return 0.1;
+            case MEDIUM: return 0.2;
+            case HIGH: return 0.3;
+            case URGENT: return 0.5;
+            default: return 0.2;
+        }
+    }
+
+    private static final class BinStats {
+        private final CrimeType crimeType;
+        private final int count;
+        private final double weight;
+        private final double latitudeSum;
+        private final double longitudeSum;
+
+        private BinStats(CrimeType crimeType, int count, double weight, double latitudeSum, double longitudeSum) {
+            this.crimeType = crimeType;
+            this.count = count;
+            this.weight = weight;
+            this.latitudeSum = latitudeSum;
+            this.longitudeSum = longitudeSum;
+        }
+
+        static BinStats of(ReportPoint point, int sign) {
+            return new BinStats(
+                    point.getCrimeType() != null ? point.getCrimeType() : CrimeType.OTHER,
+                    sign,
+                    sign * priorityWeight(point.getPriority()),
+                    sign * point.getLatitude(),
+                    sign * point.getLongitude());
+        }
+
+        BinStats plus(BinStats other) {
+            return new BinStats(crimeType, count + other.count, weight + other.weight,
+                    latitudeSum + other.latitudeSum, longitudeSum + other.longitudeSum);
+        }
+    }
+}
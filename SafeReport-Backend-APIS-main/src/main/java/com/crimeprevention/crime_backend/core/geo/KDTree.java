@@ -0,0 +1,195 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static 2D KD-tree over planar points (KDBush layout).
+ * Built once from flat coordinate arrays; supports rectangle and radius queries
+ * returning the indices of the original points.
+ */
+public class KDTree {
+
+    private static final int NODE_SIZE = 64;
+
+    private final int[] ids;
+    private final double[] coords;
+
+    public KDTree(double[] xs, double[] ys) {
+        int n = xs.length;
+        ids = new int[n];
+        coords = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            coords[2 * i] = xs[i];
+            coords[2 * i + 1] = ys[i];
+        }
+        sort(0, n - 1, 0);
+    }
+
+    /**
+     * Indices of points inside [minX, maxX] x [minY, maxY].
+     */
+    public List<Integer> range(double minX, double minY, double maxX, double maxY) {
+        return search(minX, minY, maxX, maxY, 0, 0, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Indices of points within Euclidean distance r of (qx, qy).
+     */
+    public List<Integer> within(double qx, double qy, double r) {
+        return search(qx - r, qy - r, qx + r, qy + r, qx, qy, r * r);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Box traversal; points must also lie within sqrt(r2) of (qx, qy)
+    private List<Integer> search(double minX, double minY, double maxX, double maxY,
+                                 double qx, double qy, double r2) {
+        List<Integer> result = new ArrayList<>();
+        if (ids.length == 0) {
+            return result;
+        }
+        int[] stack = new int[64 * 3];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = ids.length - 1;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= NODE_SIZE) {
+                for (int i = left; i <= right; i++) {
+                    double x = coords[2 * i];
+                    double y = coords[2 * i + 1];
+                    if (matches(x, y, minX, minY, maxX, maxY, qx, qy, r2)) {
+                        result.add(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = coords[2 * m];
+            double y = coords[2 * m + 1];
+            if (matches(x, y, minX, minY, maxX, maxY, qx, qy, r2)) {
+                result.add(ids[m]);
+            }
+            boolean goLeft = axis == 0 ? minX <= x : minY <= y;
+            boolean goRight = axis == 0 ? maxX >= x : maxY >= y;
+            if (goLeft) {
+                stack = ensure(stack, top);
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (goRight) {
+                stack = ensure(stack, top);
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(double x, double y, double minX, double minY, double maxX, double maxY,
+                                   double qx, double qy, double r2) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return false;
+        }
+        if (r2 == Double.POSITIVE_INFINITY) {
+            return true;
+        }
+        double dx = x - qx;
+        double dy = y - qy;
+        return dx * dx + dy * dy <= r2;
+    }
+
+    private static int[] ensure(int[] stack, int top) {
+        if (top + 3 <= stack.length) {
+            return stack;
+        }
+        int[] grown = new int[stack.length * 2];
+        System.arraycopy(stack, 0, grown, 0, stack.length);
+        return grown;
+    }
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= NODE_SIZE) {
+            return;
+        }
+        int m = (left + right) >> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    // Floyd-Rivest selection: partially sorts so that element k is in place on the given axis
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2.0 < 0 ? -1 : 1);
+                int newLeft = (int) Math.max(left, Math.floor(k - m * s / n + sd));
+                int newRight = (int) Math.min(right, Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = coords[2 * k + axis];
+            int i = left;
+            int j = right;
+
+            swap(left, k);
+            if (coords[2 * right + axis] > t) {
+                swap(left, right);
+            }
+
+            while (i < j) {
+                swap(i, j);
+                i++;
+                j--;
+                while (coords[2 * i + axis] < t) {
+                    i++;
+                }
+                while (coords[2 * j + axis] > t) {
+                    j--;
+                }
+            }
+
+            if (coords[2 * left + axis] == t) {
+                swap(left, j);
+            } else {
+                j++;
+                swap(j, right);
+            }
+
+            if (j <= k) {
+                left = j + 1;
+            }
+            if (k <= j) {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double x = coords[2 * i];
+        coords[2 * i] = coords[2 * j];
+        coords[2 * j] = x;
+        double y = coords[2 * i + 1];
+        coords[2 * i + 1] = coords[2 * j + 1];
+        coords[2 * j + 1] = y;
+    }
+}
@@ -0,0 +1,79 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reverse geocoding through a Nominatim server; base-url can point at a local stub
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NominatimReverseGeocoder implements ReverseGeocoder {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.geocoding.nominatim.base-url:https://nominatim.openstreetmap.org}")
+    private String baseUrl;
+
+    // Required by the Nominatim usage policy
+    @Value("${app.geocoding.nominatim.user-agent:CrimePreventionApp/1.0}")
+    private String userAgent;
+
+    @Value("${app.geocoding.nominatim.timeout-ms:10000}")
+    private long timeoutMs;
+
+    // One client for all lookups so connections are reused
+    private HttpClient client;
+
+    @PostConstruct
+    void init() {
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    @Override
+    public Map<String, Object> reverse(double latitude, double longitude) {
+        String url = String.format(Locale.ROOT,
+                "%s/reverse?format=json&lat=%.6f&lon=%.6f&zoom=18&addressdetails=1",
+                baseUrl, latitude, longitude);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", userAgent)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Nominatim API returned status code: {}", response.statusCode());
+                throw new ReverseGeocodeException(response.statusCode(), "Nominatim returned " + response.statusCode());
+            }
+            return objectMapper.readValue(response.body(), JSON_OBJECT);
+        } catch (IOException e) {
+            throw new ReverseGeocodeException(502, "Nominatim request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReverseGeocodeException(503, "Interrupted while calling Nominatim", e);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.OfficerDutyStatusChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live officer positions, the source of truth for location reads.
+ * Location updates only touch memory; the latest fix per officer is kept in a pending map
+ * (so repeated updates coalesce) and written to the users table in JDBC batches on a fixed
+ * interval. Duty status is persisted by the services that change it and mirrored here.
+ * Officers with a known position are also kept in a grid for nearest-officer queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OfficerLocationRegistry {
+
+    private static final String FLUSH_SQL =
+            "UPDATE users SET latitude = ?, longitude = ?, location_updated_at = ? WHERE id = ?";
+
+    private final OfficerRepository officerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.officers.location.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${app.officers.location.cell-size-degrees:0.02}")
+    private double cellSizeDegrees;
+
+    private final Map<UUID, OfficerPosition> positions = new ConcurrentHashMap<>();
+    private final Map<UUID, OfficerPosition> pending = new ConcurrentHashMap<>();
+    private GridIndex<UUID, OfficerPosition> grid;
+
+    private Counter updateCounter;
+    private Counter flushFailureCounter;
+    private Timer flushTimer;
+    private Timer flushLagTimer;
+
+    @PostConstruct
+    void init() {
+        grid = new GridIndex<>(cellSizeDegrees);
+        updateCounter = Counter.builder("officer.location.updates")
+                .description("Officer location updates received")
+                .register(meterRegistry);
+        flushFailureCounter = Counter.builder("officer.location.flush.failures")
+                .description("Location flushes that failed and were re-queued")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("officer.location.flush")
+                .description("Time to write one batch of officer locations")
+                .register(meterRegistry);
+        flushLagTimer = Timer.builder("officer.location.flush.lag")
+                .description("Age of the oldest location update at the time it was flushed")
+                .register(meterRegistry);
+        Gauge.builder("officer.location.pending", pending, Map::size)
+                .description("Officer locations waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("officer.location.tracked", positions, Map::size)
+                .description("Officers held in the location registry")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Officer> officers = officerRepository.findAll();
+        // Updates that arrived before warm-up finished are newer than the database; a duty
+        // status change alone leaves the officer without coordinates, which are taken from here
+        for (Officer officer : officers) {
+            positions.compute(officer.getId(), (id, current) -> {
+                if (current != null && current.hasCoordinates()) {
+                    return current;
+                }
+                OfficerPosition loaded = OfficerPosition.from(officer);
+                OfficerPosition merged = current == null ? loaded : current.toBuilder()
+                        .latitude(loaded.getLatitude())
+                        .longitude(loaded.getLongitude())
+                        .updatedAt(loaded.getUpdatedAt())
+                        .build();
+                index(merged);
+                return merged;
+            });
+        }
+        log.info("Officer location registry loaded {} officers", officers.size());
+    }
+
+    /**
+     * Record a new location fix. Unknown officers are looked up once in the database.
+     */
+    public OfficerPosition updateLocation(UUID officerId, double latitude, double longitude) {
+        OfficerPosition known = positions.get(officerId);
+        if (known == null) {
+            Officer officer = officerRepository.findById(officerId)
+                    .orElseThrow(() -> new RuntimeException("Officer not found"));
+            positions.putIfAbsent(officerId, OfficerPosition.from(officer));
+        }
+
+        Instant now = Instant.now();
+        OfficerPosition updated = positions.compute(officerId, (id, current) -> {
+            OfficerPosition next = current.toBuilder()
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .updatedAt(now)
+                    .build();
+            index(next);
+            return next;
+        });
+        pending.put(officerId, updated);
+        updateCounter.increment();
+        return updated;
+    }
+
+    /**
+     * Mirror a duty status change that the caller has persisted
+     */
+    public void updateDutyStatus(UUID officerId, DutyStatus dutyStatus) {
+        positions.compute(officerId, (id, current) -> {
+            OfficerPosition next = current != null
+                    ? current.toBuilder().dutyStatus(dutyStatus).build()
+                    : OfficerPosition.builder().officerId(id).dutyStatus(dutyStatus).build();
+            index(next);
+            return next;
+        });
+    }
+
+    /**
+     * Apply a saved duty status only once its transaction commits, so a rollback never reaches dispatch
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDutyStatusChanged(OfficerDutyStatusChangedEvent event) {
+        updateDutyStatus(event.getOfficerId(), event.getDutyStatus());
+    }
+
+    public Optional<OfficerPosition> getPosition(UUID officerId) {
+        return Optional.ofNullable(positions.get(officerId));
+    }
+
+    public Collection<OfficerPosition> getPositions() {
+        return Collections.unmodifiableCollection(positions.values());
+    }
+
+    /**
+     * Up to k officers in one of the given duty statuses within radiusKm, closest first
+     */
+    public List<OfficerPosition> findNearest(double latitude, double longitude, int k, double radiusKm,
+                                             Set<DutyStatus> dutyStatuses) {
+        return grid.nearest(latitude, longitude, k, radiusKm,
+                position -> dutyStatuses.contains(position.getDutyStatus()));
+    }
+
+    /**
+     * Closest located officer in one of the given duty statuses at any distance; a full scan, for when findNearest comes up empty
+     */
+    public Optional<OfficerPosition> findNearestAnywhere(double latitude, double longitude, Set<DutyStatus> dutyStatuses) {
+        return positions.values().stream()
+                .filter(position -> position.hasCoordinates() && dutyStatuses.contains(position.getDutyStatus()))
+                .min(Comparator.comparingDouble(position -> GeoUtils.haversineKm(
+                        latitude, longitude, position.getLatitude(), position.getLongitude())));
+    }
+
+    /**
+     * Whether any officer is in one of the given duty statuses, located or not
+     */
+    public boolean anyInStatus(Set<DutyStatus> dutyStatuses) {
+        return positions.values().stream().anyMatch(position -> dutyStatuses.contains(position.getDutyStatus()));
+    }
+
+    // Called inside positions.compute(), so grid updates for one officer are serialised
+    private void index(OfficerPosition position) {
+        if (position.hasCoordinates()) {
+            grid.put(position.getOfficerId(), position.getLatitude(), position.getLongitude(), position);
+        }
+    }
+
+    /**
+     * Write the latest pending fix of every officer that moved since the previous flush
+     */
+    @Scheduled(fixedDelayString = "${app.officers.location.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<OfficerPosition> batch = new ArrayList<>(pending.size());
+        for (UUID officerId : pending.keySet()) {
+            OfficerPosition position = pending.remove(officerId);
+            if (position != null) {
+                batch.add(position);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        batch.stream()
+                .map(OfficerPosition::getUpdatedAt)
+                .min(Comparator.naturalOrder())
+                .ifPresent(oldest -> flushLagTimer.record(Duration.between(oldest, now)));
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch, flushBatchSize, (ps, position) -> {
+                ps.setDouble(1, position.getLatitude());
+                ps.setDouble(2, position.getLongitude());
+                ps.setTimestamp(3, Timestamp.from(position.getUpdatedAt()));
+                ps.setObject(4, position.getOfficerId());
+            }));
+            log.debug("Flushed {} officer locations", batch.size());
+        } catch (DataAccessException e) {
+            // Re-queue unless a newer fix has arrived in the meantime
+            batch.forEach(position -> pending.putIfAbsent(position.getOfficerId(), position));
+            flushFailureCounter.increment();
+            log.warn("Failed to flush {} officer locations, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,39 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Latest known position and duty status of one officer.
+ * Coordinates are null until the officer has reported a location.
+ */
+@Value
+@Builder(toBuilder = true)
+public class OfficerPosition {
+
+    UUID officerId;
+    Double latitude;
+    Double longitude;
+    DutyStatus dutyStatus;
+    Instant updatedAt;
+
+    public static OfficerPosition from(Officer officer) {
+        Officer.Location location = officer.getLocation();
+        return OfficerPosition.builder()
+                .officerId(officer.getId())
+                .latitude(location != null ? location.getLatitude() : null)
+                .longitude(location != null ? location.getLongitude() : null)
+                .dutyStatus(officer.getDutyStatus())
+                .updatedAt(officer.getLocationUpdatedAt())
+                .build();
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+}
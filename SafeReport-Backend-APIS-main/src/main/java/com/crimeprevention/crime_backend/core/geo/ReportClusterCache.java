@@ -0,0 +1,117 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Cluster indexes keyed by time window and filters.
+ * An index is built once per window and reused until it expires (so rolling windows move
+ * forward) or a report changes.
+ */
+@Component
+@Slf4j
+public class ReportClusterCache {
+
+    @Value("${app.geo.clusters.min-zoom:0}")
+    private int minZoom;
+
+    @Value("${app.geo.clusters.max-zoom:16}")
+    private int maxZoom;
+
+    @Value("${app.geo.clusters.default-zoom:12}")
+    private int defaultZoom;
+
+    @Value("${app.geo.clusters.max-clusters:2000}")
+    private int maxClusters;
+
+    @Value("${app.geo.clusters.radius-px:60}")
+    private double radius;
+
+    @Value("${app.geo.clusters.extent-px:512}")
+    private int extent;
+
+    @Value("${app.geo.clusters.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.geo.clusters.max-windows:32}")
+    private int maxWindows;
+
+    private final Map<String, CachedIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Cached index for the window, building it from the supplied points on a miss
+     */
+    public ClusterIndex getOrBuild(String windowKey, Supplier<Collection<ReportPoint>> points,
+                                   ToDoubleFunction<ReportPoint> riskScore) {
+        Instant now = Instant.now();
+        CachedIndex cached = indexes.get(windowKey);
+        if (cached != null && cached.builtAt.plus(Duration.ofSeconds(ttlSeconds)).isAfter(now)) {
+            return cached.index;
+        }
+
+        long startGeneration = generation.get();
+        long started = System.currentTimeMillis();
+        ClusterIndex index = new ClusterIndex(points.get(), riskScore, minZoom, maxZoom, radius, extent);
+        log.debug("Built cluster index for {} over {} reports in {}ms",
+                windowKey, index.size(), System.currentTimeMillis() - started);
+
+        // A report changed while building: serve this index but don't keep it
+        if (generation.get() == startGeneration) {
+            if (indexes.size() >= maxWindows) {
+                indexes.entrySet().removeIf(e -> e.getValue().builtAt.plus(Duration.ofSeconds(ttlSeconds)).isBefore(now));
+                if (indexes.size() >= maxWindows) {
+                    indexes.clear();
+                }
+            }
+            CachedIndex entry = new CachedIndex(index, now);
+            indexes.put(windowKey, entry);
+            if (generation.get() != startGeneration) {
+                indexes.remove(windowKey, entry);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Zoom used when a clusters request does not specify one
+     */
+    public int getDefaultZoom() {
+        return defaultZoom;
+    }
+
+    /**
+     * Upper bound on clusters returned by one query
+     */
+    public int getMaxClusters() {
+        return maxClusters;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        generation.incrementAndGet();
+        indexes.clear();
+    }
+
+    private static final class CachedIndex {
+        private final ClusterIndex index;
+        private final Instant builtAt;
+
+        CachedIndex(ClusterIndex index, Instant builtAt) {
+            this.index = index;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the report fields needed by in-memory geo structures.
+ * Detached from the persistence context so it is safe to keep after the transaction ends.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ReportPoint {
+
+    UUID id;
+    Double latitude;
+    Double longitude;
+    CrimeType crimeType;
+    ReportStatus status;
+    Priority priority;
+    Instant date;
+    Instant submittedAt;
+    Instant createdAt;
+    Instant updatedAt;
+    String area;
+
+    public static ReportPoint from(Report report) {
+        Report.Location location = report.getLocation();
+        return ReportPoint.builder()
+                .id(report.getId())
+                .latitude(location != null ? location.getLatitude() : null)
+                .longitude(location != null ? location.getLongitude() : null)
+                .crimeType(report.getCrimeType())
+                .status(report.getStatus())
+                .priority(report.getPriority())
+                .date(report.getDate())
+                .submittedAt(report.getSubmittedAt())
+                .createdAt(report.getCreatedAt())
+                .updatedAt(report.getUpdatedAt())
+                .area(areaName(location))
+                .build();
+    }
+
+    /**
+     * Area label used for community statistics: district, then area, then the first part of the address
+     */
+    static String areaName(Report.Location location) {
+        if (location == null) {
+            return "Unknown";
+        }
+        if (location.getDistrict() != null && !location.getDistrict().trim().isEmpty()) {
+            return location.getDistrict();
+        } else if (location.getArea() != null && !location.getArea().trim().isEmpty()) {
+            return location.getArea();
+        } else if (location.getAddress() != null && !location.getAddress().trim().isEmpty()) {
+            String address = location.getAddress();
+            int commaIndex = address.indexOf(',');
+            return commaIndex > 0 ? address.substring(0, commaIndex).trim() : address;
+        }
+        return "Unknown";
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory grid index of recent geolocated reports.
+ * Live incident radius queries only visit the cells covering the requested circle
+ * instead of loading and scanning every report in the time window.
+ * The index holds the last {@code app.geo.report-index.retention-days} days; older
+ * windows must be answered from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportSpatialIndex {
+
+    private final ReportRepository reportRepository;
+
+    @Value("${app.geo.report-index.cell-size-degrees:0.01}")
+    private double cellSizeDegrees;
+
+    @Value("${app.geo.report-index.retention-days:30}")
+    private int retentionDays;
+
+    private GridIndex<UUID, ReportPoint> grid;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        grid = new GridIndex<>(cellSizeDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Instant now = Instant.now();
+        List<Report> reports = reportRepository.findByDateRange(retentionStart(now), now);
+        // Reports changed while loading are already newer than the database rows
+        reports.forEach(report -> index(ReportPoint.from(report), false));
+        ready = true;
+        log.info("Report spatial index loaded {} reports from the last {} days", grid.size(), retentionDays);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChanged(ReportChangedEvent event) {
+        if (event.getChangeType() == ReportChangedEvent.ChangeType.DELETED) {
+            grid.remove(event.getReport().getId());
+        } else {
+            index(event.getReport(), true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.geo.report-index.prune-interval-ms:600000}")
+    public void pruneExpired() {
+        Instant cutoff = retentionStart(Instant.now());
+        int removed = grid.removeIf(point -> point.getDate().isBefore(cutoff));
+        if (removed > 0) {
+            log.debug("Pruned {} reports older than {} from spatial index", removed, cutoff);
+        }
+    }
+
+    /**
+     * Whether the index holds every report dated at or after {@code since}.
+     */
+    public boolean covers(Instant since) {
+        return ready && !since.isBefore(retentionStart(Instant.now()));
+    }
+
+    /**
+     * Reports dated within [since, until] and within radiusKm of the point, newest first.
+     */
+    public List<ReportPoint> findWithinRadius(double latitude, double longitude, double radiusKm,
+                                              Instant since, Instant until) {
+        List<ReportPoint> points = grid.withinRadius(latitude, longitude, radiusKm,
+                point -> !point.getDate().isBefore(since) && !point.getDate().isAfter(until));
+        points.sort(Comparator.comparing(ReportPoint::getDate).reversed());
+        return points;
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    private void index(ReportPoint point, boolean replace) {
+        if (!point.hasCoordinates() || point.getDate() == null
+                || point.getDate().isBefore(retentionStart(Instant.now()))) {
+            return;
+        }
+        if (replace) {
+            grid.put(point.getId(), point.getLatitude(), point.getLongitude(), point);
+        } else {
+            grid.putIfAbsent(point.getId(), point.getLatitude(), point.getLongitude(), point);
+        }
+    }
+
+    private Instant retentionStart(Instant now) {
+        return now.minus(Duration.ofDays(retentionDays));
+    }
+}
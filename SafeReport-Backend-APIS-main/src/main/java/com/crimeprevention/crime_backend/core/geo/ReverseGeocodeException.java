@@ -0,0 +1,23 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+/**
+ * A reverse geocoding lookup that could not be answered; statusCode is the HTTP status to return
+ */
+public class ReverseGeocodeException extends RuntimeException {
+
+    private final int statusCode;
+
+    public ReverseGeocodeException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public ReverseGeocodeException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,16 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+import java.util.Map;
+
+/**
+ * Upstream reverse geocoding provider
+ */
+public interface ReverseGeocoder {
+
+    /**
+     * Address details for the coordinates, as returned by the provider
+     *
+     * @throws ReverseGeocodeException if the provider fails or answers with a non-200 status
+     */
+    Map<String, Object> reverse(double latitude, double longitude);
+}
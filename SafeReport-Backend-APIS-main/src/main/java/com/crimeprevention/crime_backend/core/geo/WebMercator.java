@@ -0,0 +1,46 @@
+package com.crimeprevention.crime_backend.core.geo;
+
+/**
+ * Spherical Web Mercator projection as used by slippy-map z/x/y tiles.
+ * World coordinates are normalised to [0, 1) on both axes, with y growing southwards.
+ */
+public final class WebMercator {
+
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    public static double x(double longitude) {
+        double x = (longitude + 180.0) / 360.0;
+        return clamp(x);
+    }
+
+    public static double y(double latitude) {
+        double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(lat));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return clamp(y);
+    }
+
+    public static double longitude(double x) {
+        return x * 360.0 - 180.0;
+    }
+
+    public static double latitude(double y) {
+        double n = Math.PI - 2 * Math.PI * y;
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Tile column/row containing the normalised coordinate at the given zoom.
+     */
+    public static int tile(double normalised, int zoom) {
+        int tiles = 1 << zoom;
+        return Math.min(tiles - 1, (int) Math.floor(normalised * tiles));
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(Math.nextDown(1.0), value));
+    }
+}
@@ -0,0 +1,43 @@
+package com.crimeprevention.crime_backend.core.model.ai;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Persisted LLM completion, keyed by the hash of provider, model, generation config and prompt
+ */
+@Entity
+@Table(name = "llm_result_cache", indexes = {
+        @Index(name = "idx_llm_result_cache_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_llm_result_cache_created_at", columnList = "created_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LlmResultCacheEntry {
+
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+
+    @Column(name = "provider", length = 20, nullable = false)
+    private String provider;
+
+    @Column(name = "model", length = 100)
+    private String model;
+
+    @Column(name = "result", columnDefinition = "TEXT", nullable = false)
+    private String result;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
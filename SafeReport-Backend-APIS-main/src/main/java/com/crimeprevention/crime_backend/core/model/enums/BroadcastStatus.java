@@ -0,0 +1,8 @@
+package com.crimeprevention.crime_backend.core.model.enums;
+
+public enum BroadcastStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.crimeprevention.crime_backend.core.model.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
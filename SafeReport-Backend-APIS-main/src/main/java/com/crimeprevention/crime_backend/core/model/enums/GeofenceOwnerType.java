@@ -0,0 +1,6 @@
+package com.crimeprevention.crime_backend.core.model.enums;
+
+public enum GeofenceOwnerType {
+    USER,        // Pushed to the owning user
+    WATCH_GROUP  // Pushed to every active member of the group
+}
@@ -0,0 +1,6 @@
+package com.crimeprevention.crime_backend.core.model.enums;
+
+public enum GeofenceType {
+    CIRCLE,     // Centre point and radius
+    POLYGON     // Ordered vertices, implicitly closed
+}
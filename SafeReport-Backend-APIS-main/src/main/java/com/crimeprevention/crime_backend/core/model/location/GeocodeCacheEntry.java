@@ -0,0 +1,29 @@
+package com.crimeprevention.crime_backend.core.model.location;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Persisted reverse geocoding result for one quantised coordinate cell
+ */
+@Entity
+@Table(name = "geocode_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeocodeCacheEntry {
+
+    @Id
+    @Column(name = "cell_key", length = 40)
+    private String cellKey;
+
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+}
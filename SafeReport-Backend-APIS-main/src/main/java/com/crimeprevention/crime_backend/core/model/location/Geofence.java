@@ -0,0 +1,83 @@
+package com.crimeprevention.crime_backend.core.model.location;
+
+import com.crimeprevention.crime_backend.core.base.AbstractAuditEntity;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(name = "geofences",
+        indexes = {
+                @Index(name = "idx_geofences_owner", columnList = "owner_type, owner_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Geofence extends AbstractAuditEntity {
+
+    @Id
+    @GeneratedValue
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", length = 20, nullable = false)
+    private GeofenceOwnerType ownerType;
+
+    @Column(name = "owner_id", nullable = false, columnDefinition = "uuid")
+    private UUID ownerId;
+
+    @Column(name = "created_by", nullable = false, columnDefinition = "uuid")
+    private UUID createdBy;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private GeofenceType type;
+
+    // Saved place a circle is centred on, if any
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id")
+    private Location location;
+
+    @Column(name = "center_latitude")
+    private Double centerLatitude;
+
+    @Column(name = "center_longitude")
+    private Double centerLongitude;
+
+    @Column(name = "radius_km")
+    private Double radiusKm;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "geofence_vertices", joinColumns = @JoinColumn(name = "geofence_id"))
+    @OrderColumn(name = "vertex_order")
+    @Builder.Default
+    private List<Vertex> vertices = new ArrayList<>();
+
+    @Column(name = "is_active", nullable = false)
+    @Builder.Default
+    private boolean active = true;
+
+    @Embeddable
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Vertex {
+        @Column(name = "latitude", nullable = false)
+        private Double latitude;
+
+        @Column(name = "longitude", nullable = false)
+        private Double longitude;
+    }
+}
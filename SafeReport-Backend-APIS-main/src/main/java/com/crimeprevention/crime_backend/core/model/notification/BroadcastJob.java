@@ -0,0 +1,53 @@
+package com.crimeprevention.crime_backend.core.model.notification;
+
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A news broadcast to all users; progress of each channel is kept in broadcast_job_channels
+ */
+@Entity
+@Table(name = "broadcast_jobs", indexes = {
+        @Index(name = "idx_broadcast_jobs_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastJob {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "title", length = 200, nullable = false)
+    private String title;
+
+    @Column(name = "content", columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private BroadcastStatus status = BroadcastStatus.QUEUED;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
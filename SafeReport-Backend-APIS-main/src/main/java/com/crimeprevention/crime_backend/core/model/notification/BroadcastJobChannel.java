@@ -0,0 +1,53 @@
+package com.crimeprevention.crime_backend.core.model.notification;
+
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastChannel;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of one channel of a broadcast. Recipients are taken in user id order, so the last
+ * user id of the last completed page is where the channel resumes.
+ */
+@Entity
+@Table(name = "broadcast_job_channels",
+        uniqueConstraints = @UniqueConstraint(name = "uk_broadcast_job_channel", columnNames = {"job_id", "channel"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastJobChannel {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", length = 20, nullable = false)
+    private BroadcastChannel channel;
+
+    // Recipients counted when the job was submitted
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "sent", nullable = false)
+    private long sent;
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    @Column(name = "last_user_id")
+    private UUID lastUserId;
+
+    @Column(name = "done", nullable = false)
+    private boolean done;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
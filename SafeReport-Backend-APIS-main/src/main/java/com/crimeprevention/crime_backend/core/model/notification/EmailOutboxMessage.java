@@ -0,0 +1,65 @@
+package com.crimeprevention.crime_backend.core.model.notification;
+
+import com.crimeprevention.crime_backend.core.model.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An email waiting to be sent, written in the transaction of the change that caused it.
+ * Rows are written and drained through JdbcTemplate by EmailOutbox; a worker claims a row by
+ * setting claim_token and pushing next_attempt_at out by the lease.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    // Which EmailService message this is, e.g. WELCOME or PASSWORD_RESET_CODE
+    @Column(name = "kind", length = 40, nullable = false)
+    private String kind;
+
+    @Column(name = "recipient", length = 320, nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", length = 500, nullable = false)
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private EmailOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "claim_token", columnDefinition = "uuid")
+    private UUID claimToken;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -0,0 +1,27 @@
+package com.crimeprevention.crime_backend.core.model.notification;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * A user's unread notification count, kept by UnreadNotificationCounters through JdbcTemplate
+ * in the same transaction as the notification writes that change it.
+ */
+@Entity
+@Table(name = "notification_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+}
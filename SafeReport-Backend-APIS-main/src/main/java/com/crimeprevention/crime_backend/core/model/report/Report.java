@@ -14,7 +14,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reports")
+@Table(name = "reports",
+        indexes = {
+                @Index(name = "idx_reports_lat_lng_date", columnList = "latitude, longitude, date")
+        })
 @Getter
 @Setter
 @SuperBuilder
@@ -5,9 +5,13 @@ import com.crimeprevention.crime_backend.core.model.enums.OfficerRoleType;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
 @DiscriminatorValue("Officer")
+@DynamicUpdate // Status saves must not write back coordinates owned by the location registry
 @Getter
 @Setter
 @SuperBuilder
@@ -42,6 +46,9 @@ public class Officer extends User {
     })
     private Location location;
 
+    @Column(name = "location_updated_at")
+    private Instant locationUpdatedAt;
+
     @Embeddable
     @Data
     @Builder
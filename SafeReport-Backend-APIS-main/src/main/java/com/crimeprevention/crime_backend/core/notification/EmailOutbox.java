@@ -0,0 +1,359 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import com.crimeprevention.crime_backend.core.event.EmailEnqueuedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for email. enqueue writes a row with the caller's JDBC connection, so it
+ * commits or rolls back with the caller's transaction; after commit (and every poll-interval) up
+ * to pool-size emailOutboxExecutor workers drain the table. A worker claims batch-size due rows,
+ * sends them with one JavaMailSender.send call over a single SMTP connection, marks delivered rows
+ * SENT and reschedules failed ones with exponential backoff until max-attempts, after which they
+ * are left DEAD for inspection. A worker that dies mid-batch leaves its rows to be claimed again
+ * once the lease expires.
+ */
+@Component
+@Slf4j
+public class EmailOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO email_outbox (id, kind, recipient, subject, body, status, attempts, next_attempt_at, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET claim_token = ?, next_attempt_at = ? "
+                    + "WHERE status = 'PENDING' AND next_attempt_at <= ? AND id IN ("
+                    + "SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? "
+                    + "ORDER BY next_attempt_at LIMIT ?)";
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Value("${app.email.from:}")
+    private String fromEmail;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${app.email.outbox.retry-max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    @Value("${app.email.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.email.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicLong pending = new AtomicLong();
+
+    private Counter enqueuedCounter;
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter deadCounter;
+    private Timer batchTimer;
+    private Timer deliveryTimer;
+
+    public EmailOutbox(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                       @Qualifier("emailOutboxExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        enqueuedCounter = Counter.builder("email.outbox.enqueued")
+                .description("Emails written to the outbox")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("email.outbox.failures")
+                .description("Failed email deliveries")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        deadCounter = Counter.builder("email.outbox.failures")
+                .description("Failed email deliveries")
+                .tag("outcome", "dead")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time to send one batch over one SMTP connection")
+                .register(meterRegistry);
+        deliveryTimer = Timer.builder("email.outbox.delivery")
+                .description("Time from enqueue to delivery")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Emails waiting in the outbox, as of the last poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write the email to the outbox in the current transaction, if there is one
+     */
+    public UUID enqueue(String kind, String to, String subject, String body) {
+        UUID id = UUID.randomUUID();
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(INSERT_SQL, id, kind, to, subject, body, now, now);
+        enqueuedCounter.increment();
+        eventPublisher.publishEvent(new EmailEnqueuedEvent(id));
+        return id;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnqueued(EmailEnqueuedEvent event) {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            Long waiting = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM email_outbox WHERE status = 'PENDING'", Long.class);
+            pending.set(waiting != null ? waiting : 0);
+        } catch (DataAccessException e) {
+            log.warn("Could not count pending emails: {}", e.getMessage());
+            return;
+        }
+        if (pending.get() > 0) {
+            wake();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(retentionDays)));
+        int deleted = jdbcTemplate.update("DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("Pruned {} sent emails from the outbox", deleted);
+        }
+    }
+
+    /**
+     * Claim one batch of due emails and send it over one SMTP connection. Returns the number claimed.
+     */
+    public int drainBatch() {
+        if (mailSender == null) {
+            return 0;
+        }
+        UUID claimToken = UUID.randomUUID();
+        Instant now = Instant.now();
+        int claimed = jdbcTemplate.update(CLAIM_SQL, claimToken, Timestamp.from(now.plusSeconds(leaseSeconds)),
+                Timestamp.from(now), Timestamp.from(now), batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+        List<Outgoing> batch = jdbcTemplate.query(
+                "SELECT id, recipient, subject, body, attempts, created_at FROM email_outbox WHERE claim_token = ?",
+                (rs, rowNum) -> new Outgoing(rs.getObject("id", UUID.class), rs.getInt("attempts"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        message(rs.getString("recipient"), rs.getString("subject"), rs.getString("body"))),
+                claimToken);
+
+        Map<SimpleMailMessage, Exception> failures = send(batch);
+
+        List<Outgoing> sent = new ArrayList<>();
+        List<Outgoing> retries = new ArrayList<>();
+        List<Outgoing> dead = new ArrayList<>();
+        for (Outgoing outgoing : batch) {
+            Exception failure = failures.get(outgoing.message);
+            if (failure == null) {
+                sent.add(outgoing);
+            } else {
+                outgoing.error = describe(failure);
+                (outgoing.attempts + 1 >= maxAttempts ? dead : retries).add(outgoing);
+            }
+        }
+        record(sent, retries, dead);
+        return batch.size();
+    }
+
+    private Map<SimpleMailMessage, Exception> send(List<Outgoing> batch) {
+        Map<SimpleMailMessage, Exception> failures = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = batch.stream().map(outgoing -> outgoing.message).toArray(SimpleMailMessage[]::new);
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Keyed by the messages passed in; messages not in the map were delivered
+            e.getFailedMessages().forEach((message, exception) -> {
+                for (SimpleMailMessage candidate : messages) {
+                    if (candidate == message) {
+                        failures.put(candidate, exception);
+                    }
+                }
+            });
+            if (failures.isEmpty()) {
+                for (SimpleMailMessage message : messages) {
+                    failures.put(message, e);
+                }
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing was sent
+            for (SimpleMailMessage message : messages) {
+                failures.put(message, e);
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return failures;
+    }
+
+    private void record(List<Outgoing> sent, List<Outgoing> retries, List<Outgoing> dead) {
+        Instant now = Instant.now();
+        Timestamp sentAt = Timestamp.from(now);
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE email_outbox SET status = 'SENT', sent_at = ?, attempts = attempts + 1, "
+                    + "claim_token = NULL, last_error = NULL WHERE id = ?", sent, sent.size(), (ps, outgoing) -> {
+                ps.setTimestamp(1, sentAt);
+                ps.setObject(2, outgoing.id);
+            });
+        }
+        if (!retries.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ?, "
+                    + "claim_token = NULL, last_error = ? WHERE id = ?", retries, retries.size(), (ps, outgoing) -> {
+                ps.setTimestamp(1, Timestamp.from(now.plus(backoff(outgoing.attempts + 1))));
+                ps.setString(2, outgoing.error);
+                ps.setObject(3, outgoing.id);
+            });
+        }
+        if (!dead.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE email_outbox SET status = 'DEAD', attempts = attempts + 1, "
+                    + "claim_token = NULL, last_error = ? WHERE id = ?", dead, dead.size(), (ps, outgoing) -> {
+                ps.setString(1, outgoing.error);
+                ps.setObject(2, outgoing.id);
+            });
+        }
+
+        sentCounter.increment(sent.size());
+        sent.forEach(outgoing -> deliveryTimer.record(Duration.between(outgoing.createdAt, now)));
+        retryCounter.increment(retries.size());
+        deadCounter.increment(dead.size());
+        for (Outgoing outgoing : dead) {
+            log.error("Giving up on email {} to {} after {} attempts: {}", outgoing.id,
+                    outgoing.message.getTo()[0], outgoing.attempts + 1, outgoing.error);
+        }
+        if (!retries.isEmpty()) {
+            log.warn("Rescheduled {} emails after failed delivery: {}", retries.size(), retries.get(0).error);
+        }
+    }
+
+    /**
+     * Start workers, up to pool-size, to drain the outbox until nothing is due
+     */
+    private void wake() {
+        if (mailSender == null) {
+            return;
+        }
+        while (true) {
+            int running = workers.get();
+            if (running >= poolSize) {
+                return;
+            }
+            if (workers.compareAndSet(running, running + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    workers.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (drainBatch() > 0) {
+                // keep going while emails are due
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox worker failed: {}", e.getMessage(), e);
+        } finally {
+            workers.decrementAndGet();
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = retryBaseSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, retryMaxSeconds));
+    }
+
+    private SimpleMailMessage message(String to, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (StringUtils.hasText(fromEmail)) {
+            message.setFrom(fromEmail);
+        }
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+        return message;
+    }
+
+    private static String describe(Exception e) {
+        String description = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return description.length() > ERROR_MAX_LENGTH ? description.substring(0, ERROR_MAX_LENGTH) : description;
+    }
+
+    private static class Outgoing {
+        private final UUID id;
+        private final int attempts;
+        private final Instant createdAt;
+        private final SimpleMailMessage message;
+        private String error;
+
+        private Outgoing(UUID id, int attempts, Instant createdAt, SimpleMailMessage message) {
+            this.id = id;
+            this.attempts = attempts;
+            this.createdAt = createdAt;
+            this.message = message;
+        }
+    }
+}
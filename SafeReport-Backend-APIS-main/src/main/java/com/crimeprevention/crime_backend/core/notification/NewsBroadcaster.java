@@ -0,0 +1,390 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import com.crimeprevention.crime_backend.core.dto.news.BroadcastJobResponse;
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastChannel;
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastStatus;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJob;
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJobChannel;
+import com.crimeprevention.crime_backend.core.repo.notification.BroadcastJobChannelRepository;
+import com.crimeprevention.crime_backend.core.repo.notification.BroadcastJobRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
+import com.crimeprevention.crime_backend.core.service.interfaces.SmsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs news broadcasts as persisted jobs. Each channel (in-app, email, SMS) of a job walks the
+ * users table in id order, batch-size users per page, and hands each page to the channel's own
+ * worker pool: in-app pages become one NotificationFanOut batch insert, email and SMS pages one
+ * send per recipient. The channel's last user id and counts are saved after every page, and jobs
+ * still queued or running are resumed when the application starts, so a restart repeats at most
+ * the page that was in flight.
+ */
+@Component
+@Slf4j
+public class NewsBroadcaster {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int NOTIFICATION_TITLE_MAX = 200;
+    private static final String RECIPIENT_COLUMNS = "SELECT id, full_name, email, phone_number FROM users";
+
+    private final BroadcastJobRepository jobRepository;
+    private final BroadcastJobChannelRepository channelRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationFanOut notificationFanOut;
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final Executor coordinator;
+    private final Map<BroadcastChannel, Executor> workers = new EnumMap<>(BroadcastChannel.class);
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.news.broadcast.in-app.batch-size:1000}")
+    private int inAppBatchSize;
+
+    @Value("${app.news.broadcast.email.batch-size:100}")
+    private int emailBatchSize;
+
+    @Value("${app.news.broadcast.sms.batch-size:200}")
+    private int smsBatchSize;
+
+    // Job id -> channels of the job still being worked on in this process
+    private final Map<UUID, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public NewsBroadcaster(BroadcastJobRepository jobRepository, BroadcastJobChannelRepository channelRepository,
+                           JdbcTemplate jdbcTemplate, NotificationFanOut notificationFanOut,
+                           EmailService emailService, SmsService smsService,
+                           @Qualifier("newsBroadcastExecutor") Executor coordinator,
+                           @Qualifier("newsBroadcastInAppExecutor") Executor inAppExecutor,
+                           @Qualifier("newsBroadcastEmailExecutor") Executor emailExecutor,
+                           @Qualifier("newsBroadcastSmsExecutor") Executor smsExecutor,
+                           MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.channelRepository = channelRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationFanOut = notificationFanOut;
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.coordinator = coordinator;
+        this.workers.put(BroadcastChannel.IN_APP, inAppExecutor);
+        this.workers.put(BroadcastChannel.EMAIL, emailExecutor);
+        this.workers.put(BroadcastChannel.SMS, smsExecutor);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Persist a broadcast of the news to every user and start it
+     */
+    public BroadcastJobResponse submit(String title, String content, UUID requestedBy) {
+        BroadcastJob job = jobRepository.save(BroadcastJob.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .content(content)
+                .requestedBy(requestedBy)
+                .status(BroadcastStatus.QUEUED)
+                .createdAt(Instant.now())
+                .build());
+        List<BroadcastJobChannel> channels = new ArrayList<>();
+        for (BroadcastChannel channel : BroadcastChannel.values()) {
+            Long total = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE " + recipientFilter(channel), Long.class);
+            channels.add(channelRepository.save(BroadcastJobChannel.builder()
+                    .id(UUID.randomUUID())
+                    .jobId(job.getId())
+                    .channel(channel)
+                    .total(total != null ? total : 0)
+                    .updatedAt(Instant.now())
+                    .build()));
+        }
+        log.info("Queued news broadcast {} '{}' to {} users", job.getId(), title, channels.get(0).getTotal());
+        start(job);
+        return toResponse(job, channels);
+    }
+
+    public Optional<BroadcastJobResponse> getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .map(job -> toResponse(job, channelRepository.findByJobId(jobId)));
+    }
+
+    /**
+     * Continue a failed or interrupted job from the last completed page of each channel.
+     * Does nothing to a job that is already running in this process or has completed.
+     */
+    public Optional<BroadcastJobResponse> resume(UUID jobId) {
+        return jobRepository.findById(jobId).map(job -> {
+            if (job.getStatus() != BroadcastStatus.COMPLETED) {
+                start(job);
+            }
+            return toResponse(jobRepository.findById(jobId).orElse(job), channelRepository.findByJobId(jobId));
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<BroadcastJob> unfinished = jobRepository.findByStatusInOrderByCreatedAtAsc(
+                List.of(BroadcastStatus.QUEUED, BroadcastStatus.RUNNING));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished news broadcasts", unfinished.size());
+        }
+        unfinished.forEach(this::start);
+    }
+
+    private void start(BroadcastJob job) {
+        List<BroadcastJobChannel> pending = channelRepository.findByJobId(job.getId()).stream()
+                .filter(channel -> !channel.isDone())
+                .toList();
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+        if (active.putIfAbsent(job.getId(), remaining) != null) {
+            return;
+        }
+        job.setStatus(BroadcastStatus.RUNNING);
+        job.setError(null);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(Instant.now());
+        }
+        jobRepository.save(job);
+        if (pending.isEmpty()) {
+            active.remove(job.getId());
+            completeIfDone(job.getId());
+            return;
+        }
+        for (BroadcastJobChannel channel : pending) {
+            try {
+                coordinator.execute(() -> runChannel(job, channel));
+            } catch (RejectedExecutionException e) {
+                // Left RUNNING; the job is picked up again on the next start
+                log.warn("Could not start {} channel of news broadcast {}: {}", channel.getChannel(), job.getId(),
+                        e.getMessage());
+                release(job.getId());
+            }
+        }
+    }
+
+    private void runChannel(BroadcastJob job, BroadcastJobChannel progress) {
+        BroadcastChannel channel = progress.getChannel();
+        int batchSize = batchSize(channel);
+        NotificationContent content = inAppContent(job);
+        Timer pageTimer = Timer.builder("news.broadcast.page")
+                .description("Time to deliver one page of a news broadcast")
+                .tag("channel", channel.name())
+                .register(meterRegistry);
+        try {
+            UUID after = progress.getLastUserId() != null ? progress.getLastUserId() : FIRST_ID;
+            while (true) {
+                List<Recipient> page = jdbcTemplate.query(
+                        RECIPIENT_COLUMNS + " WHERE " + recipientFilter(channel) + " AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new Recipient(rs.getObject("id", UUID.class), rs.getString("full_name"),
+                                rs.getString("email"), rs.getString("phone_number")),
+                        after, batchSize);
+                if (!page.isEmpty()) {
+                    long start = System.nanoTime();
+                    int sent = deliver(channel, job, content, page);
+                    pageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    recipients(channel, "sent").increment(sent);
+                    recipients(channel, "failed").increment(page.size() - sent);
+                    after = page.get(page.size() - 1).getId();
+                    progress.setSent(progress.getSent() + sent);
+                    progress.setFailed(progress.getFailed() + page.size() - sent);
+                    progress.setLastUserId(after);
+                }
+                if (page.size() < batchSize) {
+                    progress.setDone(true);
+                }
+                progress.setUpdatedAt(Instant.now());
+                channelRepository.save(progress);
+                if (progress.isDone()) {
+                    break;
+                }
+            }
+            log.info("News broadcast {} {} channel finished: {} sent, {} failed", job.getId(), channel,
+                    progress.getSent(), progress.getFailed());
+            completeIfDone(job.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("News broadcast {} {} channel interrupted; it resumes from user {}", job.getId(), channel,
+                    progress.getLastUserId());
+        } catch (RuntimeException e) {
+            log.error("News broadcast {} {} channel failed: {}", job.getId(), channel, e.getMessage(), e);
+            fail(job.getId(), channel + ": " + e.getMessage());
+        } finally {
+            release(job.getId());
+        }
+    }
+
+    /**
+     * Deliver the page on the channel's worker pool and return how many recipients it reached
+     */
+    private int deliver(BroadcastChannel channel, BroadcastJob job, NotificationContent content, List<Recipient> page)
+            throws InterruptedException {
+        Executor executor = workers.get(channel);
+        switch (channel) {
+            case IN_APP:
+                List<UUID> userIds = page.stream().map(Recipient::getId).toList();
+                return await(List.of(CompletableFuture.supplyAsync(
+                        () -> notificationFanOut.insert(userIds, content), executor)));
+            case EMAIL:
+                return sendEach(page, executor, recipient -> emailService.sendNewsNotification(
+                        recipient.getEmail(), recipient.getName(), job.getTitle(), job.getContent()));
+            case SMS:
+                return sendEach(page, executor, recipient -> smsService.sendNewsNotificationSms(
+                        recipient.getPhoneNumber(), recipient.getName(), job.getTitle()));
+            default:
+                throw new IllegalStateException("Unknown broadcast channel " + channel);
+        }
+    }
+
+    private int sendEach(List<Recipient> page, Executor executor, Consumer<Recipient> send) throws InterruptedException {
+        List<CompletableFuture<Integer>> sends = new ArrayList<>(page.size());
+        for (Recipient recipient : page) {
+            sends.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    send.accept(recipient);
+                    return 1;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to send news to user {}: {}", recipient.getId(), e.getMessage());
+                    return 0;
+                }
+            }, executor));
+        }
+        return await(sends);
+    }
+
+    private static int await(List<CompletableFuture<Integer>> futures) throws InterruptedException {
+        int total = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            try {
+                total += future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return total;
+    }
+
+    private synchronized void completeIfDone(UUID jobId) {
+        if (!channelRepository.findByJobId(jobId).stream().allMatch(BroadcastJobChannel::isDone)) {
+            return;
+        }
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(BroadcastStatus.COMPLETED);
+            job.setCompletedAt(Instant.now());
+            jobRepository.save(job);
+            log.info("News broadcast {} '{}' completed", jobId, job.getTitle());
+        });
+    }
+
+    private synchronized void fail(UUID jobId, String error) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(BroadcastStatus.FAILED);
+            job.setError(error);
+            jobRepository.save(job);
+        });
+    }
+
+    private void release(UUID jobId) {
+        active.computeIfPresent(jobId, (id, remaining) -> remaining.decrementAndGet() <= 0 ? null : remaining);
+    }
+
+    private Counter recipients(BroadcastChannel channel, String outcome) {
+        return Counter.builder("news.broadcast.recipients")
+                .description("News broadcast deliveries by channel and outcome")
+                .tag("channel", channel.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private int batchSize(BroadcastChannel channel) {
+        switch (channel) {
+            case EMAIL:
+                return emailBatchSize;
+            case SMS:
+                return smsBatchSize;
+            default:
+                return inAppBatchSize;
+        }
+    }
+
+    private static String recipientFilter(BroadcastChannel channel) {
+        switch (channel) {
+            case EMAIL:
+                return "email IS NOT NULL AND email <> ''";
+            case SMS:
+                return "phone_number IS NOT NULL AND phone_number <> ''";
+            default:
+                return "1 = 1";
+        }
+    }
+
+    // Same notification as NotificationService.notifyNewsUpdate
+    private static NotificationContent inAppContent(BroadcastJob job) {
+        String title = "News Update: " + job.getTitle();
+        return NotificationContent.builder()
+                .type(NotificationType.NEWS_UPDATE)
+                .title(title.length() > NOTIFICATION_TITLE_MAX ? title.substring(0, NOTIFICATION_TITLE_MAX) : title)
+                .message(job.getContent())
+                .priority(NotificationPriority.NORMAL)
+                .actionUrl("/news")
+                .relatedEntityType("NEWS")
+                .build();
+    }
+
+    private static BroadcastJobResponse toResponse(BroadcastJob job, List<BroadcastJobChannel> channels) {
+        List<BroadcastJobResponse.ChannelProgress> progress = channels.stream()
+                .sorted(Comparator.comparing(BroadcastJobChannel::getChannel))
+                .map(channel -> BroadcastJobResponse.ChannelProgress.builder()
+                        .channel(channel.getChannel())
+                        .total(channel.getTotal())
+                        .sent(channel.getSent())
+                        .failed(channel.getFailed())
+                        .done(channel.isDone())
+                        .percent(channel.isDone() || channel.getTotal() == 0 ? 100.0
+                                : Math.min(100.0, 100.0 * (channel.getSent() + channel.getFailed()) / channel.getTotal()))
+                        .build())
+                .toList();
+        return BroadcastJobResponse.builder()
+                .jobId(job.getId().toString())
+                .title(job.getTitle())
+                .status(job.getStatus())
+                .requestedBy(job.getRequestedBy() != null ? job.getRequestedBy().toString() : null)
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .error(job.getError())
+                .channels(progress)
+                .build();
+    }
+
+    @lombok.Value
+    private static class Recipient {
+        UUID id;
+        String name;
+        String email;
+        String phoneNumber;
+    }
+}
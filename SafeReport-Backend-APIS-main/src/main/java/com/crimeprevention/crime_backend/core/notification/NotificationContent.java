@@ -0,0 +1,25 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * What every recipient of a fan-out receives: one notification row each
+ */
+@Value
+@Builder
+public class NotificationContent {
+
+    NotificationType type;
+    String title;
+    String message;
+    @Builder.Default
+    NotificationPriority priority = NotificationPriority.NORMAL;
+    String actionUrl;
+    String relatedEntityType;
+    UUID relatedEntityId;
+}
@@ -0,0 +1,52 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A position in a user's notifications, ordered by creation time and then id. Encoded as an
+ * opaque URL-safe string so it still works after the notification it came from is deleted.
+ */
+@Value
+public class NotificationCursor {
+
+    Instant createdAt;
+    UUID id;
+
+    /**
+     * Creation time as stored: the database keeps microseconds, so cursors taken before and after
+     * a save must agree.
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(Instant createdAt, UUID id) {
+        return new NotificationCursor(createdAt, id).encode();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static NotificationCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new NotificationCursor(Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid notification cursor", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import com.crimeprevention.crime_backend.core.event.NotificationFanOutEvent;
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one notification to many users without going through JPA.
+ * Recipients are read in keyset pages of batch-size user ids (role fan-outs) or checked against
+ * the users table a page at a time (explicit ids, so unknown users are skipped), and each page
+ * is inserted with one JDBC batch in its own transaction, together with the recipients' unread
+ * counters. A failed page is logged and skipped;
+ * a written page is handed to NotificationPusher for the recipients that are connected.
+ * Events run on the notificationFanOutExecutor after the publishing transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationFanOut {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, user_id, type, title, message, is_read, action_url, related_entity_type, "
+                    + "related_entity_id, priority, created_at, updated_at) VALUES (?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounters unreadCounters;
+    private final NotificationPusher notificationPusher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.fanout.batch-size:1000}")
+    private int batchSize;
+
+    private Counter rowCounter;
+    private Counter failureCounter;
+    private Timer batchTimer;
+    private Timer runTimer;
+
+    @PostConstruct
+    void init() {
+        rowCounter = Counter.builder("notifications.fanout.rows")
+                .description("Notifications written by fan-outs")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("notifications.fanout.failures")
+                .description("Fan-out pages that failed to write")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("notifications.fanout.batch")
+                .description("Time to write one page of fan-out notifications")
+                .register(meterRegistry);
+        runTimer = Timer.builder("notifications.fanout.run")
+                .description("Time to write all notifications of one fan-out")
+                .register(meterRegistry);
+    }
+
+    @Async("notificationFanOutExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFanOut(NotificationFanOutEvent event) {
+        fanOut(event);
+    }
+
+    /**
+     * Write the event's notification to all of its recipients. Returns the number written.
+     */
+    public int fanOut(NotificationFanOutEvent event) {
+        long start = System.nanoTime();
+        int written = event.getRoles() != null
+                ? toActiveUsersWithRoles(new ArrayList<>(event.getRoles()), event.getContent())
+                : toUsers(event.getUserIds(), event.getContent());
+        long elapsedNanos = System.nanoTime() - start;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Fan-out of '{}' wrote {} notifications in {} ms", event.getContent().getTitle(), written,
+                elapsedNanos / 1_000_000);
+        return written;
+    }
+
+    /**
+     * Insert the notification for each of the users, who must exist, in one batch and transaction
+     */
+    public int insert(List<UUID> userIds, NotificationContent content) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Instant createdAt = NotificationCursor.now();
+        Timestamp now = Timestamp.from(createdAt);
+        List<UUID> ids = new ArrayList<>(userIds.size());
+        List<Integer> rows = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            ids.add(UUID.randomUUID());
+            rows.add(i);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchTimer.record(() -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setObject(1, ids.get(row));
+                    ps.setObject(2, userIds.get(row));
+                    ps.setString(3, content.getType().name());
+                    ps.setString(4, content.getTitle());
+                    ps.setString(5, content.getMessage());
+                    ps.setString(6, content.getActionUrl());
+                    ps.setString(7, content.getRelatedEntityType());
+                    if (content.getRelatedEntityId() != null) {
+                        ps.setObject(8, content.getRelatedEntityId());
+                    } else {
+                        ps.setNull(8, Types.OTHER);
+                    }
+                    ps.setString(9, content.getPriority().name());
+                    ps.setTimestamp(10, now);
+                    ps.setTimestamp(11, now);
+                });
+                unreadCounters.increment(userIds);
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            failureCounter.increment();
+            log.error("Failed to write {} '{}' notifications: {}", userIds.size(), content.getTitle(), e.getMessage());
+            return 0;
+        }
+        rowCounter.increment(userIds.size());
+        notificationPusher.pushInserted(userIds, ids, content, createdAt);
+        return userIds.size();
+    }
+
+    private int toActiveUsersWithRoles(List<UserRole> roles, NotificationContent content) {
+        String placeholders = String.join(", ", Collections.nCopies(roles.size(), "?"));
+        String pageSql = "SELECT id FROM users WHERE role IN (" + placeholders + ") AND is_active = true "
+                + "AND id > ? ORDER BY id LIMIT ?";
+        int written = 0;
+        UUID after = FIRST_ID;
+        while (true) {
+            List<Object> args = roles.stream().map(UserRole::name).collect(Collectors.toList());
+            args.add(after);
+            args.add(batchSize);
+            List<UUID> page = jdbcTemplate.queryForList(pageSql, UUID.class, args.toArray());
+            written += insert(page, content);
+            if (page.size() < batchSize) {
+                return written;
+            }
+            after = page.get(page.size() - 1);
+        }
+    }
+
+    private int toUsers(List<UUID> userIds, NotificationContent content) {
+        int written = 0;
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<UUID> existing = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE id IN (" + placeholders + ")", UUID.class, chunk.toArray());
+            if (existing.size() < chunk.size()) {
+                log.warn("Skipping {} notification recipients that do not exist", chunk.size() - existing.size());
+            }
+            written += insert(existing, content);
+        }
+        return written;
+    }
+}
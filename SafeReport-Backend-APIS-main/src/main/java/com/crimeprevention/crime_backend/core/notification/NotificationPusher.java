@@ -0,0 +1,126 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationPush;
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import com.crimeprevention.crime_backend.core.event.NotificationCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pushes new notifications to their users' open sessions on /user/queue/notifications, each with
+ * the user's unread count, so clients stop polling the unread list and count endpoints. Users with
+ * no session are skipped before anything is queried; they catch up through
+ * GET /api/notifications/since when they reconnect. Single notifications are pushed on the
+ * notificationPushExecutor after commit, fan-out pages by NotificationFanOut once written.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPusher {
+
+    static final String USER_QUEUE = "/queue/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final UnreadNotificationCounters unreadCounters;
+    private final MeterRegistry meterRegistry;
+
+    private Counter pushCounter;
+    private Counter failureCounter;
+
+    @PostConstruct
+    void init() {
+        pushCounter = Counter.builder("notifications.pushes")
+                .description("Notifications pushed to connected users")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("notifications.push.failures")
+                .description("Notification pushes that failed")
+                .register(meterRegistry);
+    }
+
+    @Async("notificationPushExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (isConnected(event.getUserId())) {
+            push(Map.of(event.getUserId(), event.getNotification()));
+        }
+    }
+
+    /**
+     * Push one committed fan-out page: userIds.get(i) received notificationIds.get(i)
+     */
+    public void pushInserted(List<UUID> userIds, List<UUID> notificationIds, NotificationContent content, Instant createdAt) {
+        Map<UUID, NotificationResponse> notifications = new LinkedHashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (isConnected(userIds.get(i))) {
+                notifications.put(userIds.get(i), response(notificationIds.get(i), content, createdAt));
+            }
+        }
+        if (!notifications.isEmpty()) {
+            push(notifications);
+        }
+    }
+
+    private void push(Map<UUID, NotificationResponse> notifications) {
+        Map<UUID, Long> unreadCounts;
+        try {
+            unreadCounts = unreadCounters.unreadCounts(new ArrayList<>(notifications.keySet()));
+        } catch (DataAccessException | TransactionException e) {
+            failureCounter.increment(notifications.size());
+            log.warn("Failed to count unread notifications for {} pushes: {}", notifications.size(), e.getMessage());
+            return;
+        }
+        notifications.forEach((userId, notification) -> {
+            NotificationPush payload = NotificationPush.builder()
+                    .notification(notification)
+                    .unreadCount(unreadCounts.getOrDefault(userId, 0L))
+                    .build();
+            try {
+                messagingTemplate.convertAndSendToUser(userId.toString(), USER_QUEUE, payload);
+                pushCounter.increment();
+            } catch (MessagingException e) {
+                failureCounter.increment();
+                log.warn("Failed to push notification {} to user {}: {}", notification.getId(), userId, e.getMessage());
+            }
+        });
+    }
+
+    private boolean isConnected(UUID userId) {
+        return userRegistry.getUser(userId.toString()) != null;
+    }
+
+    private static NotificationResponse response(UUID id, NotificationContent content, Instant createdAt) {
+        return NotificationResponse.builder()
+                .id(id)
+                .type(content.getType().name())
+                .title(content.getTitle())
+                .message(content.getMessage())
+                .isRead(false)
+                .actionUrl(content.getActionUrl())
+                .relatedEntityType(content.getRelatedEntityType())
+                .relatedEntityId(content.getRelatedEntityId())
+                .priority(content.getPriority().name())
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .cursor(NotificationCursor.encode(createdAt, id))
+                .build();
+    }
+}
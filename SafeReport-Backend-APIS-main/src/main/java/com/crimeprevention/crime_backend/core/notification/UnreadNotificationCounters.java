@@ -0,0 +1,197 @@
+package com.crimeprevention.crime_backend.core.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-user unread notification counts in the notification_counters table, so a badge is a primary
+ * key lookup instead of a COUNT over the user's notifications. Writers adjust a user's row in the
+ * transaction that inserts, reads or deletes their notifications. A user's row is seeded from a
+ * COUNT on first lookup; adjustments before that find no row and are covered by the seed.
+ * A notification committing while its user's row is seeded is missed, and writes outside a
+ * transaction are not atomic with their counter, so a periodic sweep compares every row with a
+ * COUNT taken in the same statement and adds the difference. The sweep also deletes the rows of
+ * users that no longer exist.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadNotificationCounters {
+
+    private static final String ADJUST_SQL =
+            "UPDATE notification_counters SET unread_count = unread_count + ? WHERE user_id = ?";
+    private static final String SEED_SQL =
+            "INSERT INTO notification_counters (user_id, unread_count) "
+                    + "SELECT ?, COUNT(*) FROM notifications WHERE user_id = ? AND is_read = false";
+    private static final String SWEEP_PAGE_SQL =
+            "SELECT c.user_id, c.unread_count, (SELECT COUNT(*) FROM notifications n "
+                    + "WHERE n.user_id = c.user_id AND n.is_read = false) AS actual, "
+                    + "EXISTS (SELECT 1 FROM users u WHERE u.id = c.user_id) AS user_exists "
+                    + "FROM notification_counters c WHERE c.user_id > ? ORDER BY c.user_id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM notification_counters WHERE user_id = ?";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.counters.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private TransactionTemplate seedTransaction;
+    private Counter seedCounter;
+    private Counter driftCounter;
+    private Counter orphanCounter;
+
+    @PostConstruct
+    void init() {
+        // Seeds commit on their own, also when the lookup is part of a read-only transaction
+        seedTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        seedCounter = Counter.builder("notifications.counters.seeded")
+                .description("Unread counters created from a COUNT on first lookup")
+                .register(meterRegistry);
+        driftCounter = Counter.builder("notifications.counters.drift")
+                .description("Unread counters corrected by the consistency sweep")
+                .register(meterRegistry);
+        orphanCounter = Counter.builder("notifications.counters.orphaned")
+                .description("Unread counters of deleted users removed by the consistency sweep")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add delta to the user's unread count, in the caller's transaction
+     */
+    public void adjust(UUID userId, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update(ADJUST_SQL, delta, userId);
+        }
+    }
+
+    /**
+     * Add one to the unread count of each user, in the caller's transaction. Rows are updated in
+     * id order so concurrent fan-outs over overlapping users cannot deadlock.
+     */
+    public void increment(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ordered = new ArrayList<>(userIds);
+        Collections.sort(ordered);
+        jdbcTemplate.batchUpdate(ADJUST_SQL, ordered, ordered.size(), (ps, userId) -> {
+            ps.setLong(1, 1);
+            ps.setObject(2, userId);
+        });
+    }
+
+    public long unreadCount(UUID userId) {
+        return unreadCounts(List.of(userId)).getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Unread counts of the users, seeding the ones that have no row yet
+     */
+    public Map<UUID, Long> unreadCounts(List<UUID> userIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return counts;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        jdbcTemplate.query("SELECT user_id, unread_count FROM notification_counters WHERE user_id IN ("
+                        + placeholders + ")",
+                rs -> {
+                    counts.put(rs.getObject(1, UUID.class), rs.getLong(2));
+                }, userIds.toArray());
+        for (UUID userId : userIds) {
+            if (!counts.containsKey(userId)) {
+                counts.put(userId, seed(userId));
+            }
+        }
+        return counts;
+    }
+
+    private long seed(UUID userId) {
+        try {
+            seedTransaction.executeWithoutResult(status -> jdbcTemplate.update(SEED_SQL, userId, userId));
+            seedCounter.increment();
+        } catch (DuplicateKeyException e) {
+            // Seeded by a concurrent lookup
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT unread_count FROM notification_counters WHERE user_id = ?", Long.class, userId);
+    }
+
+    /**
+     * Correct every counter that differs from its notifications and delete the counters of deleted
+     * users. Returns the number corrected.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.counters.sweep-interval-ms:1800000}",
+            initialDelayString = "${app.notifications.counters.sweep-initial-delay-ms:300000}")
+    public int sweep() {
+        int corrected = 0;
+        int removed = 0;
+        UUID after = FIRST_ID;
+        try {
+            while (true) {
+                List<Object[]> drifts = new ArrayList<>();
+                List<Object[]> orphans = new ArrayList<>();
+                List<UUID> page = new ArrayList<>();
+                jdbcTemplate.query(SWEEP_PAGE_SQL, rs -> {
+                    UUID userId = rs.getObject(1, UUID.class);
+                    page.add(userId);
+                    if (!rs.getBoolean(4)) {
+                        orphans.add(new Object[]{userId});
+                        return;
+                    }
+                    long drift = rs.getLong(3) - rs.getLong(2);
+                    if (drift != 0) {
+                        drifts.add(new Object[]{drift, userId});
+                    }
+                }, after, sweepBatchSize);
+                // Adding the difference keeps adjustments committed since the page was read
+                if (!drifts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(ADJUST_SQL, drifts);
+                    corrected += drifts.size();
+                    driftCounter.increment(drifts.size());
+                }
+                if (!orphans.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, orphans);
+                    removed += orphans.size();
+                    orphanCounter.increment(orphans.size());
+                }
+                if (page.size() < sweepBatchSize) {
+                    break;
+                }
+                after = page.get(page.size() - 1);
+            }
+        } catch (DataAccessException e) {
+            log.error("Unread counter sweep failed after {} corrections: {}", corrected, e.getMessage());
+            return corrected;
+        }
+        if (corrected > 0) {
+            log.warn("Unread counter sweep corrected {} users", corrected);
+        }
+        if (removed > 0) {
+            log.info("Unread counter sweep removed {} counters of deleted users", removed);
+        }
+        return corrected;
+    }
+}
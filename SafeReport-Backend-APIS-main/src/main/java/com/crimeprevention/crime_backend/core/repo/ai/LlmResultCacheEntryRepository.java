@@ -0,0 +1,25 @@
+package com.crimeprevention.crime_backend.core.repo.ai;
+
+import com.crimeprevention.crime_backend.core.model.ai.LlmResultCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface LlmResultCacheEntryRepository extends JpaRepository<LlmResultCacheEntry, String> {
+
+    @Modifying
+    @Query("DELETE FROM LlmResultCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Query("SELECT e.createdAt FROM LlmResultCacheEntry e ORDER BY e.createdAt DESC")
+    List<Instant> findCreatedAtNewestFirst(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM LlmResultCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,6 +1,7 @@
 package com.crimeprevention.crime_backend.core.repo.ai;
 
 import com.crimeprevention.crime_backend.core.model.ai.ReportSummary;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -109,4 +110,10 @@ public interface ReportSummaryRepository extends JpaRepository<ReportSummary, UU
     @Modifying
     @Query("UPDATE ReportSummary rs SET rs.isDeleted = false, rs.deletedAt = null, rs.deletedBy = null, rs.deletionReason = null WHERE rs.id = :id")
     void restoreById(@Param("id") UUID id);
+    
+    /**
+     * Priority of the report a summary belongs to
+     */
+    @Query("SELECT rs.report.priority FROM ReportSummary rs WHERE rs.id = :id")
+    Optional<Priority> findReportPriorityById(@Param("id") UUID id);
 }
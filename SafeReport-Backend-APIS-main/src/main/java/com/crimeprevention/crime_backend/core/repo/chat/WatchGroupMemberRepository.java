@@ -2,6 +2,8 @@ package com.crimeprevention.crime_backend.core.repo.chat;
 
 import com.crimeprevention.crime_backend.core.model.chat.WatchGroupMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -20,4 +22,7 @@ public interface WatchGroupMemberRepository extends JpaRepository<WatchGroupMemb
 
     java.util.List<WatchGroupMember> findByGroupId(UUID groupId);
 
+    @Query("SELECT DISTINCT m.user.id FROM WatchGroupMember m WHERE m.group.id IN :groupIds AND m.isActive = true")
+    java.util.List<UUID> findActiveUserIdsByGroupIdIn(@Param("groupIds") java.util.Collection<UUID> groupIds);
+
 }
@@ -21,6 +21,25 @@ public interface WatchGroupRepository extends JpaRepository<WatchGroup, UUID> {
     @Query("SELECT wg FROM WatchGroup wg WHERE wg.status IN :statuses ORDER BY wg.createdAt DESC")
     Page<WatchGroup> findByStatusInOrderByCreatedAtDesc(@Param("statuses") java.util.List<com.crimeprevention.crime_backend.core.model.enums.WatchGroupStatus> statuses, Pageable pageable);
 
+    // Groups within a radius, paged in SQL. The bounding box uses idx_locations_lat_lng; the exact
+    // great-circle check compares the cosine of the central angle with cos(radius / earth radius).
+    @Query(value = "SELECT wg FROM WatchGroup wg JOIN FETCH wg.location l WHERE wg.status IN :statuses " +
+           "AND l.latitude BETWEEN :minLat AND :maxLat AND l.longitude BETWEEN :minLng AND :maxLng " +
+           "AND :sinLat * sin(radians(l.latitude)) + :cosLat * cos(radians(l.latitude)) " +
+           "* cos(radians(l.longitude) - :lngRadians) >= :minCos " +
+           "ORDER BY wg.createdAt DESC",
+           countQuery = "SELECT COUNT(wg) FROM WatchGroup wg JOIN wg.location l WHERE wg.status IN :statuses " +
+           "AND l.latitude BETWEEN :minLat AND :maxLat AND l.longitude BETWEEN :minLng AND :maxLng " +
+           "AND :sinLat * sin(radians(l.latitude)) + :cosLat * cos(radians(l.latitude)) " +
+           "* cos(radians(l.longitude) - :lngRadians) >= :minCos")
+    Page<WatchGroup> findByStatusInWithinRadius(
+            @Param("statuses") java.util.List<com.crimeprevention.crime_backend.core.model.enums.WatchGroupStatus> statuses,
+            @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLng") double minLng, @Param("maxLng") double maxLng,
+            @Param("sinLat") double sinLat, @Param("cosLat") double cosLat,
+            @Param("lngRadians") double lngRadians, @Param("minCos") double minCos,
+            Pageable pageable);
+
     @Query(value = "SELECT location_id FROM watch_groups WHERE id = :groupId", nativeQuery = true)
     UUID findLocationIdByGroupId(@Param("groupId") UUID groupId);
 
@@ -0,0 +1,7 @@
+package com.crimeprevention.crime_backend.core.repo.location;
+
+import com.crimeprevention.crime_backend.core.model.location.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface GeocodeCacheEntryRepository extends JpaRepository<GeocodeCacheEntry, String> {
+}
@@ -0,0 +1,17 @@
+package com.crimeprevention.crime_backend.core.repo.location;
+
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.model.location.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GeofenceRepository extends JpaRepository<Geofence, UUID> {
+
+    List<Geofence> findByActiveTrue();
+
+    List<Geofence> findByOwnerTypeAndOwnerIdAndActiveTrue(GeofenceOwnerType ownerType, UUID ownerId);
+
+    long countByOwnerTypeAndOwnerIdAndActiveTrue(GeofenceOwnerType ownerType, UUID ownerId);
+}
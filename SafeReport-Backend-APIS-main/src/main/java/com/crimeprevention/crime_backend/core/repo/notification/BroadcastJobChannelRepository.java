@@ -0,0 +1,14 @@
+package com.crimeprevention.crime_backend.core.repo.notification;
+
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJobChannel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastJobChannelRepository extends JpaRepository<BroadcastJobChannel, UUID> {
+
+    List<BroadcastJobChannel> findByJobId(UUID jobId);
+}
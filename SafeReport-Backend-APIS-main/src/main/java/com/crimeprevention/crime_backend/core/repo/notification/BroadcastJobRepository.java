@@ -0,0 +1,16 @@
+package com.crimeprevention.crime_backend.core.repo.notification;
+
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastStatus;
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastJobRepository extends JpaRepository<BroadcastJob, UUID> {
+
+    List<BroadcastJob> findByStatusInOrderByCreatedAtAsc(Collection<BroadcastStatus> statuses);
+}
@@ -22,6 +22,19 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     // Find unread notifications for a user
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(UUID userId);
     
+    // Find notifications created after a (createdAt, id) cursor, oldest first
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND (n.createdAt > :createdAt "
+            + "OR (n.createdAt = :createdAt AND n.id > :id)) ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findByUserIdAfterCursor(@Param("userId") UUID userId, @Param("createdAt") Instant createdAt,
+                                               @Param("id") UUID id, Pageable pageable);
+
+    // Find notifications from a time up to a (createdAt, id) cursor, newest first
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt >= :from AND (n.createdAt < :createdAt "
+            + "OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByUserIdBeforeCursorSince(@Param("userId") UUID userId, @Param("from") Instant from,
+                                                     @Param("createdAt") Instant createdAt, @Param("id") UUID id,
+                                                     Pageable pageable);
+
     // Count unread notifications for a user
     long countByUserIdAndIsReadFalse(UUID userId);
     
@@ -31,11 +44,13 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     // Find notifications by priority for a user
     Page<Notification> findByUserIdAndPriorityOrderByCreatedAtDesc(UUID userId, String priority, Pageable pageable);
     
-    // Mark notifications as read
+    // Mark the user's unread notifications among the ids as read; returns how many changed
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id IN :notificationIds")
-    void markNotificationsAsRead(@Param("notificationIds") List<UUID> notificationIds, @Param("readAt") Instant readAt);
-    
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt "
+            + "WHERE n.user.id = :userId AND n.isRead = false AND n.id IN :notificationIds")
+    int markUnreadNotificationsAsRead(@Param("userId") UUID userId, @Param("notificationIds") List<UUID> notificationIds,
+                                      @Param("readAt") Instant readAt);
+
     // Delete expired notifications
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.expiresAt IS NOT NULL AND n.expiresAt < :now")
@@ -1,9 +1,11 @@
 package com.crimeprevention.crime_backend.core.repo.report;
 
 import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
 import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -38,6 +41,24 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
     @Query("SELECT r FROM Report r WHERE r.date >= :startDate AND r.date <= :endDate ORDER BY r.date DESC")
     List<Report> findByDateRange(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
     
+    // Geo prefilter: reports inside a lat/lng bounding box and date range (uses idx_reports_lat_lng_date).
+    // Callers apply the exact radius check on the result; the slice is capped, newest first, and
+    // hasNext() tells them the box held more.
+    @Query("SELECT r FROM Report r WHERE r.location.latitude BETWEEN :minLat AND :maxLat " +
+           "AND r.location.longitude BETWEEN :minLng AND :maxLng " +
+           "AND r.date >= :startDate AND r.date <= :endDate ORDER BY r.date DESC")
+    Slice<Report> findInBoundingBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                    @Param("minLng") double minLng, @Param("maxLng") double maxLng,
+                                    @Param("startDate") Instant startDate, @Param("endDate") Instant endDate,
+                                    Pageable pageable);
+    
+    // Geo prefilter over the full history, capped the same way
+    @Query("SELECT r FROM Report r WHERE r.location.latitude BETWEEN :minLat AND :maxLat " +
+           "AND r.location.longitude BETWEEN :minLng AND :maxLng ORDER BY r.date DESC")
+    Slice<Report> findAllInBoundingBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                       @Param("minLng") double minLng, @Param("maxLng") double maxLng,
+                                       Pageable pageable);
+    
     // Count reports by reporter ID
     long countByReporterId(UUID reporterId);
     
@@ -48,4 +69,13 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
     // Get recent reports by reporter for timeline
     @Query("SELECT r FROM Report r WHERE r.reporterId = :reporterId ORDER BY r.createdAt DESC")
     List<Report> findRecentByReporterId(@Param("reporterId") UUID reporterId, org.springframework.data.domain.Pageable pageable);
+    
+    // Priority only, for scheduling AI jobs without loading the report
+    @Query("SELECT r.priority FROM Report r WHERE r.id = :id")
+    Optional<Priority> findPriorityById(@Param("id") UUID id);
+    
+    // Reports without a live AI summary, oldest first, for batch summarisation
+    @Query("SELECT r.id FROM Report r WHERE NOT EXISTS (SELECT 1 FROM ReportSummary rs WHERE rs.report = r " +
+           "AND (rs.isDeleted IS NULL OR rs.isDeleted = false)) ORDER BY r.createdAt ASC")
+    List<UUID> findUnsummarizedIds(Pageable pageable);
 }
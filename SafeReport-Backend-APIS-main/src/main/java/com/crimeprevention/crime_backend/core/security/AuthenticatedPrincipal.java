@@ -0,0 +1,44 @@
+package com.crimeprevention.crime_backend.core.security;
+
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import com.crimeprevention.crime_backend.core.model.user.User;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The parts of a user that request authentication needs
+ */
+@Value
+public class AuthenticatedPrincipal {
+    UUID userId;
+    UserRole role;
+    boolean enabled;
+    Instant passwordChangedAt;
+    List<GrantedAuthority> authorities;
+
+    /**
+     * Whether a token issued at the given time is still good, i.e. was not issued before the
+     * password last changed. iat has whole seconds, so the change time is compared at that precision.
+     */
+    public boolean acceptsTokenIssuedAt(Instant issuedAt) {
+        if (passwordChangedAt == null) {
+            return true;
+        }
+        return issuedAt != null && !issuedAt.isBefore(passwordChangedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public static AuthenticatedPrincipal from(User user) {
+        return new AuthenticatedPrincipal(
+                user.getId(),
+                user.getRole(),
+                user.isEnabled(),
+                user.getPasswordChangedAt(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+    }
+}
@@ -0,0 +1,73 @@
+package com.crimeprevention.crime_backend.core.security;
+
+import com.crimeprevention.crime_backend.core.event.UserChangedEvent;
+import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Authentication principals by user id, so an authenticated request does not read the users table.
+ * Entries are evicted after commit whenever UserChangedEvent is published for the user; the TTL
+ * bounds staleness for changes made outside the services (scripts, manual SQL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<UUID, AuthenticatedPrincipal> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "auth.principals");
+        Gauge.builder("auth.principals.hit.ratio", principals, cache -> cache.stats().hitRate())
+                .description("Share of authenticated requests served without a users lookup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The principal for a user id, loaded from the database on a miss
+     */
+    public AuthenticatedPrincipal get(UUID userId) throws UsernameNotFoundException {
+        return principals.get(userId, id -> userRepository.findById(id)
+                .map(AuthenticatedPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + id)));
+    }
+
+    public void invalidate(UUID userId) {
+        principals.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId());
+        log.debug("Evicted cached principal for user {}", event.getUserId());
+    }
+}
@@ -1,6 +1,12 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.config.CacheConfig;
+import com.crimeprevention.crime_backend.core.ai.AiProviderRouter;
+import com.crimeprevention.crime_backend.core.ai.GeminiModelResolver;
+import com.crimeprevention.crime_backend.core.ai.LlmCallKey;
+import com.crimeprevention.crime_backend.core.ai.LlmClient;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
 import com.crimeprevention.crime_backend.core.dto.ai.*;
 import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
 import com.crimeprevention.crime_backend.core.service.interfaces.ReportService;
@@ -46,6 +52,9 @@ import com.crimeprevention.crime_backend.core.model.enums.Priority;
 @Transactional
 public class AIServiceImpl implements AIService {
 
+    private static final String SUMMARY_SYSTEM_PROMPT =
+            "You are a crime prevention AI assistant. Generate concise, professional summaries of crime reports.";
+
     private final AIConfig aiConfig;
     private final ReportService reportService;
     private final ObjectMapper objectMapper;
@@ -53,38 +62,32 @@ public class AIServiceImpl implements AIService {
     private final ReportSummaryRepository reportSummaryRepository;
     private final NotificationService notificationService;
     private final ReportRepository reportRepository;
+    private final LlmResultCache llmResultCache;
+    private final LlmClient llmClient;
+    private final GeminiModelResolver geminiModelResolver;
+    private final AiProviderRouter providerRouter;
 
     @Override
-    @Cacheable(value = "reportSummaries", key = "#request.hashCode()")
+    @Cacheable(value = CacheConfig.REPORT_SUMMARIES, keyGenerator = "contentHashKeyGenerator",
+            condition = "!@llmResultCache.isBypassed()")
     public ReportSummaryResponse summarizeReport(ReportSummaryRequest request) {
         if (!aiConfig.isEnabled()) {
             throw new RuntimeException("AI service is disabled");
         }
 
         long startTime = System.currentTimeMillis();
-        String aiService = aiConfig.getService();
         
         try {
-            ReportSummaryResponse response;
-            
-            switch (aiService.toLowerCase()) {
-                case "openai":
-                    response = generateOpenAISummary(request);
-                    break;
-                case "gemini":
-                    response = generateGeminiSummary(request);
-                    break;
-                case "hybrid":
-                    response = generateHybridSummary(request);
-                    break;
-                default:
-                    throw new RuntimeException("Unsupported AI service: " + aiService);
-            }
+            String prompt = buildSummaryPrompt(request);
+            AiProviderRouter.Result routed = providerRouter.call("summary", false,
+                    () -> llmClient.completeWithOpenAI(SUMMARY_SYSTEM_PROMPT, prompt, aiConfig.getOpenaiMaxTokens()),
+                    () -> llmClient.completeWithGemini(prompt, aiConfig.getGeminiMaxTokens()));
+            ReportSummaryResponse response = buildSummaryResponse(request, routed.getText(), routed.getProvider());
             
             // Set metadata
             response.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
             response.setGeneratedAt(LocalDateTime.now());
-            response.setAiServiceUsed(aiService);
+            response.setAiServiceUsed(routed.getProvider());
             
             return response;
             
@@ -187,15 +190,14 @@ public class AIServiceImpl implements AIService {
             String prompt = buildPatternAnalysisPrompt(request);
             
             // Call AI service to analyze patterns
-            String aiResponse;
-            if ("gemini".equalsIgnoreCase(aiConfig.getService())) {
-                aiResponse = callGeminiForPatternAnalysis(prompt);
-            } else {
-                aiResponse = callOpenAIForPatternAnalysis(prompt);
-            }
+            AiProviderRouter.Result routed = providerRouter.call("patterns", true,
+                    () -> callOpenAIForPatternAnalysis(prompt),
+                    () -> callGeminiForPatternAnalysis(prompt));
             
             // Parse AI response and build pattern analysis response
-            return buildPatternAnalysisResponse(request, aiResponse);
+            PatternAnalysisResponse response = buildPatternAnalysisResponse(request, routed.getText());
+            response.setAiServiceUsed(routed.getProvider());
+            return response;
             
         } catch (Exception e) {
             log.error("Error during pattern analysis: {}", e.getMessage(), e);
@@ -259,119 +261,7 @@ public class AIServiceImpl implements AIService {
             "temperature", 0.3
         ));
 
-        // Try multiple model names as fallback (using models that are actually available)
-        List<String> modelNames = Arrays.asList(
-            aiConfig.getGeminiModel(), // Try configured model first
-            "gemini-2.5-flash",
-            "gemini-2.5-pro",
-            "gemini-2.0-flash",
-            "gemini-flash-latest",
-            "gemini-pro-latest",
-            "gemini-1.5-pro",
-            "gemini-1.5-flash",
-            "gemini-pro"
-        );
-
-        IOException lastException = null;
-        for (String modelName : modelNames) {
-            try {
-                // Remove "models/" prefix if present
-                String cleanModelName = modelName.startsWith("models/") ? modelName.substring(7) : modelName;
-                String url = aiConfig.getGeminiBaseUrl() + "/models/" + cleanModelName + ":generateContent?key=" + aiConfig.getGeminiApiKey();
-
-                Request httpRequest = new Request.Builder()
-                        .url(url)
-                        .addHeader("Content-Type", "application/json")
-                        .post(RequestBody.create(
-                            objectMapper.writeValueAsString(requestBody),
-                            MediaType.get("application/json")
-                        ))
-                        .build();
-
-                try (Response response = httpClient.newCall(httpRequest).execute()) {
-                    ResponseBody body = response.body();
-                    if (body == null) {
-                        lastException = new IOException("Empty response body for model " + cleanModelName);
-                        continue;
-                    }
-                    
-                    String responseBodyString = body.string();
-                    
-                    if (response.isSuccessful()) {
-                        JsonNode responseJson = objectMapper.readTree(responseBodyString);
-                        String result = responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-                        log.info("Successfully used Gemini model: {}", cleanModelName);
-                        return result;
-                    } else {
-                        log.warn("Gemini API error with model {}: {} - {}", cleanModelName, response.code(), responseBodyString);
-                        if (response.code() != 404) {
-                            // If it's not a 404, the model exists but there's another error
-                            throw new RuntimeException("Gemini API error: " + response.code() + " - " + responseBodyString);
-                        }
-                        // For 404, continue to next model
-                        lastException = new IOException("Model " + cleanModelName + " not found: " + responseBodyString);
-                    }
-                }
-            } catch (IOException e) {
-                lastException = e;
-                log.warn("Failed to use Gemini model {}, trying next...", modelName, e);
-            }
-        }
-
-        // If all models failed, try to list available models
-        String availableModels = listAvailableGeminiModels();
-        throw new RuntimeException("Failed to analyze patterns: All Gemini models failed. " +
-                "Tried: " + String.join(", ", modelNames) + ". " +
-                "Available models: " + availableModels + ". " +
-                "Last error: " + (lastException != null ? lastException.getMessage() : "Unknown"));
-    }
-
-    private String listAvailableGeminiModels() {
-        try {
-            String url = aiConfig.getGeminiBaseUrl() + "/models?key=" + aiConfig.getGeminiApiKey();
-            Request httpRequest = new Request.Builder()
-                    .url(url)
-                    .get()
-                    .build();
-
-            try (Response response = httpClient.newCall(httpRequest).execute()) {
-                ResponseBody body = response.body();
-                if (body != null && response.isSuccessful()) {
-                    JsonNode responseJson = objectMapper.readTree(body.string());
-                    JsonNode models = responseJson.path("models");
-                    if (models.isArray()) {
-                        List<String> modelNames = new ArrayList<>();
-                        for (JsonNode model : models) {
-                            String name = model.path("name").asText();
-                            if (name != null && !name.isEmpty()) {
-                                // Check if model supports generateContent
-                                JsonNode supportedMethods = model.path("supportedGenerationMethods");
-                                boolean supportsGenerateContent = false;
-                                if (supportedMethods.isArray()) {
-                                    for (JsonNode method : supportedMethods) {
-                                        if ("generateContent".equals(method.asText())) {
-                                            supportsGenerateContent = true;
-                                            break;
-                                        }
-                                    }
-                                }
-                                
-                                // Only include models that support generateContent
-                                if (supportsGenerateContent) {
-                                    // Remove "models/" prefix for cleaner display
-                                    String cleanName = name.startsWith("models/") ? name.substring(7) : name;
-                                    modelNames.add(cleanName);
-                                }
-                            }
-                        }
-                        return String.join(", ", modelNames);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to list available Gemini models", e);
-        }
-        return "Could not retrieve available models";
+        return llmClient.generateWithGemini(requestBody);
     }
 
     private String callOpenAIForPatternAnalysis(String prompt) throws IOException {
@@ -394,14 +284,16 @@ public class AIServiceImpl implements AIService {
                 ))
                 .build();
 
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
-            }
+        return llmResultCache.getOrGenerate(LlmCallKey.of("openai", aiConfig.getOpenaiModel(), requestBody), () -> {
+            try (Response response = httpClient.newCall(httpRequest).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
+                }
 
-            JsonNode responseJson = objectMapper.readTree(response.body().string());
-            return responseJson.path("choices").path(0).path("message").path("content").asText();
-        }
+                JsonNode responseJson = objectMapper.readTree(response.body().string());
+                return responseJson.path("choices").path(0).path("message").path("content").asText();
+            }
+        });
     }
 
     private PatternAnalysisResponse buildPatternAnalysisResponse(PatternAnalysisRequest request, String aiResponse) {
@@ -600,15 +492,13 @@ public class AIServiceImpl implements AIService {
             String prompt = buildPredictiveAlertPrompt(request);
             
             // Call AI service to generate predictions
-            String aiResponse;
-            if ("gemini".equalsIgnoreCase(aiConfig.getService())) {
-                aiResponse = callGeminiForPredictiveAlerts(prompt);
-            } else {
-                aiResponse = callOpenAIForPredictiveAlerts(prompt);
-            }
+            AiProviderRouter.Result routed = providerRouter.call("predictions", true,
+                    () -> callOpenAIForPredictiveAlerts(prompt),
+                    () -> callGeminiForPredictiveAlerts(prompt));
             
             // Parse AI response and build predictive alert response
-            PredictiveAlertResponse response = buildPredictiveAlertResponse(request, aiResponse);
+            PredictiveAlertResponse response = buildPredictiveAlertResponse(request, routed.getText());
+            response.setAiServiceUsed(routed.getProvider());
             
             // Send notification if predictions are generated
             if (response.getPredictions() != null && !response.getPredictions().isEmpty()) {
@@ -681,25 +571,7 @@ public class AIServiceImpl implements AIService {
             "temperature", 0.3
         ));
 
-        String url = aiConfig.getGeminiBaseUrl() + "/models/" + aiConfig.getGeminiModel() + ":generateContent?key=" + aiConfig.getGeminiApiKey();
-
-        Request httpRequest = new Request.Builder()
-                .url(url)
-                .addHeader("Content-Type", "application/json")
-                .post(RequestBody.create(
-                    objectMapper.writeValueAsString(requestBody),
-                    MediaType.get("application/json")
-                ))
-                .build();
-
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("Gemini API error: " + response.code() + " - " + response.body().string());
-            }
-
-            JsonNode responseJson = objectMapper.readTree(response.body().string());
-            return responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-        }
+        return llmClient.generateWithGemini(requestBody);
     }
 
     private String callOpenAIForPredictiveAlerts(String prompt) throws IOException {
@@ -722,14 +594,16 @@ public class AIServiceImpl implements AIService {
                 ))
                 .build();
 
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
-            }
+        return llmResultCache.getOrGenerate(LlmCallKey.of("openai", aiConfig.getOpenaiModel(), requestBody), () -> {
+            try (Response response = httpClient.newCall(httpRequest).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
+                }
 
-            JsonNode responseJson = objectMapper.readTree(response.body().string());
-            return responseJson.path("choices").path(0).path("message").path("content").asText();
-        }
+                JsonNode responseJson = objectMapper.readTree(response.body().string());
+                return responseJson.path("choices").path(0).path("message").path("content").asText();
+            }
+        });
     }
 
     private PredictiveAlertResponse buildPredictiveAlertResponse(PredictiveAlertRequest request, String aiResponse) {
@@ -944,59 +818,13 @@ public class AIServiceImpl implements AIService {
             // Build prompt with real data context
             String prompt = buildAnomalyDetectionPrompt(request, reports);
             
-            // Try primary AI service based on configuration
-            String aiResponse = null;
-            String aiServiceUsed = "unknown";
-            
-            try {
-                String primaryService = aiConfig.getService();
-                log.info("Attempting to use primary AI service: {}", primaryService);
-                
-                if ("gemini".equalsIgnoreCase(primaryService)) {
-                    // Try Gemini first
-                    try {
-                        aiResponse = callGeminiForAnomalyDetection(prompt);
-                        aiServiceUsed = "gemini";
-                        log.info("Successfully used Gemini for anomaly detection");
-                    } catch (Exception geminiException) {
-                        log.warn("Primary AI service (gemini) failed: {}", geminiException.getMessage());
-                        
-                        // Try OpenAI as fallback
-                        try {
-                            log.info("Trying OpenAI as fallback for anomaly detection");
-                            aiResponse = callOpenAIForAnomalyDetection(prompt);
-                            aiServiceUsed = "openai";
-                            log.info("Successfully used OpenAI fallback for anomaly detection");
-                        } catch (Exception openaiException) {
-                            log.error("Both AI services failed. Gemini: {}, OpenAI: {}", geminiException.getMessage(), openaiException.getMessage());
-                            throw new RuntimeException("All AI services are unavailable");
-                        }
-                    }
-                } else {
-                    // Try OpenAI first (default fallback)
-                    try {
-                        aiResponse = callOpenAIForAnomalyDetection(prompt);
-                        aiServiceUsed = "openai";
-                        log.info("Successfully used OpenAI for anomaly detection");
-                    } catch (Exception openaiException) {
-                        log.warn("Primary AI service (openai) failed: {}", openaiException.getMessage());
-                        
-                        // Try Gemini as fallback
-                        try {
-                            log.info("Trying Gemini as fallback for anomaly detection");
-                            aiResponse = callGeminiForAnomalyDetection(prompt);
-                            aiServiceUsed = "gemini";
-                            log.info("Successfully used Gemini fallback for anomaly detection");
-                        } catch (Exception geminiException) {
-                            log.error("Both AI services failed. OpenAI: {}, Gemini: {}", openaiException.getMessage(), geminiException.getMessage());
-                            throw new RuntimeException("All AI services are unavailable");
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error during AI service selection: {}", e.getMessage(), e);
-                throw new RuntimeException("AI service selection failed: " + e.getMessage());
-            }
+            // The router hedges with the other provider when the first one is slow
+            AiProviderRouter.Result routed = providerRouter.call("anomalies", true,
+                    () -> callOpenAIForAnomalyDetection(prompt),
+                    () -> callGeminiForAnomalyDetection(prompt));
+            String aiResponse = routed.getText();
+            String aiServiceUsed = routed.getProvider();
+            log.info("Used {} for anomaly detection", aiServiceUsed);
             
             // Build response with real data
             AnomalyDetectionResponse response = buildAnomalyDetectionResponse(request, aiResponse, reports);
@@ -1144,8 +972,6 @@ public class AIServiceImpl implements AIService {
     // Call Gemini API for anomaly detection
     private String callGeminiForAnomalyDetection(String prompt) {
         try {
-            String url = aiConfig.getGeminiBaseUrl() + "/models/" + aiConfig.getGeminiModel() + ":generateContent";
-            
             // Properly escape the prompt for JSON
             String escapedPrompt = prompt.replace("\"", "\\\"").replace("\n", "\\n");
             
@@ -1164,54 +990,22 @@ public class AIServiceImpl implements AIService {
                     }
                 }""", escapedPrompt);
             
-            log.debug("Calling Gemini API with URL: {}", url);
+            log.debug("Calling Gemini model {}", geminiModelResolver.getModel());
             log.debug("Gemini request body: {}", requestBody);
             
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(RequestBody.create(requestBody, MediaType.get("application/json")))
-                    .addHeader("x-goog-api-key", aiConfig.getGeminiApiKey())
-                    .addHeader("Content-Type", "application/json")
-                    .build();
+            // Answers under 10 characters are rejected before they can be cached
+            String aiText = llmClient.generateWithGemini(requestBody, 10);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "No error body";
-                    log.error("Gemini API error: {} - {}", response.code(), errorBody);
-                    throw new RuntimeException("Gemini API error: " + response.code() + " - " + errorBody);
-                }
-                
-                String responseBody = response.body().string();
-                log.debug("Gemini raw response: {}", responseBody);
-                
-                JsonNode jsonResponse = objectMapper.readTree(responseBody);
-                String aiText = jsonResponse.path("candidates")
-                        .path(0)
-                        .path("content")
-                        .path("parts")
-                        .path(0)
-                        .path("text")
-                        .asText();
-                
-                log.info("Gemini extracted text length: {} characters", aiText.length());
-                log.info("Gemini raw response text: {}", aiText);
-                
-                // Log first and last 100 characters for debugging
-                if (aiText.length() > 200) {
-                    log.info("Gemini response start: {}", aiText.substring(0, 100));
-                    log.info("Gemini response end: {}", aiText.substring(aiText.length() - 100));
-                }
-                
-                if (aiText == null || aiText.trim().isEmpty()) {
-                    throw new RuntimeException("Gemini returned empty response");
-                }
-                
-                if (aiText.length() < 10) {
-                    throw new RuntimeException("Gemini response too short: " + aiText);
-                }
-                
-                return aiText;
+            log.info("Gemini extracted text length: {} characters", aiText.length());
+            log.info("Gemini raw response text: {}", aiText);
+            
+            // Log first and last 100 characters for debugging
+            if (aiText.length() > 200) {
+                log.info("Gemini response start: {}", aiText.substring(0, 100));
+                log.info("Gemini response end: {}", aiText.substring(aiText.length() - 100));
             }
+            
+            return aiText;
         } catch (Exception e) {
             log.error("Error calling Gemini API: {}", e.getMessage(), e);
             throw new RuntimeException("Gemini API error: " + e.getMessage());
@@ -1244,32 +1038,34 @@ public class AIServiceImpl implements AIService {
                     .addHeader("Content-Type", "application/json")
                     .build();
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "No error body";
-                    log.error("OpenAI API error: {} - {}", response.code(), errorBody);
-                    throw new RuntimeException("OpenAI API error: " + response.code() + " - " + errorBody);
-                }
+            return llmResultCache.getOrGenerate(LlmCallKey.of("openai", aiConfig.getOpenaiModel(), requestBody), () -> {
+                try (Response response = httpClient.newCall(request).execute()) {
+                    if (!response.isSuccessful()) {
+                        String errorBody = response.body() != null ? response.body().string() : "No error body";
+                        log.error("OpenAI API error: {} - {}", response.code(), errorBody);
+                        throw new RuntimeException("OpenAI API error: " + response.code() + " - " + errorBody);
+                    }
                 
-                String responseBody = response.body().string();
-                log.debug("OpenAI raw response: {}", responseBody);
+                    String responseBody = response.body().string();
+                    log.debug("OpenAI raw response: {}", responseBody);
                 
-                JsonNode jsonResponse = objectMapper.readTree(responseBody);
-                String aiText = jsonResponse.path("choices")
-                        .path(0)
-                        .path("message")
-                        .path("content")
-                        .asText();
+                    JsonNode jsonResponse = objectMapper.readTree(responseBody);
+                    String aiText = jsonResponse.path("choices")
+                            .path(0)
+                            .path("message")
+                            .path("content")
+                            .asText();
                 
-                log.debug("OpenAI extracted text length: {} characters", aiText.length());
-                log.debug("OpenAI extracted text: {}", aiText);
+                    log.debug("OpenAI extracted text length: {} characters", aiText.length());
+                    log.debug("OpenAI extracted text: {}", aiText);
                 
-                if (aiText == null || aiText.trim().isEmpty()) {
-                    throw new RuntimeException("OpenAI returned empty response");
-                }
+                    if (aiText == null || aiText.trim().isEmpty()) {
+                        throw new RuntimeException("OpenAI returned empty response");
+                    }
                 
-                return aiText;
-            }
+                    return aiText;
+                }
+            });
         } catch (Exception e) {
             log.error("Error calling OpenAI API: {}", e.getMessage(), e);
             throw new RuntimeException("OpenAI API error: " + e.getMessage());
@@ -1694,97 +1490,12 @@ public class AIServiceImpl implements AIService {
         status.put("currentService", getCurrentService());
         status.put("cacheEnabled", aiConfig.isCacheEnabled());
         status.put("cacheTtl", aiConfig.getCacheTtl());
+        status.put("resultCache", llmResultCache.getStatistics());
+        status.put("geminiModel", geminiModelResolver.getStatus());
+        status.put("router", providerRouter.getStatus());
         return status;
     }
 
-    // OpenAI Implementation
-    private ReportSummaryResponse generateOpenAISummary(ReportSummaryRequest request) throws IOException {
-        String prompt = buildSummaryPrompt(request);
-        
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", aiConfig.getOpenaiModel());
-        requestBody.put("messages", Arrays.asList(
-            Map.of("role", "system", "content", "You are a crime prevention AI assistant. Generate concise, professional summaries of crime reports."),
-            Map.of("role", "user", "content", prompt)
-        ));
-        requestBody.put("max_tokens", aiConfig.getOpenaiMaxTokens());
-        requestBody.put("temperature", aiConfig.getOpenaiTemperature());
-
-        Request httpRequest = new Request.Builder()
-                .url(aiConfig.getOpenaiBaseUrl() + "/chat/completions")
-                .addHeader("Authorization", "Bearer " + aiConfig.getOpenaiApiKey())
-                .addHeader("Content-Type", "application/json")
-                .post(RequestBody.create(
-                    objectMapper.writeValueAsString(requestBody),
-                    MediaType.get("application/json")
-                ))
-                .build();
-
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("OpenAI API error: " + response.code() + " - " + response.body().string());
-            }
-
-            JsonNode responseJson = objectMapper.readTree(response.body().string());
-            String summary = responseJson.path("choices").path(0).path("message").path("content").asText();
-            
-            return buildSummaryResponse(request, summary, "openai");
-        }
-    }
-
-    // Gemini Implementation
-    private ReportSummaryResponse generateGeminiSummary(ReportSummaryRequest request) throws IOException {
-        String prompt = buildSummaryPrompt(request);
-        
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("contents", Arrays.asList(
-            Map.of("parts", Arrays.asList(
-                Map.of("text", prompt)
-            ))
-        ));
-        requestBody.put("generationConfig", Map.of(
-            "maxOutputTokens", aiConfig.getGeminiMaxTokens(),
-            "temperature", aiConfig.getGeminiTemperature()
-        ));
-
-        String url = aiConfig.getGeminiBaseUrl() + "/models/" + aiConfig.getGeminiModel() + ":generateContent?key=" + aiConfig.getGeminiApiKey();
-
-        Request httpRequest = new Request.Builder()
-                .url(url)
-                .addHeader("Content-Type", "application/json")
-                .post(RequestBody.create(
-                    objectMapper.writeValueAsString(requestBody),
-                    MediaType.get("application/json")
-                ))
-                .build();
-
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("Gemini API error: " + response.code() + " - " + response.body().string());
-            }
-
-            JsonNode responseJson = objectMapper.readTree(response.body().string());
-            String summary = responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
-            
-            return buildSummaryResponse(request, summary, "gemini");
-        }
-    }
-
-    // Hybrid Implementation (fallback between services)
-    private ReportSummaryResponse generateHybridSummary(ReportSummaryRequest request) throws IOException {
-        try {
-            return generateOpenAISummary(request);
-        } catch (Exception e) {
-            log.warn("OpenAI failed, trying Gemini: {}", e.getMessage());
-            try {
-                return generateGeminiSummary(request);
-            } catch (Exception e2) {
-                log.error("Both AI services failed: OpenAI: {}, Gemini: {}", e.getMessage(), e2.getMessage());
-                throw new RuntimeException("All AI services are unavailable");
-            }
-        }
-    }
-
     private String buildSummaryPrompt(ReportSummaryRequest request) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Please provide a ").append(request.getSummaryLength().name().toLowerCase())
@@ -1876,7 +1587,7 @@ public class AIServiceImpl implements AIService {
                 .language(language)
                 .confidence(0.85) // Default confidence
                 .wordCount(aiResponse.split("\\s+").length)
-                .modelVersion(service.equals("openai") ? aiConfig.getOpenaiModel() : aiConfig.getGeminiModel())
+                .modelVersion(service.equals("openai") ? aiConfig.getOpenaiModel() : geminiModelResolver.getModel())
                 .promptUsed(buildSummaryPrompt(request))
                 .build();
     }
@@ -2069,7 +1780,7 @@ public class AIServiceImpl implements AIService {
                 .build();
             
             // Generate new summary
-            ReportSummaryResponse newSummary = summarizeReport(request);
+            ReportSummaryResponse newSummary = llmResultCache.bypassIf(true, () -> summarizeReport(request));
             
             // Update the existing summary entity
             existingSummary.setSummary(newSummary.getSummary());
@@ -2213,7 +1924,7 @@ public class AIServiceImpl implements AIService {
     public String testGeminiService(String testPrompt) {
         log.info("Testing Gemini service directly with prompt: {}", testPrompt);
         try {
-            return callGeminiForAnomalyDetection(testPrompt);
+            return llmResultCache.bypassIf(true, () -> callGeminiForAnomalyDetection(testPrompt));
         } catch (Exception e) {
             log.error("Error testing Gemini service: {}", e.getMessage(), e);
             return "Error: " + e.getMessage();
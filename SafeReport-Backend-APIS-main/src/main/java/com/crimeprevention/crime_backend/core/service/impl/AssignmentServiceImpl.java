@@ -2,6 +2,8 @@ package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.report.AssignReportRequest;
 import com.crimeprevention.crime_backend.core.dto.report.AssignmentResponse;
+import com.crimeprevention.crime_backend.core.event.OfficerDutyStatusChangedEvent;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
 import com.crimeprevention.crime_backend.core.exception.ResourceNotFoundException;
 import com.crimeprevention.crime_backend.core.exception.UnauthorizedException;
 import com.crimeprevention.crime_backend.core.model.enums.AssignmentStatus;
@@ -21,6 +23,7 @@ import com.crimeprevention.crime_backend.core.service.interfaces.AssignmentServi
 import com.crimeprevention.crime_backend.core.service.interfaces.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -40,6 +43,7 @@ public class AssignmentServiceImpl implements AssignmentService {
     private final OfficerRepository officerRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public AssignmentResponse assignReportToOfficer(UUID reportId, AssignReportRequest request, UUID assignedBy) {
@@ -92,12 +96,15 @@ public class AssignmentServiceImpl implements AssignmentService {
         Assignment savedAssignment = assignmentRepository.save(assignment);
 
         // Update report status to UNDER_INVESTIGATION
+        ReportStatus previousStatus = report.getStatus();
         report.setStatus(ReportStatus.UNDER_INVESTIGATION);
         reportRepository.save(report);
+        eventPublisher.publishEvent(ReportChangedEvent.statusChanged(report, previousStatus));
         
         // Update officer status to ON_CASE
         officer.setDutyStatus(DutyStatus.ON_CASE);
         officerRepository.save(officer);
+        eventPublisher.publishEvent(new OfficerDutyStatusChangedEvent(officer.getId(), DutyStatus.ON_CASE));
 
         // Send notifications
         try {
@@ -175,16 +182,21 @@ public class AssignmentServiceImpl implements AssignmentService {
         
         // Update report status based on assignment status
         Report report = assignment.getReport();
+        ReportStatus previousStatus = report.getStatus();
         if (newStatus == AssignmentStatus.RESOLVED) {
             report.setStatus(ReportStatus.RESOLVED);
             // Set officer back to available
             Officer officer = assignment.getOfficer();
             officer.setDutyStatus(DutyStatus.AVAILABLE);
             officerRepository.save(officer);
+            eventPublisher.publishEvent(new OfficerDutyStatusChangedEvent(officer.getId(), DutyStatus.AVAILABLE));
         } else if (newStatus == AssignmentStatus.IN_PROGRESS) {
             report.setStatus(ReportStatus.IN_PROGRESS);
         }
         reportRepository.save(report);
+        if (report.getStatus() != previousStatus) {
+            eventPublisher.publishEvent(ReportChangedEvent.statusChanged(report, previousStatus));
+        }
         
         return buildAssignmentResponse(updatedAssignment);
     }
@@ -201,13 +213,16 @@ public class AssignmentServiceImpl implements AssignmentService {
         
         // Update report status back to PENDING
         Report report = assignment.getReport();
+        ReportStatus previousStatus = report.getStatus();
         report.setStatus(ReportStatus.PENDING);
         reportRepository.save(report);
+        eventPublisher.publishEvent(ReportChangedEvent.statusChanged(report, previousStatus));
         
         // Set officer back to available
         Officer officer = assignment.getOfficer();
         officer.setDutyStatus(DutyStatus.AVAILABLE);
         officerRepository.save(officer);
+        eventPublisher.publishEvent(new OfficerDutyStatusChangedEvent(officer.getId(), DutyStatus.AVAILABLE));
         
         // Delete the assignment
         assignmentRepository.delete(assignment);
@@ -2,14 +2,25 @@ package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.officer.BackupRequestDTO;
 import com.crimeprevention.crime_backend.core.dto.officer.BackupResponseDTO;
+import com.crimeprevention.crime_backend.core.event.BackupRequestedEvent;
+import com.crimeprevention.crime_backend.core.exception.ResourceNotFoundException;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
 import com.crimeprevention.crime_backend.core.mapper.OfficerMapper;
+import com.crimeprevention.crime_backend.core.model.report.Assignment;
+import com.crimeprevention.crime_backend.core.model.report.BackupRequest;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import com.crimeprevention.crime_backend.core.repo.report.AssignmentRepository;
+import com.crimeprevention.crime_backend.core.repo.report.BackupRequestRepository;
 import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.BackupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,12 +30,51 @@ import java.util.UUID;
 public class BackupServiceImpl implements BackupService {
     private final OfficerRepository officerRepository;
     private final OfficerMapper officerMapper;
+    private final AssignmentRepository assignmentRepository;
+    private final BackupRequestRepository backupRequestRepository;
+    private final OfficerLocationRegistry officerLocationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public BackupResponseDTO requestBackup(UUID officerId, BackupRequestDTO request) {
-        // Implementation here
-        return null;
+        Officer officer = officerRepository.findById(officerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Officer not found"));
+        if (request.getAssignmentId() == null) {
+            throw new IllegalArgumentException("Assignment ID is required");
+        }
+        Assignment assignment = assignmentRepository.findById(request.getAssignmentId())
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
+
+        BackupRequest backupRequest = backupRequestRepository.save(BackupRequest.builder()
+                .requestingOfficer(officer)
+                .assignment(assignment)
+                .details(request.getReason())
+                .requestedAt(Instant.now())
+                .build());
+
+        BackupResponseDTO response = BackupResponseDTO.builder()
+                .id(backupRequest.getId())
+                .requestingOfficer(officerMapper.toDto(officer))
+                .location(resolveLocation(officerId, request))
+                .details(backupRequest.getDetails())
+                .status(backupRequest.getStatus())
+                .createdAt(backupRequest.getRequestedAt())
+                .build();
+        // Routed to nearby officers once the request is committed
+        eventPublisher.publishEvent(new BackupRequestedEvent(response));
+        return response;
+    }
+
+    // Location sent with the request, else the officer's last known position
+    private BackupRequestDTO.LocationDTO resolveLocation(UUID officerId, BackupRequestDTO request) {
+        if (request.getLocation() != null) {
+            return request.getLocation();
+        }
+        return officerLocationRegistry.getPosition(officerId)
+                .filter(OfficerPosition::hasCoordinates)
+                .map(position -> new BackupRequestDTO.LocationDTO(position.getLatitude(), position.getLongitude()))
+                .orElse(null);
     }
 
     @Override
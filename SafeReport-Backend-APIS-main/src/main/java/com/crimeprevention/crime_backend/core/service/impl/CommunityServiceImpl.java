@@ -1,16 +1,22 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
-import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.geo.BoundingBox;
+import com.crimeprevention.crime_backend.core.geo.CommunityStatsIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
 import com.crimeprevention.crime_backend.core.model.report.Report;
 import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.CommunityService;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,88 +25,53 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CommunityServiceImpl implements CommunityService {
 
+    private final CommunityStatsIndex communityStatsIndex;
     private final ReportRepository reportRepository;
 
+    @Value("${app.geo.bounding-box.max-reports:10000}")
+    private int boundingBoxMaxReports;
+
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getCommunityStatus(Double latitude, Double longitude, Double radiusKm) {
         log.info("Calculating community status for location: lat={}, lng={}, radius={}km", latitude, longitude, radiusKm);
         
-        // Get all reports (we'll filter by location in memory for now)
-        // In production, use a spatial query or PostGIS
-        List<Report> allReports = reportRepository.findAll();
-        
-        // Filter reports within radius
-        List<Report> nearbyReports = allReports.stream()
-            .filter(report -> {
-                if (report.getLocation() == null || 
-                    report.getLocation().getLatitude() == null || 
-                    report.getLocation().getLongitude() == null) {
-                    return false;
-                }
-                double distance = calculateDistance(
-                    latitude, longitude,
-                    report.getLocation().getLatitude(),
-                    report.getLocation().getLongitude()
-                );
-                return distance <= radiusKm;
-            })
-            .toList();
-        
-        // Calculate this week's reports
-        Instant weekAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-        long thisWeekReports = nearbyReports.stream()
-            .filter(report -> report.getCreatedAt() != null && report.getCreatedAt().isAfter(weekAgo))
-            .count();
+        // Merged from the per-cell aggregates inside the radius, or the reports until those are built
+        Instant now = Instant.now();
+        CommunityStatsIndex.AreaStats stats;
+        boolean truncated = false;
+        if (communityStatsIndex.isReady()) {
+            stats = communityStatsIndex.aggregate(latitude, longitude, radiusKm);
+        } else {
+            Slice<ReportPoint> reports = findReportsWithinRadius(latitude, longitude, radiusKm);
+            stats = CommunityStatsIndex.summarize(reports.getContent(), now);
+            truncated = reports.hasNext();
+        }
+        long thisWeekReports = stats.getCurrentWeekCount(now);
         
-        // Calculate average response time (time from submission to status update)
-        // For resolved reports, calculate time from submittedAt to updatedAt
-        double avgResponseTimeMinutes = nearbyReports.stream()
-            .filter(report -> report.getStatus() == ReportStatus.RESOLVED && 
-                            report.getSubmittedAt() != null && 
-                            report.getUpdatedAt() != null)
-            .mapToLong(report -> {
-                long minutes = ChronoUnit.MINUTES.between(
-                    report.getSubmittedAt(),
-                    report.getUpdatedAt()
-                );
-                return minutes > 0 ? minutes : 0;
-            })
-            .average()
-            .orElse(0.0);
+        // Average response time (submission to resolution) of resolved reports
+        double avgResponseTimeMinutes = stats.getAverageResponseMinutes();
         
         // If no resolved reports, use a default or calculate from pending reports
-        if (avgResponseTimeMinutes == 0.0 && !nearbyReports.isEmpty()) {
+        if (avgResponseTimeMinutes == 0.0 && stats.getTotal() > 0) {
             // Estimate based on current time - submission time for pending reports
-            avgResponseTimeMinutes = nearbyReports.stream()
-                .filter(report -> report.getStatus() == ReportStatus.PENDING && 
-                                report.getSubmittedAt() != null)
-                .mapToLong(report -> ChronoUnit.MINUTES.between(
-                    report.getSubmittedAt(),
-                    Instant.now()
-                ))
-                .average()
-                .orElse(15.0); // Default 15 minutes if no data
+            avgResponseTimeMinutes = stats.getAveragePendingMinutes(now).orElse(15.0); // Default 15 minutes if no data
         }
         
         // Calculate safety level based on:
         // - Crime density (reports per km²)
-        // - Average risk score (if available)
-        // - Recent trend (increasing/decreasing)
-        String safetyLevel = calculateSafetyLevel(nearbyReports, thisWeekReports, radiusKm);
+        // - Recent trend (reports this week)
+        String safetyLevel = calculateSafetyLevel(stats.getTotal(), thisWeekReports, radiusKm);
         
         Map<String, Object> result = new HashMap<>();
         result.put("thisWeekReports", thisWeekReports);
         result.put("avgResponseTimeMinutes", Math.round(avgResponseTimeMinutes));
         result.put("avgResponse", formatResponseTime(avgResponseTimeMinutes));
         result.put("safetyLevel", safetyLevel);
-        result.put("totalReports", (long) nearbyReports.size());
-        result.put("resolvedReports", nearbyReports.stream()
-            .filter(r -> r.getStatus() == ReportStatus.RESOLVED)
-            .count());
-        result.put("pendingReports", nearbyReports.stream()
-            .filter(r -> r.getStatus() == ReportStatus.PENDING)
-            .count());
+        result.put("totalReports", stats.getTotal());
+        result.put("resolvedReports", stats.getResolved());
+        result.put("pendingReports", stats.getPending());
+        result.put("truncated", truncated);
         
         return result;
     }
@@ -110,70 +81,20 @@ public class CommunityServiceImpl implements CommunityService {
     public List<Map<String, Object>> getTopActiveAreas(Double latitude, Double longitude, Double radiusKm, int limit) {
         log.info("Getting top active areas for location: lat={}, lng={}, radius={}km, limit={}", latitude, longitude, radiusKm, limit);
         
-        // Get all reports
-        List<Report> allReports = reportRepository.findAll();
-        
-        // Filter reports within radius
-        List<Report> nearbyReports = allReports.stream()
-            .filter(report -> {
-                if (report.getLocation() == null || 
-                    report.getLocation().getLatitude() == null || 
-                    report.getLocation().getLongitude() == null) {
-                    return false;
-                }
-                double distance = calculateDistance(
-                    latitude, longitude,
-                    report.getLocation().getLatitude(),
-                    report.getLocation().getLongitude()
-                );
-                return distance <= radiusKm;
-            })
-            .toList();
-        
-        // Group reports by area (prefer district, then area, then address)
-        Map<String, List<Report>> areaGroups = nearbyReports.stream()
-            .collect(Collectors.groupingBy(report -> {
-                Report.Location loc = report.getLocation();
-                if (loc == null) return "Unknown";
-                
-                // Prefer district, then area, then address
-                if (loc.getDistrict() != null && !loc.getDistrict().trim().isEmpty()) {
-                    return loc.getDistrict();
-                } else if (loc.getArea() != null && !loc.getArea().trim().isEmpty()) {
-                    return loc.getArea();
-                } else if (loc.getAddress() != null && !loc.getAddress().trim().isEmpty()) {
-                    // Extract area name from address (first part before comma)
-                    String address = loc.getAddress();
-                    int commaIndex = address.indexOf(',');
-                    return commaIndex > 0 ? address.substring(0, commaIndex).trim() : address;
-                } else {
-                    return "Unknown";
-                }
-            }));
-        
-        // Calculate current week and previous week for trend
         Instant now = Instant.now();
-        Instant weekAgo = now.minus(7, ChronoUnit.DAYS);
-        Instant twoWeeksAgo = now.minus(14, ChronoUnit.DAYS);
+        
+        // Areas are district, then area, then the first part of the address
+        Map<String, CommunityStatsIndex.AreaStats> areaGroups = communityStatsIndex.isReady()
+            ? communityStatsIndex.aggregateByArea(latitude, longitude, radiusKm)
+            : CommunityStatsIndex.summarizeByArea(findReportsWithinRadius(latitude, longitude, radiusKm).getContent(), now);
         
         // Create area statistics
         List<Map<String, Object>> areaStats = new ArrayList<>();
         
-        for (Map.Entry<String, List<Report>> entry : areaGroups.entrySet()) {
-            String areaName = entry.getKey();
-            List<Report> areaReports = entry.getValue();
-            
-            // Count reports in current week
-            long currentWeekCount = areaReports.stream()
-                .filter(r -> r.getCreatedAt() != null && r.getCreatedAt().isAfter(weekAgo))
-                .count();
-            
-            // Count reports in previous week
-            long previousWeekCount = areaReports.stream()
-                .filter(r -> r.getCreatedAt() != null && 
-                           r.getCreatedAt().isAfter(twoWeeksAgo) && 
-                           r.getCreatedAt().isBefore(weekAgo))
-                .count();
+        for (Map.Entry<String, CommunityStatsIndex.AreaStats> entry : areaGroups.entrySet()) {
+            CommunityStatsIndex.AreaStats stats = entry.getValue();
+            long currentWeekCount = stats.getCurrentWeekCount(now);
+            long previousWeekCount = stats.getPreviousWeekCount(now);
             
             // Determine trend
             String trend = "stable";
@@ -184,8 +105,8 @@ public class CommunityServiceImpl implements CommunityService {
             }
             
             Map<String, Object> areaData = new HashMap<>();
-            areaData.put("name", areaName);
-            areaData.put("count", (long) areaReports.size());
+            areaData.put("name", entry.getKey());
+            areaData.put("count", stats.getTotal());
             areaData.put("currentWeekCount", currentWeekCount);
             areaData.put("trend", trend);
             
@@ -200,35 +121,39 @@ public class CommunityServiceImpl implements CommunityService {
     }
     
     /**
-     * Calculate distance between two coordinates using Haversine formula
-     * Returns distance in kilometers
+     * Reports within radius: bounding box filtered in SQL, exact Haversine check in memory.
+     * Only used until the community stats index has been built; capped at
+     * app.geo.bounding-box.max-reports, newest first, with hasNext() set when older ones were left out.
      */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c;
+    private Slice<ReportPoint> findReportsWithinRadius(double latitude, double longitude, double radiusKm) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        Slice<Report> reports = reportRepository.findAllInBoundingBox(
+                box.getMinLatitude(), box.getMaxLatitude(),
+                box.getMinLongitude(), box.getMaxLongitude(),
+                PageRequest.of(0, boundingBoxMaxReports));
+        if (reports.hasNext()) {
+            log.warn("Community bounding box query capped at {} reports", boundingBoxMaxReports);
+        }
+        return new SliceImpl<>(reports.stream()
+            .filter(report -> GeoUtils.haversineKm(
+                latitude, longitude,
+                report.getLocation().getLatitude(),
+                report.getLocation().getLongitude()) <= radiusKm)
+            .map(ReportPoint::from)
+            .toList(), reports.getPageable(), reports.hasNext());
     }
     
     /**
      * Calculate safety level based on crime statistics
      */
-    private String calculateSafetyLevel(List<Report> reports, long thisWeekReports, double radiusKm) {
-        if (reports.isEmpty()) {
+    private String calculateSafetyLevel(long totalReports, long thisWeekReports, double radiusKm) {
+        if (totalReports == 0) {
             return "Excellent";
         }
         
         // Calculate crime density (reports per km²)
         double areaKm2 = Math.PI * radiusKm * radiusKm;
-        double crimeDensity = reports.size() / areaKm2;
+        double crimeDensity = totalReports / areaKm2;
         double weeklyDensity = thisWeekReports / areaKm2;
         
         // Safety level thresholds
@@ -2,17 +2,33 @@ package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.mapping.*;
 
+import com.crimeprevention.crime_backend.core.geo.BoundingBox;
+import com.crimeprevention.crime_backend.core.geo.ClusterIndex;
+import com.crimeprevention.crime_backend.core.geo.CrimeMapResponseCache;
+import com.crimeprevention.crime_backend.core.geo.HeatmapTileIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportClusterCache;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.geo.ReportSpatialIndex;
+import com.crimeprevention.crime_backend.core.geo.WebMercator;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
 import com.crimeprevention.crime_backend.core.model.report.Report;
 import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.CrimeMapService;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -26,9 +42,21 @@ import java.util.stream.Collectors;
 public class CrimeMapServiceImpl implements CrimeMapService {
     
     private final ReportRepository reportRepository;
+    private final ReportSpatialIndex reportSpatialIndex;
+    private final HeatmapTileIndex heatmapTileIndex;
+    private final ReportClusterCache reportClusterCache;
+    private final CrimeMapResponseCache crimeMapResponseCache;
+    
+    @Value("${app.geo.bounding-box.max-reports:10000}")
+    private int boundingBoxMaxReports;
     
     @Override
     public CrimeMapResponse generateCrimeMap(CrimeMapRequest request) {
+        return crimeMapResponseCache.get(responseCacheKey("map:" + mapType(request), request),
+                () -> buildCrimeMap(request));
+    }
+    
+    private CrimeMapResponse buildCrimeMap(CrimeMapRequest request) {
         long startTime = System.currentTimeMillis();
         log.info("Generating crime map for request: {}", request);
         
@@ -37,34 +65,34 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         Instant startDate = parseTimeRangeInstant(request);
         Instant endDate = Instant.now();
             
-            // Fetch crime reports
-            List<Report> reports = fetchCrimeReports(startDate, endDate, request);
-            
             // Generate map data based on type
             CrimeMapResponse response;
-            switch (request.getMapType().toLowerCase()) {
-                case "heatmap":
-                    response = generateHeatmapData(reports, request);
-                    break;
-                case "clusters":
-                    response = generateClusterData(reports, request);
-                    break;
-                case "individual":
-                default:
-                    response = generateIndividualPoints(reports, request);
-                    break;
+            if ("clusters".equals(mapType(request))) {
+                // Reports are only fetched when the window's cluster index is not cached
+                response = generateClusterData(startDate, endDate, request);
+            } else {
+                Slice<Report> fetched = fetchCrimeReports(startDate, endDate, request);
+                List<Report> reports = fetched.getContent();
+                switch (mapType(request)) {
+                    case "heatmap":
+                        response = generateHeatmapData(reports, request);
+                        break;
+                    case "individual":
+                    default:
+                        response = generateIndividualPoints(reports, request);
+                        break;
+                }
+                response.setTotalCrimes((long) reports.size());
+                response.setStatistics(generateMapStatistics(reports));
+                response.setTruncated(fetched.hasNext());
             }
             
             // Set metadata
             response.setMapId(UUID.randomUUID().toString());
             response.setMapType(request.getMapType());
             response.setGeneratedAt(LocalDateTime.now());
-            response.setTotalCrimes((long) reports.size());
             response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
             
-            // Generate statistics
-            response.setStatistics(generateMapStatistics(reports));
-            
             log.info("Crime map generated successfully in {}ms", response.getProcessingTimeMs());
             return response;
             
@@ -92,6 +120,61 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         return generateCrimeMap(request);
     }
     
+    @Override
+    public CrimePointColumns getCrimePointColumns(CrimeMapRequest request) {
+        return crimeMapResponseCache.get(responseCacheKey("columns", request), () -> buildPointColumns(request));
+    }
+    
+    private CrimePointColumns buildPointColumns(CrimeMapRequest request) {
+        log.info("Generating columnar crime points for request: {}", request);
+        
+        try {
+            Instant startDate = parseTimeRangeInstant(request);
+            List<Report> reports = fetchCrimeReports(startDate, Instant.now(), request).getContent();
+            return toPointColumns(reports);
+        } catch (Exception e) {
+            log.error("Error generating columnar crime points", e);
+            throw new RuntimeException("Failed to generate crime points: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public HeatmapTileResponse getHeatmapTile(int z, int x, int y, String timeRange, List<String> crimeTypes) {
+        if (!heatmapTileIndex.supportsZoom(z)) {
+            throw new IllegalArgumentException("Heatmap tiles are available for zoom "
+                    + heatmapTileIndex.getMinZoom() + " to " + heatmapTileIndex.getMaxZoom());
+        }
+        int tileCount = 1 << z;
+        if (x < 0 || x >= tileCount || y < 0 || y >= tileCount) {
+            throw new IllegalArgumentException("Tile coordinates out of range for zoom " + z);
+        }
+        
+        Instant startDate = parseTimeRangeInstant(timeRange);
+        Instant endDate = Instant.now();
+        Set<CrimeType> types = parseCrimeTypes(crimeTypes);
+        // Binned from the reports on the tile's grid until the tile pyramid has been built
+        List<CrimeMapResponse.HeatmapPoint> points;
+        boolean truncated = false;
+        if (heatmapTileIndex.isReady()) {
+            points = heatmapTileIndex.getTile(z, x, y, startDate, endDate, types);
+        } else {
+            Slice<ReportPoint> reports = findTileReports(z, x, y, startDate, endDate, types);
+            points = heatmapTileIndex.aggregate(reports.getContent(), z);
+            truncated = reports.hasNext();
+        }
+        
+        return HeatmapTileResponse.builder()
+                .z(z)
+                .x(x)
+                .y(y)
+                .timeRange(timeRange)
+                .generatedAt(LocalDateTime.now())
+                .totalCrimes(points.stream().mapToLong(CrimeMapResponse.HeatmapPoint::getCrimeCount).sum())
+                .points(points)
+                .truncated(truncated)
+                .build();
+    }
+    
     @Override
     public List<LiveIncidentResponse> getLiveIncidents() {
         log.info("Fetching live incidents");
@@ -113,6 +196,25 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         }
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LiveIncidentResponse> getLiveIncident(UUID reportId) {
+        return reportRepository.findById(reportId).map(this::convertToLiveIncident);
+    }
+    
+    @Override
+    public CrimePointColumns getLiveIncidentColumns() {
+        log.info("Fetching live incidents as columns");
+        
+        try {
+            Instant since = Instant.now().minusSeconds(7 * 24 * 3600);
+            return toPointColumns(reportRepository.findByDateRange(since, Instant.now()));
+        } catch (Exception e) {
+            log.error("Error fetching live incident columns", e);
+            throw new RuntimeException("Failed to fetch live incidents: " + e.getMessage());
+        }
+    }
+    
     @Override
     public List<LiveIncidentResponse> getLiveIncidentsInArea(
             Double latitude, Double longitude, Double radiusKm, String timeRange) {
@@ -123,24 +225,14 @@ public class CrimeMapServiceImpl implements CrimeMapService {
             Instant startDate = parseTimeRangeInstant(timeRange);
             Instant endDate = Instant.now();
             
-            // Get reports within time range
-            List<Report> reports = reportRepository.findByDateRange(startDate, endDate);
+            // Recent windows are answered from the spatial index, touching only the covering cells
+            if (reportSpatialIndex.covers(startDate)) {
+                List<ReportPoint> points = reportSpatialIndex.findWithinRadius(
+                        latitude, longitude, radiusKm, startDate, endDate);
+                return loadLiveIncidents(points);
+            }
             
-            // Filter by distance and convert to LiveIncidentResponse
-            return reports.stream()
-                    .filter(report -> {
-                        if (report.getLocation() == null || 
-                            report.getLocation().getLatitude() == null || 
-                            report.getLocation().getLongitude() == null) {
-                            return false;
-                        }
-                        double distance = calculateDistance(
-                            latitude, longitude,
-                            report.getLocation().getLatitude(),
-                            report.getLocation().getLongitude()
-                        );
-                        return distance <= radiusKm;
-                    })
+            return findReportsInArea(latitude, longitude, radiusKm, startDate, endDate).stream()
                     .map(this::convertToLiveIncident)
                     .collect(Collectors.toList());
                     
@@ -150,6 +242,87 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         }
     }
     
+    /**
+     * Reports within the radius for windows the spatial index does not cover: bounding box and
+     * time window are filtered in SQL, the exact distance in memory
+     */
+    private Slice<Report> findReportsInArea(double latitude, double longitude, double radiusKm,
+                                            Instant startDate, Instant endDate) {
+        Slice<Report> candidates = findInBoundingBox(
+                BoundingBox.around(latitude, longitude, radiusKm), startDate, endDate);
+        return new SliceImpl<>(candidates.stream()
+                .filter(report -> GeoUtils.haversineKm(
+                        latitude, longitude,
+                        report.getLocation().getLatitude(),
+                        report.getLocation().getLongitude()) <= radiusKm)
+                .collect(Collectors.toList()), candidates.getPageable(), candidates.hasNext());
+    }
+    
+    /**
+     * Bounding box prefilter capped at app.geo.bounding-box.max-reports, newest first; hasNext()
+     * on the result means older reports in the box were left out
+     */
+    private Slice<Report> findInBoundingBox(BoundingBox box, Instant startDate, Instant endDate) {
+        Slice<Report> reports = reportRepository.findInBoundingBox(
+                box.getMinLatitude(), box.getMaxLatitude(),
+                box.getMinLongitude(), box.getMaxLongitude(),
+                startDate, endDate, PageRequest.of(0, boundingBoxMaxReports));
+        if (reports.hasNext()) {
+            log.warn("Bounding box query capped at {} reports", boundingBoxMaxReports);
+        }
+        return reports;
+    }
+    
+    /**
+     * Load full reports for index hits, preserving the index order (newest first)
+     */
+    private List<LiveIncidentResponse> loadLiveIncidents(List<ReportPoint> points) {
+        if (points.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UUID> ids = points.stream().map(ReportPoint::getId).collect(Collectors.toList());
+        Map<UUID, Report> reportsById = reportRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Report::getId, report -> report));
+        
+        return ids.stream()
+                .map(reportsById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToLiveIncident)
+                .collect(Collectors.toList());
+    }
+    
+    private Slice<ReportPoint> findTileReports(int z, int x, int y, Instant startDate, Instant endDate,
+                                               Set<CrimeType> crimeTypes) {
+        double tiles = 1 << z;
+        // Tile rows grow southwards, so row y starts at the tile's northern edge
+        Slice<Report> candidates = findInBoundingBox(new BoundingBox(
+                WebMercator.latitude((y + 1) / tiles), WebMercator.latitude(y / tiles),
+                WebMercator.longitude(x / tiles), WebMercator.longitude((x + 1) / tiles)),
+                startDate, endDate);
+        return new SliceImpl<>(candidates.stream()
+            .map(ReportPoint::from)
+            .filter(point -> point.hasCoordinates()
+                    && WebMercator.tile(WebMercator.x(point.getLongitude()), z) == x
+                    && WebMercator.tile(WebMercator.y(point.getLatitude()), z) == y)
+            .filter(point -> crimeTypes.isEmpty() || crimeTypes.contains(point.getCrimeType()))
+            .collect(Collectors.toList()), candidates.getPageable(), candidates.hasNext());
+    }
+    
+    private Set<CrimeType> parseCrimeTypes(List<String> crimeTypes) {
+        Set<CrimeType> parsed = EnumSet.noneOf(CrimeType.class);
+        if (crimeTypes == null) {
+            return parsed;
+        }
+        for (String crimeType : crimeTypes) {
+            try {
+                parsed.add(CrimeType.valueOf(crimeType.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid crime type: {}", crimeType);
+            }
+        }
+        return parsed;
+    }
+    
     /**
      * Parse time range string to Instant
      */
@@ -177,35 +350,26 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         }
     }
     
-    /**
-     * Calculate distance between two coordinates using Haversine formula
-     * Returns distance in kilometers
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c;
-    }
-    
     @Override
     public CrimeMapResponse.MapStatistics getAreaStatistics(
             Double latitude, Double longitude, Double radiusKm) {
         log.info("Generating area statistics for: lat={}, lng={}, radius={}km", latitude, longitude, radiusKm);
         
         try {
-            // Get incidents in area (default to 7 days)
-            List<LiveIncidentResponse> incidents = getLiveIncidentsInArea(latitude, longitude, radiusKm, "7d");
+            // Statistics only need indexed fields, so no reports are loaded for recent windows
+            Instant startDate = parseTimeRangeInstant("7d");
+            if (reportSpatialIndex.covers(startDate)) {
+                return generateStatisticsFromPoints(reportSpatialIndex.findWithinRadius(
+                        latitude, longitude, radiusKm, startDate, Instant.now()));
+            }
             
-            return generateStatisticsFromIncidents(incidents);
+            // Until the index is built the same reports are read from the database
+            Slice<Report> reports = findReportsInArea(latitude, longitude, radiusKm, startDate, Instant.now());
+            CrimeMapResponse.MapStatistics statistics = generateStatisticsFromPoints(reports.stream()
+                    .map(ReportPoint::from)
+                    .collect(Collectors.toList()));
+            statistics.setTruncated(reports.hasNext());
+            return statistics;
             
         } catch (Exception e) {
             log.error("Error generating area statistics", e);
@@ -249,17 +413,46 @@ public class CrimeMapServiceImpl implements CrimeMapService {
             return request.getStartDate().atZone(java.time.ZoneId.systemDefault()).toInstant();
         }
         
-        switch (request.getTimeRange()) {
-            case "24h":
-                return Instant.now().minusSeconds(7 * 24 * 3600); // Use 7 days for 24h to get more data
-            case "7d":
-                return Instant.now().minusSeconds(7 * 24 * 3600);
-            case "30d":
-                return Instant.now().minusSeconds(30 * 24 * 3600);
-            case "custom":
-            default:
-                return Instant.now().minusSeconds(7 * 24 * 3600); // Default to 7 days
+        return Instant.now().minus(timeWindow(request.getTimeRange()));
+    }
+    
+    private static Duration timeWindow(String timeRange) {
+        if (timeRange != null && timeRange.trim().equalsIgnoreCase("30d")) {
+            return Duration.ofDays(30);
         }
+        // 24h, 7d, custom and anything else use 7 days; 24h is widened to get more data
+        return Duration.ofDays(7);
+    }
+    
+    private static String mapType(CrimeMapRequest request) {
+        return request.getMapType() != null ? request.getMapType().trim().toLowerCase() : "individual";
+    }
+    
+    /**
+     * Response cache key: the request reduced to what the response depends on, plus the current time bucket
+     */
+    private CrimeMapResponseCache.Key responseCacheKey(String view, CrimeMapRequest request) {
+        return CrimeMapResponseCache.Key.builder()
+                .view(view)
+                .fixedStart(request.getStartDate() != null
+                        ? request.getStartDate().atZone(java.time.ZoneId.systemDefault()).toInstant()
+                        : null)
+                .window(request.getStartDate() == null ? timeWindow(request.getTimeRange()) : null)
+                .crimeTypes(request.getCrimeTypes() != null && !request.getCrimeTypes().isEmpty()
+                        ? Set.copyOf(parseCrimeTypes(request.getCrimeTypes()))
+                        : null)
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .radiusKm(request.getRadiusKm())
+                .zoom(request.getZoom())
+                .north(request.getNorth())
+                .south(request.getSouth())
+                .east(request.getEast())
+                .west(request.getWest())
+                .maxPoints(request.getMaxPoints())
+                .includeDetails(request.getIncludeDetails())
+                .bucket(crimeMapResponseCache.bucket(Instant.now()))
+                .build();
     }
     
     private LocalDateTime parseTimeRangeString(String timeRange) {
@@ -277,16 +470,25 @@ public class CrimeMapServiceImpl implements CrimeMapService {
         }
     }
     
-    private List<Report> fetchCrimeReports(Instant startDate, Instant endDate, CrimeMapRequest request) {
-        // This is a simplified implementation
-        // In a real system, you'd use JPA specifications or custom queries
-        List<Report> reports = reportRepository.findByDateRange(startDate, endDate);
+    private Slice<Report> fetchCrimeReports(Instant startDate, Instant endDate, CrimeMapRequest request) {
+        List<Report> reports;
+        boolean truncated = false;
+        if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
+            // Area-restricted map: prefilter by bounding box in SQL, exact radius check here
+            Slice<Report> inArea = findReportsInArea(request.getLatitude(), request.getLongitude(),
+                    request.getRadiusKm(), startDate, endDate);
+            reports = inArea.getContent();
+            truncated = inArea.hasNext();
+        } else {
+            reports = reportRepository.findByDateRange(startDate, endDate);
+        }
         log.info("Fetched {} reports from database for date range: {} to {}", reports.size(), startDate, endDate);
         
         // Apply filters
         if (request.getCrimeTypes() != null && !request.getCrimeTypes().isEmpty()) {
+            Set<CrimeType> crimeTypes = parseCrimeTypes(request.getCrimeTypes());
             reports = reports.stream()
-                    .filter(report -> request.getCrimeTypes().contains(report.getCrimeType()))
+                    .filter(report -> crimeTypes.contains(report.getCrimeType()))
                     .collect(Collectors.toList());
             log.info("After crime type filtering: {} reports", reports.size());
         }
@@ -298,7 +500,7 @@ public class CrimeMapServiceImpl implements CrimeMapService {
             log.info("After max points limiting: {} reports", reports.size());
         }
         
-        return reports;
+        return new SliceImpl<>(reports, Pageable.unpaged(), truncated);
     }
     
     private List<Report> fetchCrimeReportsByLocation(String location, LocalDateTime startDate, LocalDateTime endDate) {
@@ -309,106 +511,110 @@ public class CrimeMapServiceImpl implements CrimeMapService {
     }
     
     private CrimeMapResponse generateHeatmapData(List<Report> reports, CrimeMapRequest request) {
-        // Generate heatmap points with clustering
-        List<CrimeMapResponse.HeatmapPoint> heatmapData = new ArrayList<>();
-        
-        // Group reports by location (simplified clustering)
-        Map<String, List<Report>> locationGroups = reports.stream()
-                .collect(Collectors.groupingBy(report -> 
-                    report.getLocation() != null ? report.getLocation().getAddress() : "Unknown"));
-        
-        for (Map.Entry<String, List<Report>> entry : locationGroups.entrySet()) {
-            String address = entry.getKey();
-            List<Report> locationReports = entry.getValue();
-            
-            // Calculate average coordinates (simplified)
-            double avgLat = -1.9441; // Default coordinates for Rwanda
-            double avgLng = 30.0619;
-            
-            // Create multiple heatmap points for better visualization
-            for (int i = 0; i < Math.min(locationReports.size(), 5); i++) {
-                // Add some variation to coordinates for better spread
-                double latVariation = avgLat + (Math.random() - 0.5) * 0.01;
-                double lngVariation = avgLng + (Math.random() - 0.5) * 0.01;
-                
-                // Calculate weight based on crime count and severity
-                double weight = calculateCrimeWeight(locationReports);
-                
-                CrimeMapResponse.HeatmapPoint point = CrimeMapResponse.HeatmapPoint.builder()
-                        .latitude(latVariation)
-                        .longitude(lngVariation)
-                        .weight(weight)
-                        .crimeType(locationReports.get(0).getCrimeType().name())
-                        .crimeCount(locationReports.size())
-                        .build();
-                
-                heatmapData.add(point);
-            }
-        }
+        // Bin reports by their real coordinates on the same grid as the heatmap tiles
+        List<ReportPoint> points = reports.stream()
+                .map(ReportPoint::from)
+                .collect(Collectors.toList());
         
         return CrimeMapResponse.builder()
-                .heatmapData(heatmapData)
+                .heatmapData(heatmapTileIndex.aggregate(points, heatmapTileIndex.getDefaultZoom()))
                 .build();
     }
     
-    private CrimeMapResponse generateClusterData(List<Report> reports, CrimeMapRequest request) {
-        // Generate geographic clusters
-        List<CrimeMapResponse.CrimeCluster> clusters = new ArrayList<>();
+    private CrimeMapResponse generateClusterData(Instant startDate, Instant endDate, CrimeMapRequest request) {
+        // Hierarchical clusters are built once per window and queried by viewport and zoom
+        ClusterIndex index = reportClusterCache.getOrBuild(clusterWindowKey(request),
+                () -> fetchCrimeReports(startDate, endDate, request).stream()
+                        .map(ReportPoint::from)
+                        .collect(Collectors.toList()),
+                point -> calculateRiskScore(point.getPriority(), point.getStatus(), point.getCrimeType()));
+        
+        int zoom = request.getZoom() != null ? request.getZoom() : reportClusterCache.getDefaultZoom();
+        double west = -180, south = -90, east = 180, north = 90;
+        if (request.getNorth() != null && request.getSouth() != null
+                && request.getEast() != null && request.getWest() != null) {
+            west = request.getWest();
+            south = request.getSouth();
+            east = request.getEast();
+            north = request.getNorth();
+        } else if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
+            BoundingBox box = BoundingBox.around(request.getLatitude(), request.getLongitude(), request.getRadiusKm());
+            west = box.getMinLongitude();
+            south = box.getMinLatitude();
+            east = box.getMaxLongitude();
+            north = box.getMaxLatitude();
+        }
+        
+        List<ClusterIndex.Cluster> found = index.getClusters(west, south, east, north, zoom);
+        if (found.size() > reportClusterCache.getMaxClusters()) {
+            // Keep the response bounded even for a very wide viewport at high zoom
+            found = found.stream()
+                    .sorted(Comparator.comparingInt(ClusterIndex.Cluster::getCount).reversed())
+                    .limit(reportClusterCache.getMaxClusters())
+                    .collect(Collectors.toList());
+        }
         
-        // Simple clustering by location (in real system, use DBSCAN or K-means)
-        Map<String, List<Report>> locationGroups = reports.stream()
-                .collect(Collectors.groupingBy(report -> 
-                    report.getLocation() != null ? report.getLocation().getDistrict() : "Unknown"));
+        // Only the sampled reports are loaded, not the window
+        Set<UUID> sampleIds = found.stream()
+                .flatMap(cluster -> cluster.getSampleReportIds().stream())
+                .collect(Collectors.toSet());
+        Map<UUID, Report> reportsById = new HashMap<>();
+        reportRepository.findAllById(sampleIds).forEach(report -> reportsById.put(report.getId(), report));
         
+        List<CrimeMapResponse.CrimeCluster> clusters = new ArrayList<>(found.size());
         int clusterId = 1;
-        for (Map.Entry<String, List<Report>> entry : locationGroups.entrySet()) {
-            String district = entry.getKey();
-            List<Report> districtReports = entry.getValue();
-            
-            if (districtReports.size() < 2) continue; // Skip single reports
-            
-            // Calculate cluster center and statistics
-            double avgLat = -1.9441; // Default coordinates
-            double avgLng = 30.0619;
-            double avgRiskScore = districtReports.stream()
-                    .mapToDouble(report -> calculateRiskScore(report))
-                    .average()
-                    .orElse(0.5);
+        for (ClusterIndex.Cluster cluster : found) {
+            Map<String, Integer> breakdown = new LinkedHashMap<>();
+            cluster.getCrimeTypeBreakdown().forEach((type, count) -> breakdown.put(type.name(), count));
             
-            CrimeMapResponse.CrimeCluster cluster = CrimeMapResponse.CrimeCluster.builder()
-                    .clusterId("CLUSTER_" + clusterId++)
-                    .latitude(avgLat)
-                    .longitude(avgLng)
-                    .crimeCount(districtReports.size())
-                    .crimeTypes(districtReports.stream()
-                            .map(report -> report.getCrimeType().name())
-                            .distinct()
-                            .collect(Collectors.toList()))
-                    .averageRiskScore(avgRiskScore)
-                    .firstCrime(districtReports.stream()
-                            .map(Report::getSubmittedAt)
-                            .min(Instant::compareTo)
-                            .orElse(Instant.now())
-                            .atZone(java.time.ZoneId.systemDefault()).toLocalDateTime())
-                    .lastCrime(districtReports.stream()
-                            .map(Report::getSubmittedAt)
-                            .max(Instant::compareTo)
-                            .orElse(Instant.now())
-                            .atZone(java.time.ZoneId.systemDefault()).toLocalDateTime())
-                    .sampleCrimes(districtReports.stream()
-                            .limit(5)
+            clusters.add(CrimeMapResponse.CrimeCluster.builder()
+                    .clusterId(cluster.getReportId() != null
+                            ? cluster.getReportId().toString()
+                            : "CLUSTER_" + zoom + "_" + clusterId++)
+                    .latitude(cluster.getLatitude())
+                    .longitude(cluster.getLongitude())
+                    .crimeCount(cluster.getCount())
+                    .crimeTypes(new ArrayList<>(breakdown.keySet()))
+                    .crimeTypeBreakdown(breakdown)
+                    .averageRiskScore(cluster.getAverageRiskScore())
+                    .firstCrime(toLocalDateTime(cluster.getFirstCrime()))
+                    .lastCrime(toLocalDateTime(cluster.getLastCrime()))
+                    .sampleCrimes(cluster.getSampleReportIds().stream()
+                            .map(reportsById::get)
+                            .filter(Objects::nonNull)
                             .map(this::convertToCrimeProperties)
                             .collect(Collectors.toList()))
-                    .build();
-            
-            clusters.add(cluster);
+                    .build());
         }
         
         return CrimeMapResponse.builder()
                 .clusters(clusters)
+                .totalCrimes((long) index.getPoints().size())
+                .statistics(generateStatisticsFromPoints(index.getPoints()))
                 .build();
     }
     
+    /**
+     * Key of the report set a clusters request covers; viewport and zoom are not part of it
+     */
+    private String clusterWindowKey(CrimeMapRequest request) {
+        List<String> crimeTypes = request.getCrimeTypes() != null
+                ? request.getCrimeTypes().stream().sorted().collect(Collectors.toList())
+                : List.of();
+        return String.join("|",
+                String.valueOf(request.getTimeRange()),
+                String.valueOf(request.getStartDate()),
+                String.valueOf(crimeTypes),
+                String.valueOf(request.getLatitude()),
+                String.valueOf(request.getLongitude()),
+                String.valueOf(request.getRadiusKm()),
+                String.valueOf(request.getMaxPoints()));
+    }
+    
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return (instant != null ? instant : Instant.now()).atZone(java.time.ZoneId.systemDefault()).toLocalDateTime();
+    }
+    
     private CrimeMapResponse generateIndividualPoints(List<Report> reports, CrimeMapRequest request) {
         // Generate individual crime points
         List<CrimeMapResponse.CrimeFeature> features = reports.stream()
@@ -421,8 +627,12 @@ public class CrimeMapServiceImpl implements CrimeMapService {
     }
     
     private CrimeMapResponse.CrimeFeature convertToCrimeFeature(Report report) {
+        Report.Location location = report.getLocation();
+        boolean located = location != null && location.getLatitude() != null && location.getLongitude() != null;
         CrimeMapResponse.CrimeGeometry geometry = CrimeMapResponse.CrimeGeometry.builder()
-                .coordinates(Arrays.asList(30.0619, -1.9441)) // Default coordinates
+                .coordinates(located
+                        ? Arrays.asList(location.getLongitude(), location.getLatitude())
+                        : Arrays.asList(30.0619, -1.9441)) // Default coordinates
                 .build();
         
         CrimeMapResponse.CrimeProperties properties = convertToCrimeProperties(report);
@@ -451,6 +661,66 @@ public class CrimeMapServiceImpl implements CrimeMapService {
                 .build();
     }
     
+    /**
+     * Column-oriented encoding of the reports; reports without coordinates are left out
+     */
+    private CrimePointColumns toPointColumns(List<Report> reports) {
+        List<Report> located = reports.stream()
+                .filter(report -> report.getLocation() != null
+                        && report.getLocation().getLatitude() != null
+                        && report.getLocation().getLongitude() != null)
+                .collect(Collectors.toList());
+        int count = located.size();
+        int scale = CrimePointColumns.DEFAULT_COORDINATE_SCALE;
+        
+        List<String> ids = new ArrayList<>(count);
+        int[] latitudes = new int[count];
+        int[] longitudes = new int[count];
+        int[] crimeTypes = new int[count];
+        int[] statuses = new int[count];
+        int[] priorities = new int[count];
+        long[] occurredAt = new long[count];
+        long[] reportedAt = new long[count];
+        int[] riskScores = new int[count];
+        List<String> titles = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            Report report = located.get(i);
+            ids.add(report.getId().toString());
+            latitudes[i] = (int) Math.round(report.getLocation().getLatitude() * scale);
+            longitudes[i] = (int) Math.round(report.getLocation().getLongitude() * scale);
+            crimeTypes[i] = report.getCrimeType() != null ? report.getCrimeType().ordinal() : -1;
+            statuses[i] = report.getStatus() != null ? report.getStatus().ordinal() : -1;
+            priorities[i] = report.getPriority() != null ? report.getPriority().ordinal() : -1;
+            occurredAt[i] = report.getDate() != null ? report.getDate().getEpochSecond() : 0;
+            reportedAt[i] = report.getSubmittedAt() != null ? report.getSubmittedAt().getEpochSecond() : 0;
+            riskScores[i] = (int) Math.round(calculateRiskScore(report) * 100);
+            titles.add(report.getTitle());
+        }
+        
+        return CrimePointColumns.builder()
+                .count(count)
+                .coordinateScale(scale)
+                .crimeTypeNames(enumNames(CrimeType.values()))
+                .statusNames(enumNames(ReportStatus.values()))
+                .priorityNames(enumNames(Priority.values()))
+                .ids(ids)
+                .latitudes(latitudes)
+                .longitudes(longitudes)
+                .crimeTypes(crimeTypes)
+                .statuses(statuses)
+                .priorities(priorities)
+                .occurredAt(occurredAt)
+                .reportedAt(reportedAt)
+                .riskScores(riskScores)
+                .titles(titles)
+                .build();
+    }
+    
+    private static List<String> enumNames(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).collect(Collectors.toList());
+    }
+    
     private LiveIncidentResponse convertToLiveIncident(Report report) {
         // Get actual location coordinates
         Double latitude = -1.9441; // Default: Kigali
@@ -501,31 +771,24 @@ public class CrimeMapServiceImpl implements CrimeMapService {
                 .build();
     }
     
-    private double calculateCrimeWeight(List<Report> reports) {
-        // Calculate weight based on crime count and severity
-        double baseWeight = reports.size() * 0.1;
-        double severityBonus = reports.stream()
-                .mapToDouble(report -> getPriorityWeight(report.getPriority().name()))
-                .sum();
-        
-        return Math.min(baseWeight + severityBonus, 1.0);
+    private double calculateRiskScore(Report report) {
+        return calculateRiskScore(report.getPriority(), report.getStatus(), report.getCrimeType());
     }
     
-    private double calculateRiskScore(Report report) {
+    private double calculateRiskScore(Priority priority, ReportStatus status, CrimeType crimeType) {
         // Calculate risk score based on crime type, priority, and status
         double baseScore = 0.5;
         
         // Priority weight
-        baseScore += getPriorityWeight(report.getPriority().name());
+        baseScore += getPriorityWeight(priority != null ? priority.name() : "");
         
         // Status weight
-        if (report.getStatus().name().equals("PENDING")) {
+        if (status == ReportStatus.PENDING) {
             baseScore += 0.2;
         }
         
         // Crime type weight (simplified)
-        if (report.getCrimeType().name().equals("ASSAULT") || 
-            report.getCrimeType().name().equals("ROBBERY")) {
+        if (crimeType == CrimeType.ASSAULT || crimeType == CrimeType.ROBBERY) {
             baseScore += 0.3;
         }
         
@@ -559,61 +822,27 @@ public class CrimeMapServiceImpl implements CrimeMapService {
     }
     
     private CrimeMapResponse.MapStatistics generateMapStatistics(List<Report> reports) {
-        Map<String, Long> crimesByType = reports.stream()
-                .collect(Collectors.groupingBy(
-                    report -> report.getCrimeType().name(),
-                    Collectors.counting()));
-        
-        Map<String, Long> crimesByStatus = reports.stream()
-                .collect(Collectors.groupingBy(
-                    report -> report.getStatus().name(),
-                    Collectors.counting()));
-        
-        Map<String, Long> crimesByPriority = reports.stream()
-                .collect(Collectors.groupingBy(
-                    report -> report.getPriority().name(),
-                    Collectors.counting()));
-        
-        double averageRiskScore = reports.stream()
-                .mapToDouble(this::calculateRiskScore)
-                .average()
-                .orElse(0.5);
-        
-        String mostCommonCrimeType = crimesByType.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("Unknown");
-        
-        return CrimeMapResponse.MapStatistics.builder()
-                .totalCrimes((long) reports.size())
-                .resolvedCrimes(crimesByStatus.getOrDefault("RESOLVED", 0L))
-                .pendingCrimes(crimesByStatus.getOrDefault("PENDING", 0L))
-                .crimesByType(crimesByType)
-                .crimesByStatus(crimesByStatus)
-                .crimesByPriority(crimesByPriority)
-                .averageRiskScore(averageRiskScore)
-                .mostCommonCrimeType(mostCommonCrimeType)
-                .build();
+        return generateStatisticsFromPoints(reports.stream().map(ReportPoint::from).collect(Collectors.toList()));
     }
     
-    private CrimeMapResponse.MapStatistics generateStatisticsFromIncidents(List<LiveIncidentResponse> incidents) {
-        Map<String, Long> crimesByType = incidents.stream()
+    private CrimeMapResponse.MapStatistics generateStatisticsFromPoints(List<ReportPoint> points) {
+        Map<String, Long> crimesByType = points.stream()
                 .collect(Collectors.groupingBy(
-                    LiveIncidentResponse::getCrimeType,
+                    point -> point.getCrimeType() != null ? point.getCrimeType().name() : "OTHER",
                     Collectors.counting()));
         
-        Map<String, Long> crimesByStatus = incidents.stream()
+        Map<String, Long> crimesByStatus = points.stream()
                 .collect(Collectors.groupingBy(
-                    LiveIncidentResponse::getStatus,
+                    point -> point.getStatus() != null ? point.getStatus().name() : "PENDING",
                     Collectors.counting()));
         
-        Map<String, Long> crimesByPriority = incidents.stream()
+        Map<String, Long> crimesByPriority = points.stream()
                 .collect(Collectors.groupingBy(
-                    LiveIncidentResponse::getPriority,
+                    point -> point.getPriority() != null ? point.getPriority().name() : "NORMAL",
                     Collectors.counting()));
         
-        double averageRiskScore = incidents.stream()
-                .mapToDouble(LiveIncidentResponse::getRiskScore)
+        double averageRiskScore = points.stream()
+                .mapToDouble(point -> calculateRiskScore(point.getPriority(), point.getStatus(), point.getCrimeType()))
                 .average()
                 .orElse(0.5);
         
@@ -623,7 +852,7 @@ public class CrimeMapServiceImpl implements CrimeMapService {
                 .orElse("Unknown");
         
         return CrimeMapResponse.MapStatistics.builder()
-                .totalCrimes((long) incidents.size())
+                .totalCrimes((long) points.size())
                 .resolvedCrimes(crimesByStatus.getOrDefault("RESOLVED", 0L))
                 .pendingCrimes(crimesByStatus.getOrDefault("PENDING", 0L))
                 .crimesByType(crimesByType)
@@ -1,10 +1,10 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
+import com.crimeprevention.crime_backend.core.notification.EmailOutbox;
 import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
@@ -14,9 +14,9 @@ public class EmailServiceImpl implements EmailService {
 
     @Autowired(required = false)
     private JavaMailSender mailSender;
-    
-    @Value("${app.email.from:}")
-    private String fromEmail;
+
+    @Autowired
+    private EmailOutbox emailOutbox;
     
     @Value("${app.email.from-name:Crime Prevention System}")
     private String fromName;
@@ -32,22 +32,15 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Password Reset Request - Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("PASSWORD_RESET_LINK", to, "Password Reset Request - Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "You have requested a password reset for your account.\n\n" +
                 "Click the following link to reset your password:\n" +
                 resetLink + "\n\n" +
                 "This link will expire in 24 hours.\n\n" +
                 "If you didn't request this, please ignore this email.\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 Password reset email sent to {} for user {}", to, userName);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 Password reset email queued for {} for user {}", to, userName);
             
         } catch (Exception e) {
             log.error("Failed to send password reset email to {}: {}", to, e.getMessage());
@@ -66,22 +59,15 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Password Reset Code - Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("PASSWORD_RESET_CODE", to, "Password Reset Code - Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "You have requested a password reset for your account.\n\n" +
                 "Your verification code is: " + code + "\n\n" +
                 "Enter this code in the app to reset your password.\n\n" +
                 "This code will expire in 15 minutes.\n\n" +
                 "If you didn't request this, please ignore this email.\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 Password reset code sent to {} for user {}", to, userName);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 Password reset code queued for {} for user {}", to, userName);
             
         } catch (Exception e) {
             log.error("Failed to send password reset code to {}: {}", to, e.getMessage());
@@ -98,11 +84,7 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Welcome to Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("WELCOME", to, "Welcome to Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "Welcome to the Crime Prevention System!\n\n" +
                 "Your account has been created successfully. You can now:\n" +
@@ -111,11 +93,8 @@ public class EmailServiceImpl implements EmailService {
                 "- Communicate with law enforcement\n" +
                 "- Stay updated with community safety alerts\n\n" +
                 "Login to your account to get started.\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 Welcome email sent to {} for user {}", to, userName);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 Welcome email queued for {} for user {}", to, userName);
             
         } catch (Exception e) {
             log.error("Failed to send welcome email to {}: {}", to, e.getMessage());
@@ -132,21 +111,14 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Account Updated - Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("ACCOUNT_UPDATE", to, "Account Updated - Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "Your account has been updated successfully.\n\n" +
                 "Update Details:\n" +
                 "- " + updateType + " has been modified\n\n" +
                 "If you didn't make this change, please contact support immediately.\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 Account update email sent to {} for user {}: {}", to, userName, updateType);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 Account update email queued for {} for user {}: {}", to, userName, updateType);
             
         } catch (Exception e) {
             log.error("Failed to send account update email to {}: {}", to, e.getMessage());
@@ -162,19 +134,12 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Password Changed - Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("PASSWORD_CHANGE", to, "Password Changed - Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "Your password has been changed successfully.\n\n" +
                 "If you didn't make this change, please contact support immediately.\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 Password change email sent to {} for user {}", to, userName);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 Password change email queued for {} for user {}", to, userName);
             
         } catch (Exception e) {
             log.error("Failed to send password change email to {}: {}", to, e.getMessage());
@@ -190,21 +155,14 @@ public class EmailServiceImpl implements EmailService {
         }
         
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("News Update: " + newsTitle + " - Crime Prevention System");
-            message.setText(
+            emailOutbox.enqueue("NEWS", to, "News Update: " + newsTitle + " - Crime Prevention System",
                 "Hello " + userName + ",\n\n" +
                 "You have a new news update from the Crime Prevention System.\n\n" +
                 "Title: " + newsTitle + "\n\n" +
                 "Content:\n" + newsContent + "\n\n" +
                 "Stay informed and stay safe!\n\n" +
-                "Best regards,\nCrime Prevention Team"
-            );
-            
-            mailSender.send(message);
-            log.info("📧 News notification email sent to {} for user {}: {}", to, userName, newsTitle);
+                "Best regards,\nCrime Prevention Team");
+            log.info("📧 News notification email queued for {} for user {}: {}", to, userName, newsTitle);
             
         } catch (Exception e) {
             log.error("Failed to send news notification email to {}: {}", to, e.getMessage());
@@ -2,6 +2,9 @@ package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.emergency.EmergencyRequest;
 import com.crimeprevention.crime_backend.core.dto.emergency.EmergencyResponse;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
 import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
 import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
 import com.crimeprevention.crime_backend.core.model.enums.Priority;
@@ -11,8 +14,11 @@ import com.crimeprevention.crime_backend.core.model.user.Officer;
 import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
 import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.EmergencyService;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,8 +26,9 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -31,10 +38,17 @@ public class EmergencyServiceImpl implements EmergencyService {
 
     private final ReportRepository reportRepository;
     private final OfficerRepository officerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OfficerLocationRegistry officerLocationRegistry;
     
     // Average police vehicle speed in km/h (urban area)
     private static final double AVERAGE_POLICE_SPEED_KMH = 40.0;
     
+    private static final Set<DutyStatus> DISPATCHABLE_STATUSES = EnumSet.of(DutyStatus.AVAILABLE);
+    
+    @Value("${app.emergency.dispatch-radius-km:50}")
+    private double dispatchRadiusKm;
+    
     @Override
     @Transactional
     public EmergencyResponse createEmergencyRequest(UUID userId, EmergencyRequest request) {
@@ -64,12 +78,16 @@ public class EmergencyServiceImpl implements EmergencyService {
             .build();
         
         emergencyReport = reportRepository.save(emergencyReport);
+        eventPublisher.publishEvent(ReportChangedEvent.created(emergencyReport));
         
-        // Calculate ETA
-        EmergencyResponse etaResponse = calculatePoliceETA(request.getLatitude(), request.getLongitude());
+        // One nearest-officer lookup serves both the ETA and the assignment
+        OfficerPosition nearestPosition = findNearestAvailableOfficer(request.getLatitude(), request.getLongitude());
+        EmergencyResponse etaResponse = calculatePoliceETA(request.getLatitude(), request.getLongitude(), nearestPosition);
         
         // Try to assign nearest available officer
-        Officer nearestOfficer = findNearestAvailableOfficer(request.getLatitude(), request.getLongitude());
+        Officer nearestOfficer = nearestPosition != null
+            ? officerRepository.findById(nearestPosition.getOfficerId()).orElse(null)
+            : null;
         
         EmergencyResponse response = EmergencyResponse.builder()
             .emergencyId(emergencyReport.getId())
@@ -133,27 +151,22 @@ public class EmergencyServiceImpl implements EmergencyService {
     }
     
     /**
-     * Calculate police ETA based on nearest available officers
+     * Calculate police ETA based on the nearest available officer
      */
     private EmergencyResponse calculatePoliceETA(Double latitude, Double longitude) {
-        // Find available officers
-        List<Officer> availableOfficers = officerRepository.findByDutyStatus(DutyStatus.AVAILABLE);
-        
-        if (availableOfficers.isEmpty()) {
-            // No available officers - use default ETA
-            return EmergencyResponse.builder()
-                .etaMinutes(15)
-                .etaMin(12)
-                .etaMax(18)
-                .build();
-        }
-        
-        // Find nearest officer
-        Officer nearestOfficer = findNearestAvailableOfficer(latitude, longitude);
-        
-        if (nearestOfficer == null || nearestOfficer.getLocation() == null ||
-            nearestOfficer.getLocation().getLatitude() == null ||
-            nearestOfficer.getLocation().getLongitude() == null) {
+        return calculatePoliceETA(latitude, longitude, findNearestAvailableOfficer(latitude, longitude));
+    }
+    
+    private EmergencyResponse calculatePoliceETA(Double latitude, Double longitude, OfficerPosition nearestOfficer) {
+        if (nearestOfficer == null) {
+            if (!officerLocationRegistry.anyInStatus(DISPATCHABLE_STATUSES)) {
+                // No available officers - use default ETA
+                return EmergencyResponse.builder()
+                    .etaMinutes(15)
+                    .etaMin(12)
+                    .etaMax(18)
+                    .build();
+            }
             // Officer location unknown - use default ETA
             return EmergencyResponse.builder()
                 .etaMinutes(10)
@@ -163,10 +176,10 @@ public class EmergencyServiceImpl implements EmergencyService {
         }
         
         // Calculate distance
-        double distanceKm = calculateDistance(
+        double distanceKm = GeoUtils.haversineKm(
             latitude, longitude,
-            nearestOfficer.getLocation().getLatitude(),
-            nearestOfficer.getLocation().getLongitude()
+            nearestOfficer.getLatitude(),
+            nearestOfficer.getLongitude()
         );
         
         // Calculate ETA (distance / speed * 60 minutes)
@@ -185,47 +198,15 @@ public class EmergencyServiceImpl implements EmergencyService {
     }
     
     /**
-     * Find nearest available officer to emergency location
+     * Nearest located, available officer from the live registry; searches the dispatch radius first and
+     * only scans every officer when nobody is inside it, so a remote emergency still gets someone
      */
-    private Officer findNearestAvailableOfficer(Double latitude, Double longitude) {
-        List<Officer> availableOfficers = officerRepository.findByDutyStatus(DutyStatus.AVAILABLE);
-        
-        if (availableOfficers.isEmpty()) {
-            return null;
+    private OfficerPosition findNearestAvailableOfficer(Double latitude, Double longitude) {
+        List<OfficerPosition> nearest = officerLocationRegistry.findNearest(
+            latitude, longitude, 1, dispatchRadiusKm, DISPATCHABLE_STATUSES);
+        if (!nearest.isEmpty()) {
+            return nearest.get(0);
         }
-        
-        return availableOfficers.stream()
-            .filter(officer -> officer.getLocation() != null &&
-                             officer.getLocation().getLatitude() != null &&
-                             officer.getLocation().getLongitude() != null)
-            .min(Comparator.comparingDouble(officer -> {
-                double distance = calculateDistance(
-                    latitude, longitude,
-                    officer.getLocation().getLatitude(),
-                    officer.getLocation().getLongitude()
-                );
-                return distance;
-            }))
-            .orElse(null);
-    }
-    
-    /**
-     * Calculate distance between two coordinates using Haversine formula
-     * Returns distance in kilometers
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c;
+        return officerLocationRegistry.findNearestAnywhere(latitude, longitude, DISPATCHABLE_STATUSES).orElse(null);
     }
 }
-
@@ -0,0 +1,188 @@
+package com.crimeprevention.crime_backend.core.service.impl;
+
+import com.crimeprevention.crime_backend.core.geo.ReverseGeocodeException;
+import com.crimeprevention.crime_backend.core.geo.ReverseGeocoder;
+import com.crimeprevention.crime_backend.core.model.location.GeocodeCacheEntry;
+import com.crimeprevention.crime_backend.core.repo.location.GeocodeCacheEntryRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.GeocodingService;
+import com.crimeprevention.crime_backend.core.util.AsyncCaches;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reverse geocoding behind two cache tiers.
+ * Coordinates are quantised to a ~10 m cell and the cell centre is what gets looked up, so every
+ * tap inside a cell shares one result. Misses check the geocode_cache table before calling the
+ * upstream; identical misses in flight share one lookup, and at most max-concurrent upstream
+ * calls run at once to respect the provider's rate limit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeocodingServiceImpl implements GeocodingService {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final ReverseGeocoder reverseGeocoder;
+    private final GeocodeCacheEntryRepository geocodeCacheEntryRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // 1e4 steps per degree: ~11 m of latitude, at most ~11 m of longitude
+    @Value("${app.geocoding.cells-per-degree:10000}")
+    private int cellsPerDegree;
+
+    @Value("${app.geocoding.memory.max-entries:50000}")
+    private long memoryMaxEntries;
+
+    @Value("${app.geocoding.memory.ttl-hours:24}")
+    private long memoryTtlHours;
+
+    @Value("${app.geocoding.persisted-ttl-days:30}")
+    private long persistedTtlDays;
+
+    @Value("${app.geocoding.upstream.max-concurrent:2}")
+    private int upstreamMaxConcurrent;
+
+    @Value("${app.geocoding.upstream.acquire-timeout-ms:5000}")
+    private long upstreamAcquireTimeoutMs;
+
+    private AsyncCache<String, Map<String, Object>> memory;
+    private Semaphore upstreamPermits;
+
+    private Counter memoryHits;
+    private Counter databaseHits;
+    private Counter upstreamLookups;
+    private Timer upstreamTimer;
+
+    @PostConstruct
+    void init() {
+        memory = Caffeine.newBuilder()
+                .maximumSize(memoryMaxEntries)
+                .expireAfterWrite(Duration.ofHours(memoryTtlHours))
+                .recordStats()
+                .buildAsync();
+        upstreamPermits = new Semaphore(upstreamMaxConcurrent, true);
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "geocoding.reverse");
+
+        memoryHits = lookups("memory");
+        databaseHits = lookups("database");
+        upstreamLookups = lookups("upstream");
+        upstreamTimer = Timer.builder("geocoding.upstream")
+                .description("Latency of upstream reverse geocoding calls")
+                .register(meterRegistry);
+        Gauge.builder("geocoding.reverse.hit.ratio", this, GeocodingServiceImpl::hitRatio)
+                .description("Share of reverse geocoding lookups answered without calling the upstream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Object> reverseGeocode(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+        long row = Math.round(latitude * cellsPerDegree);
+        long col = Math.round(longitude * cellsPerDegree);
+        String cellKey = row + ":" + col;
+
+        Map<String, Object> cached = memory.synchronous().getIfPresent(cellKey);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        return AsyncCaches.getOrCompute(memory, cellKey,
+                () -> load(cellKey, (double) row / cellsPerDegree, (double) col / cellsPerDegree));
+    }
+
+    private Map<String, Object> load(String cellKey, double latitude, double longitude) {
+        Optional<Map<String, Object>> persisted = readPersisted(cellKey);
+        if (persisted.isPresent()) {
+            databaseHits.increment();
+            return persisted.get();
+        }
+
+        Map<String, Object> result = callUpstream(latitude, longitude);
+        upstreamLookups.increment();
+        persist(cellKey, result);
+        return result;
+    }
+
+    private Map<String, Object> callUpstream(double latitude, double longitude) {
+        try {
+            if (!upstreamPermits.tryAcquire(upstreamAcquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ReverseGeocodeException(503, "Reverse geocoding is busy, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReverseGeocodeException(503, "Interrupted while waiting for reverse geocoding", e);
+        }
+        try {
+            return Collections.unmodifiableMap(upstreamTimer.record(() -> reverseGeocoder.reverse(latitude, longitude)));
+        } finally {
+            upstreamPermits.release();
+        }
+    }
+
+    // The persisted tier is best effort: failures fall through to the upstream
+    private Optional<Map<String, Object>> readPersisted(String cellKey) {
+        try {
+            Instant oldest = Instant.now().minus(Duration.ofDays(persistedTtlDays));
+            Optional<GeocodeCacheEntry> entry = geocodeCacheEntryRepository.findById(cellKey)
+                    .filter(e -> e.getFetchedAt().isAfter(oldest));
+            if (entry.isPresent()) {
+                return Optional.of(Collections.unmodifiableMap(objectMapper.readValue(entry.get().getPayload(), JSON_OBJECT)));
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to read persisted geocode for {}: {}", cellKey, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void persist(String cellKey, Map<String, Object> result) {
+        try {
+            geocodeCacheEntryRepository.save(GeocodeCacheEntry.builder()
+                    .cellKey(cellKey)
+                    .payload(objectMapper.writeValueAsString(result))
+                    .fetchedAt(Instant.now())
+                    .build());
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to persist geocode for {}: {}", cellKey, e.getMessage());
+        }
+    }
+
+    private Counter lookups(String tier) {
+        return Counter.builder("geocoding.reverse.lookups")
+                .description("Reverse geocoding lookups by the tier that answered them")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + databaseHits.count();
+        double total = hits + upstreamLookups.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
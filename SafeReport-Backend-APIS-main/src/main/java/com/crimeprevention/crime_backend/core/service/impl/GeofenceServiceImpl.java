@@ -0,0 +1,181 @@
+package com.crimeprevention.crime_backend.core.service.impl;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceRequest;
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceResponse;
+import com.crimeprevention.crime_backend.core.event.GeofenceChangedEvent;
+import com.crimeprevention.crime_backend.core.exception.ResourceNotFoundException;
+import com.crimeprevention.crime_backend.core.exception.UnauthorizedException;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceType;
+import com.crimeprevention.crime_backend.core.model.location.Geofence;
+import com.crimeprevention.crime_backend.core.model.location.Location;
+import com.crimeprevention.crime_backend.core.repo.chat.WatchGroupMemberRepository;
+import com.crimeprevention.crime_backend.core.repo.location.GeofenceRepository;
+import com.crimeprevention.crime_backend.core.repo.location.LocationRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.GeofenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceServiceImpl implements GeofenceService {
+
+    private final GeofenceRepository geofenceRepository;
+    private final LocationRepository locationRepository;
+    private final WatchGroupMemberRepository watchGroupMemberRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.geofences.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${app.geofences.max-vertices:100}")
+    private int maxVertices;
+
+    @Value("${app.geofences.max-per-owner:20}")
+    private int maxPerOwner;
+
+    @Override
+    @Transactional
+    public GeofenceResponse createGeofence(UUID userId, GeofenceRequest request) {
+        GeofenceOwnerType ownerType = GeofenceOwnerType.USER;
+        UUID ownerId = userId;
+        if (request.getWatchGroupId() != null) {
+            requireGroupAdmin(userId, request.getWatchGroupId());
+            ownerType = GeofenceOwnerType.WATCH_GROUP;
+            ownerId = request.getWatchGroupId();
+        }
+        if (geofenceRepository.countByOwnerTypeAndOwnerIdAndActiveTrue(ownerType, ownerId) >= maxPerOwner) {
+            throw new IllegalArgumentException("At most " + maxPerOwner + " geofences are allowed");
+        }
+
+        Instant now = Instant.now();
+        Geofence geofence = Geofence.builder()
+                .ownerType(ownerType)
+                .ownerId(ownerId)
+                .createdBy(userId)
+                .name(request.getName().trim())
+                .type(request.getType())
+                .build();
+        geofence.setCreatedAt(now);
+        geofence.setUpdatedAt(now);
+        if (request.getType() == GeofenceType.CIRCLE) {
+            applyCircle(geofence, request);
+        } else {
+            applyPolygon(geofence, request);
+        }
+
+        geofence = geofenceRepository.save(geofence);
+        eventPublisher.publishEvent(GeofenceChangedEvent.saved(geofence));
+        log.info("Created {} geofence {} for {} {}", geofence.getType(), geofence.getId(), ownerType, ownerId);
+        return toResponse(geofence);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GeofenceResponse> getUserGeofences(UUID userId) {
+        return geofenceRepository.findByOwnerTypeAndOwnerIdAndActiveTrue(GeofenceOwnerType.USER, userId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GeofenceResponse> getWatchGroupGeofences(UUID userId, UUID watchGroupId) {
+        if (!watchGroupMemberRepository.existsByUserIdAndGroupIdAndIsActiveTrue(userId, watchGroupId)) {
+            throw new UnauthorizedException("Only watch group members can view its geofences");
+        }
+        return geofenceRepository.findByOwnerTypeAndOwnerIdAndActiveTrue(GeofenceOwnerType.WATCH_GROUP, watchGroupId)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void deleteGeofence(UUID userId, UUID geofenceId) {
+        Geofence geofence = geofenceRepository.findById(geofenceId)
+                .filter(Geofence::isActive)
+                .orElseThrow(() -> new ResourceNotFoundException("Geofence not found"));
+        if (geofence.getOwnerType() == GeofenceOwnerType.WATCH_GROUP) {
+            requireGroupAdmin(userId, geofence.getOwnerId());
+        } else if (!geofence.getOwnerId().equals(userId)) {
+            throw new UnauthorizedException("You can only delete your own geofences");
+        }
+        geofence.setActive(false);
+        geofence.setUpdatedAt(Instant.now());
+        geofenceRepository.save(geofence);
+        eventPublisher.publishEvent(GeofenceChangedEvent.deleted(geofenceId));
+    }
+
+    private void requireGroupAdmin(UUID userId, UUID watchGroupId) {
+        if (!watchGroupMemberRepository.existsByUserIdAndGroupIdAndIsAdminTrueAndIsActiveTrue(userId, watchGroupId)) {
+            throw new UnauthorizedException("Only watch group admins can manage its geofences");
+        }
+    }
+
+    private void applyCircle(Geofence geofence, GeofenceRequest request) {
+        Double radiusKm = request.getRadiusKm();
+        if (radiusKm == null || radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + maxRadiusKm + " km");
+        }
+        if (request.getLocationId() != null) {
+            Location location = locationRepository.findById(request.getLocationId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+            geofence.setLocation(location);
+            geofence.setCenterLatitude(location.getLatitude());
+            geofence.setCenterLongitude(location.getLongitude());
+        } else if (request.getCenterLatitude() != null && request.getCenterLongitude() != null) {
+            requireCoordinates(request.getCenterLatitude(), request.getCenterLongitude());
+            geofence.setCenterLatitude(request.getCenterLatitude());
+            geofence.setCenterLongitude(request.getCenterLongitude());
+        } else {
+            throw new IllegalArgumentException("A circle needs a location ID or a centre");
+        }
+        geofence.setRadiusKm(radiusKm);
+    }
+
+    private void applyPolygon(Geofence geofence, GeofenceRequest request) {
+        List<GeofenceRequest.VertexDTO> vertices = request.getVertices();
+        if (vertices == null || vertices.size() < 3 || vertices.size() > maxVertices) {
+            throw new IllegalArgumentException("A polygon needs between 3 and " + maxVertices + " vertices");
+        }
+        for (GeofenceRequest.VertexDTO vertex : vertices) {
+            requireCoordinates(vertex.getLatitude(), vertex.getLongitude());
+            geofence.getVertices().add(new Geofence.Vertex(vertex.getLatitude(), vertex.getLongitude()));
+        }
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+    }
+
+    private GeofenceResponse toResponse(Geofence geofence) {
+        return GeofenceResponse.builder()
+                .id(geofence.getId())
+                .name(geofence.getName())
+                .type(geofence.getType().name())
+                .ownerType(geofence.getOwnerType().name())
+                .ownerId(geofence.getOwnerId())
+                .locationId(geofence.getLocation() != null ? geofence.getLocation().getId() : null)
+                .centerLatitude(geofence.getCenterLatitude())
+                .centerLongitude(geofence.getCenterLongitude())
+                .radiusKm(geofence.getRadiusKm())
+                .vertices(geofence.getVertices().stream()
+                        .map(vertex -> new GeofenceRequest.VertexDTO(vertex.getLatitude(), vertex.getLongitude()))
+                        .collect(Collectors.toList()))
+                .createdAt(geofence.getCreatedAt())
+                .build();
+    }
+}
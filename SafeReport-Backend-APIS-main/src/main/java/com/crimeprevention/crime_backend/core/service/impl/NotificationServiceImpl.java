@@ -1,34 +1,54 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationCatchUpResponse;
 import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import com.crimeprevention.crime_backend.core.event.NotificationCreatedEvent;
+import com.crimeprevention.crime_backend.core.event.NotificationFanOutEvent;
 import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
 import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
 import com.crimeprevention.crime_backend.core.model.notification.Notification;
 import com.crimeprevention.crime_backend.core.model.user.User;
 import com.crimeprevention.crime_backend.core.repo.notification.NotificationRepository;
 import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
+import com.crimeprevention.crime_backend.core.notification.NotificationContent;
+import com.crimeprevention.crime_backend.core.notification.NotificationCursor;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
 import com.crimeprevention.crime_backend.core.service.interfaces.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import com.crimeprevention.crime_backend.core.model.enums.UserRole;
-import java.util.Arrays;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final List<UserRole> OFFICER_ROLES = List.of(UserRole.OFFICER, UserRole.ADMIN);
+    private static final int MAX_CATCH_UP_LIMIT = 200;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final UnreadNotificationCounters unreadCounters;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.notifications.catch-up.overlap-ms:10000}")
+    private long catchUpOverlapMs;
 
     @Override
     @Transactional(readOnly = true)
@@ -49,14 +69,51 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public long getUnreadNotificationCount(UUID userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounters.unreadCount(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationCatchUpResponse getNotificationsSince(UUID userId, String cursor, int limit) {
+        // Without a cursor (first connect) catch-up starts now, so only the overlap window is sent
+        NotificationCursor after = cursor != null
+                ? NotificationCursor.decode(cursor)
+                : new NotificationCursor(NotificationCursor.now(), new UUID(0, 0));
+        String currentCursor = cursor != null ? cursor : after.encode();
+        int pageSize = Math.max(1, Math.min(limit, MAX_CATCH_UP_LIMIT));
+        // Creation times are stamped before commit, so a row can become visible after a newer one
+        // was already delivered. Rows up to the overlap behind the cursor are sent again and the
+        // client skips the ids it has.
+        List<Notification> overlap = new ArrayList<>(notificationRepository.findByUserIdBeforeCursorSince(
+                userId, after.getCreatedAt().minusMillis(catchUpOverlapMs), after.getCreatedAt(), after.getId(),
+                PageRequest.of(0, pageSize)));
+        Collections.reverse(overlap);
+        // One extra row tells whether another page follows
+        List<Notification> notifications = notificationRepository.findByUserIdAfterCursor(
+                userId, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> forward = notifications.subList(0, Math.min(pageSize, notifications.size()));
+
+        Map<UUID, NotificationResponse> page = new LinkedHashMap<>();
+        overlap.forEach(notification -> page.put(notification.getId(), buildNotificationResponse(notification)));
+        forward.forEach(notification -> page.putIfAbsent(notification.getId(), buildNotificationResponse(notification)));
+        // The next cursor only moves forward, so repeated overlap rows cannot stall paging
+        String nextCursor = forward.isEmpty() ? currentCursor : NotificationCursor.encode(
+                forward.get(forward.size() - 1).getCreatedAt(), forward.get(forward.size() - 1).getId());
+        return NotificationCatchUpResponse.builder()
+                .notifications(new ArrayList<>(page.values()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .unreadCount(getUnreadNotificationCount(userId))
+                .build();
     }
 
     @Override
     @Transactional
     public void markNotificationsAsRead(UUID userId, List<UUID> notificationIds) {
-        notificationRepository.markNotificationsAsRead(notificationIds, Instant.now());
-        log.info("Marked {} notifications as read for user: {}", notificationIds.size(), userId);
+        int marked = notificationRepository.markUnreadNotificationsAsRead(userId, notificationIds, Instant.now());
+        unreadCounters.adjust(userId, -marked);
+        log.info("Marked {} notifications as read for user: {}", marked, userId);
     }
 
     @Override
@@ -76,6 +133,9 @@ public class NotificationServiceImpl implements NotificationService {
         }
         
         notificationRepository.delete(notification);
+        if (!notification.isRead()) {
+            unreadCounters.adjust(userId, -1);
+        }
         log.info("Deleted notification: {} for user: {}", notificationId, userId);
     }
 
@@ -481,55 +541,59 @@ public class NotificationServiceImpl implements NotificationService {
     
     @Override
     public void notifyAllOfficersOfPredictiveAlert(String location, String crimeType, double probability, String riskLevel, List<String> recommendations) {
-        // Get all police officers and admins
-        List<User> officers = userRepository.findByRoleIn(Arrays.asList(UserRole.OFFICER, UserRole.ADMIN));
+        String message = String.format("Predictive Alert: %s crime predicted in %s with %.1f%% probability. Risk Level: %s. Recommendations: %s", 
+            crimeType, location, probability * 100, riskLevel, String.join(", ", recommendations));
         
-        for (User officer : officers) {
-            if (officer.isActive()) {
-                notifyPredictiveAlert(officer.getId(), location, crimeType, probability, riskLevel, recommendations);
-            }
-        }
+        notifyAllOfficers(NotificationContent.builder()
+                .type(NotificationType.PREDICTIVE_ALERT)
+                .title("Crime Prediction Alert")
+                .message(message)
+                .priority(determinePriorityFromRiskLevel(riskLevel))
+                .actionUrl("/ai/predictions")
+                .relatedEntityType("AI_SYSTEM")
+                .build());
         
-        log.info("Sent predictive alert to {} officers for location: {}", officers.size(), location);
+        log.info("Queued predictive alert to officers for location: {}", location);
     }
     
     @Override
     public void notifyDistrictOfficersOfHotspot(String district, String description, double riskScore, List<String> suggestedActions) {
-        // Get all police officers and admins
-        List<User> officers = userRepository.findByRoleIn(Arrays.asList(UserRole.OFFICER, UserRole.ADMIN));
+        String message = String.format("Hotspot Alert: %s identified in %s. Risk Score: %.2f. Suggested Actions: %s", 
+            description, district, riskScore, String.join(", ", suggestedActions));
         
-        for (User officer : officers) {
-            if (officer.isActive()) {
-                notifyCrimeHotspotAlert(officer.getId(), district, description, riskScore, suggestedActions);
-            }
-        }
+        notifyAllOfficers(NotificationContent.builder()
+                .type(NotificationType.CRIME_HOTSPOT_ALERT)
+                .title("Crime Hotspot Detected")
+                .message(message)
+                .priority(determinePriorityFromRiskScore(riskScore))
+                .actionUrl("/ai/patterns")
+                .relatedEntityType("AI_SYSTEM")
+                .build());
         
-        log.info("Sent hotspot alert to {} officers for district: {}", officers.size(), district);
+        log.info("Queued hotspot alert to officers for district: {}", district);
     }
     
     // Anomaly Detection Alerts
     @Override
     public void notifyAllOfficersOfAnomalyDetection(String riskLevel, int anomaliesDetected, List<String> keyInsights) {
-        // Get all police officers and admins
-        List<User> officers = userRepository.findByRoleIn(Arrays.asList(UserRole.OFFICER, UserRole.ADMIN));
+        String message = String.format("Anomaly Detection Alert: %d anomalies detected with %s risk level. Key Insights: %s", 
+            anomaliesDetected, riskLevel, String.join(", ", keyInsights));
         
-        for (User officer : officers) {
-            if (officer.isActive()) {
-                NotificationPriority priority = determinePriorityFromRiskLevel(riskLevel);
-                String message = String.format("Anomaly Detection Alert: %d anomalies detected with %s risk level. Key Insights: %s", 
-                    anomaliesDetected, riskLevel, String.join(", ", keyInsights));
-                
-                createNotification(officer.getId(), NotificationType.PATTERN_DETECTION_ALERT, 
-                    "Anomaly Detection Alert", 
-                    message, 
-                    priority, 
-                    "/ai/anomalies", 
-                    "AI_SYSTEM", 
-                    null);
-            }
-        }
+        notifyAllOfficers(NotificationContent.builder()
+                .type(NotificationType.PATTERN_DETECTION_ALERT)
+                .title("Anomaly Detection Alert")
+                .message(message)
+                .priority(determinePriorityFromRiskLevel(riskLevel))
+                .actionUrl("/ai/anomalies")
+                .relatedEntityType("AI_SYSTEM")
+                .build());
         
-        log.info("Sent anomaly detection alert to {} officers for {} risk level", officers.size(), riskLevel);
+        log.info("Queued anomaly detection alert to officers for {} risk level", riskLevel);
+    }
+    
+    // Every active officer and admin, written in batches by NotificationFanOut after commit
+    private void notifyAllOfficers(NotificationContent content) {
+        eventPublisher.publishEvent(NotificationFanOutEvent.toActiveUsersWithRoles(OFFICER_ROLES, content));
     }
     
     @Override
@@ -649,7 +713,7 @@ public class NotificationServiceImpl implements NotificationService {
                 return;
             }
 
-            Instant now = Instant.now();
+            Instant now = NotificationCursor.now();
             Notification notification = Notification.builder()
                     .user(user)
                     .type(type)
@@ -666,7 +730,9 @@ public class NotificationServiceImpl implements NotificationService {
             notification.setCreatedAt(now);
             notification.setUpdatedAt(now);
 
-            notificationRepository.save(notification);
+            notification = notificationRepository.save(notification);
+            unreadCounters.adjust(userId, 1);
+            eventPublisher.publishEvent(new NotificationCreatedEvent(userId, buildNotificationResponse(notification)));
             log.info("Created notification for user {}: {}", userId, title);
         } catch (Exception e) {
             log.error("Error creating notification for user {}: {}", userId, e.getMessage(), e);
@@ -689,6 +755,7 @@ public class NotificationServiceImpl implements NotificationService {
                 .metadata(notification.getMetadata())
                 .createdAt(notification.getCreatedAt())
                 .updatedAt(notification.getUpdatedAt())
+                .cursor(NotificationCursor.encode(notification.getCreatedAt(), notification.getId()))
                 .build();
     }
 }
@@ -1,8 +1,8 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.officer.*;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
 import com.crimeprevention.crime_backend.core.mapper.OfficerMapper;
-import com.crimeprevention.crime_backend.core.model.user.Officer;
 import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.OfficerOperationsService;
 import lombok.RequiredArgsConstructor;
@@ -19,17 +19,12 @@ import java.util.UUID;
 public class OfficerOperationsServiceImpl implements OfficerOperationsService {
     private final OfficerRepository officerRepository;
     private final OfficerMapper officerMapper;
+    private final OfficerLocationRegistry officerLocationRegistry;
 
     @Override
-    @Transactional
     public void updateOfficerLocation(UUID officerId, LocationUpdateDTO location) {
-        Officer officer = officerRepository.findById(officerId)
-            .orElseThrow(() -> new RuntimeException("Officer not found"));
-        officer.setLocation(Officer.Location.builder()
-            .latitude(location.getLat())
-            .longitude(location.getLng())
-            .build());
-        officerRepository.save(officer);
+        // Held in memory and written behind in batches
+        officerLocationRegistry.updateLocation(officerId, location.getLat(), location.getLng());
     }
 
     @Override
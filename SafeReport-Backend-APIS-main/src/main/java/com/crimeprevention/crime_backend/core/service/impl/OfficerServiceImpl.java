@@ -5,7 +5,12 @@ import com.crimeprevention.crime_backend.core.dto.user.RegisterOfficerRequest;
 import com.crimeprevention.crime_backend.core.dto.message.CreateMessageRequest;
 import com.crimeprevention.crime_backend.core.dto.message.MessageResponse;
 import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import com.crimeprevention.crime_backend.core.event.OfficerDutyStatusChangedEvent;
+import com.crimeprevention.crime_backend.core.event.UserChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
 import com.crimeprevention.crime_backend.core.mapper.OfficerMapper;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
 import com.crimeprevention.crime_backend.core.model.user.Officer;
 import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.OfficerService;
@@ -13,13 +18,21 @@ import com.crimeprevention.crime_backend.core.service.interfaces.NotificationSer
 import com.crimeprevention.crime_backend.core.service.interfaces.MessageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +44,16 @@ public class OfficerServiceImpl implements OfficerService {
     private final MessageService messageService;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
     private final com.crimeprevention.crime_backend.core.service.interfaces.EmailService emailService;
+    private final OfficerLocationRegistry officerLocationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final Set<DutyStatus> BACKUP_STATUSES = EnumSet.of(DutyStatus.ON_DUTY, DutyStatus.AVAILABLE);
+
+    @Value("${app.officers.backup.radius-km:10}")
+    private double backupRadiusKm;
+
+    @Value("${app.officers.backup.max-officers:20}")
+    private int backupMaxOfficers;
 
     @Override
     @Transactional
@@ -52,6 +75,7 @@ public class OfficerServiceImpl implements OfficerService {
             .build();
         
         officer = officerRepository.save(officer);
+        eventPublisher.publishEvent(new OfficerDutyStatusChangedEvent(officer.getId(), officer.getDutyStatus()));
         System.out.println("✅ Officer created successfully with ID: " + officer.getId());
         
         // Try to send welcome email, but don't fail if email service is down
@@ -70,14 +94,16 @@ public class OfficerServiceImpl implements OfficerService {
     public OfficerDTO getOfficerById(UUID id) {
         Officer officer = officerRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Officer not found"));
-        return officerMapper.toDto(officer);
+        return withLiveLocation(officerMapper.toDto(officer));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OfficerDTO> getAllOfficers() {
         List<Officer> officers = officerRepository.findAll();
-        return officerMapper.toDtoList(officers);
+        List<OfficerDTO> dtos = officerMapper.toDtoList(officers);
+        dtos.forEach(this::withLiveLocation);
+        return dtos;
     }
 
     @Override
@@ -85,10 +111,19 @@ public class OfficerServiceImpl implements OfficerService {
     public OfficerDTO updateOfficer(UUID id, UpdateOfficerRequest request) {
         Officer officer = officerRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Officer not found"));
-        officer.setFullName(request.getFullName());
-        officer.setPhoneNumber(request.getPhoneNumber());
+        // Partial update: the duty status endpoint only sends dutyStatus
+        if (request.getFullName() != null) {
+            officer.setFullName(request.getFullName());
+        }
+        if (request.getPhoneNumber() != null) {
+            officer.setPhoneNumber(request.getPhoneNumber());
+        }
+        if (request.getDutyStatus() != null) {
+            officer.setDutyStatus(request.getDutyStatus());
+        }
         officer = officerRepository.save(officer);
-        return officerMapper.toDto(officer);
+        eventPublisher.publishEvent(new OfficerDutyStatusChangedEvent(officer.getId(), officer.getDutyStatus()));
+        return withLiveLocation(officerMapper.toDto(officer));
     }
 
     @Override
@@ -98,18 +133,13 @@ public class OfficerServiceImpl implements OfficerService {
             .orElseThrow(() -> new RuntimeException("Officer not found"));
         officer.setActive(false);
         officerRepository.save(officer);
+        eventPublisher.publishEvent(new UserChangedEvent(officer.getId()));
     }
 
     @Override
-    @Transactional
-    public void updateOfficerLocation(UUID officerId, LocationUpdateDTO location) {
-        Officer officer = officerRepository.findById(officerId)
-            .orElseThrow(() -> new RuntimeException("Officer not found"));
-        officer.setLocation(Officer.Location.builder()
-            .latitude(location.getLat())
-            .longitude(location.getLng())
-            .build());
-        officerRepository.save(officer);
+    public OfficerPosition updateOfficerLocation(UUID officerId, LocationUpdateDTO location) {
+        // Held in memory and written behind in batches
+        return officerLocationRegistry.updateLocation(officerId, location.getLat(), location.getLng());
     }
 
     @Override
@@ -155,9 +185,21 @@ public class OfficerServiceImpl implements OfficerService {
     @Override
     @Transactional(readOnly = true)
     public List<OfficerDTO> getAvailableOfficersForBackup(BackupRequestDTO.LocationDTO location) {
-        // Find all available officers (simplified - in production, filter by location)
-        List<Officer> allOfficers = officerRepository.findAll();
-        return officerMapper.toDtoList(allOfficers);
+        if (location == null) {
+            return List.of();
+        }
+        // Nearest on-duty officers from the live registry, closest first
+        List<OfficerPosition> nearest = officerLocationRegistry.findNearest(
+            location.getLatitude(), location.getLongitude(), backupMaxOfficers, backupRadiusKm, BACKUP_STATUSES);
+        Map<UUID, Officer> officers = officerRepository.findAllById(
+                nearest.stream().map(OfficerPosition::getOfficerId).collect(Collectors.toList())).stream()
+            .collect(Collectors.toMap(Officer::getId, Function.identity()));
+        return nearest.stream()
+            .map(position -> officers.get(position.getOfficerId()))
+            .filter(Objects::nonNull)
+            .map(officerMapper::toDto)
+            .map(this::withLiveLocation)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -201,6 +243,19 @@ public class OfficerServiceImpl implements OfficerService {
             .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * Replace the persisted location with the live one from the registry
+     */
+    private OfficerDTO withLiveLocation(OfficerDTO dto) {
+        officerLocationRegistry.getPosition(dto.getId())
+            .filter(OfficerPosition::hasCoordinates)
+            .ifPresent(position -> dto.setLocation(OfficerDTO.LocationDTO.builder()
+                .latitude(position.getLatitude())
+                .longitude(position.getLongitude())
+                .build()));
+        return dto;
+    }
+
     @Override
     @Transactional
     public void markNotificationRead(UUID officerId, UUID notificationId) {
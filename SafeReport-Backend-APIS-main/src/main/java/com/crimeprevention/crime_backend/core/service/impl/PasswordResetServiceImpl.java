@@ -1,5 +1,6 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
+import com.crimeprevention.crime_backend.core.event.UserChangedEvent;
 import com.crimeprevention.crime_backend.core.model.user.PasswordResetToken;
 import com.crimeprevention.crime_backend.core.model.user.User;
 import com.crimeprevention.crime_backend.core.repo.user.PasswordResetTokenRepository;
@@ -8,6 +9,7 @@ import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
 import com.crimeprevention.crime_backend.core.service.interfaces.PasswordResetService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     private final Random random = new Random();
     
     private static final int CODE_EXPIRY_MINUTES = 15;
@@ -164,6 +167,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
             user.setPasswordHash(passwordEncoder.encode(newPassword));
             user.setPasswordChangedAt(Instant.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
             
             // Mark token as used
             token.setUsed(true);
@@ -244,6 +248,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         user.setPasswordChangedAt(Instant.now());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
         
         resetToken.setUsed(true);
         resetToken.setUsedAt(Instant.now());
@@ -1,6 +1,7 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.report.*;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
 import com.crimeprevention.crime_backend.core.mapper.ReportMapper;
 import com.crimeprevention.crime_backend.core.model.enums.MediaType;
 import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
@@ -11,6 +12,7 @@ import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.ReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -39,6 +41,7 @@ public class ReportServiceImpl implements ReportService {
     private final ReportRepository reportRepository;
     private final ReportMapper reportMapper;
     private final EvidenceFileRepository evidenceFileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -100,6 +103,7 @@ public class ReportServiceImpl implements ReportService {
             log.info("Saved {} evidence file(s) for report {}", savedFiles.size(), report.getId());
         }
         
+        eventPublisher.publishEvent(ReportChangedEvent.created(report));
         return reportMapper.toResponse(report);
     }
 
@@ -251,6 +255,7 @@ public class ReportServiceImpl implements ReportService {
     @Transactional
     public ReportResponse updateReportStatus(UUID reportId, UpdateReportStatusRequest request) {
         Report report = getReportEntityById(reportId);
+        ReportStatus previousStatus = report.getStatus();
         report.setStatus(request.getStatus());
         
         // Update priority if provided
@@ -259,6 +264,7 @@ public class ReportServiceImpl implements ReportService {
         }
         
         report = reportRepository.save(report);
+        eventPublisher.publishEvent(ReportChangedEvent.statusChanged(report, previousStatus));
         return reportMapper.toResponse(report);
     }
 
@@ -270,5 +276,6 @@ public class ReportServiceImpl implements ReportService {
             throw new RuntimeException("Not authorized to delete this report");
         }
         reportRepository.deleteById(reportId);
+        eventPublisher.publishEvent(ReportChangedEvent.deleted(report));
     }
 }
\ No newline at end of file
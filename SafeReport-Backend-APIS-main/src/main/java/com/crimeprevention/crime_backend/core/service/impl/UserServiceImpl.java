@@ -1,6 +1,7 @@
 package com.crimeprevention.crime_backend.core.service.impl;
 
 import com.crimeprevention.crime_backend.core.dto.user.*;
+import com.crimeprevention.crime_backend.core.event.UserChangedEvent;
 import com.crimeprevention.crime_backend.core.mapper.UserMapper;
 import com.crimeprevention.crime_backend.core.model.user.User;
 import com.crimeprevention.crime_backend.core.model.enums.UserRole;
@@ -11,6 +12,7 @@ import com.crimeprevention.crime_backend.core.service.interfaces.UserService;
 import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -110,6 +113,7 @@ public class UserServiceImpl implements UserService {
         }
         
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
         System.out.println("✅ User saved - New isActive: " + user.isActive());
         
         // Try to send update email, but don't fail if email service is down
@@ -157,6 +161,7 @@ public class UserServiceImpl implements UserService {
         }
         
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
         
         // Try to send update email, but don't fail if email service is down
         try {
@@ -175,6 +180,7 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
         emailService.sendAccountUpdateEmail(user.getEmail(), user.getFullName(), "deactivation");
     }
 
@@ -185,6 +191,7 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
         emailService.sendAccountUpdateEmail(user.getEmail(), user.getFullName(), "deactivation");
     }
 
@@ -340,6 +347,7 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         user.setPasswordChangedAt(java.time.Instant.now());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         
         log.info("Password changed successfully for user {}", userId);
         
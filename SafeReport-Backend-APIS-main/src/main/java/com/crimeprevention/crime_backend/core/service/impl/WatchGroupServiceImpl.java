@@ -3,6 +3,7 @@ package com.crimeprevention.crime_backend.core.service.impl;
 import com.crimeprevention.crime_backend.core.dto.message.CreateWatchGroupRequest;
 import com.crimeprevention.crime_backend.core.dto.message.WatchGroupMemberResponse;
 import com.crimeprevention.crime_backend.core.dto.message.WatchGroupResponse;
+import com.crimeprevention.crime_backend.core.geo.BoundingBox;
 import com.crimeprevention.crime_backend.core.model.chat.WatchGroup;
 import com.crimeprevention.crime_backend.core.model.chat.WatchGroupMember;
 import com.crimeprevention.crime_backend.core.model.location.Location;
@@ -15,10 +16,10 @@ import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
 import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.WatchGroupService;
 import com.crimeprevention.crime_backend.core.service.interfaces.NotificationService;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -176,51 +177,26 @@ public class WatchGroupServiceImpl implements WatchGroupService {
     public Page<WatchGroupResponse> getAllWatchGroups(Pageable pageable, Double latitude, Double longitude, Double radius) {
         // Get only approved and active watch groups for browsing
         List<WatchGroupStatus> allowedStatuses = List.of(WatchGroupStatus.APPROVED, WatchGroupStatus.ACTIVE);
-        Page<WatchGroup> groups = watchGroupRepository.findByStatusInOrderByCreatedAtDesc(allowedStatuses, pageable);
         
         // If location filtering is requested, filter by distance
         if (latitude != null && longitude != null && radius != null) {
-            // Filter groups by location proximity
-            List<WatchGroup> filteredGroups = groups.getContent().stream()
-                .filter(group -> {
-                    if (group.getLocation() != null && group.getLocation().getLatitude() != null && group.getLocation().getLongitude() != null) {
-                        double distance = calculateDistance(
-                            latitude, longitude,
-                            group.getLocation().getLatitude(),
-                            group.getLocation().getLongitude()
-                        );
-                        return distance <= radius;
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
-            
-            // Create a new page with filtered results
-            // Note: This is a simplified approach - for better performance, consider using native SQL query
-            return new org.springframework.data.domain.PageImpl<>(
-                filteredGroups.stream()
-                    .map(group -> buildWatchGroupResponse(group, null))
-                    .collect(Collectors.toList()),
-                pageable,
-                filteredGroups.size()
-            );
+            // Bounding box and exact distance are both checked in SQL, so the database pages the result
+            BoundingBox box = BoundingBox.around(latitude, longitude, radius);
+            double latRadians = Math.toRadians(latitude);
+            Page<WatchGroup> groups = watchGroupRepository.findByStatusInWithinRadius(
+                    allowedStatuses,
+                    box.getMinLatitude(), box.getMaxLatitude(),
+                    box.getMinLongitude(), box.getMaxLongitude(),
+                    Math.sin(latRadians), Math.cos(latRadians), Math.toRadians(longitude),
+                    Math.cos(Math.min(Math.PI, radius / GeoUtils.EARTH_RADIUS_KM)),
+                    pageable);
+            return groups.map(group -> buildWatchGroupResponse(group, null));
         }
         
+        Page<WatchGroup> groups = watchGroupRepository.findByStatusInOrderByCreatedAtDesc(allowedStatuses, pageable);
         return groups.map(group -> buildWatchGroupResponse(group, null));
     }
 
-    // Helper method to calculate distance between two coordinates (Haversine formula)
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
     @Override
     @Transactional
     public WatchGroupResponse joinWatchGroup(UUID userId, UUID groupId) {
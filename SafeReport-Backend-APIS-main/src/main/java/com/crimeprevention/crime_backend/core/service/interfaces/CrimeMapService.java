@@ -2,9 +2,13 @@ package com.crimeprevention.crime_backend.core.service.interfaces;
 
 import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapRequest;
 import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimePointColumns;
+import com.crimeprevention.crime_backend.core.dto.mapping.HeatmapTileResponse;
 import com.crimeprevention.crime_backend.core.dto.mapping.LiveIncidentResponse;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface CrimeMapService {
     
@@ -28,11 +32,31 @@ public interface CrimeMapService {
      */
     CrimeMapResponse getCrimePoints(CrimeMapRequest request);
     
+    /**
+     * Get individual crime points in the compact column-oriented encoding
+     */
+    CrimePointColumns getCrimePointColumns(CrimeMapRequest request);
+    
+    /**
+     * Get one precomputed heatmap tile (slippy-map z/x/y)
+     */
+    HeatmapTileResponse getHeatmapTile(int z, int x, int y, String timeRange, List<String> crimeTypes);
+    
     /**
      * Get live incidents for real-time mapping
      */
     List<LiveIncidentResponse> getLiveIncidents();
     
+    /**
+     * Get a single report as a live incident, as pushed to geofence subscribers
+     */
+    Optional<LiveIncidentResponse> getLiveIncident(UUID reportId);
+    
+    /**
+     * Get live incidents in the compact column-oriented encoding
+     */
+    CrimePointColumns getLiveIncidentColumns();
+    
     /**
      * Get live incidents within specific area
      */
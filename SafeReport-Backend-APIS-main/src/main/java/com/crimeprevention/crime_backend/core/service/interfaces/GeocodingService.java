@@ -0,0 +1,11 @@
+package com.crimeprevention.crime_backend.core.service.interfaces;
+
+import java.util.Map;
+
+public interface GeocodingService {
+
+    /**
+     * Address details for the coordinates, served from cache when a lookup within ~10 m exists
+     */
+    Map<String, Object> reverseGeocode(double latitude, double longitude);
+}
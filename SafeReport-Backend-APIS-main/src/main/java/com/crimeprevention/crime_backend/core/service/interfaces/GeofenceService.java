@@ -0,0 +1,29 @@
+package com.crimeprevention.crime_backend.core.service.interfaces;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceRequest;
+import com.crimeprevention.crime_backend.core.dto.mapping.GeofenceResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GeofenceService {
+    /**
+     * Register a geofence for the user, or for a watch group the user administers
+     */
+    GeofenceResponse createGeofence(UUID userId, GeofenceRequest request);
+
+    /**
+     * Active geofences owned by the user
+     */
+    List<GeofenceResponse> getUserGeofences(UUID userId);
+
+    /**
+     * Active geofences of a watch group the user is a member of
+     */
+    List<GeofenceResponse> getWatchGroupGeofences(UUID userId, UUID watchGroupId);
+
+    /**
+     * Deactivate a geofence owned by the user or by a watch group the user administers
+     */
+    void deleteGeofence(UUID userId, UUID geofenceId);
+}
@@ -1,5 +1,6 @@
 package com.crimeprevention.crime_backend.core.service.interfaces;
 
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationCatchUpResponse;
 import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +25,14 @@ public interface NotificationService {
      */
     long getUnreadNotificationCount(UUID userId);
 
+    /**
+     * Get up to limit notifications created after a cursor, oldest first, for clients catching up
+     * on pushes missed while disconnected. They are preceded by notifications created shortly
+     * before the cursor, which may have committed after it was issued; clients skip ids they have.
+     * A null cursor starts from now, returning just that overlap and a cursor to continue from.
+     */
+    NotificationCatchUpResponse getNotificationsSince(UUID userId, String cursor, int limit);
+
     /**
      * Mark notifications as read
      */
@@ -2,6 +2,7 @@ package com.crimeprevention.crime_backend.core.service.interfaces;
 
 import com.crimeprevention.crime_backend.core.dto.officer.*;
 import com.crimeprevention.crime_backend.core.dto.user.RegisterOfficerRequest;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
 import com.crimeprevention.crime_backend.core.model.user.Officer;
 
 import java.util.List;
@@ -13,7 +14,7 @@ public interface OfficerService {
     List<OfficerDTO> getAllOfficers();
     OfficerDTO updateOfficer(UUID id, UpdateOfficerRequest request);
     void deactivateOfficer(UUID id);
-    void updateOfficerLocation(UUID officerId, LocationUpdateDTO location);
+    OfficerPosition updateOfficerLocation(UUID officerId, LocationUpdateDTO location);
     MessageDTO sendMessage(UUID officerId, SendMessageDTO message);
     List<OfficerDTO> getAvailableOfficersForBackup(BackupRequestDTO.LocationDTO location);
     List<MessageDTO> getOfficerMessages(UUID officerId);
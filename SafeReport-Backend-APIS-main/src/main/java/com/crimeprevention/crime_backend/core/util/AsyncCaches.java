@@ -0,0 +1,48 @@
+package com.crimeprevention.crime_backend.core.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for Caffeine async caches used as single-flight caches
+ */
+public final class AsyncCaches {
+
+    private AsyncCaches() {
+    }
+
+    /**
+     * Cached value for the key, computed on the calling thread on a miss.
+     * Callers missing on the same key meanwhile wait for that computation instead of starting
+     * their own; if it fails they all see the error and nothing is cached. Does not record a cache
+     * hit or miss: callers that want Caffeine's statistics look the key up with getIfPresent first.
+     */
+    public static <K, V> V getOrCompute(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+        CompletableFuture<V> computation = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = cache.asMap().putIfAbsent(key, computation);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            V value = loader.get();
+            computation.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too, or callers waiting on the computation would never return
+            cache.asMap().remove(key, computation);
+            computation.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.crimeprevention.crime_backend.core.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Cache key from the SHA-256 of the method name and its JSON-serialised arguments.
+ * Equal request contents give equal keys and, unlike hashCode(), distinct contents
+ * do not collide in practice; the key stays small however large the arguments are.
+ */
+@Component("contentHashKeyGenerator")
+public class ContentHashKeyGenerator implements KeyGenerator {
+
+    private final ObjectWriter writer;
+
+    public ContentHashKeyGenerator(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(writer.writeValueAsBytes(params));
+            return method.getName() + ":" + HexFormat.of().formatHex(digest.digest());
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            // Fall back to value equality of the arguments themselves
+            return SimpleKeyGenerator.generateKey(params);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.crimeprevention.crime_backend.core.util;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimePointColumns;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary form of {@link CrimePointColumns}.
+ * Layout: magic "SRP", version byte, count and scale as varints, the three name tables,
+ * then each column in turn. Coordinates and timestamps are zigzag varint deltas from the
+ * previous point, enum indexes and risk scores take one byte each, UUID ids 16 bytes.
+ */
+public final class CrimePointColumnsCodec {
+
+    private static final byte[] MAGIC = {'S', 'R', 'P'};
+    private static final byte VERSION = 1;
+
+    private CrimePointColumnsCodec() {
+    }
+
+    public static byte[] encode(CrimePointColumns columns) {
+        int count = columns.getCount();
+        Writer out = new Writer(64 + count * 64);
+        out.bytes(MAGIC);
+        out.raw(VERSION);
+        out.varint(count);
+        out.varint(columns.getCoordinateScale());
+        out.strings(columns.getCrimeTypeNames());
+        out.strings(columns.getStatusNames());
+        out.strings(columns.getPriorityNames());
+
+        UUID[] uuids = parseUuids(columns.getIds());
+        out.raw(uuids != null ? 1 : 0);
+        for (int i = 0; i < count; i++) {
+            if (uuids != null) {
+                out.fixed64(uuids[i].getMostSignificantBits());
+                out.fixed64(uuids[i].getLeastSignificantBits());
+            } else {
+                out.string(columns.getIds().get(i));
+            }
+        }
+
+        out.deltas(columns.getLatitudes());
+        out.deltas(columns.getLongitudes());
+        out.ordinals(columns.getCrimeTypes());
+        out.ordinals(columns.getStatuses());
+        out.ordinals(columns.getPriorities());
+        out.deltas(columns.getOccurredAt());
+        out.deltas(columns.getReportedAt());
+        for (int i = 0; i < count; i++) {
+            out.raw(columns.getRiskScores()[i]);
+        }
+        for (String title : columns.getTitles()) {
+            out.string(title);
+        }
+        return out.toByteArray();
+    }
+
+    public static CrimePointColumns decode(byte[] data) {
+        Reader in = new Reader(data);
+        for (byte b : MAGIC) {
+            if (in.raw() != b) {
+                throw new IllegalArgumentException("Not a crime point payload");
+            }
+        }
+        int version = in.raw();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported crime point payload version " + version);
+        }
+
+        int count = (int) in.varint();
+        CrimePointColumns.CrimePointColumnsBuilder builder = CrimePointColumns.builder()
+                .count(count)
+                .coordinateScale((int) in.varint())
+                .crimeTypeNames(in.strings())
+                .statusNames(in.strings())
+                .priorityNames(in.strings());
+
+        boolean uuidIds = in.raw() == 1;
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(uuidIds ? new UUID(in.longValue(), in.longValue()).toString() : in.string());
+        }
+
+        int[] riskScores = new int[count];
+        builder.ids(ids)
+                .latitudes(in.intDeltas(count))
+                .longitudes(in.intDeltas(count))
+                .crimeTypes(in.ordinals(count))
+                .statuses(in.ordinals(count))
+                .priorities(in.ordinals(count))
+                .occurredAt(in.longDeltas(count))
+                .reportedAt(in.longDeltas(count));
+        for (int i = 0; i < count; i++) {
+            riskScores[i] = in.raw() & 0xFF;
+        }
+        List<String> titles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            titles.add(in.string());
+        }
+        return builder.riskScores(riskScores).titles(titles).build();
+    }
+
+    // All ids as UUIDs, or null when any id is not in canonical UUID form
+    private static UUID[] parseUuids(List<String> ids) {
+        UUID[] uuids = new UUID[ids.size()];
+        for (int i = 0; i < uuids.length; i++) {
+            String id = ids.get(i);
+            if (id == null || id.length() != 36) {
+                return null;
+            }
+            try {
+                uuids[i] = UUID.fromString(id);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            // Lower-case form only, so decoding gives back the same string
+            for (int c = 0; c < id.length(); c++) {
+                if (id.charAt(c) >= 'A' && id.charAt(c) <= 'F') {
+                    return null;
+                }
+            }
+        }
+        return uuids;
+    }
+
+    // Unsynchronised growable buffer; ByteArrayOutputStream locks on every byte
+    private static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (size == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[size++] = (byte) b;
+        }
+
+        void raw(int b) {
+            write(b);
+        }
+
+        void bytes(byte[] b) {
+            if (size + b.length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + b.length));
+            }
+            System.arraycopy(b, 0, buf, size, b.length);
+            size += b.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        void fixed64(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        // Length + 1 so that 0 marks a null string
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            bytes(utf8);
+        }
+
+        void strings(List<String> values) {
+            varint(values.size());
+            values.forEach(this::string);
+        }
+
+        void deltas(int[] values) {
+            long previous = 0;
+            for (int value : values) {
+                zigzag(value - previous);
+                previous = value;
+            }
+        }
+
+        void deltas(long[] values) {
+            long previous = 0;
+            for (long value : values) {
+                zigzag(value - previous);
+                previous = value;
+            }
+        }
+
+        // Shifted by one so that -1 (unknown) fits in an unsigned byte
+        void ordinals(int[] values) {
+            for (int value : values) {
+                write(value + 1);
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] data) {
+            this.buffer = ByteBuffer.wrap(data);
+        }
+
+        byte raw() {
+            return buffer.get();
+        }
+
+        long longValue() {
+            return buffer.getLong();
+        }
+
+        long varint() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        long zigzag() {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string() {
+            int length = (int) varint();
+            if (length == 0) {
+                return null;
+            }
+            byte[] utf8 = new byte[length - 1];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        List<String> strings() {
+            int size = (int) varint();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(string());
+            }
+            return values;
+        }
+
+        int[] intDeltas(int count) {
+            int[] values = new int[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += zigzag();
+                values[i] = (int) previous;
+            }
+            return values;
+        }
+
+        long[] longDeltas(int count) {
+            long[] values = new long[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += zigzag();
+                values[i] = previous;
+            }
+            return values;
+        }
+
+        int[] ordinals(int count) {
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = (buffer.get() & 0xFF) - 1;
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.crimeprevention.crime_backend.core.util;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified
+ */
+@Value
+public class JwtClaims {
+    UUID userId;
+    String role;
+    // Null for tokens without an iat claim
+    Instant issuedAt;
+    Instant expiresAt;
+}
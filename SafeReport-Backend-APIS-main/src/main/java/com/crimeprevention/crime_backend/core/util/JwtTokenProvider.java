@@ -1,18 +1,32 @@
 package com.crimeprevention.crime_backend.core.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 import io.jsonwebtoken.security.Keys;
 
 @Component
+@Slf4j
 public class JwtTokenProvider {
 
 	@Value("${jwt.secret}")
@@ -21,8 +35,46 @@ public class JwtTokenProvider {
 	@Value("${jwt.expiration-ms}")
 	private long jwtExpirationMs;
 
-	private SecretKey signingKey() {
-		return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+	@Value("${jwt.claims-cache.max-size:10000}")
+	private long claimsCacheMaxSize;
+
+	@Value("${jwt.claims-cache.max-ttl-seconds:600}")
+	private long claimsCacheMaxTtlSeconds;
+
+	private SecretKey signingKey;
+	private JwtParser parser;
+
+	// Verified claims by SHA-256 of the token; entries expire with the token or after max-ttl, whichever is first
+	private Cache<String, JwtClaims> verifiedClaims;
+
+	@PostConstruct
+	void init() {
+		signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+		parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+		Duration maxTtl = Duration.ofSeconds(claimsCacheMaxTtlSeconds);
+		verifiedClaims = Caffeine.newBuilder()
+				.maximumSize(claimsCacheMaxSize)
+				.expireAfter(new Expiry<String, JwtClaims>() {
+					@Override
+					public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+						Duration untilExpiry = Duration.between(Instant.now(), claims.getExpiresAt());
+						if (untilExpiry.isNegative()) {
+							return 0;
+						}
+						return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry.toNanos() : maxTtl.toNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+
+					@Override
+					public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
 	}
 
 	// Generate JWT token with subject = userId and role information
@@ -35,7 +87,7 @@ public class JwtTokenProvider {
 				.claim("authorities", "ROLE_" + role)
 				.setIssuedAt(now)
 				.setExpiration(new Date(now.getTime() + jwtExpirationMs))
-				.signWith(signingKey())
+				.signWith(signingKey)
 				.compact();
 	}
 	
@@ -44,43 +96,60 @@ public class JwtTokenProvider {
 		return generateToken(userId, "USER");
 	}
 
+	/**
+	 * Verify the token once and return its claims, or empty if it is invalid or expired.
+	 * Tokens seen before are answered from the verified-claims cache without re-checking the signature.
+	 */
+	public Optional<JwtClaims> verify(String token) {
+		String digest = digest(token);
+		JwtClaims cached = verifiedClaims.getIfPresent(digest);
+		if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+			return Optional.of(cached);
+		}
+		try {
+			Claims body = parser.parseClaimsJws(token).getBody();
+			if (body.getSubject() == null) {
+				return Optional.empty();
+			}
+			Date issuedAt = body.getIssuedAt();
+			Date expiration = body.getExpiration();
+			JwtClaims claims = new JwtClaims(UUID.fromString(body.getSubject()), body.get("role", String.class),
+					issuedAt != null ? issuedAt.toInstant() : null,
+					expiration != null ? expiration.toInstant() : Instant.MAX);
+			// Tokens without an expiry are verified every time
+			if (expiration != null) {
+				verifiedClaims.put(digest, claims);
+			}
+			return Optional.of(claims);
+		} catch (JwtException | IllegalArgumentException ex) {
+			log.debug("JWT validation failed: {} ({})", ex.getMessage(), ex.getClass().getSimpleName());
+			return Optional.empty();
+		}
+	}
+
 	// Get userId from JWT
 	public UUID getUserIdFromJWT(String token) {
-		Claims claims = Jwts.parserBuilder()
-				.setSigningKey(signingKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
-
-		return UUID.fromString(claims.getSubject());
+		return verify(token).map(JwtClaims::getUserId)
+				.orElseThrow(() -> new IllegalArgumentException("Invalid JWT token"));
 	}
 	
 	// Get role from JWT
 	public String getRoleFromJWT(String token) {
-		Claims claims = Jwts.parserBuilder()
-				.setSigningKey(signingKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
-
-		return claims.get("role", String.class);
+		return verify(token).map(JwtClaims::getRole)
+				.orElseThrow(() -> new IllegalArgumentException("Invalid JWT token"));
 	}
 
 	// Validate JWT token
 	public boolean validateToken(String token) {
+		return verify(token).isPresent();
+	}
+
+	private static String digest(String token) {
 		try {
-			System.out.println("🔍 JWT Validation - Token: " + token.substring(0, Math.min(token.length(), 30)) + "...");
-			System.out.println("🔍 JWT Validation - Secret length: " + jwtSecret.length());
-			System.out.println("🔍 JWT Validation - Secret preview: " + jwtSecret.substring(0, 10) + "...");
-			
-			Jwts.parserBuilder().setSigningKey(signingKey()).build().parseClaimsJws(token);
-			System.out.println("✅ JWT Validation - Token is valid");
-			return true;
-		} catch (Exception ex) {
-			System.out.println("❌ JWT Validation - Token is invalid: " + ex.getMessage());
-			System.out.println("❌ JWT Validation - Exception type: " + ex.getClass().getSimpleName());
-			ex.printStackTrace();
-			return false;
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
 		}
 	}
 }
@@ -1,15 +1,16 @@
 package com.crimeprevention.crime_backend.service.impl;
 
 import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.ai.AiProviderRouter;
+import com.crimeprevention.crime_backend.core.ai.GeminiModelResolver;
+import com.crimeprevention.crime_backend.core.ai.LlmClient;
 import com.crimeprevention.crime_backend.core.dto.analytics.PatternAnalysisRequest;
 import com.crimeprevention.crime_backend.core.dto.analytics.PatternAnalysisResponse;
 import com.crimeprevention.crime_backend.core.model.analytics.CrimePattern;
 import com.crimeprevention.crime_backend.core.repo.analytics.CrimePatternRepository;
 import com.crimeprevention.crime_backend.core.service.interfaces.PatternAnalysisService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,10 +26,14 @@ import java.util.*;
 @Transactional
 public class PatternAnalysisServiceImpl implements PatternAnalysisService {
     
+    // The Gemini request sets no output limit; OpenAI needs one
+    private static final int PATTERN_MAX_TOKENS = 2000;
+
     private final AIConfig aiConfig;
     private final CrimePatternRepository crimePatternRepository;
-    private final ObjectMapper objectMapper;
-    private final OkHttpClient httpClient;
+    private final LlmClient llmClient;
+    private final GeminiModelResolver geminiModelResolver;
+    private final AiProviderRouter providerRouter;
     
     @Override
     public PatternAnalysisResponse analyzePatterns(PatternAnalysisRequest request) {
@@ -40,11 +45,16 @@ public class PatternAnalysisServiceImpl implements PatternAnalysisService {
             // Build the prompt for Gemini API
             String prompt = buildPatternAnalysisPrompt(request);
             
-            // Call Gemini API
-            String aiResponse = callGeminiAPI(prompt);
+            // Call the AI providers, hedging with the second one if the first is slow
+            AiProviderRouter.Result routed = providerRouter.call("pattern-analysis", true,
+                    () -> llmClient.completeWithOpenAI(null, prompt, PATTERN_MAX_TOKENS),
+                    () -> callGeminiAPI(prompt));
             
             // Parse the AI response
-            PatternAnalysisResponse response = parsePatternAnalysisResponse(request, aiResponse);
+            PatternAnalysisResponse response = parsePatternAnalysisResponse(request, routed.getText());
+            response.setAiServiceUsed(routed.getProvider());
+            response.setModelVersion(AiProviderRouter.OPENAI.equals(routed.getProvider())
+                    ? aiConfig.getOpenaiModel() : geminiModelResolver.getModel());
             
             // Save patterns to database
             savePatternsToDatabase(request, response);
@@ -110,46 +120,13 @@ public class PatternAnalysisServiceImpl implements PatternAnalysisService {
     }
     
     private String callGeminiAPI(String prompt) throws IOException {
-        String apiKey = aiConfig.getGemini();
-        String model = aiConfig.getGeminiModel();
-        
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/" + model + ":generateContent?key=" + apiKey;
-        
         // Build the request body
         Map<String, Object> requestBody = new HashMap<>();
         Map<String, Object> content = new HashMap<>();
         content.put("parts", Arrays.asList(Map.of("text", prompt)));
         requestBody.put("contents", Arrays.asList(content));
         
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
-        
-        RequestBody body = RequestBody.create(jsonBody, MediaType.get("application/json"));
-        Request request = new Request.Builder()
-                .url(url)
-                .post(body)
-                .build();
-        
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected response code: " + response.code());
-            }
-            
-            String responseBody = response.body().string();
-            Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-            
-            // Extract the generated text from Gemini response
-            List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseMap.get("candidates");
-            if (candidates != null && !candidates.isEmpty()) {
-                Map<String, Object> candidate = candidates.get(0);
-                Map<String, Object> content2 = (Map<String, Object>) candidate.get("content");
-                List<Map<String, Object>> parts = (List<Map<String, Object>>) content2.get("parts");
-                if (parts != null && !parts.isEmpty()) {
-                    return (String) parts.get(0).get("text");
-                }
-            }
-            
-            throw new IOException("Invalid response format from Gemini API");
-        }
+        return llmClient.generateWithGemini(requestBody, 1);
     }
     
     private PatternAnalysisResponse parsePatternAnalysisResponse(PatternAnalysisRequest request, String aiResponse) {
@@ -261,7 +238,7 @@ public class PatternAnalysisServiceImpl implements PatternAnalysisService {
                 .riskAssessment(riskAssessment.isEmpty() ? "MEDIUM" : riskAssessment)
                 .keyRecommendations(keyRecommendations.isEmpty() ? Arrays.asList("Collect more data", "Monitor trends") : keyRecommendations)
                 .aiServiceUsed("gemini")
-                .modelVersion(aiConfig.getGeminiModel())
+                .modelVersion(geminiModelResolver.getModel())
                 .confidenceScore(0.85)
                 .build();
     }
@@ -348,8 +325,8 @@ public class PatternAnalysisServiceImpl implements PatternAnalysisService {
                         .affectedCrimeTypes(patternResponse.getAffectedCrimeTypes())
                         .tags(patternResponse.getTags())
                         .recommendations(patternResponse.getRecommendations())
-                                        .aiServiceUsed("gemini")
-                .modelVersion(aiConfig.getGeminiModel())
+                                        .aiServiceUsed(response.getAiServiceUsed())
+                .modelVersion(response.getModelVersion())
                 .processingTimeMs(response.getProcessingTimeMs())
                         .build();
                 
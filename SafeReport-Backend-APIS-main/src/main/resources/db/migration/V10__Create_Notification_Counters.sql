@@ -0,0 +1,5 @@
+-- Unread notification count per user, kept by UnreadNotificationCounters
+CREATE TABLE IF NOT EXISTS notification_counters (
+    user_id UUID PRIMARY KEY,
+    unread_count BIGINT NOT NULL
+);
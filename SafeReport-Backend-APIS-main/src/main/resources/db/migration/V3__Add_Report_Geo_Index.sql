@@ -0,0 +1,2 @@
+-- Composite index backing the bounding-box + time window geo queries on reports
+CREATE INDEX IF NOT EXISTS idx_reports_lat_lng_date ON reports(latitude, longitude, date);
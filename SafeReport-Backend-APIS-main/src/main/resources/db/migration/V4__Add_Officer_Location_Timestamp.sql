@@ -0,0 +1,2 @@
+-- Time of the last officer location fix, written by the location registry flush
+ALTER TABLE users ADD COLUMN IF NOT EXISTS location_updated_at TIMESTAMP WITH TIME ZONE;
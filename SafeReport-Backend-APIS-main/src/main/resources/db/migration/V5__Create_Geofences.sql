@@ -0,0 +1,26 @@
+-- Geofence subscriptions: new reports inside a fence are pushed to its user or watch group
+CREATE TABLE IF NOT EXISTS geofences (
+    id UUID PRIMARY KEY,
+    owner_type VARCHAR(20) NOT NULL,
+    owner_id UUID NOT NULL,
+    created_by UUID NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    location_id UUID REFERENCES locations(id),
+    center_latitude DOUBLE PRECISION,
+    center_longitude DOUBLE PRECISION,
+    radius_km DOUBLE PRECISION,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_geofences_owner ON geofences(owner_type, owner_id);
+
+CREATE TABLE IF NOT EXISTS geofence_vertices (
+    geofence_id UUID NOT NULL REFERENCES geofences(id) ON DELETE CASCADE,
+    vertex_order INTEGER NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (geofence_id, vertex_order)
+);
@@ -0,0 +1,6 @@
+-- Reverse geocoding results per ~10 m coordinate cell, kept across restarts
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    cell_key VARCHAR(40) PRIMARY KEY,
+    payload TEXT NOT NULL,
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,12 @@
+-- LLM completions keyed by SHA-256 of provider, model, generation config and prompt
+CREATE TABLE IF NOT EXISTS llm_result_cache (
+    key_hash VARCHAR(64) PRIMARY KEY,
+    provider VARCHAR(20) NOT NULL,
+    model VARCHAR(100),
+    result TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_llm_result_cache_expires_at ON llm_result_cache(expires_at);
+CREATE INDEX IF NOT EXISTS idx_llm_result_cache_created_at ON llm_result_cache(created_at);
@@ -0,0 +1,27 @@
+-- News broadcasts to all users, with the resume point of each delivery channel
+CREATE TABLE IF NOT EXISTS broadcast_jobs (
+    id UUID PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    content TEXT NOT NULL,
+    requested_by UUID,
+    status VARCHAR(20) NOT NULL,
+    error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_jobs_status ON broadcast_jobs(status);
+
+CREATE TABLE IF NOT EXISTS broadcast_job_channels (
+    id UUID PRIMARY KEY,
+    job_id UUID NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    total BIGINT NOT NULL,
+    sent BIGINT NOT NULL,
+    failed BIGINT NOT NULL,
+    last_user_id UUID,
+    done BOOLEAN NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uk_broadcast_job_channel UNIQUE (job_id, channel)
+);
@@ -0,0 +1,282 @@
+package com.crimeprevention.crime_backend.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.ai.AiProviderRouter;
+import com.crimeprevention.crime_backend.core.ai.GeminiModelResolver;
+import com.crimeprevention.crime_backend.core.ai.LlmClient;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
+import com.crimeprevention.crime_backend.core.ai.ProviderCircuitBreaker;
+import com.crimeprevention.crime_backend.core.repo.ai.LlmResultCacheEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routes calls between local stubs of the OpenAI and Gemini APIs that can be made slow or failing
+ */
+public class AiProviderRouterTest {
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final AtomicInteger openaiCalls = new AtomicInteger();
+    private final AtomicInteger geminiCalls = new AtomicInteger();
+    private volatile int geminiStatus = 200;
+    private volatile long geminiDelayMs;
+    private volatile CountDownLatch geminiStarted = new CountDownLatch(1);
+
+    private HttpServer openaiStub;
+    private HttpServer geminiStub;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmResultCache cache;
+    private AiProviderRouter router;
+    private LlmClient llmClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        openaiStub = stub("/chat/completions", exchange -> {
+            openaiCalls.incrementAndGet();
+            respond(exchange, 200, "{\"choices\": [{\"message\": {\"content\": \"openai answer\"}}]}");
+        });
+        geminiStub = stub("/models", exchange -> {
+            geminiCalls.incrementAndGet();
+            geminiStarted.countDown();
+            sleep(geminiDelayMs);
+            respond(exchange, geminiStatus, geminiStatus == 200
+                    ? "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"gemini answer\"}]}}]}"
+                    : "{\"error\": {\"code\": " + geminiStatus + "}}");
+        });
+
+        AIConfig aiConfig = new AIConfig();
+        aiConfig.setService("gemini");
+        aiConfig.setOpenaiApiKey("openai-key");
+        aiConfig.setOpenaiBaseUrl("http://127.0.0.1:" + openaiStub.getAddress().getPort());
+        aiConfig.setGeminiApiKey("gemini-key");
+        aiConfig.setGeminiBaseUrl("http://127.0.0.1:" + geminiStub.getAddress().getPort());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        OkHttpClient httpClient = new OkHttpClient();
+        meterRegistry = new SimpleMeterRegistry();
+        GeminiModelResolver resolver = new GeminiModelResolver(aiConfig, objectMapper, httpClient, meterRegistry);
+        ReflectionTestUtils.invokeMethod(resolver, "init");
+        cache = new LlmResultCache(mock(LlmResultCacheEntryRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        ReflectionTestUtils.setField(cache, "ttlHours", 24L);
+        ReflectionTestUtils.setField(cache, "memoryMaxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "maxRows", 1000);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+
+        router = new AiProviderRouter(aiConfig, cache, threads, meterRegistry);
+        ReflectionTestUtils.setField(router, "fallbackEnabled", true);
+        ReflectionTestUtils.setField(router, "windowSeconds", 60L);
+        ReflectionTestUtils.setField(router, "windowMaxCalls", 20);
+        ReflectionTestUtils.setField(router, "minimumCalls", 3);
+        ReflectionTestUtils.setField(router, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(router, "slowCallMs", 10000L);
+        ReflectionTestUtils.setField(router, "slowCallRateThreshold", 0.8);
+        ReflectionTestUtils.setField(router, "openSeconds", 1L);
+        ReflectionTestUtils.setField(router, "openaiMaxConcurrent", 2);
+        ReflectionTestUtils.setField(router, "geminiMaxConcurrent", 1);
+        ReflectionTestUtils.setField(router, "acquireTimeoutMs", 50L);
+        ReflectionTestUtils.setField(router, "hedgeDefaultDelayMs", 200L);
+        ReflectionTestUtils.setField(router, "hedgeMinDelayMs", 100L);
+        ReflectionTestUtils.setField(router, "hedgeMaxDelayMs", 1000L);
+        ReflectionTestUtils.invokeMethod(router, "init");
+        llmClient = new LlmClient(aiConfig, objectMapper, httpClient, cache, resolver, router);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        openaiStub.stop(0);
+        geminiStub.stop(0);
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedWithSecondProvider() {
+        geminiDelayMs = 2000;
+
+        long start = System.nanoTime();
+        AiProviderRouter.Result result = call(true);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Gemini had no latency history, so OpenAI started after the 200 ms default delay
+        assertEquals("openai", result.getProvider());
+        assertEquals("openai answer", result.getText());
+        assertTrue(elapsedMs >= 200 && elapsedMs < 1500, "took " + elapsedMs + " ms");
+        assertEquals(1, geminiCalls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.router.hedges", "operation", "test", "provider", "openai").count());
+    }
+
+    @Test
+    public void testFailingPrimaryFallsBackWithoutWaitingForHedgeDelay() {
+        geminiStatus = 500;
+        ReflectionTestUtils.setField(router, "hedgeDefaultDelayMs", 1000L);
+
+        long start = System.nanoTime();
+        AiProviderRouter.Result result = call(true);
+
+        assertEquals("openai", result.getProvider());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(0.0, meterRegistry.counter("ai.router.hedges", "operation", "test", "provider", "openai").count());
+    }
+
+    @Test
+    public void testBreakerOpensOnFailuresAndClosesAfterTrial() throws InterruptedException {
+        geminiStatus = 500;
+        for (int i = 0; i < 3; i++) {
+            assertEquals("openai", call(false).getProvider());
+        }
+        assertEquals(3, geminiCalls.get());
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breakerState("gemini"));
+
+        // While open Gemini is not called at all
+        assertEquals("openai", call(false).getProvider());
+        assertEquals("openai", call(false).getProvider());
+        assertEquals(3, geminiCalls.get());
+        assertEquals(2.0, meterRegistry.counter("ai.router.calls", "operation", "test", "provider", "gemini",
+                "outcome", "short-circuited").count());
+
+        // After the open period one trial call goes through and its success closes the breaker
+        geminiStatus = 200;
+        Thread.sleep(1100);
+        assertEquals("gemini", call(false).getProvider());
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breakerState("gemini"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCacheHitsAreNotRecordedOnTheBreaker() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        assertEquals("gemini", call(false).getProvider());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("gemini answer", call(false).getText());
+        }
+
+        assertEquals(1, geminiCalls.get());
+        Map<String, Object> status = (Map<String, Object>) router.getStatus().get("gemini");
+        assertEquals(1, status.get("calls"));
+        // Too few real calls for a p95, so hedging still waits the default delay
+        assertEquals(200L, status.get("hedgeDelayMs"));
+        assertEquals(5.0, meterRegistry.counter("ai.router.calls", "operation", "test", "provider", "gemini",
+                "outcome", "cached").count());
+        assertEquals(1, meterRegistry.timer("ai.router.latency", "provider", "gemini", "outcome", "success").count());
+    }
+
+    @Test
+    public void testOnlyTheTrialDecidesHalfOpenBreaker() throws InterruptedException {
+        ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(60000, 20, 3, 0.5, 10000, 0.8, 50);
+        // Started while closed and still running when the breaker opens
+        ProviderCircuitBreaker.Permit late = breaker.tryStart();
+        for (int i = 0; i < 3; i++) {
+            breaker.record(breaker.tryStart(), false, 5);
+        }
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        ProviderCircuitBreaker.Permit trial = breaker.tryStart();
+        assertTrue(trial.isTrial());
+        assertNull(breaker.tryStart());
+        breaker.record(late, true, 5);
+        assertEquals(ProviderCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(trial, false, 5);
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+
+        // Nor does a trial from an earlier half-open period
+        Thread.sleep(60);
+        ProviderCircuitBreaker.Permit next = breaker.tryStart();
+        breaker.record(trial, true, 5);
+        assertEquals(ProviderCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(next, true, 5);
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.record(late, false, 5);
+        assertEquals(0.0, breaker.getStatus().get("failureRate"));
+    }
+
+    @Test
+    public void testConcurrencyLimitSendsExtraCallsToSecondProvider() throws Exception {
+        geminiDelayMs = 1000;
+        CompletableFuture<AiProviderRouter.Result> first = CompletableFuture.supplyAsync(() -> call(false), threads);
+        assertTrue(geminiStarted.await(2, TimeUnit.SECONDS));
+
+        // Gemini's only slot is taken, so the second call moves on after the 50 ms acquire timeout
+        AiProviderRouter.Result second = call(false);
+
+        assertEquals("openai", second.getProvider());
+        assertEquals("gemini", first.get(5, TimeUnit.SECONDS).getProvider());
+        assertEquals(1, geminiCalls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.router.calls", "operation", "test", "provider", "gemini",
+                "outcome", "rejected").count());
+    }
+
+    @Test
+    public void testAllProvidersFailing() {
+        geminiStatus = 500;
+        openaiStub.stop(0);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> call(true));
+
+        assertTrue(e.getMessage().startsWith("All AI services are unavailable"));
+        assertTrue(e.getMessage().contains("gemini: "));
+        assertTrue(e.getMessage().contains("openai: "));
+    }
+
+    private AiProviderRouter.Result call(boolean hedged) {
+        return router.call("test", hedged,
+                () -> llmClient.completeWithOpenAI(null, "Summarise", 50),
+                () -> llmClient.completeWithGemini("Summarise", 50));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProviderCircuitBreaker.State breakerState(String provider) {
+        Map<String, Object> status = (Map<String, Object>) router.getStatus().get(provider);
+        return (ProviderCircuitBreaker.State) status.get("state");
+    }
+
+    private HttpServer stub(String path, com.sun.net.httpserver.HttpHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(path, handler);
+        // Slow handlers must not hold up other requests
+        server.setExecutor(threads);
+        server.start();
+        return server;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.crimeprevention.crime_backend.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.ai.AiProviderRouter;
+import com.crimeprevention.crime_backend.core.ai.GeminiModelResolver;
+import com.crimeprevention.crime_backend.core.ai.LlmClient;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
+import com.crimeprevention.crime_backend.core.repo.ai.LlmResultCacheEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs model resolution and Gemini calls against a local stub of the Gemini API
+ */
+public class GeminiModelResolverTest {
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private final Map<String, AtomicInteger> generateCalls = new ConcurrentHashMap<>();
+
+    private HttpServer stub;
+    private AIConfig aiConfig;
+    private GeminiModelResolver resolver;
+    private LlmClient llmClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/models", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/models")) {
+                listCalls.incrementAndGet();
+                String query = exchange.getRequestURI().getQuery();
+                if (query != null && query.contains("pageToken=page2")) {
+                    respond(exchange, 200, "{\"models\": [" + model("gemini-1.5-flash", "generateContent") + "]}");
+                } else {
+                    respond(exchange, 200, "{\"models\": [" + model("gemini-2.0-flash", "generateContent") + ","
+                            + model("text-embedding-004", "embedContent") + "], \"nextPageToken\": \"page2\"}");
+                }
+                return;
+            }
+            String name = path.substring("/models/".length(), path.indexOf(':'));
+            generateCalls.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            if (name.equals("gemini-2.0-flash")) {
+                respond(exchange, 404, "{\"error\": {\"code\": 404}}");
+            } else {
+                respond(exchange, 200, "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"answer from " + name + "\"}]}}]}");
+            }
+        });
+        stub.start();
+
+        aiConfig = new AIConfig();
+        aiConfig.setGeminiApiKey("test-key");
+        aiConfig.setGeminiBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        aiConfig.setGeminiModel("gemini-2.5-flash");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        OkHttpClient httpClient = new OkHttpClient();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        resolver = new GeminiModelResolver(aiConfig, objectMapper, httpClient, meterRegistry);
+        ReflectionTestUtils.setField(resolver, "fallbackModels", List.of("models/gemini-2.0-flash", "gemini-1.5-flash"));
+        ReflectionTestUtils.invokeMethod(resolver, "init");
+
+        LlmResultCacheEntryRepository repository = mock(LlmResultCacheEntryRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        LlmResultCache cache = new LlmResultCache(repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlHours", 24L);
+        ReflectionTestUtils.setField(cache, "memoryMaxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "maxRows", 1000);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        llmClient = new LlmClient(aiConfig, objectMapper, httpClient, cache, resolver, mock(AiProviderRouter.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    public void testListingResolvesFirstAvailableCandidate() {
+        // Before any listing the configured model is used unverified
+        assertEquals("gemini-2.5-flash", resolver.getModel());
+
+        resolver.refresh();
+
+        // The configured model is not listed; the first listed fallback wins across both pages
+        assertEquals("gemini-2.0-flash", resolver.getModel());
+        assertEquals(2, listCalls.get());
+        Map<String, Object> status = resolver.getStatus();
+        assertEquals(true, status.get("verified"));
+        assertEquals(2, status.get("availableModels"));
+    }
+
+    @Test
+    public void testNotFoundMovesToNextModelWithoutProbing() throws IOException {
+        resolver.refresh();
+        int listings = listCalls.get();
+
+        assertEquals("answer from gemini-1.5-flash", llmClient.generateWithGemini(Map.of("prompt", "first")));
+        assertEquals("answer from gemini-1.5-flash", llmClient.generateWithGemini(Map.of("prompt", "second")));
+
+        // The 404 is paid once, later calls go straight to the next model and nothing is re-listed
+        assertEquals(1, generateCalls.get("gemini-2.0-flash").get());
+        assertEquals(2, generateCalls.get("gemini-1.5-flash").get());
+        assertEquals(listings, listCalls.get());
+        assertEquals("gemini-1.5-flash", resolver.getModel());
+        assertEquals("gemini-1.5-flash", resolver.getStatus().get("lastAnsweredModel"));
+
+        // A fresh listing forgets the 404
+        resolver.refresh();
+        assertEquals("gemini-2.0-flash", resolver.getModel());
+    }
+
+    @Test
+    public void testFailedListingKeepsConfiguredModel() {
+        aiConfig.setGeminiBaseUrl("http://127.0.0.1:1");
+
+        resolver.refresh();
+
+        assertEquals("gemini-2.5-flash", resolver.getModel());
+        assertNotNull(resolver.getStatus().get("lastRefreshError"));
+    }
+
+    private static String model(String name, String method) {
+        return "{\"name\": \"models/" + name + "\", \"supportedGenerationMethods\": [\"" + method + "\"]}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.crimeprevention.crime_backend.ai;
+
+import com.crimeprevention.crime_backend.core.ai.LlmCallKey;
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
+import com.crimeprevention.crime_backend.core.model.ai.LlmResultCacheEntry;
+import com.crimeprevention.crime_backend.core.repo.ai.LlmResultCacheEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LlmResultCacheTest {
+
+    private final AtomicInteger providerCalls = new AtomicInteger();
+
+    private LlmResultCacheEntryRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmResultCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(LlmResultCacheEntryRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+        cache = new LlmResultCache(repository, new TransactionTemplate(transactionManager), new ObjectMapper(),
+                meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlHours", 24L);
+        ReflectionTestUtils.setField(cache, "memoryMaxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "maxRows", 1000);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    public void testIdenticalRequestsCallProviderOnce() throws IOException {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("prompt", "Summarise report 42");
+        first.put("temperature", 0.3);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("temperature", 0.3);
+        reordered.put("prompt", "Summarise report 42");
+
+        assertEquals("summary-1", cache.getOrGenerate(LlmCallKey.of("gemini", "flash", first), this::complete));
+        assertEquals("summary-1", cache.getOrGenerate(LlmCallKey.of("gemini", "flash", reordered), this::complete));
+        assertEquals(1, providerCalls.get());
+
+        // Another model is another call
+        cache.getOrGenerate(LlmCallKey.of("gemini", "pro", first), this::complete);
+        assertEquals(2, providerCalls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.result.cache", "result", "memory").count());
+    }
+
+    @Test
+    public void testPersistedResultSurvivesRestart() throws IOException {
+        LlmCallKey key = LlmCallKey.of("openai", "gpt", "{\"prompt\":\"x\"}");
+        cache.getOrGenerate(key, this::complete);
+        ArgumentCaptor<LlmResultCacheEntry> saved = ArgumentCaptor.forClass(LlmResultCacheEntry.class);
+        verify(repository).saveAndFlush(saved.capture());
+        when(repository.findById(saved.getValue().getKeyHash())).thenReturn(Optional.of(saved.getValue()));
+
+        setUp();
+        when(repository.findById(saved.getValue().getKeyHash())).thenReturn(Optional.of(saved.getValue()));
+        assertEquals("summary-1", cache.getOrGenerate(key, this::complete));
+        assertEquals(1, providerCalls.get());
+
+        // Expired rows are ignored
+        saved.getValue().setExpiresAt(Instant.now().minus(1, ChronoUnit.MINUTES));
+        setUp();
+        when(repository.findById(saved.getValue().getKeyHash())).thenReturn(Optional.of(saved.getValue()));
+        assertEquals("summary-2", cache.getOrGenerate(key, this::complete));
+    }
+
+    @Test
+    public void testBypassRefreshesEntry() throws IOException {
+        LlmCallKey key = LlmCallKey.of("gemini", "flash", "{\"prompt\":\"x\"}");
+        cache.getOrGenerate(key, this::complete);
+
+        String refreshed = cache.bypassIf(true, () -> {
+            try {
+                return cache.getOrGenerate(key, this::complete);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals("summary-2", refreshed);
+        assertFalse(cache.isBypassed());
+        assertEquals("summary-2", cache.getOrGenerate(key, this::complete));
+        assertEquals(2, providerCalls.get());
+    }
+
+    @Test
+    public void testBlankAndFailedCallsAreNotCached() throws IOException {
+        LlmCallKey key = LlmCallKey.of("gemini", "flash", "{\"prompt\":\"x\"}");
+        assertEquals("", cache.getOrGenerate(key, () -> ""));
+        assertThrows(IOException.class, () -> cache.getOrGenerate(key, () -> {
+            throw new IOException("timeout");
+        }));
+        assertEquals("summary-1", cache.getOrGenerate(key, this::complete));
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    public void testFailedCacheWriteDoesNotFailTheCall() throws IOException {
+        // Another caller stored the same key first
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        assertEquals("summary-1", cache.getOrGenerate(LlmCallKey.of("gemini", "flash", "{\"prompt\":\"x\"}"),
+                this::complete));
+
+        // Nor does a failure at the commit of the cache's own transaction
+        reset(repository);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        assertEquals("summary-2", cache.getOrGenerate(LlmCallKey.of("gemini", "flash", "{\"prompt\":\"y\"}"),
+                this::complete));
+
+        // Both tiers ran in transactions of their own, never in the caller's
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeast(4)).getTransaction(definitions.capture());
+        assertTrue(definitions.getAllValues().stream()
+                .allMatch(definition -> definition.getPropagationBehavior()
+                        == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    private String complete() {
+        return "summary-" + providerCalls.incrementAndGet();
+    }
+}
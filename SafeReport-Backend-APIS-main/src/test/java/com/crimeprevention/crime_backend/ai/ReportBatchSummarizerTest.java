@@ -0,0 +1,160 @@
+package com.crimeprevention.crime_backend.ai;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.core.ai.LlmClient;
+import com.crimeprevention.crime_backend.core.ai.ReportBatchSummarizer;
+import com.crimeprevention.crime_backend.core.dto.ai.BatchSummaryResponse;
+import com.crimeprevention.crime_backend.core.model.ai.ReportSummary;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.ai.ReportSummaryRepository;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportBatchSummarizerTest {
+
+    private final List<Report> reports = new ArrayList<>();
+
+    private LlmClient llmClient;
+    private AIService aiService;
+    private ReportRepository reportRepository;
+    private ReportSummaryRepository reportSummaryRepository;
+    private ReportBatchSummarizer summarizer;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Report report = Report.builder()
+                    .title("Report " + i)
+                    .description("Bicycle taken from the yard of house " + i)
+                    .crimeType(CrimeType.values()[0])
+                    .build();
+            report.setId(UUID.randomUUID());
+            reports.add(report);
+        }
+        llmClient = mock(LlmClient.class);
+        aiService = mock(AIService.class);
+        reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findAllById(any())).thenReturn(reports);
+        reportSummaryRepository = mock(ReportSummaryRepository.class);
+
+        summarizer = new ReportBatchSummarizer(llmClient, aiService, new AIConfig(), reportRepository,
+                reportSummaryRepository, new ObjectMapper(), Runnable::run, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(summarizer, "maxInputTokens", 6000);
+        ReflectionTestUtils.setField(summarizer, "maxOutputTokens", 4096);
+        ReflectionTestUtils.setField(summarizer, "outputTokensPerReport", 200);
+        ReflectionTestUtils.setField(summarizer, "maxReports", 3);
+        ReflectionTestUtils.invokeMethod(summarizer, "init");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchesAreParsedAndGapsFallBackToSingleCalls() throws IOException {
+        // First batch answers for two of its three reports, the second batch call fails
+        String answer = "```json\n[" + answer(reports.get(0), "HIGH") + "," + answer(reports.get(2), "critical") + "]\n```";
+        when(llmClient.complete(anyString(), anyString(), anyInt()))
+                .thenReturn(new LlmClient.Completion("gemini", "flash", answer))
+                .thenThrow(new IOException("timeout"));
+        when(aiService.summarizeReportById(reports.get(4).getId())).thenThrow(new RuntimeException("provider down"));
+
+        BatchSummaryResponse result = summarizer.run(ids()).orElseThrow();
+
+        // Output budget scales with the reports in each batch
+        verify(llmClient).complete(anyString(), anyString(), eq(600));
+        verify(llmClient).complete(anyString(), anyString(), eq(400));
+        ArgumentCaptor<List<ReportSummary>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reportSummaryRepository, times(1)).saveAll(saved.capture());
+        List<ReportSummary> first = saved.getValue();
+        assertEquals(2, first.size());
+        assertEquals(ReportSummary.UrgencyLevel.HIGH, first.get(0).getUrgencyLevel());
+        assertEquals(ReportSummary.UrgencyLevel.CRITICAL, first.get(1).getUrgencyLevel());
+        assertEquals(List.of("theft", "bicycle"), first.get(0).getTags());
+        assertEquals("gemini", first.get(0).getAiServiceUsed());
+
+        verify(aiService).summarizeReportById(reports.get(1).getId());
+        verify(aiService).summarizeReportById(reports.get(3).getId());
+        verify(aiService).summarizeReportById(reports.get(4).getId());
+        verify(aiService, never()).summarizeReportById(reports.get(0).getId());
+
+        assertEquals(5, result.getRequested());
+        assertEquals(2, result.getBatched());
+        assertEquals(2, result.getFallback());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(reports.get(4).getId().toString()), result.getFailedReportIds());
+        assertEquals(5, result.getModelCalls());
+        assertTrue(result.getReportsPerMinute() > 0);
+        assertSame(result, summarizer.getLastRun().orElseThrow());
+    }
+
+    @Test
+    public void testTokenBudgetLimitsBatchSize() throws IOException {
+        // Room for the preamble and about one report per call
+        ReflectionTestUtils.setField(summarizer, "maxInputTokens", 150);
+        when(llmClient.complete(anyString(), anyString(), anyInt()))
+                .thenReturn(new LlmClient.Completion("gemini", "flash", "[]"));
+
+        summarizer.run(ids());
+
+        verify(llmClient, times(5)).complete(anyString(), anyString(), eq(200));
+    }
+
+    @Test
+    public void testNightlyRunIsHandedToTheBatchExecutor() throws IOException {
+        List<Runnable> queued = new ArrayList<>();
+        summarizer = new ReportBatchSummarizer(llmClient, aiService, new AIConfig(), reportRepository,
+                reportSummaryRepository, new ObjectMapper(), queued::add, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(summarizer, "maxInputTokens", 6000);
+        ReflectionTestUtils.setField(summarizer, "maxOutputTokens", 4096);
+        ReflectionTestUtils.setField(summarizer, "outputTokensPerReport", 200);
+        ReflectionTestUtils.setField(summarizer, "maxReports", 3);
+        ReflectionTestUtils.setField(summarizer, "nightlyEnabled", true);
+        ReflectionTestUtils.setField(summarizer, "nightlyLimit", 1000);
+        ReflectionTestUtils.invokeMethod(summarizer, "init");
+        when(reportRepository.findUnsummarizedIds(any())).thenReturn(ids());
+        when(llmClient.complete(anyString(), anyString(), anyInt()))
+                .thenReturn(new LlmClient.Completion("gemini", "flash", "[]"));
+
+        summarizer.summarizeNightly();
+
+        // The scheduler thread returns before any report is read or summarised
+        assertEquals(1, queued.size());
+        assertTrue(summarizer.isRunning());
+        verifyNoInteractions(llmClient);
+        verify(reportRepository, never()).findUnsummarizedIds(any());
+        // A second trigger while the run is queued does not start another
+        summarizer.summarizeNightly();
+        assertEquals(1, queued.size());
+
+        queued.get(0).run();
+
+        verify(reportRepository).findUnsummarizedIds(any());
+        verify(llmClient, times(2)).complete(anyString(), anyString(), anyInt());
+        assertFalse(summarizer.isRunning());
+    }
+
+    private List<UUID> ids() {
+        return reports.stream().map(Report::getId).collect(Collectors.toList());
+    }
+
+    private static String answer(Report report, String urgency) {
+        return "{\"id\": \"" + report.getId() + "\", \"summary\": \"A bicycle was stolen.\", "
+                + "\"keyPoints\": [\"Bicycle stolen\"], \"urgency\": \"" + urgency + "\", \"priority\": \"MEDIUM\", "
+                + "\"tags\": [\"theft\", \"bicycle\"], \"language\": \"English\"}";
+    }
+}
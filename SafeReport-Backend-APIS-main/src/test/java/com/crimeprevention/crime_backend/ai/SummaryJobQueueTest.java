@@ -0,0 +1,184 @@
+package com.crimeprevention.crime_backend.ai;
+
+import com.crimeprevention.crime_backend.core.ai.LlmResultCache;
+import com.crimeprevention.crime_backend.core.ai.SummaryJobQueue;
+import com.crimeprevention.crime_backend.core.ai.SummaryJobRejectedException;
+import com.crimeprevention.crime_backend.core.dto.ai.ReportSummaryResponse;
+import com.crimeprevention.crime_backend.core.dto.ai.SummaryJobResponse;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.repo.ai.ReportSummaryRepository;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.AIService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SummaryJobQueueTest {
+
+    private final UUID officer = UUID.randomUUID();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<UUID> processed = new CopyOnWriteArrayList<>();
+
+    private ReportRepository reportRepository;
+    private SimpMessagingTemplate messagingTemplate;
+    private ThreadPoolExecutor executor;
+    private SummaryJobQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        AIService aiService = mock(AIService.class);
+        when(aiService.summarizeReportById(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            UUID reportId = invocation.getArgument(0);
+            processed.add(reportId);
+            return ReportSummaryResponse.builder().originalReportId(reportId.toString()).summary("ok").build();
+        });
+        reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findPriorityById(any())).thenReturn(Optional.of(Priority.LOW));
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        LlmResultCache llmResultCache = mock(LlmResultCache.class);
+        when(llmResultCache.bypassIf(anyBoolean(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+
+        // One worker, so jobs submitted while it is busy are ordered by the queue
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new PriorityBlockingQueue<>());
+        queue = new SummaryJobQueue(aiService, llmResultCache, reportRepository, mock(ReportSummaryRepository.class),
+                messagingTemplate, executor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "queueCapacity", 3);
+        ReflectionTestUtils.setField(queue, "urgentReserve", 1);
+        ReflectionTestUtils.setField(queue, "retentionMinutes", 5L);
+        ReflectionTestUtils.invokeMethod(queue, "init");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUrgentReportsAreProcessedFirst() throws Exception {
+        UUID blocking = UUID.randomUUID();
+        UUID routine = UUID.randomUUID();
+        UUID urgent = UUID.randomUUID();
+        when(reportRepository.findPriorityById(urgent)).thenReturn(Optional.of(Priority.URGENT));
+
+        queue.submitSummary(blocking, officer, false);
+        waitUntil(() -> executor.getActiveCount() == 1);
+        queue.submitSummary(routine, officer, false);
+        SummaryJobResponse urgentJob = queue.submitSummary(urgent, officer, false);
+        assertTrue(urgentJob.isUrgent());
+        assertEquals(SummaryJobResponse.Status.QUEUED, urgentJob.getStatus());
+
+        release.countDown();
+        waitUntil(() -> processed.size() == 3);
+        assertEquals(List.of(blocking, urgent, routine), processed);
+
+        waitUntil(() -> queue.getJob(UUID.fromString(urgentJob.getJobId()), officer, false)
+                .map(SummaryJobResponse::isFinished).orElse(false));
+        SummaryJobResponse done = queue.getJob(UUID.fromString(urgentJob.getJobId()), officer, false).orElseThrow();
+        assertEquals(SummaryJobResponse.Status.SUCCEEDED, done.getStatus());
+        assertEquals(urgent.toString(), done.getResult().getOriginalReportId());
+        verify(messagingTemplate, atLeast(2)).convertAndSendToUser(eq(officer.toString()), eq("/queue/ai-jobs"), any());
+
+        // Other users cannot read the job, admins can
+        assertTrue(queue.getJob(UUID.fromString(urgentJob.getJobId()), UUID.randomUUID(), false).isEmpty());
+        assertTrue(queue.getJob(UUID.fromString(urgentJob.getJobId()), UUID.randomUUID(), true).isPresent());
+    }
+
+    @Test
+    public void testFullQueueRejectsRoutineJobsAndKeepsReserveForUrgent() throws Exception {
+        queue.submitSummary(UUID.randomUUID(), officer, false);
+        // Not just the worker being busy: the job must have left the queue before it is filled
+        waitUntil(() -> Integer.valueOf(1).equals(queue.getStatistics().get("running")));
+        for (int i = 0; i < 3; i++) {
+            queue.submitSummary(UUID.randomUUID(), officer, false);
+        }
+        assertThrows(SummaryJobRejectedException.class, () -> queue.submitSummary(UUID.randomUUID(), officer, false));
+
+        UUID urgent = UUID.randomUUID();
+        when(reportRepository.findPriorityById(urgent)).thenReturn(Optional.of(Priority.HIGH));
+        queue.submitSummary(urgent, officer, false);
+        assertEquals(4, queue.getStatistics().get("queued"));
+        assertEquals(1L, queue.getStatistics().get("rejected"));
+        release.countDown();
+    }
+
+    @Test
+    public void testResubmittingPendingJobReturnsIt() throws Exception {
+        UUID reportId = UUID.randomUUID();
+        SummaryJobResponse first = queue.submitSummary(reportId, officer, false);
+        SummaryJobResponse second = queue.submitSummary(reportId, officer, false);
+        assertEquals(first.getJobId(), second.getJobId());
+
+        release.countDown();
+        waitUntil(() -> processed.size() == 1);
+        waitUntil(() -> queue.getJob(UUID.fromString(first.getJobId()), officer, false)
+                .map(SummaryJobResponse::isFinished).orElse(false));
+        assertNotEquals(first.getJobId(), queue.submitSummary(reportId, officer, false).getJobId());
+    }
+
+    @Test
+    public void testConcurrentSubmissionsShareOneJob() throws Exception {
+        ReflectionTestUtils.setField(queue, "queueCapacity", 50);
+        UUID reportId = UUID.randomUUID();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SummaryJobResponse>> submitted = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                submitted.add(submitters.submit(() -> {
+                    start.await();
+                    return queue.submitSummary(reportId, officer, false);
+                }));
+            }
+            start.countDown();
+            Set<String> jobIds = new HashSet<>();
+            for (Future<SummaryJobResponse> job : submitted) {
+                jobIds.add(job.get(5, TimeUnit.SECONDS).getJobId());
+            }
+            assertEquals(1, jobIds.size());
+        } finally {
+            submitters.shutdownNow();
+        }
+
+        release.countDown();
+        waitUntil(() -> processed.size() == 1);
+        Thread.sleep(50);
+        assertEquals(1, processed.size());
+        assertEquals(0, queue.getStatistics().get("queued"));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
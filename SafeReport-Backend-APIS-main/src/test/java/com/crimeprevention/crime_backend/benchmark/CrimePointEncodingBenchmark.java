@@ -0,0 +1,166 @@
+package com.crimeprevention.crime_backend.benchmark;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimePointColumns;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.util.CrimePointColumnsCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialisation time of a crime points payload as the current GeoJSON-style features,
+ * as columnar JSON and as the columnar binary encoding.
+ * Payload sizes (raw and gzipped) are printed once per parameter set during setup.
+ *
+ * Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class CrimePointEncodingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int points;
+
+    private ObjectMapper objectMapper;
+    private CrimeMapResponse features;
+    private CrimePointColumns columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Random random = new Random(42);
+        int scale = CrimePointColumns.DEFAULT_COORDINATE_SCALE;
+        List<CrimeMapResponse.CrimeFeature> featureList = new ArrayList<>(points);
+        List<String> ids = new ArrayList<>(points);
+        List<String> titles = new ArrayList<>(points);
+        int[] latitudes = new int[points];
+        int[] longitudes = new int[points];
+        int[] crimeTypes = new int[points];
+        int[] statuses = new int[points];
+        int[] priorities = new int[points];
+        long[] occurredAt = new long[points];
+        long[] reportedAt = new long[points];
+        int[] riskScores = new int[points];
+
+        Instant now = Instant.now();
+        for (int i = 0; i < points; i++) {
+            String id = UUID.randomUUID().toString();
+            double lat = -2.05 + random.nextDouble() * 0.2;
+            double lng = 29.95 + random.nextDouble() * 0.3;
+            CrimeType crimeType = CrimeType.values()[random.nextInt(CrimeType.values().length)];
+            ReportStatus status = ReportStatus.values()[random.nextInt(ReportStatus.values().length)];
+            Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+            Instant date = now.minusSeconds(random.nextInt(7 * 24 * 3600));
+            Instant submitted = date.plusSeconds(random.nextInt(3600));
+            double risk = 0.5 + random.nextInt(6) / 10.0;
+            String title = crimeType.name().charAt(0) + crimeType.name().substring(1).toLowerCase() + " reported";
+
+            Map<String, Object> additionalData = new HashMap<>();
+            additionalData.put("reporterId", UUID.randomUUID());
+            additionalData.put("submittedAt", submitted);
+            featureList.add(CrimeMapResponse.CrimeFeature.builder()
+                    .type("Feature")
+                    .geometry(CrimeMapResponse.CrimeGeometry.builder()
+                            .type("Point")
+                            .coordinates(Arrays.asList(lng, lat))
+                            .build())
+                    .properties(CrimeMapResponse.CrimeProperties.builder()
+                            .crimeId(id)
+                            .title(title)
+                            .crimeType(crimeType.name())
+                            .status(status.name())
+                            .priority(priority.name())
+                            .crimeDate(LocalDateTime.ofInstant(date, ZoneId.systemDefault()))
+                            .location("KG " + random.nextInt(700) + " St, Kigali")
+                            .riskScore(risk)
+                            .additionalData(additionalData)
+                            .build())
+                    .build());
+
+            ids.add(id);
+            titles.add(title);
+            latitudes[i] = (int) Math.round(lat * scale);
+            longitudes[i] = (int) Math.round(lng * scale);
+            crimeTypes[i] = crimeType.ordinal();
+            statuses[i] = status.ordinal();
+            priorities[i] = priority.ordinal();
+            occurredAt[i] = date.getEpochSecond();
+            reportedAt[i] = submitted.getEpochSecond();
+            riskScores[i] = (int) Math.round(risk * 100);
+        }
+
+        features = CrimeMapResponse.builder().features(featureList).build();
+        columns = CrimePointColumns.builder()
+                .count(points)
+                .coordinateScale(scale)
+                .crimeTypeNames(Arrays.stream(CrimeType.values()).map(Enum::name).toList())
+                .statusNames(Arrays.stream(ReportStatus.values()).map(Enum::name).toList())
+                .priorityNames(Arrays.stream(Priority.values()).map(Enum::name).toList())
+                .ids(ids)
+                .latitudes(latitudes)
+                .longitudes(longitudes)
+                .crimeTypes(crimeTypes)
+                .statuses(statuses)
+                .priorities(priorities)
+                .occurredAt(occurredAt)
+                .reportedAt(reportedAt)
+                .riskScores(riskScores)
+                .titles(titles)
+                .build();
+
+        report("features JSON", featuresJson());
+        report("columnar JSON", columnarJson());
+        report("columnar binary", columnarBinary());
+    }
+
+    @Benchmark
+    public byte[] featuresJson() throws IOException {
+        return objectMapper.writeValueAsBytes(features);
+    }
+
+    @Benchmark
+    public byte[] columnarJson() throws IOException {
+        return objectMapper.writeValueAsBytes(columns);
+    }
+
+    @Benchmark
+    public byte[] columnarBinary() {
+        return CrimePointColumnsCodec.encode(columns);
+    }
+
+    private void report(String name, byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        System.out.printf("%d points, %-16s %9d bytes, %8d gzipped%n",
+                points, name + ":", payload.length, compressed.size());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CrimePointEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
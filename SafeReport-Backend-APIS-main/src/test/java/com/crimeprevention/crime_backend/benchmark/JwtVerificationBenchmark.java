@@ -0,0 +1,90 @@
+package com.crimeprevention.crime_backend.benchmark;
+
+import com.crimeprevention.crime_backend.core.util.JwtClaims;
+import com.crimeprevention.crime_backend.core.util.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work of the JWT filter.
+ * legacyTripleParse reproduces the previous filter: validateToken, getUserIdFromJWT and
+ * getRoleFromJWT, each rebuilding the HMAC key and verifying the signature.
+ * singleVerify is one verification with the claims cache disabled; cachedVerify is the
+ * steady state for a client re-using its token.
+ *
+ * Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-jwt-key-at-least-256-bits-long-for-hmac-sha";
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(600);
+        uncachedProvider = provider(0);
+        token = cachingProvider.generateToken(UUID.randomUUID(), "CIVILIAN");
+    }
+
+    @Benchmark
+    public void legacyTripleParse(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token));
+        blackhole.consume(UUID.fromString(legacyParse(token).getSubject()));
+        blackhole.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> singleVerify() {
+        return uncachedProvider.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> cachedVerify() {
+        return cachingProvider.verify(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtTokenProvider provider(long cacheTtlSeconds) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxTtlSeconds", cacheTtlSeconds);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
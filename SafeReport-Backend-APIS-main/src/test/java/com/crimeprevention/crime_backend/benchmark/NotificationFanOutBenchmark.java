@@ -0,0 +1,131 @@
+package com.crimeprevention.crime_backend.benchmark;
+
+import com.crimeprevention.crime_backend.core.event.NotificationFanOutEvent;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import com.crimeprevention.crime_backend.core.notification.NotificationContent;
+import com.crimeprevention.crime_backend.core.notification.NotificationFanOut;
+import com.crimeprevention.crime_backend.core.notification.NotificationPusher;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Officer alert fan-out to N recipients: NotificationFanOut's keyset pages and JDBC batches
+ * against the previous per-recipient "load the user, save one notification" loop in one
+ * transaction. Uses an in-memory H2 database, so it measures statement overhead only; against
+ * PostgreSQL each per-recipient statement also pays a network round trip.
+ *
+ * Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NotificationFanOutBenchmark {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, user_id, type, title, message, is_read, priority, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, false, ?, ?, ?)";
+
+    @Param({"2000", "10000"})
+    private int recipients;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private NotificationFanOut fanOut;
+    private List<UUID> userIds;
+    private NotificationContent content;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:fanout-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, full_name VARCHAR(100), role VARCHAR(20), is_active BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE notifications (id UUID PRIMARY KEY, user_id UUID NOT NULL REFERENCES users(id), "
+                + "type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, message TEXT NOT NULL, is_read BOOLEAN NOT NULL, "
+                + "read_at TIMESTAMP, action_url VARCHAR(255), related_entity_type VARCHAR(255), related_entity_id UUID, "
+                + "priority VARCHAR(20) NOT NULL, expires_at TIMESTAMP, metadata TEXT, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE INDEX idx_users_role ON users (role)");
+        userIds = new ArrayList<>();
+        for (int i = 0; i < recipients; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, full_name, role, is_active) VALUES (?, ?, ?, true)", userIds, 1000,
+                (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, "Officer " + id);
+                    ps.setString(3, UserRole.OFFICER.name());
+                });
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        fanOut = new NotificationFanOut(jdbcTemplate, transactionTemplate, mock(UnreadNotificationCounters.class),
+                mock(NotificationPusher.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fanOut, "batchSize", 1000);
+        ReflectionTestUtils.invokeMethod(fanOut, "init");
+        content = NotificationContent.builder()
+                .type(NotificationType.PREDICTIVE_ALERT)
+                .title("Crime Prediction Alert")
+                .message("Predictive Alert: THEFT crime predicted in Kicukiro with 82.0% probability. Risk Level: HIGH.")
+                .priority(NotificationPriority.HIGH)
+                .actionUrl("/ai/predictions")
+                .relatedEntityType("AI_SYSTEM")
+                .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearNotifications() {
+        jdbcTemplate.execute("TRUNCATE TABLE notifications");
+    }
+
+    @Benchmark
+    public int perRecipient() {
+        return transactionTemplate.execute(status -> {
+            int written = 0;
+            for (UUID userId : jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE role IN (?, ?) AND is_active = true", UUID.class,
+                    UserRole.OFFICER.name(), UserRole.ADMIN.name())) {
+                jdbcTemplate.queryForMap("SELECT * FROM users WHERE id = ?", userId);
+                Timestamp now = Timestamp.from(Instant.now());
+                written += jdbcTemplate.update(INSERT_SQL, UUID.randomUUID(), userId, content.getType().name(),
+                        content.getTitle(), content.getMessage(), content.getPriority().name(), now, now);
+            }
+            return written;
+        });
+    }
+
+    @Benchmark
+    public int batched() {
+        return fanOut.fanOut(NotificationFanOutEvent.toActiveUsersWithRoles(
+                List.of(UserRole.OFFICER, UserRole.ADMIN), content));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationFanOutBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.crimeprevention.crime_backend.benchmark;
+
+import com.crimeprevention.crime_backend.core.geo.GridIndex;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Nearest available officer lookup for SOS dispatch: the registry's grid k-NN search
+ * against the previous "load every available officer and Haversine each one" scan.
+ * Officers are spread over a country-sized area, about a third of them available.
+ *
+ * Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class OfficerNearestBenchmark {
+
+    private static final double MIN_LAT = -2.8, MAX_LAT = -1.0;
+    private static final double MIN_LNG = 28.9, MAX_LNG = 30.9;
+    private static final double RADIUS_KM = 50.0;
+
+    @Param({"1000", "10000"})
+    private int officers;
+
+    @Param({"1", "5"})
+    private int k;
+
+    private Officer[] all;
+    private GridIndex<Integer, Officer> index;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        DutyStatus[] statuses = {DutyStatus.AVAILABLE, DutyStatus.ON_CASE, DutyStatus.OFF_DUTY};
+        all = new Officer[officers];
+        index = new GridIndex<>(0.02);
+        for (int i = 0; i < officers; i++) {
+            all[i] = new Officer(randomLat(random), randomLng(random), statuses[random.nextInt(statuses.length)]);
+            index.put(i, all[i].latitude, all[i].longitude, all[i]);
+        }
+        queries = new double[256][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{randomLat(random), randomLng(random)};
+        }
+    }
+
+    @Benchmark
+    public List<Officer> gridNearest() {
+        double[] q = nextQuery();
+        return index.nearest(q[0], q[1], k, RADIUS_KM, o -> o.dutyStatus == DutyStatus.AVAILABLE);
+    }
+
+    @Benchmark
+    public List<Officer> linearScan() {
+        double[] q = nextQuery();
+        return Arrays.stream(all)
+                .filter(o -> o.dutyStatus == DutyStatus.AVAILABLE)
+                .filter(o -> GeoUtils.haversineKm(q[0], q[1], o.latitude, o.longitude) <= RADIUS_KM)
+                .sorted(Comparator.comparingDouble(o -> GeoUtils.haversineKm(q[0], q[1], o.latitude, o.longitude)))
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    private double[] nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+
+    private static double randomLat(Random random) {
+        return MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+    }
+
+    private static double randomLng(Random random) {
+        return MIN_LNG + random.nextDouble() * (MAX_LNG - MIN_LNG);
+    }
+
+    static final class Officer {
+        final double latitude;
+        final double longitude;
+        final DutyStatus dutyStatus;
+
+        Officer(double latitude, double longitude, DutyStatus dutyStatus) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.dutyStatus = dutyStatus;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OfficerNearestBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.crimeprevention.crime_backend.benchmark;
+
+import com.crimeprevention.crime_backend.core.geo.GridIndex;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius query latency of the report grid index against the previous
+ * "load the date slice and Haversine every report" approach, as the number of reports grows.
+ * Reports are spread over a Kigali-sized area and queried with a 2 km radius.
+ *
+ * Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ReportSpatialIndexBenchmark {
+
+    private static final double MIN_LAT = -2.05, MAX_LAT = -1.85;
+    private static final double MIN_LNG = 29.95, MAX_LNG = 30.25;
+    private static final double RADIUS_KM = 2.0;
+
+    @Param({"1000", "10000", "100000"})
+    private int reports;
+
+    private double[][] points;
+    private GridIndex<Integer, double[]> index;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        points = new double[reports][];
+        index = new GridIndex<>(0.01);
+        for (int i = 0; i < reports; i++) {
+            double[] p = {randomLat(random), randomLng(random)};
+            points[i] = p;
+            index.put(i, p[0], p[1], p);
+        }
+        queries = new double[256][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{randomLat(random), randomLng(random)};
+        }
+    }
+
+    @Benchmark
+    public int gridIndex() {
+        double[] q = nextQuery();
+        return index.withinRadius(q[0], q[1], RADIUS_KM, null).size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        double[] q = nextQuery();
+        List<double[]> result = new ArrayList<>();
+        for (double[] p : points) {
+            if (GeoUtils.haversineKm(q[0], q[1], p[0], p[1]) <= RADIUS_KM) {
+                result.add(p);
+            }
+        }
+        return result.size();
+    }
+
+    private double[] nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+
+    private static double randomLat(Random random) {
+        return MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+    }
+
+    private static double randomLng(Random random) {
+        return MIN_LNG + random.nextDouble() * (MAX_LNG - MIN_LNG);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReportSpatialIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.crimeprevention.crime_backend.cache;
+
+import com.crimeprevention.crime_backend.config.AIConfig;
+import com.crimeprevention.crime_backend.config.CacheConfig;
+import com.crimeprevention.crime_backend.config.CachePolicyProperties;
+import com.crimeprevention.crime_backend.core.dto.ai.ReportSummaryRequest;
+import com.crimeprevention.crime_backend.core.util.ContentHashKeyGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheConfigTest {
+
+    @Test
+    public void testConfiguredCachesAreBoundedAndOthersAreNoOp() throws Exception {
+        AIConfig aiConfig = new AIConfig();
+        aiConfig.setCacheMaxSize(2);
+        CachePolicyProperties policies = new CachePolicyProperties();
+        policies.getPolicies().put("geocoding", new CachePolicyProperties.Policy());
+        CacheManager cacheManager = new CacheConfig(aiConfig, policies).cacheManager();
+        ((InitializingBean) cacheManager).afterPropertiesSet();
+
+        Cache summaries = cacheManager.getCache(CacheConfig.REPORT_SUMMARIES);
+        assertInstanceOf(CaffeineCache.class, summaries);
+        assertInstanceOf(CaffeineCache.class, cacheManager.getCache("geocoding"));
+        assertTrue(((CaffeineCache) summaries).getNativeCache().policy().isRecordingStats());
+        assertEquals(2, ((CaffeineCache) summaries).getNativeCache().policy().eviction().orElseThrow().getMaximum());
+
+        Cache unknown = cacheManager.getCache("unconfigured");
+        assertNotNull(unknown);
+        unknown.put("key", "value");
+        assertNull(unknown.get("key"));
+
+        aiConfig.setCacheEnabled(false);
+        CacheManager disabled = new CacheConfig(aiConfig, new CachePolicyProperties()).cacheManager();
+        ((InitializingBean) disabled).afterPropertiesSet();
+        assertFalse(disabled.getCache(CacheConfig.REPORT_SUMMARIES) instanceof CaffeineCache);
+    }
+
+    @Test
+    public void testContentKeysFollowRequestContents() throws Exception {
+        ContentHashKeyGenerator keyGenerator = new ContentHashKeyGenerator(new ObjectMapper());
+        Method method = Object.class.getMethod("toString");
+
+        Object first = keyGenerator.generate(this, method, request("Theft", List.of("a", "b")));
+        Object same = keyGenerator.generate(this, method, request("Theft", List.of("a", "b")));
+        Object reordered = keyGenerator.generate(this, method, request("Theft", List.of("b", "a")));
+        Object other = keyGenerator.generate(this, method, request("Theft ", List.of("a", "b")));
+
+        assertEquals(first, same);
+        assertNotEquals(first, reordered);
+        assertNotEquals(first, other);
+    }
+
+    private static ReportSummaryRequest request(String title, List<String> details) {
+        return ReportSummaryRequest.builder()
+                .title(title)
+                .description("Bag snatched near the bus stop")
+                .additionalDetails(details)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.dto.officer.BackupRequestDTO;
+import com.crimeprevention.crime_backend.core.dto.officer.BackupResponseDTO;
+import com.crimeprevention.crime_backend.core.dto.officer.OfficerDTO;
+import com.crimeprevention.crime_backend.core.event.BackupRequestedEvent;
+import com.crimeprevention.crime_backend.core.geo.BackupRequestRouter;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BackupRequestRouterTest {
+
+    private static final double LAT = -1.95;
+    private static final double LNG = 30.06;
+    // Roughly 1.1 km per 0.01 degree at this latitude
+    private static final double KM = 0.009;
+
+    private final List<Officer> officers = new ArrayList<>();
+    private OfficerLocationRegistry registry;
+    private SimpMessagingTemplate messagingTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private BackupRequestRouter router;
+
+    @BeforeEach
+    public void setUp() {
+        OfficerRepository officerRepository = mock(OfficerRepository.class);
+        when(officerRepository.findAll()).thenReturn(officers);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new OfficerLocationRegistry(officerRepository, mock(JdbcTemplate.class), meterRegistry);
+        ReflectionTestUtils.setField(registry, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(registry, "cellSizeDegrees", 0.02);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        router = new BackupRequestRouter(registry, messagingTemplate, meterRegistry);
+        ReflectionTestUtils.setField(router, "radiusKm", 5.0);
+        ReflectionTestUtils.setField(router, "maxRadiusKm", 40.0);
+        ReflectionTestUtils.setField(router, "minOfficers", 2);
+        ReflectionTestUtils.setField(router, "maxOfficers", 3);
+        ReflectionTestUtils.invokeMethod(router, "init");
+    }
+
+    @Test
+    public void testRoutesOnlyToNearbyOnDutyOfficers() {
+        UUID requester = officer(0, DutyStatus.ON_CASE);
+        UUID near = officer(1, DutyStatus.ON_DUTY);
+        UUID nearAvailable = officer(2, DutyStatus.AVAILABLE);
+        UUID nearOffDuty = officer(2, DutyStatus.OFF_DUTY);
+        UUID nearButFourth = officer(3, DutyStatus.ON_DUTY);
+        UUID far = officer(60, DutyStatus.AVAILABLE);
+        UUID closest = officer(0.5, DutyStatus.ON_DUTY);
+        registry.warmUp();
+
+        router.onBackupRequested(new BackupRequestedEvent(backup(requester)));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/backup-requests"), any(BackupResponseDTO.class));
+        verify(messagingTemplate).convertAndSendToUser(eq(closest.toString()), anyString(), any());
+        verify(messagingTemplate).convertAndSendToUser(eq(near.toString()), anyString(), any());
+        verify(messagingTemplate).convertAndSendToUser(eq(nearAvailable.toString()), anyString(), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(requester.toString()), anyString(), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(nearOffDuty.toString()), anyString(), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(nearButFourth.toString()), anyString(), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(far.toString()), anyString(), any());
+        assertEquals(3.0, meterRegistry.summary("backup.routing.recipients").totalAmount());
+        assertEquals(1, meterRegistry.timer("backup.routing.delivery").count());
+    }
+
+    @Test
+    public void testWidensRadiusUntilEnoughOfficers() {
+        UUID requester = officer(0, DutyStatus.ON_CASE);
+        UUID twelveKm = officer(12, DutyStatus.ON_DUTY);
+        UUID thirtyKm = officer(30, DutyStatus.AVAILABLE);
+        UUID sixtyKm = officer(60, DutyStatus.AVAILABLE);
+        registry.warmUp();
+
+        router.onBackupRequested(new BackupRequestedEvent(backup(requester)));
+
+        verify(messagingTemplate).convertAndSendToUser(eq(twelveKm.toString()), anyString(), any());
+        verify(messagingTemplate).convertAndSendToUser(eq(thirtyKm.toString()), anyString(), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(sixtyKm.toString()), anyString(), any());
+        assertEquals(0.0, meterRegistry.counter("backup.routing.unrouted").count());
+    }
+
+    @Test
+    public void testRequestWithoutLocationOnlyReachesDispatch() {
+        UUID requester = officer(0, DutyStatus.ON_CASE);
+        officer(1, DutyStatus.ON_DUTY);
+        registry.warmUp();
+        BackupResponseDTO backup = backup(requester);
+        backup.setLocation(null);
+
+        router.onBackupRequested(new BackupRequestedEvent(backup));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/backup-requests"), any(BackupResponseDTO.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.counter("backup.routing.unrouted").count());
+    }
+
+    // An officer the given distance north of the request location
+    private UUID officer(double kmNorth, DutyStatus dutyStatus) {
+        Officer officer = Officer.builder()
+                .dutyStatus(dutyStatus)
+                .location(new Officer.Location(LAT + kmNorth * KM, LNG))
+                .build();
+        officer.setId(UUID.randomUUID());
+        officers.add(officer);
+        return officer.getId();
+    }
+
+    private static BackupResponseDTO backup(UUID requester) {
+        OfficerDTO requestingOfficer = new OfficerDTO();
+        requestingOfficer.setId(requester);
+        return BackupResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .requestingOfficer(requestingOfficer)
+                .location(new BackupRequestDTO.LocationDTO(LAT, LNG))
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.geo.ClusterIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterIndexTest {
+
+    @Test
+    public void testClustersMergeWhenZoomedOut() {
+        Random random = new Random(11);
+        List<ReportPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            points.add(ReportPoint.builder()
+                    .id(UUID.randomUUID())
+                    .latitude(-2.05 + random.nextDouble() * 0.2)
+                    .longitude(29.95 + random.nextDouble() * 0.3)
+                    .crimeType(i % 2 == 0 ? CrimeType.THEFT : CrimeType.ASSAULT)
+                    .date(Instant.now())
+                    .build());
+        }
+        ClusterIndex index = new ClusterIndex(points, point -> 0.5, 0, 16, 60, 512);
+
+        List<ClusterIndex.Cluster> world = index.getClusters(-180, -90, 180, 90, 3);
+        assertEquals(1, world.size());
+        assertEquals(10000, world.get(0).getCount());
+        assertEquals(5000, world.get(0).getCrimeTypeBreakdown().get(CrimeType.THEFT));
+        assertEquals(0.5, world.get(0).getAverageRiskScore(), 1e-9);
+
+        // Counts are conserved and cluster numbers stay small at every zoom
+        for (int zoom = 8; zoom <= 12; zoom++) {
+            List<ClusterIndex.Cluster> clusters = index.getClusters(-180, -90, 180, 90, zoom);
+            assertEquals(10000, clusters.stream().mapToInt(ClusterIndex.Cluster::getCount).sum());
+            assertTrue(clusters.size() < 2000, "zoom " + zoom + " returned " + clusters.size());
+        }
+
+        // Past max zoom every report is its own point
+        assertEquals(10000, index.getClusters(-180, -90, 180, 90, 17).size());
+    }
+
+    @Test
+    public void testViewportFilter() {
+        List<ReportPoint> points = List.of(
+                point(-1.95, 30.06), point(-1.95, 30.0601), point(40.7, -74.0));
+        ClusterIndex index = new ClusterIndex(points, point -> 1.0, 0, 16, 60, 512);
+
+        List<ClusterIndex.Cluster> kigali = index.getClusters(29.9, -2.1, 30.2, -1.8, 10);
+        assertEquals(1, kigali.size());
+        assertEquals(2, kigali.get(0).getCount());
+        assertNull(kigali.get(0).getReportId());
+
+        List<ClusterIndex.Cluster> newYork = index.getClusters(-75, 40, -73, 41, 10);
+        assertEquals(1, newYork.size());
+        assertEquals(points.get(2).getId(), newYork.get(0).getReportId());
+    }
+
+    private static ReportPoint point(double latitude, double longitude) {
+        return ReportPoint.builder()
+                .id(UUID.randomUUID())
+                .latitude(latitude)
+                .longitude(longitude)
+                .crimeType(CrimeType.THEFT)
+                .date(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.CommunityStatsIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CommunityStatsIndexTest {
+
+    private static final double LAT = -1.95;
+    private static final double LNG = 30.06;
+
+    private CommunityStatsIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findAll()).thenReturn(List.of());
+        index = new CommunityStatsIndex(reportRepository);
+        ReflectionTestUtils.setField(index, "cellSizeDegrees", 0.01);
+        index.warmUp();
+    }
+
+    @Test
+    public void testAggregatesFollowReportLifecycle() {
+        Instant now = Instant.now();
+        ReportPoint recent = point(0, "Nyarugenge", now.minus(Duration.ofHours(2)));
+        ReportPoint lastWeek = point(1, "Nyarugenge", now.minus(Duration.ofDays(10)));
+        ReportPoint old = point(2, "Gasabo", now.minus(Duration.ofDays(400)));
+        ReportPoint farAway = point(80, "Musanze", now.minus(Duration.ofHours(1)));
+        for (ReportPoint point : List.of(recent, lastWeek, old, farAway)) {
+            index.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.CREATED, point, null));
+        }
+
+        CommunityStatsIndex.AreaStats stats = index.aggregate(LAT, LNG, 5.0);
+        assertEquals(3, stats.getTotal());
+        assertEquals(3, stats.getPending());
+        assertEquals(1, stats.getCurrentWeekCount(now));
+        assertEquals(1, stats.getPreviousWeekCount(now));
+        assertEquals(0.0, stats.getAverageResponseMinutes());
+
+        // Resolving the recent report two hours after submission
+        index.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.STATUS_CHANGED,
+                recent.toBuilder().status(ReportStatus.RESOLVED).build(), ReportStatus.PENDING));
+        stats = index.aggregate(LAT, LNG, 5.0);
+        assertEquals(1, stats.getResolved());
+        assertEquals(2, stats.getPending());
+        assertEquals(120.0, stats.getAverageResponseMinutes(), 1.0);
+
+        index.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.DELETED, lastWeek, null));
+        Map<String, CommunityStatsIndex.AreaStats> areas = index.aggregateByArea(LAT, LNG, 5.0);
+        assertEquals(Map.of("Nyarugenge", 1L, "Gasabo", 1L), Map.of(
+                "Nyarugenge", areas.get("Nyarugenge").getTotal(),
+                "Gasabo", areas.get("Gasabo").getTotal()));
+        assertEquals(0, areas.get("Nyarugenge").getPreviousWeekCount(now));
+        assertFalse(areas.containsKey("Musanze"));
+    }
+
+    @Test
+    public void testSmallRadiusStillCoversOwnCell() {
+        index.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.CREATED,
+                point(0, "Kicukiro", Instant.now()), null));
+
+        assertEquals(1, index.aggregate(LAT + 0.001, LNG + 0.001, 0.01).getTotal());
+    }
+
+    @Test
+    public void testSummaryOfLoadedReportsMatchesIndex() {
+        Instant now = Instant.now();
+        List<ReportPoint> points = List.of(
+                point(0, "Nyarugenge", now.minus(Duration.ofHours(2))),
+                point(1, "Nyarugenge", now.minus(Duration.ofDays(10))),
+                point(2, "Gasabo", now.minus(Duration.ofDays(3))));
+        points.forEach(point -> index.onReportChanged(
+                new ReportChangedEvent(ReportChangedEvent.ChangeType.CREATED, point, null)));
+
+        CommunityStatsIndex.AreaStats indexed = index.aggregate(LAT, LNG, 5.0);
+        CommunityStatsIndex.AreaStats summarized = CommunityStatsIndex.summarize(points, now);
+        assertEquals(indexed.getTotal(), summarized.getTotal());
+        assertEquals(indexed.getPending(), summarized.getPending());
+        assertEquals(indexed.getCurrentWeekCount(now), summarized.getCurrentWeekCount(now));
+        assertEquals(indexed.getPreviousWeekCount(now), summarized.getPreviousWeekCount(now));
+        assertEquals(2, CommunityStatsIndex.summarizeByArea(points, now).get("Nyarugenge").getTotal());
+    }
+
+    // A pending report the given distance north of the query point
+    private static ReportPoint point(double kmNorth, String area, Instant submittedAt) {
+        return ReportPoint.builder()
+                .id(UUID.randomUUID())
+                .latitude(LAT + kmNorth * 0.009)
+                .longitude(LNG)
+                .status(ReportStatus.PENDING)
+                .date(submittedAt)
+                .submittedAt(submittedAt)
+                .createdAt(submittedAt)
+                .area(area)
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.CrimeMapResponseCache;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrimeMapResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CrimeMapResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CrimeMapResponseCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "bucketMinutes", 5L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneComputation() throws Exception {
+        CrimeMapResponseCache.Key key = key(null, null);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(key, () -> {
+                computations.incrementAndGet();
+                computing.countDown();
+                await(release);
+                return "map";
+            }));
+            computing.await(5, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(() -> cache.get(key, () -> "recomputed-" + computations.incrementAndGet()));
+            Future<String> third = executor.submit(() -> cache.get(key, () -> "recomputed-" + computations.incrementAndGet()));
+            release.countDown();
+
+            assertEquals("map", first.get(5, TimeUnit.SECONDS));
+            assertEquals("map", second.get(5, TimeUnit.SECONDS));
+            assertEquals("map", third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLookupsAreCountedAsHitsAndMisses() {
+        CrimeMapResponseCache.Key key = key(null, null);
+
+        cache.get(key, () -> "map");
+        cache.get(key, () -> "recomputed");
+        cache.get(key, () -> "recomputed");
+
+        assertEquals(2.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    public void testErrorInComputationReleasesWaitingCallers() throws Exception {
+        CrimeMapResponseCache.Key key = key(null, null);
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.<String>get(key, () -> {
+                computing.countDown();
+                await(release);
+                throw new OutOfMemoryError("simulated");
+            }));
+            computing.await(5, TimeUnit.SECONDS);
+            Future<String> waiting = executor.submit(() -> cache.get(key, () -> "recomputed"));
+            // Let the second caller reach the computation in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OutOfMemoryError.class, failed.getCause());
+            try {
+                // Either saw the error or, if it arrived after the failure, computed its own
+                assertEquals("recomputed", waiting.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(OutOfMemoryError.class, e.getCause());
+            }
+            // The error itself was not cached
+            assertTrue(Set.of("fresh", "recomputed").contains(cache.get(key, () -> "fresh")));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReportChangeDropsOnlyCoveringEntries() {
+        CrimeMapResponseCache.Key everything = key(null, null);
+        CrimeMapResponseCache.Key theftNearby = key(Set.of(CrimeType.THEFT), -1.95);
+        CrimeMapResponseCache.Key theftElsewhere = key(Set.of(CrimeType.THEFT), 10.0);
+        CrimeMapResponseCache.Key otherType = key(Set.of(CrimeType.FRAUD), null);
+        for (CrimeMapResponseCache.Key key : new CrimeMapResponseCache.Key[]{everything, theftNearby, theftElsewhere, otherType}) {
+            cache.get(key, () -> "cached");
+        }
+
+        ReportPoint report = ReportPoint.builder()
+                .id(UUID.randomUUID())
+                .latitude(-1.951)
+                .longitude(30.061)
+                .crimeType(CrimeType.THEFT)
+                .status(ReportStatus.PENDING)
+                .build();
+        cache.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.CREATED, report, null));
+
+        assertEquals("fresh", cache.get(everything, () -> "fresh"));
+        assertEquals("fresh", cache.get(theftNearby, () -> "fresh"));
+        assertEquals("cached", cache.get(theftElsewhere, () -> "fresh"));
+        assertEquals("cached", cache.get(otherType, () -> "fresh"));
+    }
+
+    private CrimeMapResponseCache.Key key(Set<CrimeType> crimeTypes, Double latitude) {
+        return CrimeMapResponseCache.Key.builder()
+                .view("map:heatmap")
+                .window(Duration.ofDays(7))
+                .crimeTypes(crimeTypes)
+                .latitude(latitude)
+                .longitude(latitude != null ? 30.06 : null)
+                .radiusKm(latitude != null ? 5.0 : null)
+                .bucket(cache.bucket(Instant.now()))
+                .build();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "crime.map.responses").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.dto.emergency.EmergencyRequest;
+import com.crimeprevention.crime_backend.core.dto.emergency.EmergencyResponse;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
+import com.crimeprevention.crime_backend.core.service.impl.EmergencyServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs emergency dispatch against a live officer registry with repositories mocked.
+ */
+public class EmergencyDispatchTest {
+
+    private final UUID near = UUID.randomUUID();
+    private final UUID far = UUID.randomUUID();
+
+    private OfficerRepository officerRepository;
+    private OfficerLocationRegistry registry;
+    private EmergencyServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        officerRepository = mock(OfficerRepository.class);
+        registry = new OfficerLocationRegistry(officerRepository, mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "cellSizeDegrees", 0.02);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+        when(officerRepository.findAll()).thenReturn(List.of(officer(near), officer(far)));
+        registry.warmUp();
+
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> {
+            Report report = invocation.getArgument(0);
+            report.setId(UUID.randomUUID());
+            return report;
+        });
+        when(officerRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.of(officer(invocation.getArgument(0))));
+        service = new EmergencyServiceImpl(reportRepository, officerRepository,
+                mock(ApplicationEventPublisher.class), registry);
+        ReflectionTestUtils.setField(service, "dispatchRadiusKm", 50.0);
+    }
+
+    @Test
+    public void testDispatchesNearestOfficerInsideTheRadius() {
+        registry.updateLocation(near, -1.96, 30.07);
+        registry.updateLocation(far, -1.50, 29.60);
+
+        EmergencyResponse response = service.createEmergencyRequest(UUID.randomUUID(), request(-1.95, 30.06));
+
+        assertEquals(near, response.getAssignedOfficerId());
+    }
+
+    @Test
+    public void testFallsBackToNearestOfficerBeyondTheRadius() {
+        // Roughly 110 km and 220 km away, both outside the 50 km dispatch radius
+        registry.updateLocation(near, -0.95, 30.06);
+        registry.updateLocation(far, 0.05, 30.06);
+
+        EmergencyResponse response = service.createEmergencyRequest(UUID.randomUUID(), request(-1.95, 30.06));
+
+        assertEquals(near, response.getAssignedOfficerId());
+        assertTrue(response.getEtaMinutes() > 60);
+    }
+
+    @Test
+    public void testFallbackSkipsOfficersWhoAreNotAvailable() {
+        registry.updateLocation(near, -0.95, 30.06);
+        registry.updateLocation(far, 0.05, 30.06);
+        registry.updateDutyStatus(near, DutyStatus.ON_CASE);
+
+        EmergencyResponse response = service.createEmergencyRequest(UUID.randomUUID(), request(-1.95, 30.06));
+
+        assertEquals(far, response.getAssignedOfficerId());
+    }
+
+    private static EmergencyRequest request(double latitude, double longitude) {
+        return EmergencyRequest.builder().latitude(latitude).longitude(longitude).build();
+    }
+
+    private static Officer officer(UUID id) {
+        Officer officer = Officer.builder().dutyStatus(DutyStatus.AVAILABLE).build();
+        officer.setId(id);
+        return officer;
+    }
+}
@@ -0,0 +1,119 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.geo.NominatimReverseGeocoder;
+import com.crimeprevention.crime_backend.core.geo.ReverseGeocodeException;
+import com.crimeprevention.crime_backend.core.model.location.GeocodeCacheEntry;
+import com.crimeprevention.crime_backend.core.repo.location.GeocodeCacheEntryRepository;
+import com.crimeprevention.crime_backend.core.service.impl.GeocodingServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the geocoding service against a local stub of the Nominatim reverse endpoint
+ */
+public class GeocodingServiceTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private volatile int upstreamStatus = 200;
+
+    private HttpServer stub;
+    private GeocodeCacheEntryRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private GeocodingServiceImpl service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/reverse", exchange -> {
+            upstreamCalls.incrementAndGet();
+            byte[] body = ("{\"display_name\":\"KN 3 Rd, Kigali\",\"query\":\"" + exchange.getRequestURI().getQuery() + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        NominatimReverseGeocoder geocoder = new NominatimReverseGeocoder(objectMapper);
+        ReflectionTestUtils.setField(geocoder, "baseUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(geocoder, "userAgent", "test");
+        ReflectionTestUtils.setField(geocoder, "timeoutMs", 2000L);
+        ReflectionTestUtils.invokeMethod(geocoder, "init");
+
+        repository = mock(GeocodeCacheEntryRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new GeocodingServiceImpl(geocoder, repository, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(service, "cellsPerDegree", 10000);
+        ReflectionTestUtils.setField(service, "memoryMaxEntries", 100L);
+        ReflectionTestUtils.setField(service, "memoryTtlHours", 1L);
+        ReflectionTestUtils.setField(service, "persistedTtlDays", 30L);
+        ReflectionTestUtils.setField(service, "upstreamMaxConcurrent", 1);
+        ReflectionTestUtils.setField(service, "upstreamAcquireTimeoutMs", 1000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    public void testTapsWithinOneCellShareOneUpstreamLookup() {
+        Map<String, Object> first = service.reverseGeocode(-1.944012, 30.061881);
+        Map<String, Object> nearby = service.reverseGeocode(-1.944038, 30.061902);
+
+        assertEquals(1, upstreamCalls.get());
+        assertSame(first, nearby);
+        // The cell centre is what gets looked up
+        assertEquals("format=json&lat=-1.944000&lon=30.061900&zoom=18&addressdetails=1", first.get("query"));
+
+        ArgumentCaptor<GeocodeCacheEntry> persisted = ArgumentCaptor.forClass(GeocodeCacheEntry.class);
+        verify(repository).save(persisted.capture());
+        assertEquals("-19440:300619", persisted.getValue().getCellKey());
+
+        service.reverseGeocode(-1.9452, 30.0619);
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1.0 / 3, meterRegistry.get("geocoding.reverse.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    public void testPersistedResultsAreServedAndUpstreamErrorsAreNotCached() {
+        when(repository.findById("-19440:300619")).thenReturn(Optional.of(GeocodeCacheEntry.builder()
+                .cellKey("-19440:300619")
+                .payload("{\"display_name\":\"persisted\"}")
+                .fetchedAt(Instant.now())
+                .build()));
+        assertEquals("persisted", service.reverseGeocode(-1.944, 30.0619).get("display_name"));
+        assertEquals(0, upstreamCalls.get());
+
+        upstreamStatus = 429;
+        ReverseGeocodeException error = assertThrows(ReverseGeocodeException.class,
+                () -> service.reverseGeocode(10.0, 10.0));
+        assertEquals(429, error.getStatusCode());
+
+        upstreamStatus = 200;
+        assertEquals("KN 3 Rd, Kigali", service.reverseGeocode(10.0, 10.0).get("display_name"));
+        assertEquals(2, upstreamCalls.get());
+    }
+}
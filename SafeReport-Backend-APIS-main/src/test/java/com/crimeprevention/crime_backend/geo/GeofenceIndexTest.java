@@ -0,0 +1,95 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.event.GeofenceChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.GeofenceIndex;
+import com.crimeprevention.crime_backend.core.geo.GeofenceShape;
+import com.crimeprevention.crime_backend.core.model.enums.GeofenceOwnerType;
+import com.crimeprevention.crime_backend.core.repo.location.GeofenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class GeofenceIndexTest {
+
+    private GeofenceIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new GeofenceIndex(mock(GeofenceRepository.class));
+        ReflectionTestUtils.setField(index, "cellSizeDegrees", 0.05);
+        ReflectionTestUtils.setField(index, "maxCellsPerFence", 64);
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(11);
+        List<GeofenceShape> shapes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double lat = -2.8 + random.nextDouble() * 1.8;
+            double lng = 28.9 + random.nextDouble() * 2.0;
+            GeofenceShape shape;
+            if (i % 2 == 0) {
+                // Radii up to 40 km, so some fences go to the oversized list
+                shape = GeofenceShape.circle(UUID.randomUUID(), GeofenceOwnerType.USER, UUID.randomUUID(),
+                        lat, lng, 0.5 + random.nextDouble() * (i % 10 == 0 ? 40 : 5));
+            } else {
+                double size = 0.01 + random.nextDouble() * 0.1;
+                shape = GeofenceShape.polygon(UUID.randomUUID(), GeofenceOwnerType.WATCH_GROUP, UUID.randomUUID(),
+                        new double[]{lat, lat + size, lat + size / 2, lat - size / 3},
+                        new double[]{lng, lng + size / 2, lng + size, lng + size / 3});
+            }
+            shapes.add(shape);
+            index.put(shape);
+        }
+
+        for (int q = 0; q < 2000; q++) {
+            double lat = -2.8 + random.nextDouble() * 1.8;
+            double lng = 28.9 + random.nextDouble() * 2.0;
+            Set<UUID> expected = shapes.stream()
+                    .filter(shape -> shape.contains(lat, lng))
+                    .map(GeofenceShape::getId)
+                    .collect(Collectors.toSet());
+            Set<UUID> actual = index.match(lat, lng).stream()
+                    .map(GeofenceShape::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testChangeEventsInsertAndRemoveFences() {
+        UUID id = UUID.randomUUID();
+        GeofenceShape shape = GeofenceShape.circle(id, GeofenceOwnerType.USER, UUID.randomUUID(), -1.95, 30.06, 1.0);
+
+        index.onGeofenceChanged(new GeofenceChangedEvent(id, shape));
+        assertEquals(List.of(shape), index.match(-1.95, 30.06));
+
+        index.onGeofenceChanged(GeofenceChangedEvent.deleted(id));
+        assertTrue(index.match(-1.95, 30.06).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testPolygonContainsAndRemove() {
+        UUID id = UUID.randomUUID();
+        // L-shaped polygon: the notch at the top right is outside
+        GeofenceShape shape = GeofenceShape.polygon(id, GeofenceOwnerType.USER, UUID.randomUUID(),
+                new double[]{0.0, 0.0, 0.1, 0.1, 0.2, 0.2},
+                new double[]{0.0, 0.2, 0.2, 0.1, 0.1, 0.0});
+        index.put(shape);
+
+        assertEquals(1, index.match(0.05, 0.15).size());
+        assertEquals(1, index.match(0.15, 0.05).size());
+        assertTrue(index.match(0.15, 0.15).isEmpty());
+
+        index.remove(id);
+        assertTrue(index.match(0.05, 0.15).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.geo.GridIndex;
+import com.crimeprevention.crime_backend.core.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridIndexTest {
+
+    @Test
+    public void testRadiusQueryMatchesLinearScan() {
+        Random random = new Random(7);
+        GridIndex<Integer, double[]> index = new GridIndex<>(0.01);
+        double[][] points = new double[5000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{-2.05 + random.nextDouble() * 0.2, 29.95 + random.nextDouble() * 0.3};
+            index.put(i, points[i][0], points[i][1], points[i]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = -2.05 + random.nextDouble() * 0.2;
+            double lng = 29.95 + random.nextDouble() * 0.3;
+            double radius = 0.5 + random.nextDouble() * 5;
+
+            Set<double[]> expected = new HashSet<>();
+            for (double[] p : points) {
+                if (GeoUtils.haversineKm(lat, lng, p[0], p[1]) <= radius) {
+                    expected.add(p);
+                }
+            }
+            assertEquals(expected, new HashSet<>(index.withinRadius(lat, lng, radius, null)));
+        }
+    }
+
+    @Test
+    public void testMoveAndRemove() {
+        GridIndex<String, String> index = new GridIndex<>(0.01);
+        index.put("a", -1.95, 30.06, "first");
+        index.put("a", -1.50, 30.50, "moved");
+
+        assertEquals(1, index.size());
+        assertTrue(index.withinRadius(-1.95, 30.06, 1.0, null).isEmpty());
+        assertEquals(List.of("moved"), index.withinRadius(-1.50, 30.50, 1.0, null));
+
+        assertEquals("moved", index.remove("a"));
+        assertEquals(0, index.size());
+        assertTrue(index.withinRadius(-1.50, 30.50, 1.0, null).isEmpty());
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsExistingEntry() {
+        GridIndex<String, String> index = new GridIndex<>(0.01);
+        index.put("a", -1.50, 30.50, "newer");
+
+        assertFalse(index.putIfAbsent("a", -1.95, 30.06, "older"));
+        assertTrue(index.putIfAbsent("b", -1.95, 30.06, "other"));
+
+        assertEquals("newer", index.get("a"));
+        assertEquals(List.of("other"), index.withinRadius(-1.95, 30.06, 1.0, null));
+    }
+
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Random random = new Random(3);
+        GridIndex<Integer, double[]> index = new GridIndex<>(0.02);
+        double[][] points = new double[3000][];
+        for (int i = 0; i < points.length; i++) {
+            // Third element flags "available"
+            points[i] = new double[]{-2.8 + random.nextDouble() * 1.8, 28.9 + random.nextDouble() * 2.0, random.nextInt(3)};
+            index.put(i, points[i][0], points[i][1], points[i]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = -2.8 + random.nextDouble() * 1.8;
+            double lng = 28.9 + random.nextDouble() * 2.0;
+            int k = 1 + random.nextInt(10);
+            double radius = 1 + random.nextDouble() * 40;
+
+            List<double[]> expected = java.util.Arrays.stream(points)
+                    .filter(p -> p[2] == 0)
+                    .filter(p -> GeoUtils.haversineKm(lat, lng, p[0], p[1]) <= radius)
+                    .sorted(Comparator.comparingDouble(p -> GeoUtils.haversineKm(lat, lng, p[0], p[1])))
+                    .limit(k)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.nearest(lat, lng, k, radius, p -> p[2] == 0));
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.event.ReportChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.HeatmapTileIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportPoint;
+import com.crimeprevention.crime_backend.core.geo.WebMercator;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the tile pyramid against report events, with an empty repository for the warm-up
+ */
+public class HeatmapTileIndexTest {
+
+    private static final double LAT = -1.95;
+    private static final double LNG = 30.06;
+
+    private final Instant now = Instant.now();
+
+    private HeatmapTileIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findByDateRange(any(), any())).thenReturn(List.of());
+        index = new HeatmapTileIndex(reportRepository);
+        ReflectionTestUtils.setField(index, "minZoom", 8);
+        ReflectionTestUtils.setField(index, "maxZoom", 16);
+        ReflectionTestUtils.setField(index, "defaultZoom", 13);
+        ReflectionTestUtils.setField(index, "tileBins", 16);
+        ReflectionTestUtils.setField(index, "retentionDays", 30);
+        index.warmUp();
+    }
+
+    @Test
+    public void testCreateStatusChangeAndDeleteAdjustEveryZoom() {
+        ReportPoint theft = point(LAT, LNG, CrimeType.values()[0], Priority.HIGH, now.minus(Duration.ofHours(1)));
+        ReportPoint other = point(LAT, LNG, CrimeType.values()[1], Priority.LOW, now.minus(Duration.ofHours(2)));
+        changed(ReportChangedEvent.ChangeType.CREATED, theft);
+        changed(ReportChangedEvent.ChangeType.CREATED, other);
+        for (int zoom = 8; zoom <= 16; zoom++) {
+            assertEquals(2, count(tileOf(LAT, LNG, zoom)));
+        }
+
+        // A status change replaces the report's contribution instead of adding to it
+        changed(ReportChangedEvent.ChangeType.STATUS_CHANGED,
+                theft.toBuilder().status(ReportStatus.RESOLVED).priority(Priority.URGENT).build());
+        for (int zoom = 8; zoom <= 16; zoom++) {
+            List<CrimeMapResponse.HeatmapPoint> tile = tileOf(LAT, LNG, zoom);
+            assertEquals(2, count(tile));
+            assertEquals(0.6, tile.stream().mapToDouble(CrimeMapResponse.HeatmapPoint::getWeight).sum(), 1e-9);
+        }
+
+        changed(ReportChangedEvent.ChangeType.DELETED, theft);
+        changed(ReportChangedEvent.ChangeType.DELETED, theft);
+        for (int zoom = 8; zoom <= 16; zoom++) {
+            List<CrimeMapResponse.HeatmapPoint> tile = tileOf(LAT, LNG, zoom);
+            assertEquals(1, count(tile));
+            assertEquals(CrimeType.values()[1].name(), tile.get(0).getCrimeType());
+        }
+
+        changed(ReportChangedEvent.ChangeType.DELETED, other);
+        assertTrue(tileOf(LAT, LNG, 12).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "tiles")).isEmpty());
+    }
+
+    @Test
+    public void testPruneDropsReportsOutsideRetention() {
+        ReportPoint old = point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofDays(3)));
+        ReportPoint recent = point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofHours(1)));
+        changed(ReportChangedEvent.ChangeType.CREATED, old);
+        changed(ReportChangedEvent.ChangeType.CREATED, recent);
+        assertEquals(2, count(tileOf(LAT, LNG, 12)));
+
+        ReflectionTestUtils.setField(index, "retentionDays", 2);
+        index.pruneExpired();
+
+        assertEquals(1, count(tileOf(LAT, LNG, 12)));
+        assertEquals(1, ((Map<?, ?>) ReflectionTestUtils.getField(index, "contributions")).size());
+        // Deleting a pruned report must not subtract it a second time
+        changed(ReportChangedEvent.ChangeType.DELETED, old);
+        assertEquals(1, count(tileOf(LAT, LNG, 12)));
+        // Nor is a report older than the retention window added
+        changed(ReportChangedEvent.ChangeType.CREATED,
+                point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofDays(5))));
+        assertEquals(1, count(tileOf(LAT, LNG, 12)));
+    }
+
+    @Test
+    public void testIncrementalTilesMatchFreshAggregate() {
+        Random random = new Random(7);
+        Map<UUID, ReportPoint> live = new LinkedHashMap<>();
+        for (int i = 0; i < 400; i++) {
+            ReportPoint point = point(-2.5 + random.nextDouble(), 29.5 + random.nextDouble(),
+                    CrimeType.values()[random.nextInt(3)], Priority.values()[random.nextInt(Priority.values().length)],
+                    now.minus(Duration.ofHours(1 + random.nextInt(24 * 20))));
+            changed(ReportChangedEvent.ChangeType.CREATED, point);
+            live.put(point.getId(), point);
+        }
+        List<ReportPoint> created = new ArrayList<>(live.values());
+        for (int i = 0; i < 150; i++) {
+            ReportPoint point = live.get(created.get(random.nextInt(created.size())).getId());
+            if (point != null) {
+                ReportPoint updated = point.toBuilder()
+                        .status(ReportStatus.values()[random.nextInt(ReportStatus.values().length)])
+                        .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                        .build();
+                changed(ReportChangedEvent.ChangeType.STATUS_CHANGED, updated);
+                live.put(updated.getId(), updated);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            ReportPoint point = created.get(random.nextInt(created.size()));
+            changed(ReportChangedEvent.ChangeType.DELETED, point);
+            live.remove(point.getId());
+        }
+
+        for (int zoom : new int[]{8, 12, 16}) {
+            Set<List<Integer>> tiles = new HashSet<>();
+            for (ReportPoint point : live.values()) {
+                tiles.add(List.of(WebMercator.tile(WebMercator.x(point.getLongitude()), zoom),
+                        WebMercator.tile(WebMercator.y(point.getLatitude()), zoom)));
+            }
+            List<CrimeMapResponse.HeatmapPoint> served = new ArrayList<>();
+            for (List<Integer> tile : tiles) {
+                served.addAll(index.getTile(zoom, tile.get(0), tile.get(1), now.minus(Duration.ofDays(30)), now, null));
+            }
+
+            Map<String, CrimeMapResponse.HeatmapPoint> expected = byBin(index.aggregate(live.values(), zoom), zoom);
+            Map<String, CrimeMapResponse.HeatmapPoint> actual = byBin(served, zoom);
+            assertEquals(expected.keySet(), actual.keySet());
+            expected.forEach((bin, point) -> {
+                CrimeMapResponse.HeatmapPoint other = actual.get(bin);
+                assertEquals(point.getCrimeCount(), other.getCrimeCount());
+                assertEquals(point.getWeight(), other.getWeight(), 1e-9);
+                assertEquals(point.getLatitude(), other.getLatitude(), 1e-9);
+                assertEquals(point.getLongitude(), other.getLongitude(), 1e-9);
+            });
+        }
+    }
+
+    @Test
+    public void testTileOnlyCountsHoursInRange() {
+        changed(ReportChangedEvent.ChangeType.CREATED,
+                point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofHours(5))));
+        changed(ReportChangedEvent.ChangeType.CREATED,
+                point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofHours(1))));
+        int x = WebMercator.tile(WebMercator.x(LNG), 12);
+        int y = WebMercator.tile(WebMercator.y(LAT), 12);
+
+        assertEquals(2, count(index.getTile(12, x, y, now.minus(Duration.ofHours(6)), now, null)));
+        assertEquals(1, count(index.getTile(12, x, y, now.minus(Duration.ofHours(3)), now, null)));
+        assertEquals(1, count(index.getTile(12, x, y, now.minus(Duration.ofHours(6)), now.minus(Duration.ofHours(4)), null)));
+        assertEquals(0, count(index.getTile(12, x, y, now.minus(Duration.ofHours(4)), now.minus(Duration.ofHours(2)), null)));
+    }
+
+    @Test
+    public void testWarmUpKeepsReportsChangedWhileLoading() {
+        ReportPoint loaded = point(LAT, LNG, CrimeType.values()[0], Priority.LOW, now.minus(Duration.ofHours(1)));
+        ReportPoint moved = loaded.toBuilder().latitude(-2.5).longitude(29.5).build();
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        HeatmapTileIndex warming = new HeatmapTileIndex(reportRepository);
+        // The report moves while the snapshot taken before the move is being loaded
+        when(reportRepository.findByDateRange(any(), any())).thenAnswer(invocation -> {
+            warming.onReportChanged(new ReportChangedEvent(ReportChangedEvent.ChangeType.STATUS_CHANGED, moved, null));
+            return List.of(report(loaded));
+        });
+        ReflectionTestUtils.setField(warming, "minZoom", 8);
+        ReflectionTestUtils.setField(warming, "maxZoom", 16);
+        ReflectionTestUtils.setField(warming, "tileBins", 16);
+        ReflectionTestUtils.setField(warming, "retentionDays", 30);
+        warming.warmUp();
+
+        assertTrue(warming.isReady());
+        assertEquals(1, count(warming.getTile(12, WebMercator.tile(WebMercator.x(29.5), 12),
+                WebMercator.tile(WebMercator.y(-2.5), 12), now.minus(Duration.ofDays(1)), now, null)));
+        assertTrue(warming.getTile(12, WebMercator.tile(WebMercator.x(LNG), 12),
+                WebMercator.tile(WebMercator.y(LAT), 12), now.minus(Duration.ofDays(1)), now, null).isEmpty());
+    }
+
+    @Test
+    public void testTileOutsideTheGridDoesNotAliasAnotherZoom() {
+        changed(ReportChangedEvent.ChangeType.CREATED,
+                point(LAT, LNG, CrimeType.values()[0], Priority.MEDIUM, now.minus(Duration.ofHours(1))));
+        int x11 = WebMercator.tile(WebMercator.x(LNG), 11);
+        int y11 = WebMercator.tile(WebMercator.y(LAT), 11);
+        assertEquals(1, count(index.getTile(11, x11, y11, now.minus(Duration.ofDays(1)), now, null)));
+
+        // Packed as zoom 10 with an x past 2^25, this used to read the zoom 11 tile
+        assertTrue(index.getTile(10, (1 << 25) + x11, y11, now.minus(Duration.ofDays(1)), now, null).isEmpty());
+        assertTrue(index.getTile(20, 0, 0, now.minus(Duration.ofDays(1)), now, null).isEmpty());
+    }
+
+    @Test
+    public void testAggregateKeepsBinsApartAtFineZooms() {
+        // At zoom 22 with 16 bins per tile the bin row needs 26 bits: these two used to share a key
+        double scale = (double) (1L << 22) * 16;
+        long gx = 4_000_000;
+        long gy = 5_000_000;
+        ReportPoint first = point(WebMercator.latitude((gy + 0.5) / scale), WebMercator.longitude((gx + 1.5) / scale),
+                CrimeType.values()[0], Priority.MEDIUM, now);
+        ReportPoint second = point(WebMercator.latitude((gy + (1 << 24) + 0.5) / scale),
+                WebMercator.longitude((gx + 0.5) / scale), CrimeType.values()[0], Priority.MEDIUM, now);
+
+        assertEquals(2, index.aggregate(List.of(first, second), 22).size());
+        // Zooms past what the key holds are clamped rather than wrapping
+        assertEquals(index.aggregate(List.of(first, second), 24).size(),
+                index.aggregate(List.of(first, second), 40).size());
+        assertEquals(1, index.aggregate(List.of(first, first), 40).size());
+    }
+
+    private void changed(ReportChangedEvent.ChangeType changeType, ReportPoint point) {
+        index.onReportChanged(new ReportChangedEvent(changeType, point, null));
+    }
+
+    private List<CrimeMapResponse.HeatmapPoint> tileOf(double latitude, double longitude, int zoom) {
+        return index.getTile(zoom, WebMercator.tile(WebMercator.x(longitude), zoom),
+                WebMercator.tile(WebMercator.y(latitude), zoom), now.minus(Duration.ofDays(30)), now, null);
+    }
+
+    private static int count(List<CrimeMapResponse.HeatmapPoint> points) {
+        return points.stream().mapToInt(CrimeMapResponse.HeatmapPoint::getCrimeCount).sum();
+    }
+
+    // Keyed by the global bin holding the centroid, and crime type
+    private static Map<String, CrimeMapResponse.HeatmapPoint> byBin(List<CrimeMapResponse.HeatmapPoint> points, int zoom) {
+        double scale = (double) (1 << zoom) * 16;
+        Map<String, CrimeMapResponse.HeatmapPoint> bins = new HashMap<>();
+        for (CrimeMapResponse.HeatmapPoint point : points) {
+            String key = (long) Math.floor(WebMercator.x(point.getLongitude()) * scale) + "/"
+                    + (long) Math.floor(WebMercator.y(point.getLatitude()) * scale) + "/" + point.getCrimeType();
+            assertNull(bins.put(key, point), "two points in bin " + key);
+        }
+        return bins;
+    }
+
+    private static Report report(ReportPoint point) {
+        Report report = Report.builder()
+                .title("Report")
+                .crimeType(point.getCrimeType())
+                .status(point.getStatus())
+                .priority(point.getPriority())
+                .date(point.getDate())
+                .location(Report.Location.builder().latitude(point.getLatitude()).longitude(point.getLongitude()).build())
+                .build();
+        report.setId(point.getId());
+        return report;
+    }
+
+    private static ReportPoint point(double latitude, double longitude, CrimeType crimeType, Priority priority,
+                                     Instant date) {
+        return ReportPoint.builder()
+                .id(UUID.randomUUID())
+                .latitude(latitude)
+                .longitude(longitude)
+                .crimeType(crimeType)
+                .status(ReportStatus.PENDING)
+                .priority(priority)
+                .date(date)
+                .submittedAt(date)
+                .createdAt(date)
+                .build();
+    }
+}
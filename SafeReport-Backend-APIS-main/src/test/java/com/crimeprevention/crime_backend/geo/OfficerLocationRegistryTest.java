@@ -0,0 +1,131 @@
+package com.crimeprevention.crime_backend.geo;
+
+import com.crimeprevention.crime_backend.core.event.OfficerDutyStatusChangedEvent;
+import com.crimeprevention.crime_backend.core.geo.OfficerLocationRegistry;
+import com.crimeprevention.crime_backend.core.geo.OfficerPosition;
+import com.crimeprevention.crime_backend.core.model.enums.DutyStatus;
+import com.crimeprevention.crime_backend.core.model.user.Officer;
+import com.crimeprevention.crime_backend.core.repo.user.OfficerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OfficerLocationRegistryTest {
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    private OfficerRepository officerRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OfficerLocationRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        officerRepository = mock(OfficerRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new OfficerLocationRegistry(officerRepository, jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(registry, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(registry, "cellSizeDegrees", 0.02);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+
+        when(officerRepository.findAll()).thenReturn(List.of(officer(first), officer(second)));
+        registry.warmUp();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdatesCoalesceIntoOneBatch() {
+        registry.updateLocation(first, -1.95, 30.06);
+        registry.updateLocation(first, -1.96, 30.07);
+        registry.updateLocation(second, -1.90, 30.10);
+        registry.updateLocation(first, -1.97, 30.08);
+
+        registry.flush();
+
+        ArgumentCaptor<Collection<OfficerPosition>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), eq(500),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        OfficerPosition latest = batch.getValue().stream()
+                .filter(p -> p.getOfficerId().equals(first)).findFirst().orElseThrow();
+        assertEquals(-1.97, latest.getLatitude());
+        assertEquals(DutyStatus.AVAILABLE, latest.getDutyStatus());
+        assertEquals(4.0, meterRegistry.counter("officer.location.updates").count());
+
+        // Nothing moved since, so nothing is written
+        registry.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedFlushIsRetriedWithoutOverwritingNewerFix() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[0][]);
+
+        registry.updateLocation(first, -1.95, 30.06);
+        registry.flush();
+        registry.updateLocation(first, -1.99, 30.09);
+        registry.flush();
+
+        ArgumentCaptor<Collection<OfficerPosition>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, batch.getValue().size());
+        assertEquals(-1.99, batch.getValue().iterator().next().getLatitude());
+        assertEquals(1.0, meterRegistry.counter("officer.location.flush.failures").count());
+    }
+
+    @Test
+    public void testUnknownOfficerIsRejected() {
+        UUID stranger = UUID.randomUUID();
+        when(officerRepository.findById(stranger)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> registry.updateLocation(stranger, 0, 0));
+        assertTrue(registry.getPosition(stranger).isEmpty());
+    }
+
+    @Test
+    public void testWarmUpFillsCoordinatesOfStatusSetBeforeIt() {
+        registry = new OfficerLocationRegistry(officerRepository, jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(registry, "cellSizeDegrees", 0.02);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+        Officer located = officer(first);
+        located.setLocation(new Officer.Location(-1.95, 30.06));
+        when(officerRepository.findAll()).thenReturn(List.of(located, officer(second)));
+
+        registry.onDutyStatusChanged(new OfficerDutyStatusChangedEvent(first, DutyStatus.ON_CASE));
+        registry.warmUp();
+
+        OfficerPosition position = registry.getPosition(first).orElseThrow();
+        assertEquals(DutyStatus.ON_CASE, position.getDutyStatus());
+        assertEquals(-1.95, position.getLatitude());
+        assertEquals(List.of(first), registry.findNearest(-1.95, 30.06, 5, 1.0, Set.of(DutyStatus.ON_CASE)).stream()
+                .map(OfficerPosition::getOfficerId)
+                .toList());
+    }
+
+    private static Officer officer(UUID id) {
+        Officer officer = Officer.builder().dutyStatus(DutyStatus.AVAILABLE).build();
+        officer.setId(id);
+        return officer;
+    }
+}
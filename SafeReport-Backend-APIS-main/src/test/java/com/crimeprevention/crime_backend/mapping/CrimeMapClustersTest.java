@@ -0,0 +1,121 @@
+package com.crimeprevention.crime_backend.mapping;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapRequest;
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.geo.CrimeMapResponseCache;
+import com.crimeprevention.crime_backend.core.geo.HeatmapTileIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportClusterCache;
+import com.crimeprevention.crime_backend.core.geo.ReportSpatialIndex;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.model.user.User;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.impl.CrimeMapServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs clusters requests against a mocked report repository, with the response cache bypassed
+ */
+public class CrimeMapClustersTest {
+
+    private final List<Report> reports = new ArrayList<>();
+
+    private ReportRepository reportRepository;
+    private CrimeMapServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        User reporter = new User();
+        reporter.setId(UUID.randomUUID());
+        for (int i = 0; i < 6; i++) {
+            Report report = Report.builder()
+                    .title("Report " + i)
+                    .crimeType(i % 2 == 0 ? CrimeType.values()[0] : CrimeType.values()[1])
+                    .status(ReportStatus.values()[0])
+                    .priority(Priority.MEDIUM)
+                    .date(Instant.now().minusSeconds(3600L * i))
+                    .location(Report.Location.builder().latitude(-1.95 + i * 0.001).longitude(30.06).build())
+                    .reporter(reporter)
+                    .build();
+            report.setId(UUID.randomUUID());
+            reports.add(report);
+        }
+        reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findByDateRange(any(), any())).thenReturn(reports);
+        when(reportRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return reports.stream().filter(report -> ids.contains(report.getId())).collect(Collectors.toList());
+        });
+
+        ReportClusterCache clusterCache = new ReportClusterCache();
+        ReflectionTestUtils.setField(clusterCache, "minZoom", 0);
+        ReflectionTestUtils.setField(clusterCache, "maxZoom", 16);
+        ReflectionTestUtils.setField(clusterCache, "defaultZoom", 12);
+        ReflectionTestUtils.setField(clusterCache, "maxClusters", 2000);
+        ReflectionTestUtils.setField(clusterCache, "radius", 60.0);
+        ReflectionTestUtils.setField(clusterCache, "extent", 512);
+        ReflectionTestUtils.setField(clusterCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(clusterCache, "maxWindows", 32);
+
+        CrimeMapResponseCache responseCache = mock(CrimeMapResponseCache.class);
+        when(responseCache.get(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        service = new CrimeMapServiceImpl(reportRepository, mock(ReportSpatialIndex.class),
+                mock(HeatmapTileIndex.class), clusterCache, responseCache);
+        ReflectionTestUtils.setField(service, "boundingBoxMaxReports", 10000);
+    }
+
+    @Test
+    public void testCachedWindowDoesNotFetchTheReports() {
+        CrimeMapResponse first = service.getCrimeClusters(request(12));
+        CrimeMapResponse second = service.getCrimeClusters(request(16));
+
+        verify(reportRepository, times(1)).findByDateRange(any(), any());
+        assertEquals(6L, first.getTotalCrimes());
+        assertEquals(6L, second.getTotalCrimes());
+        assertEquals(6L, second.getStatistics().getTotalCrimes());
+        assertEquals(3L, second.getStatistics().getCrimesByType().get(CrimeType.values()[0].name()));
+
+        // Sampled reports are still described in full
+        assertEquals(6, second.getClusters().stream().mapToInt(CrimeMapResponse.CrimeCluster::getCrimeCount).sum());
+        assertTrue(second.getClusters().stream().allMatch(cluster -> !cluster.getSampleCrimes().isEmpty()));
+    }
+
+    @Test
+    public void testAreaStatisticsFromDatabaseTolerateReportsWithoutTypeOrPriority() {
+        reports.get(0).setCrimeType(null);
+        reports.get(0).setPriority(null);
+        when(reportRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any(),
+                any(Pageable.class))).thenReturn(new SliceImpl<>(reports));
+
+        CrimeMapResponse.MapStatistics statistics = service.getAreaStatistics(-1.95, 30.06, 5.0);
+
+        assertEquals(6L, statistics.getTotalCrimes());
+        assertEquals(1L, statistics.getCrimesByType().get("OTHER"));
+        assertEquals(1L, statistics.getCrimesByPriority().get("NORMAL"));
+    }
+
+    private static CrimeMapRequest request(int zoom) {
+        return CrimeMapRequest.builder().timeRange("7d").zoom(zoom).build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.crimeprevention.crime_backend.mapping;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimeMapResponse;
+import com.crimeprevention.crime_backend.core.dto.mapping.HeatmapTileResponse;
+import com.crimeprevention.crime_backend.core.geo.CrimeMapResponseCache;
+import com.crimeprevention.crime_backend.core.geo.HeatmapTileIndex;
+import com.crimeprevention.crime_backend.core.geo.ReportClusterCache;
+import com.crimeprevention.crime_backend.core.geo.ReportSpatialIndex;
+import com.crimeprevention.crime_backend.core.geo.WebMercator;
+import com.crimeprevention.crime_backend.core.model.enums.CrimeType;
+import com.crimeprevention.crime_backend.core.model.enums.Priority;
+import com.crimeprevention.crime_backend.core.model.enums.ReportStatus;
+import com.crimeprevention.crime_backend.core.model.report.Report;
+import com.crimeprevention.crime_backend.core.repo.report.ReportRepository;
+import com.crimeprevention.crime_backend.core.service.impl.CrimeMapServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs heatmap tile requests against a mocked report repository, before and after the tile pyramid is built
+ */
+public class CrimeMapHeatmapTileTest {
+
+    private static final int ZOOM = 12;
+
+    private final List<Report> reports = new ArrayList<>();
+
+    private ReportRepository reportRepository;
+    private HeatmapTileIndex heatmapTileIndex;
+    private CrimeMapServiceImpl service;
+    private int x;
+    private int y;
+
+    @BeforeEach
+    public void setUp() {
+        x = WebMercator.tile(WebMercator.x(30.06), ZOOM);
+        y = WebMercator.tile(WebMercator.y(-1.95), ZOOM);
+        for (int i = 0; i < 5; i++) {
+            reports.add(report(-1.95 + i * 0.001, 30.06 + i * 0.001, CrimeType.values()[i % 2]));
+        }
+        // Inside the queried box's edges but in the next tile east
+        reports.add(report(-1.95, WebMercator.longitude((x + 1.0) / (1 << ZOOM)) + 1e-9, CrimeType.values()[0]));
+
+        reportRepository = mock(ReportRepository.class);
+        when(reportRepository.findByDateRange(any(), any())).thenReturn(reports);
+        when(reportRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any(),
+                any(Pageable.class))).thenAnswer(invocation -> slice(invocation.getArgument(6)));
+
+        heatmapTileIndex = new HeatmapTileIndex(reportRepository);
+        ReflectionTestUtils.setField(heatmapTileIndex, "minZoom", 8);
+        ReflectionTestUtils.setField(heatmapTileIndex, "maxZoom", 16);
+        ReflectionTestUtils.setField(heatmapTileIndex, "defaultZoom", 13);
+        ReflectionTestUtils.setField(heatmapTileIndex, "tileBins", 16);
+        ReflectionTestUtils.setField(heatmapTileIndex, "retentionDays", 30);
+
+        service = new CrimeMapServiceImpl(reportRepository, mock(ReportSpatialIndex.class), heatmapTileIndex,
+                new ReportClusterCache(), mock(CrimeMapResponseCache.class));
+        ReflectionTestUtils.setField(service, "boundingBoxMaxReports", 10000);
+    }
+
+    @Test
+    public void testTileIsReadFromReportsUntilPyramidIsBuilt() {
+        HeatmapTileResponse fromReports = service.getHeatmapTile(ZOOM, x, y, "7d", null);
+
+        verify(reportRepository).findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any(), any(Pageable.class));
+        assertEquals(5L, fromReports.getTotalCrimes());
+
+        heatmapTileIndex.warmUp();
+        HeatmapTileResponse fromIndex = service.getHeatmapTile(ZOOM, x, y, "7d", null);
+
+        verify(reportRepository, times(1)).findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any(), any(Pageable.class));
+        assertEquals(sorted(fromIndex.getPoints()), sorted(fromReports.getPoints()));
+        assertEquals(3L, service.getHeatmapTile(ZOOM, x, y, "7d", List.of(CrimeType.values()[0].name())).getTotalCrimes());
+    }
+
+    @Test
+    public void testCappedTileReadIsFlaggedAsTruncated() {
+        ReflectionTestUtils.setField(service, "boundingBoxMaxReports", 3);
+
+        HeatmapTileResponse capped = service.getHeatmapTile(ZOOM, x, y, "7d", null);
+
+        assertEquals(3L, capped.getTotalCrimes());
+        assertTrue(capped.getTruncated());
+
+        ReflectionTestUtils.setField(service, "boundingBoxMaxReports", 10000);
+        assertFalse(service.getHeatmapTile(ZOOM, x, y, "7d", null).getTruncated());
+    }
+
+    // Mirrors Spring Data: at most one page of the newest reports, hasNext() when more matched
+    private Slice<Report> slice(Pageable pageable) {
+        int size = Math.min(pageable.getPageSize(), reports.size());
+        return new SliceImpl<>(reports.subList(0, size), pageable, reports.size() > size);
+    }
+
+    private static List<String> sorted(List<CrimeMapResponse.HeatmapPoint> points) {
+        return points.stream()
+                .sorted(Comparator.comparing(CrimeMapResponse.HeatmapPoint::getLatitude)
+                        .thenComparing(CrimeMapResponse.HeatmapPoint::getCrimeType))
+                .map(point -> String.format("%.9f/%.9f/%s/%d", point.getLatitude(), point.getLongitude(),
+                        point.getCrimeType(), point.getCrimeCount()))
+                .collect(Collectors.toList());
+    }
+
+    private static Report report(double latitude, double longitude, CrimeType crimeType) {
+        Report report = Report.builder()
+                .title("Report")
+                .crimeType(crimeType)
+                .status(ReportStatus.values()[0])
+                .priority(Priority.MEDIUM)
+                .date(Instant.now().minusSeconds(7200))
+                .location(Report.Location.builder().latitude(latitude).longitude(longitude).build())
+                .build();
+        report.setId(UUID.randomUUID());
+        return report;
+    }
+}
@@ -0,0 +1,44 @@
+package com.crimeprevention.crime_backend.mapping;
+
+import com.crimeprevention.crime_backend.core.dto.mapping.CrimePointColumns;
+import com.crimeprevention.crime_backend.core.util.CrimePointColumnsCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrimePointColumnsCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        CrimePointColumns columns = CrimePointColumns.builder()
+                .count(3)
+                .coordinateScale(CrimePointColumns.DEFAULT_COORDINATE_SCALE)
+                .crimeTypeNames(List.of("THEFT", "ASSAULT"))
+                .statusNames(List.of("PENDING", "RESOLVED"))
+                .priorityNames(List.of("LOW", "HIGH"))
+                .ids(List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString()))
+                .latitudes(new int[]{-194410, -194415, 4070000})
+                .longitudes(new int[]{3006190, 3006100, -7400000})
+                .crimeTypes(new int[]{0, 1, -1})
+                .statuses(new int[]{1, 0, 0})
+                .priorities(new int[]{1, -1, 0})
+                .occurredAt(new long[]{1_760_000_000L, 1_759_990_000L, 0})
+                .reportedAt(new long[]{1_760_000_100L, 1_760_000_200L, 1_760_000_300L})
+                .riskScores(new int[]{80, 100, 50})
+                .titles(Arrays.asList("Phone stolen", null, "Café break-in"))
+                .build();
+
+        byte[] encoded = CrimePointColumnsCodec.encode(columns);
+        assertEquals(columns, CrimePointColumnsCodec.decode(encoded));
+    }
+
+    @Test
+    public void testRejectsForeignPayload() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CrimePointColumnsCodec.decode(new byte[]{'{', '"', 'a', '"'}));
+    }
+}
@@ -0,0 +1,265 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.notification.EmailOutbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drains an in-memory H2 outbox to a local SMTP stub that records connections and messages
+ */
+public class EmailOutboxTest {
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    private SmtpStub smtp;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutbox outbox;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        smtp = new SmtpStub(threads);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE email_outbox (id UUID PRIMARY KEY, kind VARCHAR(40) NOT NULL, "
+                + "recipient VARCHAR(320) NOT NULL, subject VARCHAR(500) NOT NULL, body TEXT NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, attempts INT NOT NULL, next_attempt_at TIMESTAMP NOT NULL, "
+                + "claim_token UUID, last_error TEXT, created_at TIMESTAMP NOT NULL, sent_at TIMESTAMP)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new EmailOutbox(jdbcTemplate, mock(ApplicationEventPublisher.class), threads, meterRegistry);
+        ReflectionTestUtils.setField(outbox, "mailSender", mailSender);
+        ReflectionTestUtils.setField(outbox, "fromEmail", "noreply@safereport.test");
+        ReflectionTestUtils.setField(outbox, "batchSize", 3);
+        ReflectionTestUtils.setField(outbox, "poolSize", 2);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 2);
+        ReflectionTestUtils.setField(outbox, "retryBaseSeconds", 30L);
+        ReflectionTestUtils.setField(outbox, "retryMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(outbox, "leaseSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(outbox, "init");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        smtp.close();
+        threads.shutdownNow();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testBatchesShareOneSmtpConnection() {
+        for (int i = 0; i < 5; i++) {
+            outbox.enqueue("WELCOME", "user" + i + "@example.com", "Welcome " + i, "Hello user " + i);
+        }
+
+        assertEquals(3, outbox.drainBatch());
+        assertEquals(2, outbox.drainBatch());
+        assertEquals(0, outbox.drainBatch());
+
+        assertEquals(2, smtp.connections.get());
+        assertEquals(5, smtp.recipients.size());
+        assertTrue(smtp.recipients.contains("user4@example.com"));
+        assertEquals(5, count("SENT"));
+        assertEquals(5.0, meterRegistry.get("email.outbox.sent").counter().count());
+        assertEquals(2, meterRegistry.get("email.outbox.batch").timer().count());
+        assertEquals(5, meterRegistry.get("email.outbox.delivery").timer().count());
+    }
+
+    @Test
+    public void testRejectedRecipientIsRetriedThenDeadLettered() {
+        outbox.enqueue("NEWS", "ok@example.com", "News", "Body");
+        UUID bounced = outbox.enqueue("NEWS", "bounce@example.com", "News", "Body");
+        outbox.enqueue("NEWS", "ok2@example.com", "News", "Body");
+
+        assertEquals(3, outbox.drainBatch());
+
+        // The rejection does not cost the other messages their connection
+        assertEquals(1, smtp.connections.get());
+        assertEquals(List.of("ok@example.com", "ok2@example.com"), smtp.recipients);
+        Map<String, Object> row = row(bounced);
+        assertEquals("PENDING", row.get("STATUS"));
+        assertEquals(1, row.get("ATTEMPTS"));
+        assertNotNull(row.get("LAST_ERROR"));
+        assertTrue(((Timestamp) row.get("NEXT_ATTEMPT_AT")).toInstant().isAfter(Instant.now().plusSeconds(20)));
+        // Not due yet
+        assertEquals(0, outbox.drainBatch());
+
+        makeDue(bounced);
+        assertEquals(1, outbox.drainBatch());
+
+        assertEquals("DEAD", row(bounced).get("STATUS"));
+        assertEquals(2, row(bounced).get("ATTEMPTS"));
+        assertEquals(1.0, meterRegistry.get("email.outbox.failures").tag("outcome", "retry").counter().count());
+        assertEquals(1.0, meterRegistry.get("email.outbox.failures").tag("outcome", "dead").counter().count());
+    }
+
+    @Test
+    public void testUnreachableServerReschedulesWholeBatch() throws IOException {
+        outbox.enqueue("WELCOME", "a@example.com", "Welcome", "Hello");
+        outbox.enqueue("WELCOME", "b@example.com", "Welcome", "Hello");
+        smtp.close();
+
+        assertEquals(2, outbox.drainBatch());
+
+        assertEquals(2, count("PENDING"));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE attempts = 1 AND claim_token IS NULL", Integer.class));
+    }
+
+    @Test
+    public void testEnqueueRollsBackWithCallerTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.enqueue("PASSWORD_CHANGE", "rollback@example.com", "Password Changed", "Hello");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                outbox.enqueue("PASSWORD_CHANGE", "commit@example.com", "Password Changed", "Hello"));
+
+        assertEquals(1, outbox.drainBatch());
+        assertEquals(List.of("commit@example.com"), smtp.recipients);
+    }
+
+    @Test
+    public void testExpiredClaimIsTakenAgain() {
+        UUID id = outbox.enqueue("WELCOME", "late@example.com", "Welcome", "Hello");
+        // Claimed by a worker that died before recording the outcome
+        jdbcTemplate.update("UPDATE email_outbox SET claim_token = ?, next_attempt_at = ? WHERE id = ?",
+                UUID.randomUUID(), Timestamp.from(Instant.now().plusSeconds(300)), id);
+        assertEquals(0, outbox.drainBatch());
+
+        makeDue(id);
+        assertEquals(1, outbox.drainBatch());
+        assertEquals("SENT", row(id).get("STATUS"));
+    }
+
+    private void makeDue(UUID id) {
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), id);
+    }
+
+    private int count(String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE status = ?", Integer.class, status);
+    }
+
+    private Map<String, Object> row(UUID id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM email_outbox WHERE id = ?", id);
+    }
+
+    /**
+     * Minimal SMTP server: accepts everything except recipients starting with "bounce"
+     */
+    private static class SmtpStub {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        SmtpStub(ExecutorService threads) throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+            threads.execute(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        threads.execute(() -> converse(socket));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void converse(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 smtp-stub ready");
+                String pendingRecipient = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if (address.startsWith("bounce")) {
+                            reply(out, "550 5.1.1 No such user");
+                        } else {
+                            pendingRecipient = address;
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message content is not checked
+                        }
+                        recipients.add(pendingRecipient);
+                        pendingRecipient = null;
+                        reply(out, "250 OK queued");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // EHLO, HELO, MAIL FROM, RSET, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+    }
+}
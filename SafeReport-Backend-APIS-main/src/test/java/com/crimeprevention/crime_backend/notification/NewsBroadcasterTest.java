@@ -0,0 +1,227 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.dto.news.BroadcastJobResponse;
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastChannel;
+import com.crimeprevention.crime_backend.core.model.enums.BroadcastStatus;
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJob;
+import com.crimeprevention.crime_backend.core.model.notification.BroadcastJobChannel;
+import com.crimeprevention.crime_backend.core.notification.NewsBroadcaster;
+import com.crimeprevention.crime_backend.core.notification.NotificationFanOut;
+import com.crimeprevention.crime_backend.core.notification.NotificationPusher;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import com.crimeprevention.crime_backend.core.repo.notification.BroadcastJobChannelRepository;
+import com.crimeprevention.crime_backend.core.repo.notification.BroadcastJobRepository;
+import com.crimeprevention.crime_backend.core.service.interfaces.EmailService;
+import com.crimeprevention.crime_backend.core.service.interfaces.SmsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs broadcasts against an in-memory H2 users table, with job state kept in maps
+ */
+public class NewsBroadcasterTest {
+
+    private final Map<UUID, BroadcastJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, BroadcastJobChannel> channels = new ConcurrentHashMap<>();
+    private final List<UUID> users = new ArrayList<>();
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private EmailService emailService;
+    private SmsService smsService;
+    private NewsBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:broadcast-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, full_name VARCHAR(100), email VARCHAR(100), "
+                + "phone_number VARCHAR(20), role VARCHAR(20), is_active BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE notifications (id UUID PRIMARY KEY, user_id UUID NOT NULL REFERENCES users(id), "
+                + "type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, message TEXT NOT NULL, is_read BOOLEAN NOT NULL, "
+                + "read_at TIMESTAMP, action_url VARCHAR(255), related_entity_type VARCHAR(255), related_entity_id UUID, "
+                + "priority VARCHAR(20) NOT NULL, expires_at TIMESTAMP, metadata TEXT, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        // 12 users: 10 with an email address, every third with a phone number
+        for (int i = 0; i < 12; i++) {
+            jdbcTemplate.update("INSERT INTO users (id, full_name, email, phone_number, role, is_active) VALUES (?, ?, ?, ?, 'CIVILIAN', true)",
+                    UUID.randomUUID(), "User " + i, i < 10 ? "user" + i + "@example.com" : null, i % 3 == 0 ? "+25078800000" + i : null);
+        }
+        // In the database's id order, which is the order broadcasts walk
+        users.addAll(jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", UUID.class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationFanOut fanOut = new NotificationFanOut(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), mock(UnreadNotificationCounters.class),
+                mock(NotificationPusher.class), meterRegistry);
+        ReflectionTestUtils.setField(fanOut, "batchSize", 5);
+        ReflectionTestUtils.invokeMethod(fanOut, "init");
+
+        emailService = mock(EmailService.class);
+        doThrow(new RuntimeException("mailbox unavailable"))
+                .when(emailService).sendNewsNotification(eq("user4@example.com"), anyString(), anyString(), anyString());
+        smsService = mock(SmsService.class);
+
+        broadcaster = new NewsBroadcaster(jobRepository(), channelRepository(), jdbcTemplate, fanOut,
+                emailService, smsService, executor(3), executor(1), executor(2), executor(2), meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "inAppBatchSize", 5);
+        ReflectionTestUtils.setField(broadcaster, "emailBatchSize", 3);
+        ReflectionTestUtils.setField(broadcaster, "smsBatchSize", 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executors.forEach(ExecutorService::shutdownNow);
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testBroadcastReachesEveryChannelAcrossPages() throws InterruptedException {
+        BroadcastJobResponse submitted = broadcaster.submit("Road closure", "Main street is closed today", UUID.randomUUID());
+
+        BroadcastJobResponse job = awaitFinished(UUID.fromString(submitted.getJobId()));
+
+        assertEquals(BroadcastStatus.COMPLETED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+        assertProgress(job, BroadcastChannel.IN_APP, 12, 12, 0);
+        assertProgress(job, BroadcastChannel.EMAIL, 10, 9, 1);
+        assertProgress(job, BroadcastChannel.SMS, 4, 4, 0);
+        assertEquals(12, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT user_id) FROM notifications WHERE title = 'News Update: Road closure'", Integer.class));
+        verify(emailService, times(10)).sendNewsNotification(anyString(), anyString(), eq("Road closure"), anyString());
+        verify(smsService, times(4)).sendNewsNotificationSms(anyString(), anyString(), eq("Road closure"));
+    }
+
+    @Test
+    public void testUnfinishedJobResumesAfterLastCompletedPage() throws InterruptedException {
+        // As left by a restart: the in-app channel had written the first 5 users, the other channels had finished
+        UUID jobId = UUID.randomUUID();
+        jobs.put(jobId, BroadcastJob.builder().id(jobId).title("Storm warning").content("Stay indoors")
+                .status(BroadcastStatus.RUNNING).createdAt(Instant.now()).startedAt(Instant.now()).build());
+        channel(jobId, BroadcastChannel.IN_APP, 12, 5, users.get(4), false);
+        channel(jobId, BroadcastChannel.EMAIL, 10, 10, users.get(11), true);
+        channel(jobId, BroadcastChannel.SMS, 4, 4, users.get(9), true);
+
+        broadcaster.resumeUnfinished();
+        BroadcastJobResponse job = awaitFinished(jobId);
+
+        assertEquals(BroadcastStatus.COMPLETED, job.getStatus());
+        assertProgress(job, BroadcastChannel.IN_APP, 12, 12, 0);
+        List<UUID> recipients = jdbcTemplate.queryForList("SELECT user_id FROM notifications", UUID.class);
+        assertEquals(7, recipients.size());
+        assertTrue(recipients.containsAll(users.subList(5, 12)));
+        verifyNoInteractions(emailService, smsService);
+    }
+
+    @Test
+    public void testLongTitleIsCutToNotificationColumn() throws InterruptedException {
+        BroadcastJobResponse submitted = broadcaster.submit("x".repeat(200), "Title fills the whole column", null);
+
+        BroadcastJobResponse job = awaitFinished(UUID.fromString(submitted.getJobId()));
+
+        assertEquals(BroadcastStatus.COMPLETED, job.getStatus());
+        assertProgress(job, BroadcastChannel.IN_APP, 12, 12, 0);
+        assertEquals(200, jdbcTemplate.queryForObject("SELECT MAX(LENGTH(title)) FROM notifications", Integer.class));
+    }
+
+    @Test
+    public void testFailedInAppPagesAreCountedAndOtherChannelsCarryOn() throws InterruptedException {
+        jdbcTemplate.execute("DROP TABLE notifications");
+
+        BroadcastJobResponse submitted = broadcaster.submit("Outage", "Notifications table is gone", null);
+        BroadcastJobResponse job = awaitFinished(UUID.fromString(submitted.getJobId()));
+
+        assertEquals(BroadcastStatus.COMPLETED, job.getStatus());
+        assertProgress(job, BroadcastChannel.IN_APP, 12, 0, 12);
+        assertProgress(job, BroadcastChannel.SMS, 4, 4, 0);
+    }
+
+    private BroadcastJobResponse awaitFinished(UUID jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BroadcastJobResponse job = broadcaster.getJob(jobId).orElseThrow();
+            if (job.getStatus() == BroadcastStatus.COMPLETED || job.getStatus() == BroadcastStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Broadcast " + jobId + " did not finish");
+        return null;
+    }
+
+    private static void assertProgress(BroadcastJobResponse job, BroadcastChannel channel, long total, long sent, long failed) {
+        BroadcastJobResponse.ChannelProgress progress = job.getChannels().stream()
+                .filter(candidate -> candidate.getChannel() == channel)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(total, progress.getTotal(), channel + " total");
+        assertEquals(sent, progress.getSent(), channel + " sent");
+        assertEquals(failed, progress.getFailed(), channel + " failed");
+        assertTrue(progress.isDone());
+        assertEquals(100.0, progress.getPercent());
+    }
+
+    private void channel(UUID jobId, BroadcastChannel channel, long total, long sent, UUID lastUserId, boolean done) {
+        UUID id = UUID.randomUUID();
+        channels.put(id, BroadcastJobChannel.builder().id(id).jobId(jobId).channel(channel)
+                .total(total).sent(sent).lastUserId(lastUserId).done(done).build());
+    }
+
+    private ExecutorService executor(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        executors.add(executor);
+        return executor;
+    }
+
+    private BroadcastJobRepository jobRepository() {
+        BroadcastJobRepository repository = mock(BroadcastJobRepository.class);
+        when(repository.save(any(BroadcastJob.class))).thenAnswer(invocation -> {
+            BroadcastJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<UUID>getArgument(0))));
+        when(repository.findByStatusInOrderByCreatedAtAsc(any())).thenAnswer(invocation -> {
+            Collection<BroadcastStatus> statuses = invocation.getArgument(0);
+            return jobs.values().stream().filter(job -> statuses.contains(job.getStatus())).collect(Collectors.toList());
+        });
+        return repository;
+    }
+
+    private BroadcastJobChannelRepository channelRepository() {
+        BroadcastJobChannelRepository repository = mock(BroadcastJobChannelRepository.class);
+        when(repository.save(any(BroadcastJobChannel.class))).thenAnswer(invocation -> {
+            BroadcastJobChannel channel = invocation.getArgument(0);
+            channels.put(channel.getId(), channel);
+            return channel;
+        });
+        when(repository.findByJobId(any(UUID.class))).thenAnswer(invocation -> channels.values().stream()
+                .filter(channel -> channel.getJobId().equals(invocation.getArgument(0)))
+                .collect(Collectors.toList()));
+        return repository;
+    }
+}
@@ -0,0 +1,161 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationCatchUpResponse;
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import com.crimeprevention.crime_backend.core.model.notification.Notification;
+import com.crimeprevention.crime_backend.core.notification.NotificationCursor;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import com.crimeprevention.crime_backend.core.repo.notification.NotificationRepository;
+import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
+import com.crimeprevention.crime_backend.core.service.impl.NotificationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs catch-up paging against a repository that answers from the notifications committed so far
+ */
+public class NotificationCatchUpTest {
+
+    private static final Comparator<Notification> CURSOR_ORDER =
+            Comparator.comparing(Notification::getCreatedAt).thenComparing(Notification::getId);
+
+    private final UUID userId = UUID.randomUUID();
+    private final List<Notification> committed = new ArrayList<>();
+
+    private NotificationServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        when(repository.findByUserIdAfterCursor(eq(userId), any(), any(), any())).thenAnswer(invocation -> {
+            Instant createdAt = invocation.getArgument(1);
+            UUID id = invocation.getArgument(2);
+            return committed.stream()
+                    .filter(n -> n.getCreatedAt().isAfter(createdAt)
+                            || (n.getCreatedAt().equals(createdAt) && n.getId().compareTo(id) > 0))
+                    .sorted(CURSOR_ORDER)
+                    .limit(invocation.<Pageable>getArgument(3).getPageSize())
+                    .collect(Collectors.toList());
+        });
+        when(repository.findByUserIdBeforeCursorSince(eq(userId), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Instant from = invocation.getArgument(1);
+            Instant createdAt = invocation.getArgument(2);
+            UUID id = invocation.getArgument(3);
+            return committed.stream()
+                    .filter(n -> !n.getCreatedAt().isBefore(from))
+                    .filter(n -> n.getCreatedAt().isBefore(createdAt)
+                            || (n.getCreatedAt().equals(createdAt) && n.getId().compareTo(id) < 0))
+                    .sorted(CURSOR_ORDER.reversed())
+                    .limit(invocation.<Pageable>getArgument(4).getPageSize())
+                    .collect(Collectors.toList());
+        });
+
+        service = new NotificationServiceImpl(repository, mock(UserRepository.class),
+                mock(UnreadNotificationCounters.class), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "catchUpOverlapMs", 10000L);
+    }
+
+    @Test
+    public void testPageCommittedAfterNewerNotificationIsNotMissed() {
+        Instant t0 = Instant.parse("2026-10-17T08:00:00Z");
+        Notification earlier = commit(t0);
+        // A fan-out page is stamped at T1 but its transaction is still open...
+        Instant t1 = t0.plusSeconds(1);
+        // ...when a single notification stamped at T2 commits and is pushed
+        Notification pushed = commit(t1.plusMillis(200));
+        String clientCursor = NotificationCursor.encode(pushed.getCreatedAt(), pushed.getId());
+        List<Notification> page = List.of(commit(t1), commit(t1));
+
+        NotificationCatchUpResponse response = service.getNotificationsSince(userId, clientCursor, 50);
+
+        Set<UUID> received = response.getNotifications().stream()
+                .map(NotificationResponse::getId)
+                .collect(Collectors.toSet());
+        assertTrue(received.containsAll(page.stream().map(Notification::getId).collect(Collectors.toList())));
+        assertTrue(received.contains(earlier.getId()));
+        assertFalse(received.contains(pushed.getId()));
+        assertEquals(clientCursor, response.getNextCursor());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    public void testPagingAdvancesPastRepeatedOverlap() {
+        Instant t0 = Instant.parse("2026-10-17T08:00:00Z");
+        Set<UUID> all = new HashSet<>();
+        for (int i = 0; i < 9; i++) {
+            // All within one overlap window, so every page repeats the previous ones
+            all.add(commit(t0.plusMillis(i)).getId());
+        }
+
+        Set<UUID> received = new HashSet<>();
+        String cursor = NotificationCursor.encode(t0.minusSeconds(60), new UUID(0, 0));
+        NotificationCatchUpResponse response;
+        int pages = 0;
+        do {
+            response = service.getNotificationsSince(userId, cursor, 2);
+            response.getNotifications().forEach(notification -> received.add(notification.getId()));
+            cursor = response.getNextCursor();
+            pages++;
+        } while (response.isHasMore() && pages < 20);
+
+        assertEquals(5, pages);
+        assertEquals(all, received);
+    }
+
+    @Test
+    public void testFirstConnectWithoutCursorGetsRecentOverlap() {
+        Instant now = NotificationCursor.now();
+        Notification old = commit(now.minusSeconds(60));
+        Notification recent = commit(now.minusSeconds(2));
+
+        NotificationCatchUpResponse response = service.getNotificationsSince(userId, null, 50);
+
+        assertEquals(List.of(recent.getId()), response.getNotifications().stream()
+                .map(NotificationResponse::getId)
+                .collect(Collectors.toList()));
+        assertFalse(response.isHasMore());
+
+        // The returned cursor picks up what is created afterwards, without the old notification
+        Notification next = commit(NotificationCursor.now().plusSeconds(1));
+        Set<UUID> received = service.getNotificationsSince(userId, response.getNextCursor(), 50).getNotifications()
+                .stream()
+                .map(NotificationResponse::getId)
+                .collect(Collectors.toSet());
+        assertTrue(received.contains(next.getId()));
+        assertFalse(received.contains(old.getId()));
+    }
+
+    private Notification commit(Instant createdAt) {
+        Notification notification = Notification.builder()
+                .id(UUID.randomUUID())
+                .type(NotificationType.SYSTEM_ALERT)
+                .title("Alert")
+                .message("Alert")
+                .priority(NotificationPriority.NORMAL)
+                .build();
+        notification.setCreatedAt(createdAt);
+        notification.setUpdatedAt(createdAt);
+        committed.add(notification);
+        return notification;
+    }
+}
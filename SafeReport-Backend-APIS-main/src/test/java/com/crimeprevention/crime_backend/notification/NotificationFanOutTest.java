@@ -0,0 +1,138 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.event.NotificationFanOutEvent;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationPriority;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import com.crimeprevention.crime_backend.core.notification.NotificationContent;
+import com.crimeprevention.crime_backend.core.notification.NotificationFanOut;
+import com.crimeprevention.crime_backend.core.notification.NotificationPusher;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs fan-outs against an in-memory H2 copy of the users and notifications tables
+ */
+public class NotificationFanOutTest {
+
+    private final List<UUID> officers = new ArrayList<>();
+    private final List<UUID> civilians = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationFanOut fanOut;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:fanout-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, role VARCHAR(20), is_active BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE notifications (id UUID PRIMARY KEY, user_id UUID NOT NULL REFERENCES users(id), "
+                + "type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, message TEXT NOT NULL, is_read BOOLEAN NOT NULL, "
+                + "read_at TIMESTAMP, action_url VARCHAR(255), related_entity_type VARCHAR(255), related_entity_id UUID, "
+                + "priority VARCHAR(20) NOT NULL, expires_at TIMESTAMP, metadata TEXT, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        for (int i = 0; i < 23; i++) {
+            officers.add(user(i % 5 == 0 ? UserRole.ADMIN : UserRole.OFFICER, true));
+        }
+        user(UserRole.OFFICER, false);
+        for (int i = 0; i < 4; i++) {
+            civilians.add(user(UserRole.CIVILIAN, true));
+        }
+
+        meterRegistry = new SimpleMeterRegistry();
+        fanOut = new NotificationFanOut(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), mock(UnreadNotificationCounters.class),
+                mock(NotificationPusher.class), meterRegistry);
+        ReflectionTestUtils.setField(fanOut, "batchSize", 5);
+        ReflectionTestUtils.invokeMethod(fanOut, "init");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testRoleFanOutReachesEveryActiveUserOnceAcrossPages() {
+        int written = fanOut.fanOut(NotificationFanOutEvent.toActiveUsersWithRoles(
+                List.of(UserRole.OFFICER, UserRole.ADMIN), content()));
+
+        assertEquals(23, written);
+        List<UUID> recipients = jdbcTemplate.queryForList("SELECT user_id FROM notifications", UUID.class);
+        assertEquals(23, recipients.size());
+        assertTrue(recipients.containsAll(officers));
+        // 23 recipients in pages of 5
+        assertEquals(5, meterRegistry.get("notifications.fanout.batch").timer().count());
+        assertEquals(23.0, meterRegistry.get("notifications.fanout.rows").counter().count());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM notifications WHERE user_id = ?", officers.get(0));
+        assertEquals("PREDICTIVE_ALERT", row.get("TYPE"));
+        assertEquals("HIGH", row.get("PRIORITY"));
+        assertEquals(false, row.get("IS_READ"));
+        assertNotNull(row.get("CREATED_AT"));
+        assertNull(row.get("RELATED_ENTITY_ID"));
+    }
+
+    @Test
+    public void testExplicitRecipientsSkipUnknownAndDuplicateUsers() {
+        List<UUID> recipients = new ArrayList<>(civilians);
+        recipients.add(UUID.randomUUID());
+        recipients.add(civilians.get(0));
+        recipients.addAll(officers.subList(0, 3));
+
+        int written = fanOut.fanOut(NotificationFanOutEvent.toUsers(recipients, content()));
+
+        assertEquals(7, written);
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM notifications", Integer.class));
+    }
+
+    @Test
+    public void testFailedPageIsSkipped() {
+        NotificationContent tooLong = NotificationContent.builder()
+                .type(NotificationType.SYSTEM_ALERT)
+                .title("x".repeat(300))
+                .message("Broken")
+                .build();
+
+        int written = fanOut.fanOut(NotificationFanOutEvent.toUsers(civilians, tooLong));
+
+        assertEquals(0, written);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Integer.class));
+        assertEquals(1.0, meterRegistry.get("notifications.fanout.failures").counter().count());
+    }
+
+    private NotificationContent content() {
+        return NotificationContent.builder()
+                .type(NotificationType.PREDICTIVE_ALERT)
+                .title("Crime Prediction Alert")
+                .message("Theft predicted in Kicukiro")
+                .priority(NotificationPriority.HIGH)
+                .actionUrl("/ai/predictions")
+                .relatedEntityType("AI_SYSTEM")
+                .build();
+    }
+
+    private UUID user(UserRole role, boolean active) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, role, is_active) VALUES (?, ?, ?)", id, role.name(), active);
+        return id;
+    }
+}
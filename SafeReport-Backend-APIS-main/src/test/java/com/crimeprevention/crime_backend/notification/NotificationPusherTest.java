@@ -0,0 +1,196 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationPush;
+import com.crimeprevention.crime_backend.core.dto.notification.NotificationResponse;
+import com.crimeprevention.crime_backend.core.event.NotificationCreatedEvent;
+import com.crimeprevention.crime_backend.core.event.NotificationFanOutEvent;
+import com.crimeprevention.crime_backend.core.model.enums.NotificationType;
+import com.crimeprevention.crime_backend.core.notification.NotificationContent;
+import com.crimeprevention.crime_backend.core.notification.NotificationCursor;
+import com.crimeprevention.crime_backend.core.notification.NotificationFanOut;
+import com.crimeprevention.crime_backend.core.notification.NotificationPusher;
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs pushes against an in-memory H2 notifications table, with a mocked broker and session registry
+ */
+public class NotificationPusherTest {
+
+    private final List<UUID> users = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpMessagingTemplate messagingTemplate;
+    private SimpUserRegistry userRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadNotificationCounters counters;
+    private NotificationPusher pusher;
+    private NotificationFanOut fanOut;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:push-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, role VARCHAR(20), is_active BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE notifications (id UUID PRIMARY KEY, user_id UUID NOT NULL REFERENCES users(id), "
+                + "type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, message TEXT NOT NULL, is_read BOOLEAN NOT NULL, "
+                + "read_at TIMESTAMP, action_url VARCHAR(255), related_entity_type VARCHAR(255), related_entity_id UUID, "
+                + "priority VARCHAR(20) NOT NULL, expires_at TIMESTAMP, metadata TEXT, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE notification_counters (user_id UUID PRIMARY KEY, unread_count BIGINT NOT NULL)");
+        for (int i = 0; i < 6; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO users (id, role, is_active) VALUES (?, 'CIVILIAN', true)", id);
+            users.add(id);
+        }
+
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        userRegistry = mock(SimpUserRegistry.class);
+        meterRegistry = new SimpleMeterRegistry();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        counters = new UnreadNotificationCounters(jdbcTemplate, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.invokeMethod(counters, "init");
+        pusher = new NotificationPusher(messagingTemplate, userRegistry, counters, meterRegistry);
+        ReflectionTestUtils.invokeMethod(pusher, "init");
+
+        fanOut = new NotificationFanOut(jdbcTemplate, transactionTemplate, counters, pusher, meterRegistry);
+        ReflectionTestUtils.setField(fanOut, "batchSize", 4);
+        ReflectionTestUtils.invokeMethod(fanOut, "init");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testCreatedNotificationIsPushedWithUnreadCount() {
+        UUID userId = users.get(0);
+        connect(userId);
+        insert(userId, false);
+        insert(userId, true);
+        NotificationResponse created = NotificationResponse.builder().id(insert(userId, false)).title("Case Assigned").build();
+
+        pusher.onNotificationCreated(new NotificationCreatedEvent(userId, created));
+
+        NotificationPush push = pushedTo(userId);
+        assertSame(created, push.getNotification());
+        assertEquals(2, push.getUnreadCount());
+        assertEquals(1.0, meterRegistry.get("notifications.pushes").counter().count());
+    }
+
+    @Test
+    public void testOfflineUserIsNotPushedOrCounted() {
+        UnreadNotificationCounters spiedCounters = spy(counters);
+        pusher = new NotificationPusher(messagingTemplate, userRegistry, spiedCounters, meterRegistry);
+        ReflectionTestUtils.invokeMethod(pusher, "init");
+
+        pusher.onNotificationCreated(new NotificationCreatedEvent(users.get(1),
+                NotificationResponse.builder().id(UUID.randomUUID()).build()));
+
+        verifyNoInteractions(messagingTemplate, spiedCounters);
+    }
+
+    @Test
+    public void testFanOutPagesPushOnlyToConnectedUsers() {
+        connect(users.get(1));
+        connect(users.get(4));
+        insert(users.get(4), false);
+
+        int written = fanOut.fanOut(NotificationFanOutEvent.toUsers(users, NotificationContent.builder()
+                .type(NotificationType.SYSTEM_ALERT)
+                .title("Road closure")
+                .message("Main street is closed today")
+                .build()));
+
+        assertEquals(6, written);
+        NotificationPush first = pushedTo(users.get(1));
+        NotificationPush second = pushedTo(users.get(4));
+        verifyNoMoreInteractions(messagingTemplate);
+        assertEquals(1, first.getUnreadCount());
+        assertEquals(2, second.getUnreadCount());
+
+        // The pushed notification is the written row, and its cursor points at it
+        NotificationResponse notification = first.getNotification();
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM notifications WHERE id = ?", notification.getId());
+        assertEquals(users.get(1), row.get("USER_ID"));
+        assertEquals("Road closure", notification.getTitle());
+        assertFalse(notification.isRead());
+        NotificationCursor cursor = NotificationCursor.decode(notification.getCursor());
+        assertEquals(notification.getId(), cursor.getId());
+        assertEquals(((Timestamp) row.get("CREATED_AT")).toInstant(), cursor.getCreatedAt());
+    }
+
+    @Test
+    public void testFailedPushIsCountedAndOthersProceed() {
+        connect(users.get(0));
+        connect(users.get(1));
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .when(messagingTemplate).convertAndSendToUser(eq(users.get(0).toString()), anyString(), any());
+
+        fanOut.fanOut(NotificationFanOutEvent.toUsers(users.subList(0, 2), NotificationContent.builder()
+                .type(NotificationType.SYSTEM_ALERT)
+                .title("Maintenance")
+                .message("Tonight")
+                .build()));
+
+        assertEquals(1.0, meterRegistry.get("notifications.pushes").counter().count());
+        assertEquals(1.0, meterRegistry.get("notifications.push.failures").counter().count());
+    }
+
+    @Test
+    public void testCursorRoundTripsAndRejectsGarbage() {
+        Instant createdAt = NotificationCursor.now();
+        UUID id = UUID.randomUUID();
+
+        NotificationCursor cursor = NotificationCursor.decode(NotificationCursor.encode(createdAt, id));
+
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(id, cursor.getId());
+        assertThrows(IllegalArgumentException.class, () -> NotificationCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    private void connect(UUID userId) {
+        when(userRegistry.getUser(userId.toString())).thenReturn(mock(SimpUser.class));
+    }
+
+    private UUID insert(UUID userId, boolean read) {
+        UUID id = UUID.randomUUID();
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO notifications (id, user_id, type, title, message, is_read, priority, created_at, updated_at) "
+                + "VALUES (?, ?, 'SYSTEM_ALERT', 'Earlier', 'Earlier', ?, 'NORMAL', ?, ?)", id, userId, read, now, now);
+        return id;
+    }
+
+    private NotificationPush pushedTo(UUID userId) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(userId.toString()), eq("/queue/notifications"), payload.capture());
+        return (NotificationPush) payload.getValue();
+    }
+}
@@ -0,0 +1,150 @@
+package com.crimeprevention.crime_backend.notification;
+
+import com.crimeprevention.crime_backend.core.notification.UnreadNotificationCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the unread counters against an in-memory H2 copy of the users, notifications and counter tables
+ */
+public class UnreadNotificationCountersTest {
+
+    private final List<UUID> users = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadNotificationCounters counters;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:counters-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE notifications (id UUID PRIMARY KEY, user_id UUID NOT NULL, "
+                + "type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, message TEXT NOT NULL, is_read BOOLEAN NOT NULL, "
+                + "priority VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE notification_counters (user_id UUID PRIMARY KEY, unread_count BIGINT NOT NULL)");
+        for (int i = 0; i < 7; i++) {
+            users.add(UUID.randomUUID());
+            jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", users.get(i));
+        }
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        meterRegistry = new SimpleMeterRegistry();
+        counters = new UnreadNotificationCounters(jdbcTemplate, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(counters, "sweepBatchSize", 3);
+        ReflectionTestUtils.invokeMethod(counters, "init");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testFirstLookupSeedsFromNotificationsThenReadsRow() {
+        UUID userId = users.get(0);
+        insert(userId, false, 3);
+        insert(userId, true, 2);
+        // Before the row exists adjustments are covered by the seed
+        counters.adjust(userId, 1);
+
+        assertEquals(3, counters.unreadCount(userId));
+        assertEquals(1.0, meterRegistry.get("notifications.counters.seeded").counter().count());
+
+        // From now on the row is the count, not the notifications
+        counters.adjust(userId, 1);
+        counters.increment(List.of(userId));
+        counters.adjust(userId, -1);
+        assertEquals(4, counters.unreadCount(userId));
+        assertEquals(1.0, meterRegistry.get("notifications.counters.seeded").counter().count());
+    }
+
+    @Test
+    public void testUsersWithoutNotificationsAreSeededWithZero() {
+        Map<UUID, Long> counts = counters.unreadCounts(users.subList(0, 3));
+
+        assertEquals(Map.of(users.get(0), 0L, users.get(1), 0L, users.get(2), 0L), counts);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_counters", Integer.class));
+    }
+
+    @Test
+    public void testAdjustmentsRollBackWithCallerTransaction() {
+        UUID userId = users.get(0);
+        counters.unreadCount(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            counters.increment(List.of(userId));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> counters.adjust(userId, 2));
+
+        assertEquals(2, counters.unreadCount(userId));
+    }
+
+    @Test
+    public void testSweepCorrectsDriftAcrossPages() {
+        for (UUID userId : users) {
+            insert(userId, false, 2);
+            counters.unreadCount(userId);
+        }
+        // Drift from writes that bypassed the counters
+        insert(users.get(1), false, 3);
+        jdbcTemplate.update("UPDATE notifications SET is_read = true WHERE user_id = ?", users.get(5));
+        counters.adjust(users.get(6), 4);
+
+        assertEquals(3, counters.sweep());
+
+        assertEquals(5, counters.unreadCount(users.get(1)));
+        assertEquals(0, counters.unreadCount(users.get(5)));
+        assertEquals(2, counters.unreadCount(users.get(6)));
+        assertEquals(2, counters.unreadCount(users.get(0)));
+        assertEquals(3.0, meterRegistry.get("notifications.counters.drift").counter().count());
+        assertEquals(0, counters.sweep());
+    }
+
+    @Test
+    public void testSweepDeletesCountersOfDeletedUsers() {
+        for (UUID userId : users) {
+            insert(userId, false, 1);
+            counters.unreadCount(userId);
+        }
+        UUID deleted = users.get(4);
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", deleted);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", deleted);
+
+        // Removing a row is not counted as a correction
+        assertEquals(0, counters.sweep());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_counters WHERE user_id = ?", Integer.class, deleted));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_counters", Integer.class));
+        assertEquals(1.0, meterRegistry.get("notifications.counters.orphaned").counter().count());
+    }
+
+    private void insert(UUID userId, boolean read, int count) {
+        for (int i = 0; i < count; i++) {
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.update("INSERT INTO notifications (id, user_id, type, title, message, is_read, priority, created_at, updated_at) "
+                    + "VALUES (?, ?, 'SYSTEM_ALERT', 'Alert', 'Alert', ?, 'NORMAL', ?, ?)", UUID.randomUUID(), userId, read, now, now);
+        }
+    }
+}
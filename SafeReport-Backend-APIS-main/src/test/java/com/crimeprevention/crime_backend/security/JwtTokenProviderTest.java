@@ -0,0 +1,67 @@
+package com.crimeprevention.crime_backend.security;
+
+import com.crimeprevention.crime_backend.core.util.JwtClaims;
+import com.crimeprevention.crime_backend.core.util.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        provider = provider("test-secret-jwt-key-for-testing-purposes-only-at-least-256-bits", 3_600_000L);
+    }
+
+    @Test
+    public void testVerifyReturnsClaimsAndCachesThem() {
+        UUID userId = UUID.randomUUID();
+        Instant before = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String token = provider.generateToken(userId, "CIVILIAN");
+
+        Optional<JwtClaims> first = provider.verify(token);
+        assertTrue(first.isPresent());
+        assertEquals(userId, first.get().getUserId());
+        assertEquals("CIVILIAN", first.get().getRole());
+        assertFalse(first.get().getIssuedAt().isBefore(before));
+        assertFalse(first.get().getIssuedAt().isAfter(Instant.now()));
+        assertSame(first.get(), provider.verify(token).orElseThrow());
+    }
+
+    @Test
+    public void testRejectsTamperedForeignAndExpiredTokens() {
+        String token = provider.generateToken(UUID.randomUUID(), "ADMIN");
+        provider.verify(token);
+
+        // Flip a character of the signature; the cache is keyed by the whole token
+        char last = token.charAt(token.length() - 2);
+        String tampered = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+        assertTrue(provider.verify(tampered).isEmpty());
+
+        JwtTokenProvider other = provider("another-secret-jwt-key-for-testing-purposes-only-at-least-256", 3_600_000L);
+        assertTrue(provider.verify(other.generateToken(UUID.randomUUID(), "ADMIN")).isEmpty());
+
+        JwtTokenProvider expiring = provider("test-secret-jwt-key-for-testing-purposes-only-at-least-256-bits", -1_000L);
+        assertTrue(provider.verify(expiring.generateToken(UUID.randomUUID(), "ADMIN")).isEmpty());
+        assertTrue(provider.verify("not-a-token").isEmpty());
+    }
+
+    private static JwtTokenProvider provider(String secret, long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxTtlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,95 @@
+package com.crimeprevention.crime_backend.security;
+
+import com.crimeprevention.crime_backend.core.event.UserChangedEvent;
+import com.crimeprevention.crime_backend.core.model.enums.UserRole;
+import com.crimeprevention.crime_backend.core.model.user.User;
+import com.crimeprevention.crime_backend.core.repo.user.UserRepository;
+import com.crimeprevention.crime_backend.core.security.AuthenticatedPrincipal;
+import com.crimeprevention.crime_backend.core.security.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PrincipalCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PrincipalCache(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    public void testRepeatedLookupsHitTheDatabaseOnceUntilTheUserChanges() {
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(user(UserRole.CIVILIAN, true)))
+                .thenReturn(Optional.of(user(UserRole.OFFICER, false)));
+
+        for (int i = 0; i < 5; i++) {
+            AuthenticatedPrincipal principal = cache.get(userId);
+            assertEquals(UserRole.CIVILIAN, principal.getRole());
+            assertEquals("ROLE_CIVILIAN", principal.getAuthorities().get(0).getAuthority());
+        }
+        verify(userRepository, times(1)).findById(userId);
+        assertEquals(0.8, meterRegistry.get("auth.principals.hit.ratio").gauge().value(), 1e-9);
+
+        cache.onUserChanged(new UserChangedEvent(userId));
+
+        AuthenticatedPrincipal reloaded = cache.get(userId);
+        assertEquals(UserRole.OFFICER, reloaded.getRole());
+        assertFalse(reloaded.isEnabled());
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    public void testUnknownUserIsNotCached() {
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.get(userId));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get(userId));
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    public void testTokensIssuedBeforeThePasswordChangeAreRefused() {
+        User user = user(UserRole.CIVILIAN, true);
+        Instant changedAt = Instant.parse("2026-03-01T10:15:30.750Z");
+        user.setPasswordChangedAt(changedAt);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        AuthenticatedPrincipal principal = cache.get(userId);
+
+        assertFalse(principal.acceptsTokenIssuedAt(changedAt.minusSeconds(60)));
+        assertFalse(principal.acceptsTokenIssuedAt(null));
+        // iat has whole seconds: a token from the login right after the change carries 10:15:30
+        assertTrue(principal.acceptsTokenIssuedAt(Instant.parse("2026-03-01T10:15:30Z")));
+        assertTrue(principal.acceptsTokenIssuedAt(changedAt.plusSeconds(60)));
+
+        User neverChanged = user(UserRole.CIVILIAN, true);
+        assertTrue(AuthenticatedPrincipal.from(neverChanged).acceptsTokenIssuedAt(null));
+    }
+
+    private User user(UserRole role, boolean enabled) {
+        User user = User.builder().role(role).enabled(enabled).build();
+        user.setId(userId);
+        return user;
+    }
+}